@@ -0,0 +1,52 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.api.internal;
+
+import io.opentelemetry.api.trace.SpanContext;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The value-based equality that every {@link SpanContext} implementation must follow, so that
+ * contexts with the same values are equal whichever implementation created them.
+ */
+@Immutable
+public final class SpanContextEquality {
+
+  private SpanContextEquality() {}
+
+  /**
+   * Returns whether {@code o} is a {@link SpanContext} with the same trace and span identifiers,
+   * trace flags, trace state and remote flag as {@code spanContext}.
+   */
+  public static boolean equals(SpanContext spanContext, @Nullable Object o) {
+    if (o == spanContext) {
+      return true;
+    }
+    if (!(o instanceof SpanContext)) {
+      return false;
+    }
+    SpanContext that = (SpanContext) o;
+    return spanContext.getTraceIdHighBytesAsLong() == that.getTraceIdHighBytesAsLong()
+        && spanContext.getTraceIdLowBytesAsLong() == that.getTraceIdLowBytesAsLong()
+        && spanContext.getSpanIdAsLong() == that.getSpanIdAsLong()
+        && spanContext.getTraceFlags() == that.getTraceFlags()
+        && spanContext.isRemote() == that.isRemote()
+        && spanContext.getTraceState().equals(that.getTraceState());
+  }
+
+  /** Returns the hash code of {@code spanContext}, computed from the binary identifiers. */
+  public static int hashCode(SpanContext spanContext) {
+    int h = 1;
+    h = 31 * h + Long.hashCode(spanContext.getTraceIdHighBytesAsLong());
+    h = 31 * h + Long.hashCode(spanContext.getTraceIdLowBytesAsLong());
+    h = 31 * h + Long.hashCode(spanContext.getSpanIdAsLong());
+    h = 31 * h + spanContext.getTraceFlags();
+    h = 31 * h + (spanContext.isRemote() ? 1231 : 1237);
+    h = 31 * h + spanContext.getTraceState().hashCode();
+    return h;
+  }
+}
@@ -7,6 +7,7 @@ package io.opentelemetry.api.trace;
 
 import com.google.auto.value.AutoValue;
 import com.google.auto.value.extension.memoized.Memoized;
+import io.opentelemetry.api.internal.SpanContextEquality;
 import javax.annotation.concurrent.Immutable;
 
 @Immutable
@@ -48,4 +49,23 @@ abstract class ImmutableSpanContext implements SpanContext {
   public boolean isValid() {
     return SpanContext.super.isValid();
   }
+
+  @Override
+  public final boolean equals(Object o) {
+    if (o instanceof ImmutableSpanContext) {
+      ImmutableSpanContext that = (ImmutableSpanContext) o;
+      return getTraceIdAsHexString().equals(that.getTraceIdAsHexString())
+          && getSpanIdAsHexString().equals(that.getSpanIdAsHexString())
+          && getTraceFlags() == that.getTraceFlags()
+          && isRemote() == that.isRemote()
+          && getTraceState().equals(that.getTraceState());
+    }
+    return SpanContextEquality.equals(this, o);
+  }
+
+  @Override
+  @Memoized
+  public int hashCode() {
+    return SpanContextEquality.hashCode(this);
+  }
 }
@@ -15,11 +15,14 @@ import javax.annotation.concurrent.Immutable;
  * traceState} and the {@link boolean remote} flag.
  *
  * <p>Implementations of this interface *must* be immutable and have well-defined value-based
- * equals/hashCode implementations. If an implementation does not strictly conform to these
- * requirements, behavior of the OpenTelemetry APIs and default SDK cannot be guaranteed. It is
- * strongly suggested that you use the implementation that is provided here via {@link
- * #create(String, String, byte, TraceState)} or {@link #createFromRemoteParent(String, String,
- * byte, TraceState)}.
+ * equals/hashCode implementations: a {@code SpanContext} is equal to any other {@code SpanContext},
+ * whatever its implementation, with the same trace and span identifiers, trace flags, trace state
+ * and remote flag, and its hash code is computed from the identifiers as {@code long} values, the
+ * flags, the remote flag and the trace state, in that order, like {@link
+ * java.util.List#hashCode()}. If an implementation does not strictly conform to these requirements,
+ * behavior of the OpenTelemetry APIs and default SDK cannot be guaranteed. It is strongly suggested
+ * that you use the implementation that is provided here via {@link #create(String, String, byte,
+ * TraceState)} or {@link #createFromRemoteParent(String, String, byte, TraceState)}.
  */
 @Immutable
 public interface SpanContext {
@@ -79,6 +82,28 @@ public interface SpanContext {
     return TraceId.bytesFromHex(getTraceIdAsHexString(), 0);
   }
 
+  /**
+   * Returns the higher 8 bytes of the trace identifier associated with this {@code SpanContext} as
+   * a long value.
+   *
+   * <p>Implementations that store the identifier in binary form should override this method to
+   * avoid parsing the base16 representation.
+   */
+  default long getTraceIdHighBytesAsLong() {
+    return TraceId.traceIdHighBytesAsLong(getTraceIdAsHexString());
+  }
+
+  /**
+   * Returns the lower 8 bytes of the trace identifier associated with this {@code SpanContext} as a
+   * long value.
+   *
+   * <p>Implementations that store the identifier in binary form should override this method to
+   * avoid parsing the base16 representation.
+   */
+  default long getTraceIdLowBytesAsLong() {
+    return TraceId.traceIdLowBytesAsLong(getTraceIdAsHexString());
+  }
+
   /**
    * Returns the span identifier associated with this {@code SpanContext}.
    *
@@ -94,6 +119,16 @@ public interface SpanContext {
     return SpanId.bytesFromHex(getSpanIdAsHexString(), 0);
   }
 
+  /**
+   * Returns the span identifier associated with this {@code SpanContext} as a long value.
+   *
+   * <p>Implementations that store the identifier in binary form should override this method to
+   * avoid parsing the base16 representation.
+   */
+  default long getSpanIdAsLong() {
+    return SpanId.asLong(getSpanIdAsHexString());
+  }
+
   /** Whether the span in this context is sampled. */
   default boolean isSampled() {
     return (getTraceFlags() & 1) == 1;
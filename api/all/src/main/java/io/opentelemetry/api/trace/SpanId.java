@@ -77,6 +77,20 @@ public final class SpanId {
     return BigendianEncoding.bytesFromBase16(src, srcOffset, HEX_SIZE);
   }
 
+  /**
+   * Returns the big-endian byte representation of the {@code SpanId} specified by the given long
+   * value. This is equivalent to {@code bytesFromHex(fromLong(id), 0)} without going through the
+   * base16 representation.
+   *
+   * @param id the {@code SpanId} as a long value.
+   * @return the 8-byte representation of the {@code SpanId}.
+   */
+  public static byte[] bytesFromLong(long id) {
+    byte[] bytes = new byte[SIZE];
+    BigendianEncoding.longToByteArray(id, bytes, 0);
+    return bytes;
+  }
+
   /**
    * Returns whether the span identifier is valid. A valid span identifier is an 8-byte array with
    * at least one non-zero byte.
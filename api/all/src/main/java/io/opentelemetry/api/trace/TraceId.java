@@ -92,6 +92,22 @@ public final class TraceId {
     return BigendianEncoding.bytesFromBase16(src, srcOffset, HEX_SIZE);
   }
 
+  /**
+   * Returns the big-endian byte representation of the {@code TraceId} specified by two long values
+   * representing the lower and higher parts. This is equivalent to {@code
+   * bytesFromHex(fromLongs(idHi, idLo), 0)} without going through the base16 representation.
+   *
+   * @param idHi the higher part of the {@code TraceId}.
+   * @param idLo the lower part of the {@code TraceId}.
+   * @return the 16-byte representation of the {@code TraceId}.
+   */
+  public static byte[] bytesFromLongs(long idHi, long idLo) {
+    byte[] bytes = new byte[SIZE_IN_BYTES];
+    BigendianEncoding.longToByteArray(idHi, bytes, 0);
+    BigendianEncoding.longToByteArray(idLo, bytes, BigendianEncoding.LONG_BYTES);
+    return bytes;
+  }
+
   /**
    * Copies the lowercase base16 representations of the {@code TraceId} into the {@code dest}
    * beginning at the {@code destOffset} offset.
@@ -72,6 +72,16 @@ class SpanContextTest {
     assertThat(second.getSpanIdAsHexString()).isEqualTo(SECOND_SPAN_ID);
   }
 
+  @Test
+  void getIdsAsLongs() {
+    assertThat(first.getTraceIdHighBytesAsLong()).isEqualTo(0);
+    assertThat(first.getTraceIdLowBytesAsLong()).isEqualTo('a');
+    assertThat(first.getSpanIdAsLong()).isEqualTo('a');
+    assertThat(second.getTraceIdHighBytesAsLong()).isEqualTo('0');
+    assertThat(second.getTraceIdLowBytesAsLong()).isEqualTo(0);
+    assertThat(second.getSpanIdAsLong()).isEqualTo((long) '0' << 56);
+  }
+
   @Test
   void getTraceFlags() {
     assertThat(first.getTraceFlags()).isEqualTo(TraceFlags.getDefault());
@@ -62,6 +62,13 @@ class SpanIdTest {
     }
   }
 
+  @Test
+  void bytesFromLong() {
+    assertThat(SpanId.bytesFromLong(0)).isEqualTo(SpanId.bytesFromHex(SpanId.getInvalid(), 0));
+    assertThat(SpanId.bytesFromLong(0x61)).isEqualTo(firstBytes);
+    assertThat(SpanId.bytesFromLong(0xFF00000000000041L)).isEqualTo(secondBytes);
+  }
+
   @Test
   void size() {
     assertThat(SpanId.getSize()).isEqualTo(8);
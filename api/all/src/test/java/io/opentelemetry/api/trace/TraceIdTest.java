@@ -96,6 +96,14 @@ class TraceIdTest {
     assertThat(TraceId.bytesToHex(secondBytes)).isEqualTo("ff000000000000000000000000000041");
   }
 
+  @Test
+  void bytesFromLongs() {
+    assertThat(TraceId.bytesFromLongs(0, 0))
+        .isEqualTo(TraceId.bytesFromHex(TraceId.getInvalid(), 0));
+    assertThat(TraceId.bytesFromLongs(0, 0x61)).isEqualTo(firstBytes);
+    assertThat(TraceId.bytesFromLongs(0xFF00000000000000L, 0x41)).isEqualTo(secondBytes);
+  }
+
   @Test
   void toAndFromLongs() {
     Random random = new Random();
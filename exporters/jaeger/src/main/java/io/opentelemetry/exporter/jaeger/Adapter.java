@@ -9,13 +9,15 @@ import static io.opentelemetry.api.common.AttributeKey.booleanKey;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.gson.Gson;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Timestamp;
+import com.google.protobuf.UnsafeByteOperations;
 import com.google.protobuf.util.Timestamps;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.exporter.jaeger.proto.api_v2.Model;
-import io.opentelemetry.sdk.extension.otproto.TraceProtoUtils;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.data.SpanData.Event;
 import io.opentelemetry.sdk.trace.data.SpanData.Link;
@@ -63,8 +65,10 @@ final class Adapter {
   static Model.Span toJaeger(SpanData span) {
     Model.Span.Builder target = Model.Span.newBuilder();
 
-    target.setTraceId(TraceProtoUtils.toProtoTraceId(span.getTraceId()));
-    target.setSpanId(TraceProtoUtils.toProtoSpanId(span.getSpanId()));
+    SpanContext spanContext = span.getSpanContext();
+    ByteString traceId = toByteString(spanContext.getTraceIdBytes());
+    target.setTraceId(traceId);
+    target.setSpanId(toByteString(spanContext.getSpanIdBytes()));
     target.setOperationName(span.getName());
     Timestamp startTimestamp = Timestamps.fromNanos(span.getStartEpochNanos());
     target.setStartTime(startTimestamp);
@@ -79,8 +83,8 @@ final class Adapter {
     if (span.getParentSpanContext().isValid()) {
       target.addReferences(
           Model.SpanRef.newBuilder()
-              .setTraceId(TraceProtoUtils.toProtoTraceId(span.getTraceId()))
-              .setSpanId(TraceProtoUtils.toProtoSpanId(span.getParentSpanId()))
+              .setTraceId(traceId)
+              .setSpanId(toByteString(span.getParentSpanContext().getSpanIdBytes()))
               .setRefType(Model.SpanRefType.CHILD_OF));
     }
 
@@ -251,9 +255,8 @@ final class Adapter {
   @VisibleForTesting
   static Model.SpanRef toSpanRef(Link link) {
     Model.SpanRef.Builder builder = Model.SpanRef.newBuilder();
-    builder.setTraceId(
-        TraceProtoUtils.toProtoTraceId(link.getSpanContext().getTraceIdAsHexString()));
-    builder.setSpanId(TraceProtoUtils.toProtoSpanId(link.getSpanContext().getSpanIdAsHexString()));
+    builder.setTraceId(toByteString(link.getSpanContext().getTraceIdBytes()));
+    builder.setSpanId(toByteString(link.getSpanContext().getSpanIdBytes()));
 
     // we can assume that all links are *follows from*
     // https://github.com/open-telemetry/opentelemetry-java/issues/475
@@ -262,4 +265,10 @@ final class Adapter {
 
     return builder.build();
   }
+
+  // Span contexts return identifier arrays that are never modified afterwards, so they are wrapped
+  // rather than copied a second time.
+  private static ByteString toByteString(byte[] id) {
+    return UnsafeByteOperations.unsafeWrap(id);
+  }
 }
@@ -16,9 +16,8 @@ import static io.opentelemetry.proto.trace.v1.Status.DeprecatedStatusCode.DEPREC
 import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.UnknownFieldSet;
 import io.opentelemetry.api.trace.Span.Kind;
-import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.api.trace.StatusCode;
-import io.opentelemetry.api.trace.TraceId;
 import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
 import io.opentelemetry.proto.trace.v1.InstrumentationLibrarySpans;
 import io.opentelemetry.proto.trace.v1.ResourceSpans;
@@ -182,13 +181,15 @@ final class TraceMarshaler {
       SpanLinkMarshaler[] spanLinkMarshalers = SpanLinkMarshaler.create(spanData.getLinks());
 
       byte[] parentSpanId = MarshalerUtil.EMPTY_BYTES;
-      if (spanData.getParentSpanContext().isValid()) {
-        parentSpanId = SpanId.bytesFromHex(spanData.getParentSpanId(), 0);
+      SpanContext parentSpanContext = spanData.getParentSpanContext();
+      if (parentSpanContext.isValid()) {
+        parentSpanId = parentSpanContext.getSpanIdBytes();
       }
 
+      SpanContext spanContext = spanData.getSpanContext();
       return new SpanMarshaler(
-          TraceId.bytesFromHex(spanData.getTraceId(), 0),
-          SpanId.bytesFromHex(spanData.getSpanId(), 0),
+          spanContext.getTraceIdBytes(),
+          spanContext.getSpanIdBytes(),
           parentSpanId,
           MarshalerUtil.toBytes(spanData.getName()),
           toProtoSpanKind(spanData.getKind()).getNumber(),
@@ -9,6 +9,7 @@ import static io.prometheus.client.Collector.doubleToGoString;
 
 import io.opentelemetry.api.common.Labels;
 import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricData.DoubleHistogramPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.DoublePoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.DoubleSummaryPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
@@ -33,7 +34,9 @@ import java.util.function.Function;
  *
  * <p>{@code DoublePoint}, {@code LongPoint} will be converted to a single {@link Sample}. {@code
  * Summary} will be converted to two {@link Sample}s (sum and count) plus the number of Percentile
- * values {@code Sample}s
+ * values {@code Sample}s. {@code Histogram} will be converted to two {@link Sample}s (sum and
+ * count) plus one {@code Sample} per bucket, counting the values less than or equal to its
+ * boundary.
  *
  * <p>Please note that Prometheus Metric and Label name can only have alphanumeric characters and
  * underscore. All other characters will be sanitized by underscores.
@@ -42,7 +45,9 @@ final class MetricAdapter {
 
   static final String SAMPLE_SUFFIX_COUNT = "_count";
   static final String SAMPLE_SUFFIX_SUM = "_sum";
+  static final String SAMPLE_SUFFIX_BUCKET = "_bucket";
   static final String LABEL_NAME_QUANTILE = "quantile";
+  static final String LABEL_NAME_LE = "le";
 
   // Converts a MetricData to a Prometheus MetricFamilySamples.
   static MetricFamilySamples toMetricFamilySamples(MetricData metricData) {
@@ -83,6 +88,8 @@ final class MetricAdapter {
         return Collector.Type.GAUGE;
       case SUMMARY:
         return Collector.Type.SUMMARY;
+      case HISTOGRAM:
+        return Collector.Type.HISTOGRAM;
     }
     return Collector.Type.UNTYPED;
   }
@@ -92,7 +99,7 @@ final class MetricAdapter {
   // Converts a list of points from MetricData to a list of Prometheus Samples.
   static List<Sample> toSamples(
       String name, MetricData.Type type, Collection<? extends Point> points) {
-    final List<Sample> samples = new ArrayList<>(estimateNumSamples(points.size(), type));
+    final List<Sample> samples = new ArrayList<>(estimateNumSamples(points, type));
 
     for (Point point : points) {
       List<String> labelNames = Collections.emptyList();
@@ -119,6 +126,9 @@ final class MetricAdapter {
         case SUMMARY:
           addSummarySamples((DoubleSummaryPoint) point, name, labelNames, labelValues, samples);
           break;
+        case HISTOGRAM:
+          addHistogramSamples((DoubleHistogramPoint) point, name, labelNames, labelValues, samples);
+          break;
       }
     }
     return samples;
@@ -166,11 +176,54 @@ final class MetricAdapter {
     }
   }
 
-  private static int estimateNumSamples(int numPoints, MetricData.Type type) {
+  private static void addHistogramSamples(
+      DoubleHistogramPoint doubleHistogramPoint,
+      String name,
+      List<String> labelNames,
+      List<String> labelValues,
+      List<Sample> samples) {
+    samples.add(
+        new Sample(
+            name + SAMPLE_SUFFIX_COUNT, labelNames, labelValues, doubleHistogramPoint.getCount()));
+    samples.add(
+        new Sample(
+            name + SAMPLE_SUFFIX_SUM, labelNames, labelValues, doubleHistogramPoint.getSum()));
+    List<Double> boundaries = doubleHistogramPoint.getBoundaries();
+    List<Long> counts = doubleHistogramPoint.getCounts();
+    List<String> labelNamesWithLe = new ArrayList<>(labelNames.size() + 1);
+    labelNamesWithLe.addAll(labelNames);
+    labelNamesWithLe.add(LABEL_NAME_LE);
+    // Prometheus buckets are cumulative, the last one counting all the values.
+    long cumulativeCount = 0;
+    for (int i = 0; i < counts.size(); i++) {
+      cumulativeCount += counts.get(i);
+      boolean lastBucket = i >= boundaries.size();
+      if (!lastBucket && boundaries.get(i) == Double.POSITIVE_INFINITY) {
+        // Counted in the last bucket, which is always le="+Inf".
+        continue;
+      }
+      List<String> labelValuesWithLe = new ArrayList<>(labelValues.size() + 1);
+      labelValuesWithLe.addAll(labelValues);
+      labelValuesWithLe.add(
+          doubleToGoString(lastBucket ? Double.POSITIVE_INFINITY : boundaries.get(i)));
+      samples.add(
+          new Sample(
+              name + SAMPLE_SUFFIX_BUCKET, labelNamesWithLe, labelValuesWithLe, cumulativeCount));
+    }
+  }
+
+  private static int estimateNumSamples(Collection<? extends Point> points, MetricData.Type type) {
+    int numPoints = points.size();
     if (type == MetricData.Type.SUMMARY) {
       // count + sum + estimated 2 percentiles (default MinMaxSumCount aggregator).
       return numPoints * 4;
     }
+    if (type == MetricData.Type.HISTOGRAM && numPoints != 0) {
+      // count + sum + a bucket per boundary + the +Inf bucket, the points of a metric having the
+      // same boundaries.
+      int numBoundaries = ((DoubleHistogramPoint) points.iterator().next()).getBoundaries().size();
+      return numPoints * (numBoundaries + 3);
+    }
     return numPoints;
   }
 
@@ -186,6 +239,8 @@ final class MetricAdapter {
         return metricData.getLongSumData().getPoints();
       case SUMMARY:
         return metricData.getDoubleSummaryData().getPoints();
+      case HISTOGRAM:
+        return metricData.getDoubleHistogramData().getPoints();
     }
     return Collections.emptyList();
   }
@@ -151,6 +151,24 @@ class MetricAdapterTest {
               Collections.singletonList(
                   MetricData.DoubleSummaryPoint.create(
                       123, 456, Labels.of("kp", "vp"), 5, 7, Collections.emptyList()))));
+  private static final MetricData HISTOGRAM =
+      MetricData.createDoubleHistogram(
+          Resource.create(Attributes.of(stringKey("kr"), "vr")),
+          InstrumentationLibraryInfo.create("full", "version"),
+          "instrument.name",
+          "description",
+          "1",
+          MetricData.DoubleHistogramData.create(
+              MetricData.AggregationTemporality.CUMULATIVE,
+              Collections.singletonList(
+                  MetricData.DoubleHistogramPoint.create(
+                      123,
+                      456,
+                      Labels.of("kp", "vp"),
+                      5,
+                      7,
+                      ImmutableList.of(1.0),
+                      ImmutableList.of(2L, 3L)))));
 
   @Test
   void toProtoMetricDescriptorType() {
@@ -191,6 +209,10 @@ class MetricAdapterTest {
     assertThat(metricFamilySamples.type).isEqualTo(Collector.Type.SUMMARY);
     assertThat(metricFamilySamples.samples).hasSize(2);
 
+    metricFamilySamples = MetricAdapter.toMetricFamilySamples(HISTOGRAM);
+    assertThat(metricFamilySamples.type).isEqualTo(Collector.Type.HISTOGRAM);
+    assertThat(metricFamilySamples.samples).hasSize(4);
+
     metricFamilySamples = MetricAdapter.toMetricFamilySamples(DOUBLE_GAUGE);
     assertThat(metricFamilySamples.type).isEqualTo(Collector.Type.GAUGE);
     assertThat(metricFamilySamples.samples).hasSize(1);
@@ -317,6 +339,73 @@ class MetricAdapterTest {
                 12.3));
   }
 
+  @Test
+  void toSamples_HistogramPoints() {
+    assertThat(
+            MetricAdapter.toSamples(
+                "full_name", MetricData.Type.HISTOGRAM, Collections.emptyList()))
+        .isEmpty();
+
+    assertThat(
+            MetricAdapter.toSamples(
+                "full_name",
+                MetricData.Type.HISTOGRAM,
+                ImmutableList.of(
+                    MetricData.DoubleHistogramPoint.create(
+                        123,
+                        456,
+                        Labels.empty(),
+                        2,
+                        3.5,
+                        Collections.emptyList(),
+                        ImmutableList.of(2L)),
+                    MetricData.DoubleHistogramPoint.create(
+                        321,
+                        654,
+                        Labels.of("kp", "vp"),
+                        9,
+                        18.3,
+                        ImmutableList.of(1.0, 2.5),
+                        ImmutableList.of(2L, 0L, 7L)))))
+        .containsExactly(
+            new Sample("full_name_count", Collections.emptyList(), Collections.emptyList(), 2),
+            new Sample("full_name_sum", Collections.emptyList(), Collections.emptyList(), 3.5),
+            new Sample("full_name_bucket", ImmutableList.of("le"), ImmutableList.of("+Inf"), 2),
+            new Sample("full_name_count", ImmutableList.of("kp"), ImmutableList.of("vp"), 9),
+            new Sample("full_name_sum", ImmutableList.of("kp"), ImmutableList.of("vp"), 18.3),
+            new Sample(
+                "full_name_bucket", ImmutableList.of("kp", "le"), ImmutableList.of("vp", "1.0"), 2),
+            new Sample(
+                "full_name_bucket", ImmutableList.of("kp", "le"), ImmutableList.of("vp", "2.5"), 2),
+            new Sample(
+                "full_name_bucket",
+                ImmutableList.of("kp", "le"),
+                ImmutableList.of("vp", "+Inf"),
+                9));
+  }
+
+  @Test
+  void toSamples_HistogramPoints_infiniteBoundary() {
+    assertThat(
+            MetricAdapter.toSamples(
+                "full_name",
+                MetricData.Type.HISTOGRAM,
+                ImmutableList.of(
+                    MetricData.DoubleHistogramPoint.create(
+                        123,
+                        456,
+                        Labels.empty(),
+                        5,
+                        12.0,
+                        ImmutableList.of(1.0, Double.POSITIVE_INFINITY),
+                        ImmutableList.of(2L, 3L, 0L)))))
+        .containsExactly(
+            new Sample("full_name_count", Collections.emptyList(), Collections.emptyList(), 5),
+            new Sample("full_name_sum", Collections.emptyList(), Collections.emptyList(), 12.0),
+            new Sample("full_name_bucket", ImmutableList.of("le"), ImmutableList.of("1.0"), 2),
+            new Sample("full_name_bucket", ImmutableList.of("le"), ImmutableList.of("+Inf"), 5));
+  }
+
   @Test
   void toMetricFamilySamples() {
     MetricData metricData = MONOTONIC_CUMULATIVE_DOUBLE_SUM;
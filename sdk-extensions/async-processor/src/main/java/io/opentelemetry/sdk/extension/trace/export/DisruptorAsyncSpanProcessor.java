@@ -9,17 +9,34 @@ import com.lmax.disruptor.SleepingWaitStrategy;
 import com.lmax.disruptor.WaitStrategy;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.internal.DaemonThreadFactory;
 import io.opentelemetry.sdk.trace.ReadWriteSpan;
 import io.opentelemetry.sdk.trace.ReadableSpan;
 import io.opentelemetry.sdk.trace.SpanProcessor;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * A {@link SpanProcessor} implementation that uses {@code Disruptor} to execute all the hooks on an
  * async thread.
  *
+ * <p>This moves expensive processing, such as redacting or enriching the attributes of ended spans,
+ * off the threads ending spans. To run several processors in order on the worker threads, wrap them
+ * with {@link SpanProcessor#composite(SpanProcessor...)}.
+ *
+ * <p>By default a single worker thread processes all the spans. With {@link
+ * Builder#setNumberOfWorkers(int)}, the spans are split between several workers, each with its own
+ * ring buffer, by their trace id: the events of the spans of a trace are processed by the same
+ * worker, in the order they were enqueued. The wrapped {@link SpanProcessor} is then called from
+ * several threads, and is only flushed or shut down once all the workers have processed the spans
+ * enqueued before.
+ *
  * <p>Configuration options for {@link DisruptorAsyncSpanProcessor} can be read from system
  * properties, environment variables, or {@link java.util.Properties} objects.
  *
@@ -32,6 +49,7 @@ import javax.annotation.concurrent.ThreadSafe;
  *   <li>{@code otel.disruptor.num.retries}: number of retries for the {@link SleepingWaitStrategy}.
  *   <li>{@code otel.disruptor.sleeping.time}: waiting time in ns for the {@link
  *       SleepingWaitStrategy}.
+ *   <li>{@code otel.disruptor.num.workers}: number of worker threads.
  * </ul>
  *
  * <p>For environment variables, {@link DisruptorAsyncSpanProcessor} will look for the following
@@ -43,14 +61,19 @@ import javax.annotation.concurrent.ThreadSafe;
  *   <li>{@code OTEL_DISRUPTOR_NUM_RETRIES}: number of retries for the {@link SleepingWaitStrategy}.
  *   <li>{@code OTEL_DISRUPTOR_SLEEPING_TIME}: waiting time in ns for the {@link
  *       SleepingWaitStrategy}.
+ *   <li>{@code OTEL_DISRUPTOR_NUM_WORKERS}: number of worker threads.
  * </ul>
  */
 @ThreadSafe
 public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
 
-  private final DisruptorEventQueue disruptorEventQueue;
+  private static final String WORKER_THREAD_NAME = "DisruptorEventQueue_WorkerThread";
+
+  private final SpanProcessor spanProcessor;
+  private final DisruptorEventQueue[] disruptorEventQueues;
   private final boolean startRequired;
   private final boolean endRequired;
+  private final AtomicBoolean isShutdown = new AtomicBoolean(false);
 
   // TODO: Add metrics for dropped spans.
 
@@ -59,7 +82,7 @@ public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
     if (!startRequired) {
       return;
     }
-    disruptorEventQueue.enqueueStartEvent(span, parentContext);
+    selectQueue(span).enqueueStartEvent(span, parentContext);
   }
 
   @Override
@@ -72,7 +95,7 @@ public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
     if (!endRequired) {
       return;
     }
-    disruptorEventQueue.enqueueEndEvent(span);
+    selectQueue(span).enqueueEndEvent(span);
   }
 
   @Override
@@ -80,14 +103,60 @@ public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
     return endRequired;
   }
 
+  // The start and end events of the spans of a trace go to the same queue, so that they are
+  // processed in order.
+  private DisruptorEventQueue selectQueue(ReadableSpan span) {
+    if (disruptorEventQueues.length == 1) {
+      return disruptorEventQueues[0];
+    }
+    long hash = span.getSpanContext().getTraceIdLowBytesAsLong();
+    return disruptorEventQueues[(int) Math.floorMod(hash, (long) disruptorEventQueues.length)];
+  }
+
   @Override
   public CompletableResultCode shutdown() {
-    return disruptorEventQueue.shutdown();
+    if (isShutdown.getAndSet(true)) {
+      return CompletableResultCode.ofSuccess();
+    }
+    List<CompletableResultCode> drained = new ArrayList<>(disruptorEventQueues.length);
+    for (DisruptorEventQueue disruptorEventQueue : disruptorEventQueues) {
+      drained.add(disruptorEventQueue.shutdown());
+    }
+    return whenDrained(drained, spanProcessor::shutdown);
   }
 
   @Override
   public CompletableResultCode forceFlush() {
-    return disruptorEventQueue.forceFlush();
+    List<CompletableResultCode> drained = new ArrayList<>(disruptorEventQueues.length);
+    for (DisruptorEventQueue disruptorEventQueue : disruptorEventQueues) {
+      drained.add(disruptorEventQueue.forceFlush());
+    }
+    return whenDrained(drained, spanProcessor::forceFlush);
+  }
+
+  // Calls the operation on the span processor once all the queues have processed the events
+  // enqueued before, from the worker thread which finished last.
+  private static CompletableResultCode whenDrained(
+      List<CompletableResultCode> drained, Supplier<CompletableResultCode> operation) {
+    CompletableResultCode result = new CompletableResultCode();
+    CompletableResultCode all = CompletableResultCode.ofAll(drained);
+    all.whenComplete(
+        () -> {
+          if (!all.isSuccess()) {
+            result.fail();
+            return;
+          }
+          CompletableResultCode operationResult = operation.get();
+          operationResult.whenComplete(
+              () -> {
+                if (operationResult.isSuccess()) {
+                  result.succeed();
+                } else {
+                  result.fail();
+                }
+              });
+        });
+    return result;
   }
 
   /**
@@ -110,6 +179,7 @@ public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
     private static final String KEY_BLOCKING = "otel.disruptor.blocking";
     private static final String KEY_NUM_RETRIES = "otel.disruptor.num.retries";
     private static final String KEY_SLEEPING_TIME_NS = "otel.disruptor.sleeping.time";
+    private static final String KEY_NUM_WORKERS = "otel.disruptor.num.workers";
 
     // Number of events that can be enqueued at any one time. If more than this are enqueued,
     // then subsequent attempts to enqueue new entries will block.
@@ -120,10 +190,13 @@ public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
     private static final int DEFAULT_NUM_RETRIES = 0;
     // The default waiting time in ns for the SleepingWaitingStrategy.
     private static final long DEFAULT_SLEEPING_TIME_NS = 1000 * 1000L;
+    // The default number of worker threads, and of ring buffers.
+    private static final int DEFAULT_NUM_WORKERS = 1;
 
     private final SpanProcessor spanProcessor;
     private int bufferSize = DEFAULT_DISRUPTOR_BUFFER_SIZE;
     private boolean blocking = DEFAULT_BLOCKING;
+    private int numberOfWorkers = DEFAULT_NUM_WORKERS;
     private WaitStrategy waitStrategy =
         new SleepingWaitStrategy(DEFAULT_NUM_RETRIES, DEFAULT_SLEEPING_TIME_NS);
 
@@ -156,6 +229,23 @@ public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
       return this;
     }
 
+    /**
+     * Sets the number of worker threads calling the {@link SpanProcessor}, each with its own ring
+     * buffer of the configured size. The spans are assigned to a worker by their trace id, so that
+     * the events of a trace are processed in order. If unset, defaults to {@value
+     * DEFAULT_NUM_WORKERS}.
+     *
+     * @param numberOfWorkers the number of worker threads.
+     * @return this.
+     */
+    public Builder setNumberOfWorkers(int numberOfWorkers) {
+      if (numberOfWorkers <= 0) {
+        throw new IllegalArgumentException("numberOfWorkers must be positive");
+      }
+      this.numberOfWorkers = numberOfWorkers;
+      return this;
+    }
+
     /**
      * Sets the {@code WaitStrategy} for the Disruptor's worker thread.
      *
@@ -173,8 +263,16 @@ public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
      * @return a new {@link DisruptorAsyncSpanProcessor}.
      */
     public DisruptorAsyncSpanProcessor build() {
+      ThreadFactory threadFactory = new DaemonThreadFactory(WORKER_THREAD_NAME);
+      DisruptorEventQueue[] disruptorEventQueues = new DisruptorEventQueue[numberOfWorkers];
+      for (int i = 0; i < numberOfWorkers; i++) {
+        disruptorEventQueues[i] =
+            new DisruptorEventQueue(
+                bufferSize, waitStrategy, spanProcessor, blocking, threadFactory);
+      }
       return new DisruptorAsyncSpanProcessor(
-          new DisruptorEventQueue(bufferSize, waitStrategy, spanProcessor, blocking),
+          spanProcessor,
+          disruptorEventQueues,
           spanProcessor.isStartRequired(),
           spanProcessor.isEndRequired());
     }
@@ -191,6 +289,10 @@ public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
       if (boolValue != null) {
         this.setBlocking(boolValue);
       }
+      Integer numberOfWorkers = getIntProperty(KEY_NUM_WORKERS, configMap);
+      if (numberOfWorkers != null) {
+        this.setNumberOfWorkers(numberOfWorkers);
+      }
       Integer retries = getIntProperty(KEY_NUM_RETRIES, configMap);
       if (retries == null) {
         retries = DEFAULT_NUM_RETRIES;
@@ -204,8 +306,12 @@ public final class DisruptorAsyncSpanProcessor implements SpanProcessor {
   }
 
   private DisruptorAsyncSpanProcessor(
-      DisruptorEventQueue disruptorEventQueue, boolean startRequired, boolean endRequired) {
-    this.disruptorEventQueue = disruptorEventQueue;
+      SpanProcessor spanProcessor,
+      DisruptorEventQueue[] disruptorEventQueues,
+      boolean startRequired,
+      boolean endRequired) {
+    this.spanProcessor = spanProcessor;
+    this.disruptorEventQueues = disruptorEventQueues;
     this.startRequired = startRequired;
     this.endRequired = endRequired;
   }
@@ -14,12 +14,12 @@ import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.common.CompletableResultCode;
-import io.opentelemetry.sdk.internal.DaemonThreadFactory;
 import io.opentelemetry.sdk.trace.ReadWriteSpan;
 import io.opentelemetry.sdk.trace.ReadableSpan;
 import io.opentelemetry.sdk.trace.SpanProcessor;
 import java.util.AbstractMap;
 import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
@@ -29,12 +29,15 @@ import javax.annotation.concurrent.ThreadSafe;
  * A low-latency event queue for background updating of (possibly contended) objects. This is
  * intended for use by instrumentation methods to ensure that they do not block foreground
  * activities.
+ *
+ * <p>The queue only calls {@link SpanProcessor#onStart(Context, ReadWriteSpan)} and {@link
+ * SpanProcessor#onEnd(ReadableSpan)} on its worker thread. {@link #shutdown()} and {@link
+ * #forceFlush()} complete once the events enqueued before them have been processed, and leave it to
+ * the caller to shut down or flush the {@link SpanProcessor}, which may be shared between queues.
  */
 @ThreadSafe
 final class DisruptorEventQueue {
   private static final Logger logger = Logger.getLogger(DisruptorEventQueue.class.getName());
-  private static final String WORKER_THREAD_NAME = "DisruptorEventQueue_WorkerThread";
-
   private static final EventTranslatorThreeArg<
           DisruptorEvent, EventType, Object, CompletableResultCode>
       TRANSLATOR_THREE_ARG =
@@ -69,19 +72,18 @@ final class DisruptorEventQueue {
     ON_FORCE_FLUSH
   }
 
-  // Creates a new EventQueue. Private to prevent creation of non-singleton instance.
+  // Creates a new EventQueue, with a worker thread created by the given factory.
   DisruptorEventQueue(
-      int bufferSize, WaitStrategy waitStrategy, SpanProcessor spanProcessor, boolean blocking) {
+      int bufferSize,
+      WaitStrategy waitStrategy,
+      SpanProcessor spanProcessor,
+      boolean blocking,
+      ThreadFactory threadFactory) {
     // Create new Disruptor for processing. Note that Disruptor creates a single thread per
     // consumer (see https://github.com/LMAX-Exchange/disruptor/issues/121 for details);
     // this ensures that the event handler can take unsynchronized actions whenever possible.
     Disruptor<DisruptorEvent> disruptor =
-        new Disruptor<>(
-            EVENT_FACTORY,
-            bufferSize,
-            new DaemonThreadFactory(WORKER_THREAD_NAME),
-            ProducerType.MULTI,
-            waitStrategy);
+        new Disruptor<>(EVENT_FACTORY, bufferSize, threadFactory, ProducerType.MULTI, waitStrategy);
     disruptor.handleEventsWith(new DisruptorEventHandler(spanProcessor));
     this.ringBuffer = disruptor.start();
     this.blocking = blocking;
@@ -107,8 +109,8 @@ final class DisruptorEventQueue {
     enqueue(EventType.ON_END, span, null);
   }
 
-  // Shuts down the underlying disruptor. Ensures that when this method returns the disruptor is
-  // shutdown.
+  // Stops accepting events. The result completes once the events already enqueued have been
+  // processed.
   CompletableResultCode shutdown() {
     synchronized (this) {
       if (isShutdown) {
@@ -120,7 +122,7 @@ final class DisruptorEventQueue {
     }
   }
 
-  // Force to publish the ended spans to the SpanProcessor
+  // The result completes once the events already enqueued have been processed.
   CompletableResultCode forceFlush() {
     if (isShutdown) {
       if (!loggedShutdownMessage.getAndSet(true)) {
@@ -133,7 +135,8 @@ final class DisruptorEventQueue {
 
   private CompletableResultCode enqueueWithResult(EventType event) {
     CompletableResultCode result = new CompletableResultCode();
-    enqueue(event, null, result);
+    // Always wait for room, a dropped event would never complete its result.
+    ringBuffer.publishEvent(TRANSLATOR_THREE_ARG, event, null, result);
     return result;
   }
 
@@ -177,12 +180,6 @@ final class DisruptorEventQueue {
         result.succeed();
       }
     }
-
-    void fail() {
-      if (result != null) {
-        result.fail();
-      }
-    }
   }
 
   private static final class DisruptorEventHandler implements EventHandler<DisruptorEvent> {
@@ -212,11 +209,9 @@ final class DisruptorEventQueue {
             spanProcessor.onEnd((ReadableSpan) readableSpan);
             break;
           case ON_SHUTDOWN:
-            propagateResult(spanProcessor.shutdown(), event);
-            break;
           case ON_FORCE_FLUSH:
-            propagateResult(spanProcessor.forceFlush(), event);
-
+            // All the events enqueued before this one have been processed.
+            event.succeed();
             break;
         }
       } finally {
@@ -225,19 +220,4 @@ final class DisruptorEventQueue {
       }
     }
   }
-
-  private static void propagateResult(
-      final CompletableResultCode result, final DisruptorEvent event) {
-    result.whenComplete(
-        new Runnable() {
-          @Override
-          public void run() {
-            if (result.isSuccess()) {
-              event.succeed();
-            } else {
-              event.fail();
-            }
-          }
-        });
-  }
 }
@@ -6,14 +6,27 @@
 package io.opentelemetry.sdk.extension.trace.export;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.api.trace.TraceState;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.trace.ReadWriteSpan;
 import io.opentelemetry.sdk.trace.ReadableSpan;
 import io.opentelemetry.sdk.trace.SpanProcessor;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
@@ -258,6 +271,126 @@ class DisruptorAsyncSpanProcessorTest {
     assertThat(incrementSpanProcessor.getCounterOnShutdown()).isEqualTo(1);
   }
 
+  @Test
+  void invalidNumberOfWorkers() {
+    IncrementSpanProcessor incrementSpanProcessor = new IncrementSpanProcessor(REQUIRED, REQUIRED);
+    assertThatThrownBy(
+            () -> DisruptorAsyncSpanProcessor.builder(incrementSpanProcessor).setNumberOfWorkers(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("numberOfWorkers must be positive");
+  }
+
+  @Test
+  void multipleWorkers_preserveOrderOfTrace() {
+    final int numberOfTraces = 16;
+    final int spansPerTrace = 100;
+    Map<String, List<String>> eventsByTrace = new ConcurrentHashMap<>();
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+    SpanProcessor recordingSpanProcessor =
+        new SpanProcessor() {
+          @Override
+          public void onStart(Context parentContext, ReadWriteSpan span) {
+            record("start", span);
+          }
+
+          @Override
+          public boolean isStartRequired() {
+            return true;
+          }
+
+          @Override
+          public void onEnd(ReadableSpan span) {
+            record("end", span);
+          }
+
+          @Override
+          public boolean isEndRequired() {
+            return true;
+          }
+
+          private void record(String event, ReadableSpan span) {
+            threads.add(Thread.currentThread().getName());
+            // Only the worker of the trace adds to its list.
+            eventsByTrace
+                .computeIfAbsent(
+                    span.getSpanContext().getTraceIdAsHexString(), unused -> new ArrayList<>())
+                .add(event + ":" + span.getSpanContext().getSpanIdAsHexString());
+          }
+        };
+    DisruptorAsyncSpanProcessor disruptorAsyncSpanProcessor =
+        DisruptorAsyncSpanProcessor.builder(recordingSpanProcessor).setNumberOfWorkers(4).build();
+
+    ReadWriteSpan[][] spans = new ReadWriteSpan[numberOfTraces][spansPerTrace];
+    for (int t = 0; t < numberOfTraces; t++) {
+      for (int s = 0; s < spansPerTrace; s++) {
+        spans[t][s] = mock(ReadWriteSpan.class);
+        when(spans[t][s].getSpanContext())
+            .thenReturn(
+                SpanContext.create(
+                    TraceId.fromLongs(0, t + 1),
+                    SpanId.fromLong(s + 1),
+                    TraceFlags.getSampled(),
+                    TraceState.getDefault()));
+      }
+    }
+    for (int s = 0; s < spansPerTrace; s++) {
+      for (int t = 0; t < numberOfTraces; t++) {
+        disruptorAsyncSpanProcessor.onStart(Context.root(), spans[t][s]);
+        disruptorAsyncSpanProcessor.onEnd(spans[t][s]);
+      }
+    }
+    disruptorAsyncSpanProcessor.forceFlush().join(10, TimeUnit.SECONDS);
+
+    assertThat(eventsByTrace).hasSize(numberOfTraces);
+    for (List<String> events : eventsByTrace.values()) {
+      List<String> expected = new ArrayList<>();
+      for (int s = 0; s < spansPerTrace; s++) {
+        expected.add("start:" + SpanId.fromLong(s + 1));
+        expected.add("end:" + SpanId.fromLong(s + 1));
+      }
+      assertThat(events).isEqualTo(expected);
+    }
+    assertThat(threads).hasSize(4);
+    disruptorAsyncSpanProcessor.shutdown().join(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void multipleWorkers_flushAndShutdownAfterAllWorkers() {
+    final int tenK = 10000;
+    IncrementSpanProcessor incrementSpanProcessor = new IncrementSpanProcessor(REQUIRED, REQUIRED);
+    DisruptorAsyncSpanProcessor disruptorAsyncSpanProcessor =
+        DisruptorAsyncSpanProcessor.builder(incrementSpanProcessor).setNumberOfWorkers(4).build();
+    ReadWriteSpan[] spans = new ReadWriteSpan[8];
+    for (int i = 0; i < spans.length; i++) {
+      spans[i] = mock(ReadWriteSpan.class);
+      when(spans[i].getSpanContext())
+          .thenReturn(
+              SpanContext.create(
+                  TraceId.fromLongs(0, i + 1),
+                  SpanId.fromLong(1),
+                  TraceFlags.getSampled(),
+                  TraceState.getDefault()));
+    }
+    for (int i = 1; i <= tenK; i++) {
+      disruptorAsyncSpanProcessor.onStart(Context.root(), spans[i % spans.length]);
+      disruptorAsyncSpanProcessor.onEnd(spans[i % spans.length]);
+      if (i % 100 == 0) {
+        assertThat(disruptorAsyncSpanProcessor.forceFlush().join(10, TimeUnit.SECONDS).isSuccess())
+            .isTrue();
+        assertThat(incrementSpanProcessor.getDeltaExportedForceFlushSpans()).isEqualTo(100);
+      }
+    }
+    assertThat(disruptorAsyncSpanProcessor.shutdown().join(10, TimeUnit.SECONDS).isSuccess())
+        .isTrue();
+    disruptorAsyncSpanProcessor.shutdown().join(10, TimeUnit.SECONDS);
+    assertThat(incrementSpanProcessor.getCounterOnStart()).isEqualTo(tenK);
+    assertThat(incrementSpanProcessor.getCounterOnEnd()).isEqualTo(tenK);
+    assertThat(incrementSpanProcessor.getCounterOnForceFlush()).isEqualTo(tenK / 100);
+    assertThat(incrementSpanProcessor.getCounterOnShutdown()).isEqualTo(1);
+    assertThat(disruptorAsyncSpanProcessor.forceFlush().join(10, TimeUnit.SECONDS).isSuccess())
+        .isFalse();
+  }
+
   @Test
   void configTest() {
     Properties options = new Properties();
@@ -265,10 +398,12 @@ class DisruptorAsyncSpanProcessorTest {
     options.put("otel.disruptor.buffer.size", "1234");
     options.put("otel.disruptor.num.retries", "56");
     options.put("otel.disruptor.sleeping.time", "78");
+    options.put("otel.disruptor.num.workers", "3");
     IncrementSpanProcessor incrementSpanProcessor = new IncrementSpanProcessor(REQUIRED, REQUIRED);
     DisruptorAsyncSpanProcessor.Builder config =
         DisruptorAsyncSpanProcessor.builder(incrementSpanProcessor).readProperties(options);
     assertThat(config).extracting("blocking").isEqualTo(false);
     assertThat(config).extracting("bufferSize").isEqualTo(1234);
+    assertThat(config).extracting("numberOfWorkers").isEqualTo(3);
   }
 }
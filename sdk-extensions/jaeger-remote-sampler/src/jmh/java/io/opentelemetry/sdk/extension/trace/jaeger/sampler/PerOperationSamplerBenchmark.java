@@ -0,0 +1,93 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.trace.jaeger.sampler;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.extension.trace.jaeger.proto.api_v2.Sampling.OperationSamplingStrategy;
+import io.opentelemetry.sdk.extension.trace.jaeger.proto.api_v2.Sampling.ProbabilisticSamplingStrategy;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of sampling a span with {@link PerOperationSampler}, for known and unknown
+ * operations, which should not depend on the number of operations in the strategy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@State(Scope.Benchmark)
+public class PerOperationSamplerBenchmark {
+
+  private static final String TRACE_ID = TraceId.fromLongs(1, 2);
+
+  @Param({"10", "100", "1000"})
+  private int numberOfOperations;
+
+  private Sampler sampler;
+  private String[] operations;
+  private int index;
+
+  @Setup(Level.Trial)
+  public final void setup() {
+    List<OperationSamplingStrategy> strategies = new ArrayList<>(numberOfOperations);
+    operations = new String[numberOfOperations];
+    for (int i = 0; i < numberOfOperations; i++) {
+      operations[i] = "GET /api/v1/resource" + i;
+      strategies.add(
+          OperationSamplingStrategy.newBuilder()
+              .setOperation(operations[i])
+              .setProbabilisticSampling(
+                  ProbabilisticSamplingStrategy.newBuilder()
+                      .setSamplingRate((i % 10) / 10.0)
+                      .build())
+              .build());
+    }
+    sampler = new PerOperationSampler(Sampler.traceIdRatioBased(0.001), strategies);
+  }
+
+  @Benchmark
+  public SamplingResult shouldSample_knownOperation() {
+    String operation = operations[index];
+    index = (index + 1) % operations.length;
+    return shouldSample(operation);
+  }
+
+  @Benchmark
+  public SamplingResult shouldSample_unknownOperation() {
+    return shouldSample("GET /unknown");
+  }
+
+  private SamplingResult shouldSample(String name) {
+    return sampler.shouldSample(
+        Context.root(),
+        TRACE_ID,
+        name,
+        Span.Kind.SERVER,
+        Attributes.empty(),
+        Collections.emptyList());
+  }
+}
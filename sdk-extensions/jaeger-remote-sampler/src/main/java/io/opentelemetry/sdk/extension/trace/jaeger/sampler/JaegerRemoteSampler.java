@@ -24,6 +24,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /** Remote sampler that gets sampling configuration from remote Jaeger server. */
 public final class JaegerRemoteSampler implements Sampler {
@@ -36,6 +37,8 @@ public final class JaegerRemoteSampler implements Sampler {
   private final SamplingManagerBlockingStub stub;
 
   private volatile Sampler sampler;
+  // The strategy the sampler was last built from, only accessed by the worker thread.
+  @Nullable private SamplingStrategyResponse strategy;
 
   @SuppressWarnings("FutureReturnValueIgnored")
   JaegerRemoteSampler(
@@ -65,7 +68,12 @@ public final class JaegerRemoteSampler implements Sampler {
       SamplingStrategyParameters params =
           SamplingStrategyParameters.newBuilder().setServiceName(this.serviceName).build();
       SamplingStrategyResponse response = stub.getSamplingStrategy(params);
-      this.sampler = updateSampler(response);
+      // Keep the current sampler, and the state of its rate limiter, while the strategy does not
+      // change.
+      if (!response.equals(this.strategy)) {
+        this.sampler = updateSampler(response);
+        this.strategy = response;
+      }
     } catch (Exception e) { // keep the timer thread alive
       logger.log(Level.WARNING, "Failed to update sampler", e);
     }
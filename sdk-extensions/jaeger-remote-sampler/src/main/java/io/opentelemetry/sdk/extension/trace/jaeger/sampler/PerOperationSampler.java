@@ -12,11 +12,20 @@ import io.opentelemetry.sdk.extension.trace.jaeger.proto.api_v2.Sampling.Operati
 import io.opentelemetry.sdk.trace.data.SpanData.Link;
 import io.opentelemetry.sdk.trace.samplers.Sampler;
 import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-/** {@link PerOperationSampler} samples spans per operation. */
+/**
+ * {@link PerOperationSampler} samples spans per operation.
+ *
+ * <p>The sampler of each operation is looked up by span name in a map built once from the sampling
+ * strategy and never modified, so that it can be read without synchronization. A new strategy
+ * replaces the whole {@link PerOperationSampler}. Operations sharing a sampling rate share a
+ * sampler, and spans of operations missing from the strategy use the default sampler.
+ */
 class PerOperationSampler implements Sampler {
 
   private final Sampler defaultSampler;
@@ -25,13 +34,19 @@ class PerOperationSampler implements Sampler {
   PerOperationSampler(
       Sampler defaultSampler, List<OperationSamplingStrategy> perOperationSampling) {
     this.defaultSampler = defaultSampler;
-    this.perOperationSampler = new LinkedHashMap<>(perOperationSampling.size());
+    Map<String, Sampler> perOperationSampler = new LinkedHashMap<>(perOperationSampling.size());
+    // Services usually have many operations and few distinct rates.
+    Map<Double, Sampler> samplersByRate = new HashMap<>();
     for (OperationSamplingStrategy opSamplingStrategy : perOperationSampling) {
-      this.perOperationSampler.put(
-          opSamplingStrategy.getOperation(),
-          Sampler.traceIdRatioBased(
-              opSamplingStrategy.getProbabilisticSampling().getSamplingRate()));
+      double samplingRate = opSamplingStrategy.getProbabilisticSampling().getSamplingRate();
+      Sampler sampler = samplersByRate.get(samplingRate);
+      if (sampler == null) {
+        sampler = Sampler.traceIdRatioBased(samplingRate);
+        samplersByRate.put(samplingRate, sampler);
+      }
+      perOperationSampler.put(opSamplingStrategy.getOperation(), sampler);
     }
+    this.perOperationSampler = Collections.unmodifiableMap(perOperationSampler);
   }
 
   @Override
@@ -60,4 +75,9 @@ class PerOperationSampler implements Sampler {
   public String toString() {
     return getDescription();
   }
+
+  // Visible for testing
+  Map<String, Sampler> getPerOperationSampler() {
+    return perOperationSampler;
+  }
 }
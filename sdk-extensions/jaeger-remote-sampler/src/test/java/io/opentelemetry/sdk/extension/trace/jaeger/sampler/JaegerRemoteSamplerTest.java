@@ -183,6 +183,26 @@ class JaegerRemoteSamplerTest {
     assertThat(numPolls).hasValueGreaterThanOrEqualTo(2);
   }
 
+  @Test
+  void unchangedStrategy_keepsSampler() throws Exception {
+    JaegerRemoteSampler sampler =
+        JaegerRemoteSampler.builder()
+            .setChannel(inProcessChannel)
+            .setServiceName(SERVICE_NAME)
+            .setPollingInterval(1, TimeUnit.MILLISECONDS)
+            .build();
+
+    await()
+        .atMost(Duration.ofSeconds(10))
+        .untilAsserted(samplerIsType(sampler, RateLimitingSampler.class));
+    Sampler first = sampler.getSampler();
+    int polls = numPolls.get();
+
+    await().atMost(Duration.ofSeconds(10)).until(() -> numPolls.get() > polls + 1);
+
+    assertThat(sampler.getSampler()).isSameAs(first);
+  }
+
   @Test
   void invalidArguments() {
     assertThatThrownBy(() -> JaegerRemoteSampler.builder().setServiceName(null))
@@ -0,0 +1,86 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.trace.jaeger.sampler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.extension.trace.jaeger.proto.api_v2.Sampling.OperationSamplingStrategy;
+import io.opentelemetry.sdk.extension.trace.jaeger.proto.api_v2.Sampling.ProbabilisticSamplingStrategy;
+import io.opentelemetry.sdk.trace.IdGenerator;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PerOperationSamplerTest {
+
+  private static final IdGenerator idGenerator = IdGenerator.random();
+
+  private final PerOperationSampler sampler =
+      new PerOperationSampler(
+          Sampler.traceIdRatioBased(0),
+          Arrays.asList(
+              strategy("GET /sampled", 1),
+              strategy("POST /sampled", 1),
+              strategy("GET /dropped", 0)));
+
+  @Test
+  void samplesPerOperation() {
+    assertThat(shouldSample("GET /sampled")).isEqualTo(SamplingResult.Decision.RECORD_AND_SAMPLE);
+    assertThat(shouldSample("POST /sampled")).isEqualTo(SamplingResult.Decision.RECORD_AND_SAMPLE);
+    assertThat(shouldSample("GET /dropped")).isEqualTo(SamplingResult.Decision.DROP);
+  }
+
+  @Test
+  void unknownOperation_usesDefaultSampler() {
+    assertThat(shouldSample("GET /unknown")).isEqualTo(SamplingResult.Decision.DROP);
+  }
+
+  @Test
+  void operationsWithSameRate_shareSampler() {
+    Map<String, Sampler> perOperationSampler = sampler.getPerOperationSampler();
+
+    assertThat(perOperationSampler.get("POST /sampled"))
+        .isSameAs(perOperationSampler.get("GET /sampled"));
+    assertThat(perOperationSampler.get("GET /dropped"))
+        .isNotSameAs(perOperationSampler.get("GET /sampled"));
+  }
+
+  @Test
+  void description() {
+    assertThat(sampler.getDescription())
+        .isEqualTo(
+            "PerOperationSampler{default=TraceIdRatioBased{0.000000}, "
+                + "perOperation={GET /sampled=TraceIdRatioBased{1.000000}, "
+                + "POST /sampled=TraceIdRatioBased{1.000000}, "
+                + "GET /dropped=TraceIdRatioBased{0.000000}}}");
+  }
+
+  private SamplingResult.Decision shouldSample(String name) {
+    return sampler
+        .shouldSample(
+            Context.root(),
+            idGenerator.generateTraceId(),
+            name,
+            Span.Kind.SERVER,
+            Attributes.empty(),
+            Collections.emptyList())
+        .getDecision();
+  }
+
+  private static OperationSamplingStrategy strategy(String operation, double samplingRate) {
+    return OperationSamplingStrategy.newBuilder()
+        .setOperation(operation)
+        .setProbabilisticSampling(
+            ProbabilisticSamplingStrategy.newBuilder().setSamplingRate(samplingRate).build())
+        .build();
+  }
+}
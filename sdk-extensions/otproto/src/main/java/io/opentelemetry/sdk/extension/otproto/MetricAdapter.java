@@ -126,6 +126,15 @@ public final class MetricAdapter {
                 .addAllDataPoints(toSummaryDataPoints(doubleSummaryData.getPoints()))
                 .build());
         break;
+      case HISTOGRAM:
+        MetricData.DoubleHistogramData doubleHistogramData = metricData.getDoubleHistogramData();
+        builder.setDoubleHistogram(
+            DoubleHistogram.newBuilder()
+                .setAggregationTemporality(
+                    mapToTemporality(doubleHistogramData.getAggregationTemporality()))
+                .addAllDataPoints(toHistogramDataPoints(doubleHistogramData.getPoints()))
+                .build());
+        break;
       case LONG_GAUGE:
         MetricData.LongGaugeData longGaugeData = metricData.getLongGaugeData();
         builder.setIntGauge(
@@ -213,6 +222,27 @@ public final class MetricAdapter {
     return result;
   }
 
+  static List<DoubleHistogramDataPoint> toHistogramDataPoints(
+      Collection<MetricData.DoubleHistogramPoint> points) {
+    List<DoubleHistogramDataPoint> result = new ArrayList<>(points.size());
+    for (MetricData.DoubleHistogramPoint doubleHistogramPoint : points) {
+      DoubleHistogramDataPoint.Builder builder =
+          DoubleHistogramDataPoint.newBuilder()
+              .setStartTimeUnixNano(doubleHistogramPoint.getStartEpochNanos())
+              .setTimeUnixNano(doubleHistogramPoint.getEpochNanos())
+              .setCount(doubleHistogramPoint.getCount())
+              .setSum(doubleHistogramPoint.getSum())
+              .addAllBucketCounts(doubleHistogramPoint.getCounts())
+              .addAllExplicitBounds(doubleHistogramPoint.getBoundaries());
+      List<StringKeyValue> labels = toProtoLabels(doubleHistogramPoint.getLabels());
+      if (!labels.isEmpty()) {
+        builder.addAllLabels(labels);
+      }
+      result.add(builder.build());
+    }
+    return result;
+  }
+
   // TODO: Consider to pass the Builder and directly add values.
   @SuppressWarnings("MixedMutabilityReturnType")
   static void addBucketValues(
@@ -458,6 +458,57 @@ class MetricAdapterTest {
                 .build());
   }
 
+  @Test
+  void toProtoMetric_histogram() {
+    assertThat(
+            MetricAdapter.toProtoMetric(
+                MetricData.createDoubleHistogram(
+                    Resource.getEmpty(),
+                    InstrumentationLibraryInfo.getEmpty(),
+                    "name",
+                    "description",
+                    "1",
+                    MetricData.DoubleHistogramData.create(
+                        MetricData.AggregationTemporality.CUMULATIVE,
+                        singletonList(
+                            MetricData.DoubleHistogramPoint.create(
+                                123,
+                                456,
+                                Labels.of("k", "v"),
+                                5,
+                                33d,
+                                ImmutableList.of(1.0, 10.0),
+                                ImmutableList.of(1L, 3L, 1L)))))))
+        .isEqualTo(
+            Metric.newBuilder()
+                .setName("name")
+                .setDescription("description")
+                .setUnit("1")
+                .setDoubleHistogram(
+                    DoubleHistogram.newBuilder()
+                        .setAggregationTemporality(AGGREGATION_TEMPORALITY_CUMULATIVE)
+                        .addDataPoints(
+                            DoubleHistogramDataPoint.newBuilder()
+                                .setStartTimeUnixNano(123)
+                                .setTimeUnixNano(456)
+                                .addAllLabels(
+                                    singletonList(
+                                        StringKeyValue.newBuilder()
+                                            .setKey("k")
+                                            .setValue("v")
+                                            .build()))
+                                .setCount(5)
+                                .setSum(33d)
+                                .addBucketCounts(1)
+                                .addBucketCounts(3)
+                                .addBucketCounts(1)
+                                .addExplicitBounds(1.0)
+                                .addExplicitBounds(10.0)
+                                .build())
+                        .build())
+                .build());
+  }
+
   @Test
   void toProtoResourceMetrics() {
     Resource resource = Resource.create(Attributes.of(stringKey("ka"), "va"));
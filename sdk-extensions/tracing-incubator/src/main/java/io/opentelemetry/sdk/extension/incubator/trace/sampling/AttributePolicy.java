@@ -0,0 +1,49 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace.sampling;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+@AutoValue
+@Immutable
+abstract class AttributePolicy implements TailSamplingPolicy {
+
+  static AttributePolicy create(AttributeKey<?> key, Object value) {
+    requireNonNull(key, "key");
+    requireNonNull(value, "value");
+    return new AutoValue_AttributePolicy(key, value);
+  }
+
+  abstract AttributeKey<?> getKey();
+
+  abstract Object getValue();
+
+  @Override
+  public final boolean shouldSample(List<SpanData> spans) {
+    for (SpanData span : spans) {
+      if (getValue().equals(span.getAttributes().get(getKey()))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public final String getDescription() {
+    return "AttributePolicy{" + getKey() + "=" + getValue() + "}";
+  }
+
+  @Override
+  public final String toString() {
+    return getDescription();
+  }
+}
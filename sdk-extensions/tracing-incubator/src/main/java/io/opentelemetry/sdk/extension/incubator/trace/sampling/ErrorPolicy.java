@@ -0,0 +1,36 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace.sampling;
+
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+enum ErrorPolicy implements TailSamplingPolicy {
+  INSTANCE;
+
+  @Override
+  public boolean shouldSample(List<SpanData> spans) {
+    for (SpanData span : spans) {
+      if (span.getStatus().getStatusCode() == StatusCode.ERROR) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String getDescription() {
+    return "ErrorPolicy";
+  }
+
+  @Override
+  public String toString() {
+    return getDescription();
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace.sampling;
+
+import static io.opentelemetry.api.internal.Utils.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.Immutable;
+
+@AutoValue
+@Immutable
+abstract class LatencyPolicy implements TailSamplingPolicy {
+
+  static LatencyPolicy create(long threshold, TimeUnit unit) {
+    requireNonNull(unit, "unit");
+    checkArgument(threshold >= 0, "threshold must be non-negative");
+    return new AutoValue_LatencyPolicy(unit.toNanos(threshold));
+  }
+
+  abstract long getThresholdNanos();
+
+  @Override
+  public final boolean shouldSample(List<SpanData> spans) {
+    long start = Long.MAX_VALUE;
+    long end = Long.MIN_VALUE;
+    for (SpanData span : spans) {
+      start = Math.min(start, span.getStartEpochNanos());
+      end = Math.max(end, span.getEndEpochNanos());
+    }
+    return end - start >= getThresholdNanos();
+  }
+
+  @Override
+  public final String getDescription() {
+    return String.format("LatencyPolicy{%dms}", TimeUnit.NANOSECONDS.toMillis(getThresholdNanos()));
+  }
+
+  @Override
+  public final String toString() {
+    return getDescription();
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace.sampling;
+
+import com.google.auto.value.AutoValue;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Keeps the traces whose trace id falls within the ratio, the same way as {@code
+ * Sampler.traceIdRatioBased}, so that using both with the same ratio keeps the same traces.
+ */
+@AutoValue
+@Immutable
+abstract class ProbabilisticPolicy implements TailSamplingPolicy {
+
+  static ProbabilisticPolicy create(double ratio) {
+    if (ratio < 0.0 || ratio > 1.0) {
+      throw new IllegalArgumentException("ratio must be in range [0.0, 1.0]");
+    }
+    long idUpperBound;
+    // Special case the limits, see TraceIdRatioBasedSampler.
+    if (ratio == 0.0) {
+      idUpperBound = Long.MIN_VALUE;
+    } else if (ratio == 1.0) {
+      idUpperBound = Long.MAX_VALUE;
+    } else {
+      idUpperBound = (long) (ratio * Long.MAX_VALUE);
+    }
+    return new AutoValue_ProbabilisticPolicy(ratio, idUpperBound);
+  }
+
+  abstract double getRatio();
+
+  abstract long getIdUpperBound();
+
+  @Override
+  public final boolean shouldSample(List<SpanData> spans) {
+    String traceId = spans.get(0).getTraceId();
+    return Math.abs(TraceId.getTraceIdRandomPart(traceId)) < getIdUpperBound();
+  }
+
+  @Override
+  public final String getDescription() {
+    return String.format("ProbabilisticPolicy{%.6f}", getRatio());
+  }
+
+  @Override
+  public final String toString() {
+    return getDescription();
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace.sampling;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A policy deciding, once the spans of a trace have ended, whether the trace is kept by a {@link
+ * TailSamplingSpanProcessor}.
+ */
+@ThreadSafe
+public interface TailSamplingPolicy {
+
+  /** Returns a {@link TailSamplingPolicy} keeping the traces with a span with an error status. */
+  static TailSamplingPolicy error() {
+    return ErrorPolicy.INSTANCE;
+  }
+
+  /**
+   * Returns a {@link TailSamplingPolicy} keeping the traces lasting at least the given threshold,
+   * from the start of their first span to the end of their last span.
+   */
+  static TailSamplingPolicy latency(long threshold, TimeUnit unit) {
+    return LatencyPolicy.create(threshold, unit);
+  }
+
+  /**
+   * Returns a {@link TailSamplingPolicy} keeping the traces with a span with the given attribute
+   * value.
+   */
+  static <T> TailSamplingPolicy attribute(AttributeKey<T> key, T value) {
+    return AttributePolicy.create(key, value);
+  }
+
+  /**
+   * Returns a {@link TailSamplingPolicy} keeping the given ratio of the traces, selected by their
+   * trace id, so that the decision is the same for all the spans of a trace.
+   */
+  static TailSamplingPolicy probabilistic(double ratio) {
+    return ProbabilisticPolicy.create(ratio);
+  }
+
+  /**
+   * Returns whether the trace made of the given spans is kept.
+   *
+   * @param spans the ended spans of the trace, never empty. When the trace was not complete before
+   *     a decision had to be made, only some of its spans.
+   * @return {@code true} if the trace is kept.
+   */
+  boolean shouldSample(List<SpanData> spans);
+
+  /**
+   * Returns the description of this {@code TailSamplingPolicy}.
+   *
+   * @return the description of this {@code TailSamplingPolicy}.
+   */
+  String getDescription();
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace.sampling;
+
+import static java.util.Objects.requireNonNull;
+
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.api.metrics.GlobalMetricsProvider;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongCounter.BoundLongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.internal.DaemonThreadFactory;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A {@link SpanProcessor} deciding whether to keep a trace once its spans have ended, so that the
+ * decision can depend on their status, duration or attributes, and forwarding only the spans of the
+ * kept traces to a downstream {@link SpanProcessor}, usually a {@link
+ * io.opentelemetry.sdk.trace.export.BatchSpanProcessor}.
+ *
+ * <p>Ended spans are buffered per trace id until the local root span of their trace, the span
+ * without a parent or with a remote parent, ends. The {@link TailSamplingPolicy policies} are then
+ * applied to the buffered spans, and the trace is kept if any of them keeps it. A trace whose local
+ * root does not end within the trace timeout is decided with the spans ended so far. The decision
+ * is remembered for the trace timeout, so that spans ending after their local root, for example
+ * asynchronous work, follow the decision of their trace.
+ *
+ * <p>The number of buffered traces and spans is limited. When a limit is reached, spans that would
+ * be buffered are decided on their own instead. The numbers of pending traces and buffered spans,
+ * of kept and dropped traces and spans, and of spans decided on their own are reported as metrics.
+ *
+ * <p>This processor only sees the spans that were recorded, so it is meant to be used with a {@link
+ * io.opentelemetry.sdk.trace.samplers.Sampler} sampling all the traces it should consider, usually
+ * {@code Sampler.alwaysOn()}.
+ */
+public final class TailSamplingSpanProcessor implements SpanProcessor {
+
+  private static final String EVICTION_THREAD_NAME =
+      TailSamplingSpanProcessor.class.getSimpleName() + "_EvictionThread";
+  private static final String SPAN_PROCESSOR_TYPE_LABEL = "spanProcessorType";
+  private static final String SPAN_PROCESSOR_TYPE_VALUE =
+      TailSamplingSpanProcessor.class.getSimpleName();
+  private static final long MAX_EVICTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final SpanProcessor downstream;
+  private final List<TailSamplingPolicy> policies;
+  private final long traceTimeoutNanos;
+  private final int maxPendingTraces;
+  private final int maxBufferedSpans;
+  private final Clock clock;
+  private final Map<String, Trace> traces = new ConcurrentHashMap<>();
+  // The traces whose spans are buffered, the other traces in the map only remember the decision.
+  private final AtomicInteger pendingTraces = new AtomicInteger();
+  private final AtomicInteger decidedTraces = new AtomicInteger();
+  private final AtomicInteger bufferedSpans = new AtomicInteger();
+  private final ScheduledExecutorService evictionExecutor;
+  private final AtomicBoolean isShutdown = new AtomicBoolean(false);
+
+  private final BoundLongCounter keptTracesCounter;
+  private final BoundLongCounter droppedTracesCounter;
+  private final BoundLongCounter keptSpansCounter;
+  private final BoundLongCounter droppedSpansCounter;
+  private final BoundLongCounter overflowSpansCounter;
+
+  TailSamplingSpanProcessor(
+      SpanProcessor downstream,
+      List<TailSamplingPolicy> policies,
+      long traceTimeoutNanos,
+      int maxPendingTraces,
+      int maxBufferedSpans,
+      Clock clock) {
+    this.downstream = downstream;
+    this.policies = policies;
+    this.traceTimeoutNanos = traceTimeoutNanos;
+    this.maxPendingTraces = maxPendingTraces;
+    this.maxBufferedSpans = maxBufferedSpans;
+    this.clock = clock;
+
+    Meter meter = GlobalMetricsProvider.getMeter("io.opentelemetry.sdk.trace");
+    Labels labels = Labels.of(SPAN_PROCESSOR_TYPE_LABEL, SPAN_PROCESSOR_TYPE_VALUE);
+    LongCounter tracesCounter =
+        meter
+            .longCounterBuilder("tailSampledTraces")
+            .setUnit("1")
+            .setDescription(
+                "The number of traces decided by the TailSamplingSpanProcessor. "
+                    + "[dropped=true if no policy kept them]")
+            .build();
+    keptTracesCounter = tracesCounter.bind(labels.toBuilder().put("dropped", "false").build());
+    droppedTracesCounter = tracesCounter.bind(labels.toBuilder().put("dropped", "true").build());
+    LongCounter spansCounter =
+        meter
+            .longCounterBuilder("tailSampledSpans")
+            .setUnit("1")
+            .setDescription(
+                "The number of spans decided by the TailSamplingSpanProcessor. "
+                    + "[dropped=true if the policies did not keep their trace]")
+            .build();
+    keptSpansCounter = spansCounter.bind(labels.toBuilder().put("dropped", "false").build());
+    droppedSpansCounter = spansCounter.bind(labels.toBuilder().put("dropped", "true").build());
+    overflowSpansCounter =
+        meter
+            .longCounterBuilder("tailSamplingOverflowSpans")
+            .setUnit("1")
+            .setDescription(
+                "The number of spans decided on their own because the TailSamplingSpanProcessor "
+                    + "buffers were full")
+            .build()
+            .bind(labels);
+    meter
+        .longValueObserverBuilder("pendingTraces")
+        .setDescription("The number of traces whose spans are buffered")
+        .setUnit("1")
+        .setUpdater(result -> result.observe(pendingTraces.get(), labels))
+        .build();
+    meter
+        .longValueObserverBuilder("bufferedSpans")
+        .setDescription("The number of spans buffered until their trace is decided")
+        .setUnit("1")
+        .setUpdater(result -> result.observe(bufferedSpans.get(), labels))
+        .build();
+
+    evictionExecutor =
+        Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory(EVICTION_THREAD_NAME));
+    long evictionIntervalNanos = Math.min(traceTimeoutNanos, MAX_EVICTION_INTERVAL_NANOS);
+    evictionExecutor.scheduleWithFixedDelay(
+        () -> decideTraces(/* all= */ false),
+        evictionIntervalNanos,
+        evictionIntervalNanos,
+        TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns a new Builder for {@link TailSamplingSpanProcessor}.
+   *
+   * @param downstream the {@link SpanProcessor} the spans of the kept traces are forwarded to.
+   * @return a new {@link TailSamplingSpanProcessorBuilder}.
+   * @throws NullPointerException if the {@code downstream} is {@code null}.
+   */
+  public static TailSamplingSpanProcessorBuilder builder(SpanProcessor downstream) {
+    return new TailSamplingSpanProcessorBuilder(downstream);
+  }
+
+  @Override
+  public void onStart(Context parentContext, ReadWriteSpan span) {}
+
+  @Override
+  public boolean isStartRequired() {
+    return false;
+  }
+
+  @Override
+  public void onEnd(ReadableSpan span) {
+    String traceId = span.getSpanContext().getTraceIdAsHexString();
+    SpanContext parentSpanContext = span.toSpanData().getParentSpanContext();
+    boolean isLocalRoot = !parentSpanContext.isValid() || parentSpanContext.isRemote();
+    while (true) {
+      Trace trace = traces.get(traceId);
+      if (trace == null) {
+        if (isLocalRoot) {
+          // Nothing else of the trace ended yet.
+          List<ReadableSpan> spans = Collections.singletonList(span);
+          boolean keep = decide(spans);
+          rememberDecision(traceId, keep);
+          forward(spans, keep);
+          return;
+        }
+        if (pendingTraces.get() >= maxPendingTraces) {
+          overflow(span);
+          return;
+        }
+        Trace created = new Trace(new ArrayList<>(), false, clock.nanoTime() + traceTimeoutNanos);
+        if (traces.putIfAbsent(traceId, created) != null) {
+          continue;
+        }
+        pendingTraces.incrementAndGet();
+        trace = created;
+      }
+      List<ReadableSpan> decidedSpans;
+      boolean keep;
+      synchronized (trace) {
+        if (trace.removed) {
+          // Evicted concurrently, look up again.
+          continue;
+        }
+        if (trace.spans == null) {
+          keep = trace.keep;
+          decidedSpans = Collections.singletonList(span);
+        } else if (bufferedSpans.get() >= maxBufferedSpans) {
+          overflow(span);
+          return;
+        } else {
+          trace.spans.add(span);
+          bufferedSpans.incrementAndGet();
+          if (!isLocalRoot) {
+            return;
+          }
+          decidedSpans = trace.spans;
+          keep = decide(trace, traceId, clock.nanoTime());
+        }
+      }
+      forward(decidedSpans, keep);
+      return;
+    }
+  }
+
+  @Override
+  public boolean isEndRequired() {
+    return true;
+  }
+
+  @Override
+  public CompletableResultCode shutdown() {
+    if (isShutdown.getAndSet(true)) {
+      return CompletableResultCode.ofSuccess();
+    }
+    // Wait for a running eviction, so that no span is forwarded after the downstream shut down.
+    evictionExecutor.shutdown();
+    try {
+      evictionExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      evictionExecutor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    decideTraces(/* all= */ true);
+    return downstream.shutdown();
+  }
+
+  /**
+   * Decides all the pending traces with the spans ended so far, forwarding the kept ones, then
+   * flushes the downstream {@link SpanProcessor}.
+   */
+  @Override
+  public CompletableResultCode forceFlush() {
+    decideTraces(/* all= */ true);
+    return downstream.forceFlush();
+  }
+
+  // Visible for testing
+  void decideExpiredTraces() {
+    decideTraces(/* all= */ false);
+  }
+
+  // Visible for testing
+  int getPendingTraces() {
+    return pendingTraces.get();
+  }
+
+  // Visible for testing
+  int getBufferedSpans() {
+    return bufferedSpans.get();
+  }
+
+  // Decides the expired traces, or all the pending traces, and forgets the expired decisions.
+  private void decideTraces(boolean all) {
+    long now = clock.nanoTime();
+    for (Map.Entry<String, Trace> entry : traces.entrySet()) {
+      Trace trace = entry.getValue();
+      List<ReadableSpan> decidedSpans;
+      boolean keep;
+      synchronized (trace) {
+        if (trace.removed) {
+          continue;
+        }
+        boolean expired = now - trace.deadlineNanos >= 0;
+        if (trace.spans == null) {
+          if (expired) {
+            trace.removed = true;
+            traces.remove(entry.getKey(), trace);
+            decidedTraces.decrementAndGet();
+          }
+          continue;
+        }
+        if (!all && !expired) {
+          continue;
+        }
+        decidedSpans = trace.spans;
+        keep = decide(trace, entry.getKey(), now);
+      }
+      forward(decidedSpans, keep);
+    }
+  }
+
+  // Decides a pending trace and remembers the decision in its place.
+  @GuardedBy("trace")
+  private boolean decide(Trace trace, String traceId, long now) {
+    List<ReadableSpan> spans = requireNonNull(trace.spans);
+    boolean keep = decide(spans);
+    trace.spans = null;
+    trace.keep = keep;
+    trace.deadlineNanos = now + traceTimeoutNanos;
+    pendingTraces.decrementAndGet();
+    bufferedSpans.addAndGet(-spans.size());
+    if (decidedTraces.incrementAndGet() > maxPendingTraces) {
+      decidedTraces.decrementAndGet();
+      trace.removed = true;
+      traces.remove(traceId, trace);
+    }
+    return keep;
+  }
+
+  private boolean decide(List<ReadableSpan> spans) {
+    boolean keep = shouldSample(spans);
+    (keep ? keptTracesCounter : droppedTracesCounter).add(1);
+    return keep;
+  }
+
+  private boolean shouldSample(List<ReadableSpan> spans) {
+    List<SpanData> spanData = new ArrayList<>(spans.size());
+    for (ReadableSpan span : spans) {
+      spanData.add(span.toSpanData());
+    }
+    for (TailSamplingPolicy policy : policies) {
+      if (policy.shouldSample(spanData)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Remembers the decision of a trace decided on its local root alone.
+  private void rememberDecision(String traceId, boolean keep) {
+    if (decidedTraces.incrementAndGet() > maxPendingTraces) {
+      decidedTraces.decrementAndGet();
+    } else {
+      Trace trace = new Trace(null, keep, clock.nanoTime() + traceTimeoutNanos);
+      if (traces.putIfAbsent(traceId, trace) != null) {
+        // A span of the trace ended concurrently and is pending on its own.
+        decidedTraces.decrementAndGet();
+      }
+    }
+  }
+
+  // A span decided on its own is counted as an overflow span, not as a decided trace.
+  private void overflow(ReadableSpan span) {
+    overflowSpansCounter.add(1);
+    List<ReadableSpan> spans = Collections.singletonList(span);
+    forward(spans, shouldSample(spans));
+  }
+
+  private void forward(List<ReadableSpan> spans, boolean keep) {
+    if (!keep) {
+      droppedSpansCounter.add(spans.size());
+      return;
+    }
+    keptSpansCounter.add(spans.size());
+    for (ReadableSpan span : spans) {
+      downstream.onEnd(span);
+    }
+  }
+
+  private static final class Trace {
+    // The ended spans of a pending trace, or null once the trace is decided.
+    @GuardedBy("this")
+    @Nullable
+    List<ReadableSpan> spans;
+
+    @GuardedBy("this")
+    boolean keep;
+
+    // When a pending trace is decided, or a decided trace forgotten.
+    @GuardedBy("this")
+    long deadlineNanos;
+
+    // Whether the trace was removed from the map, in which case it must be looked up again.
+    @GuardedBy("this")
+    boolean removed;
+
+    Trace(@Nullable List<ReadableSpan> spans, boolean keep, long deadlineNanos) {
+      this.spans = spans;
+      this.keep = keep;
+      this.deadlineNanos = deadlineNanos;
+    }
+  }
+}
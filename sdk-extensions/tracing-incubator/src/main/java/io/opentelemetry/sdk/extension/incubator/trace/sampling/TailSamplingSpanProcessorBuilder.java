@@ -0,0 +1,125 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace.sampling;
+
+import static io.opentelemetry.api.internal.Utils.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.internal.SystemClock;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Builder class for {@link TailSamplingSpanProcessor}. */
+public final class TailSamplingSpanProcessorBuilder {
+
+  // Visible for testing
+  static final long DEFAULT_TRACE_TIMEOUT_MILLIS = 30_000;
+  // Visible for testing
+  static final int DEFAULT_MAX_PENDING_TRACES = 10_000;
+  // Visible for testing
+  static final int DEFAULT_MAX_BUFFERED_SPANS = 100_000;
+
+  private final SpanProcessor downstream;
+  private final List<TailSamplingPolicy> policies = new ArrayList<>();
+  private long traceTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TRACE_TIMEOUT_MILLIS);
+  private int maxPendingTraces = DEFAULT_MAX_PENDING_TRACES;
+  private int maxBufferedSpans = DEFAULT_MAX_BUFFERED_SPANS;
+  private Clock clock = SystemClock.getInstance();
+
+  TailSamplingSpanProcessorBuilder(SpanProcessor downstream) {
+    this.downstream = requireNonNull(downstream, "downstream");
+  }
+
+  /**
+   * Adds a policy deciding whether a trace is kept. A trace is kept if any of the policies keeps
+   * it. At least one policy must be added.
+   */
+  public TailSamplingSpanProcessorBuilder addPolicy(TailSamplingPolicy policy) {
+    requireNonNull(policy, "policy");
+    policies.add(policy);
+    return this;
+  }
+
+  /**
+   * Sets the maximum time the spans of a trace are buffered, from the end of its first span. A
+   * trace whose local root span has not ended by then is decided with the spans ended so far. The
+   * decision made for a trace is also remembered for this long, to apply it to the spans ending
+   * after their local root. If unset, defaults to {@value DEFAULT_TRACE_TIMEOUT_MILLIS}ms.
+   */
+  public TailSamplingSpanProcessorBuilder setTraceTimeout(long timeout, TimeUnit unit) {
+    requireNonNull(unit, "unit");
+    checkArgument(timeout > 0, "timeout must be positive");
+    traceTimeoutNanos = unit.toNanos(timeout);
+    return this;
+  }
+
+  /**
+   * Sets the maximum time the spans of a trace are buffered, from the end of its first span. If
+   * unset, defaults to {@value DEFAULT_TRACE_TIMEOUT_MILLIS}ms.
+   *
+   * @see #setTraceTimeout(long, TimeUnit)
+   */
+  public TailSamplingSpanProcessorBuilder setTraceTimeout(Duration timeout) {
+    requireNonNull(timeout, "timeout");
+    return setTraceTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Sets the maximum number of traces buffered while waiting for their local root span to end. When
+   * it is reached, the spans of new traces are decided on their own. If unset, defaults to {@value
+   * DEFAULT_MAX_PENDING_TRACES}.
+   */
+  public TailSamplingSpanProcessorBuilder setMaxPendingTraces(int maxPendingTraces) {
+    checkArgument(maxPendingTraces > 0, "maxPendingTraces must be positive");
+    this.maxPendingTraces = maxPendingTraces;
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of spans buffered across all the pending traces. When it is reached,
+   * ending spans are decided on their own. If unset, defaults to {@value
+   * DEFAULT_MAX_BUFFERED_SPANS}.
+   */
+  public TailSamplingSpanProcessorBuilder setMaxBufferedSpans(int maxBufferedSpans) {
+    checkArgument(maxBufferedSpans > 0, "maxBufferedSpans must be positive");
+    this.maxBufferedSpans = maxBufferedSpans;
+    return this;
+  }
+
+  /**
+   * Sets the clock used to expire the pending traces. Should only be used for testing. If unset,
+   * defaults to the system clock.
+   */
+  public TailSamplingSpanProcessorBuilder setClock(Clock clock) {
+    requireNonNull(clock, "clock");
+    this.clock = clock;
+    return this;
+  }
+
+  /**
+   * Returns a new {@link TailSamplingSpanProcessor} forwarding the kept traces to the downstream
+   * {@link SpanProcessor}.
+   *
+   * @return a new {@link TailSamplingSpanProcessor}.
+   * @throws IllegalStateException if no policy was added.
+   */
+  public TailSamplingSpanProcessor build() {
+    if (policies.isEmpty()) {
+      throw new IllegalStateException("At least one policy must be added");
+    }
+    return new TailSamplingSpanProcessor(
+        downstream,
+        new ArrayList<>(policies),
+        traceTimeoutNanos,
+        maxPendingTraces,
+        maxBufferedSpans,
+        clock);
+  }
+}
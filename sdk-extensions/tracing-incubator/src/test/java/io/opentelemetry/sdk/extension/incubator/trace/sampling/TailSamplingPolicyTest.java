@@ -0,0 +1,151 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace.sampling;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.IdGenerator;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TailSamplingPolicyTest {
+
+  private static final IdGenerator idGenerator = IdGenerator.random();
+
+  @Test
+  void error() {
+    TailSamplingPolicy policy = TailSamplingPolicy.error();
+
+    assertThat(policy.shouldSample(Arrays.asList(span(), span()))).isFalse();
+    assertThat(
+            policy.shouldSample(
+                Arrays.asList(span(), span(0, 1, Attributes.empty(), SpanData.Status.error()))))
+        .isTrue();
+    assertThat(policy.getDescription()).isEqualTo("ErrorPolicy");
+  }
+
+  @Test
+  void latency() {
+    TailSamplingPolicy policy = TailSamplingPolicy.latency(100, TimeUnit.MILLISECONDS);
+    long millis = TimeUnit.MILLISECONDS.toNanos(1);
+
+    assertThat(policy.shouldSample(Collections.singletonList(span(0, 99 * millis)))).isFalse();
+    assertThat(policy.shouldSample(Collections.singletonList(span(0, 100 * millis)))).isTrue();
+    // The trace lasts from the earliest start to the latest end of its spans.
+    assertThat(
+            policy.shouldSample(
+                Arrays.asList(span(10 * millis, 60 * millis), span(0, 20 * millis))))
+        .isFalse();
+    assertThat(
+            policy.shouldSample(
+                Arrays.asList(span(50 * millis, 150 * millis), span(0, 20 * millis))))
+        .isTrue();
+    assertThat(policy.getDescription()).isEqualTo("LatencyPolicy{100ms}");
+    assertThatThrownBy(() -> TailSamplingPolicy.latency(-1, TimeUnit.MILLISECONDS))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void attribute() {
+    TailSamplingPolicy policy = TailSamplingPolicy.attribute(stringKey("tenant"), "vip");
+
+    assertThat(
+            policy.shouldSample(
+                Arrays.asList(
+                    span(Attributes.of(stringKey("tenant"), "other")),
+                    span(Attributes.of(longKey("tenant"), 1L)))))
+        .isFalse();
+    assertThat(
+            policy.shouldSample(
+                Arrays.asList(span(), span(Attributes.of(stringKey("tenant"), "vip")))))
+        .isTrue();
+    assertThat(policy.getDescription()).isEqualTo("AttributePolicy{tenant=vip}");
+  }
+
+  @Test
+  void probabilistic() {
+    assertThatThrownBy(() -> TailSamplingPolicy.probabilistic(-0.1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> TailSamplingPolicy.probabilistic(1.1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(TailSamplingPolicy.probabilistic(0).shouldSample(Collections.singletonList(span())))
+        .isFalse();
+    assertThat(TailSamplingPolicy.probabilistic(1).shouldSample(Collections.singletonList(span())))
+        .isTrue();
+    assertThat(TailSamplingPolicy.probabilistic(0.5).getDescription())
+        .isEqualTo("ProbabilisticPolicy{0.500000}");
+  }
+
+  @Test
+  void probabilistic_sameTracesAsTraceIdRatioBased() {
+    TailSamplingPolicy policy = TailSamplingPolicy.probabilistic(0.3);
+    Sampler sampler = Sampler.traceIdRatioBased(0.3);
+
+    int kept = 0;
+    for (int i = 0; i < 1000; i++) {
+      SpanData span = span();
+      boolean sampled =
+          sampler
+                  .shouldSample(
+                      Context.root(),
+                      span.getTraceId(),
+                      "span",
+                      Span.Kind.INTERNAL,
+                      Attributes.empty(),
+                      Collections.emptyList())
+                  .getDecision()
+              == SamplingResult.Decision.RECORD_AND_SAMPLE;
+      assertThat(policy.shouldSample(Collections.singletonList(span))).isEqualTo(sampled);
+      if (sampled) {
+        kept++;
+      }
+    }
+    assertThat(kept).isBetween(200, 400);
+  }
+
+  private static SpanData span() {
+    return span(0, 1, Attributes.empty());
+  }
+
+  private static SpanData span(long startEpochNanos, long endEpochNanos) {
+    return span(startEpochNanos, endEpochNanos, Attributes.empty());
+  }
+
+  private static SpanData span(Attributes attributes) {
+    return span(0, 1, attributes);
+  }
+
+  private static SpanData span(long startEpochNanos, long endEpochNanos, Attributes attributes) {
+    return span(startEpochNanos, endEpochNanos, attributes, SpanData.Status.unset());
+  }
+
+  private static SpanData span(
+      long startEpochNanos, long endEpochNanos, Attributes attributes, SpanData.Status status) {
+    return TestSpanData.builder()
+        .setTraceId(idGenerator.generateTraceId())
+        .setSpanId(idGenerator.generateSpanId())
+        .setName("span")
+        .setKind(Span.Kind.INTERNAL)
+        .setStartEpochNanos(startEpochNanos)
+        .setEndEpochNanos(endEpochNanos)
+        .setHasEnded(true)
+        .setStatus(status)
+        .setAttributes(attributes)
+        .build();
+  }
+}
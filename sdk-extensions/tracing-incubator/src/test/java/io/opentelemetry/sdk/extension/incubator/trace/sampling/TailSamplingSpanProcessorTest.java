@@ -0,0 +1,339 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace.sampling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.internal.TestClock;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TailSamplingSpanProcessorTest {
+
+  private static final long TRACE_TIMEOUT_MILLIS = 10_000;
+
+  private final TestClock clock = TestClock.create();
+  private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+  private TailSamplingSpanProcessor processor;
+  private Tracer tracer;
+
+  @AfterEach
+  void tearDown() {
+    if (processor != null) {
+      processor.shutdown();
+    }
+  }
+
+  private void setUp(TailSamplingSpanProcessorBuilder builder) {
+    processor = builder.setClock(clock).build();
+    tracer =
+        SdkTracerProvider.builder()
+            .setClock(clock)
+            .addSpanProcessor(processor)
+            .build()
+            .get("TailSamplingSpanProcessorTest");
+  }
+
+  private TailSamplingSpanProcessorBuilder errorPolicyBuilder() {
+    return TailSamplingSpanProcessor.builder(SimpleSpanProcessor.create(exporter))
+        .addPolicy(TailSamplingPolicy.error())
+        .setTraceTimeout(TRACE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void builder_defaults() {
+    setUp(
+        TailSamplingSpanProcessor.builder(SimpleSpanProcessor.create(exporter))
+            .addPolicy(TailSamplingPolicy.error()));
+
+    assertThat(processor.isStartRequired()).isFalse();
+    assertThat(processor.isEndRequired()).isTrue();
+  }
+
+  @Test
+  void builder_invalidConfig() {
+    TailSamplingSpanProcessorBuilder builder =
+        TailSamplingSpanProcessor.builder(SimpleSpanProcessor.create(exporter));
+
+    assertThatThrownBy(() -> TailSamplingSpanProcessor.builder(null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("downstream");
+    assertThatThrownBy(builder::build).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> builder.addPolicy(null)).isInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> builder.setTraceTimeout(0, TimeUnit.MILLISECONDS))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> builder.setMaxPendingTraces(0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> builder.setMaxBufferedSpans(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void buffersSpansUntilLocalRootEnds() {
+    setUp(errorPolicyBuilder());
+
+    Span root = tracer.spanBuilder("root").startSpan();
+    Span child = tracer.spanBuilder("child").setParent(Context.root().with(root)).startSpan();
+    child.setStatus(StatusCode.ERROR);
+    child.end();
+
+    assertThat(exporter.getFinishedSpanItems()).isEmpty();
+    assertThat(processor.getPendingTraces()).isEqualTo(1);
+    assertThat(processor.getBufferedSpans()).isEqualTo(1);
+
+    root.end();
+
+    assertThat(spanNames()).containsExactly("child", "root");
+    assertThat(processor.getPendingTraces()).isEqualTo(0);
+    assertThat(processor.getBufferedSpans()).isEqualTo(0);
+  }
+
+  @Test
+  void dropsTracesNotKeptByAnyPolicy() {
+    setUp(errorPolicyBuilder().addPolicy(TailSamplingPolicy.latency(1, TimeUnit.SECONDS)));
+
+    Span root = tracer.spanBuilder("root").startSpan();
+    tracer.spanBuilder("child").setParent(Context.root().with(root)).startSpan().end();
+    clock.advanceMillis(500);
+    root.end();
+    assertThat(exporter.getFinishedSpanItems()).isEmpty();
+
+    Span slowRoot = tracer.spanBuilder("slowRoot").startSpan();
+    tracer.spanBuilder("slowChild").setParent(Context.root().with(slowRoot)).startSpan().end();
+    clock.advanceMillis(1000);
+    slowRoot.end();
+    assertThat(spanNames()).containsExactly("slowChild", "slowRoot");
+    assertThat(processor.getBufferedSpans()).isEqualTo(0);
+  }
+
+  @Test
+  void remoteParent_isLocalRoot() {
+    setUp(errorPolicyBuilder());
+    SpanContext remoteParent =
+        SpanContext.createFromRemoteParent(
+            TraceId.fromLongs(1, 2),
+            SpanId.fromLong(3),
+            TraceFlags.getSampled(),
+            TraceState.getDefault());
+
+    Span server =
+        tracer
+            .spanBuilder("server")
+            .setParent(Context.root().with(Span.wrap(remoteParent)))
+            .startSpan();
+    Span child = tracer.spanBuilder("child").setParent(Context.root().with(server)).startSpan();
+    child.setStatus(StatusCode.ERROR);
+    child.end();
+    assertThat(exporter.getFinishedSpanItems()).isEmpty();
+
+    server.end();
+    assertThat(spanNames()).containsExactly("child", "server");
+  }
+
+  @Test
+  void traceTimeout_decidesWithEndedSpans() {
+    setUp(errorPolicyBuilder());
+
+    Span root = tracer.spanBuilder("root").startSpan();
+    Span child = tracer.spanBuilder("child").setParent(Context.root().with(root)).startSpan();
+    child.setStatus(StatusCode.ERROR);
+    child.end();
+
+    clock.advanceMillis(TRACE_TIMEOUT_MILLIS - 1);
+    processor.decideExpiredTraces();
+    assertThat(exporter.getFinishedSpanItems()).isEmpty();
+
+    clock.advanceMillis(1);
+    processor.decideExpiredTraces();
+    assertThat(spanNames()).containsExactly("child");
+    assertThat(processor.getPendingTraces()).isEqualTo(0);
+    assertThat(processor.getBufferedSpans()).isEqualTo(0);
+
+    // The root ending later follows the decision of its trace.
+    root.end();
+    assertThat(spanNames()).containsExactly("child", "root");
+  }
+
+  @Test
+  void spansEndingAfterLocalRoot_followDecision() {
+    setUp(errorPolicyBuilder());
+
+    Span keptRoot = tracer.spanBuilder("keptRoot").startSpan();
+    Span keptChild =
+        tracer.spanBuilder("keptChild").setParent(Context.root().with(keptRoot)).startSpan();
+    keptRoot.setStatus(StatusCode.ERROR);
+    keptRoot.end();
+    Span droppedRoot = tracer.spanBuilder("droppedRoot").startSpan();
+    Span droppedChild =
+        tracer.spanBuilder("droppedChild").setParent(Context.root().with(droppedRoot)).startSpan();
+    droppedRoot.end();
+
+    keptChild.end();
+    droppedChild.setStatus(StatusCode.ERROR);
+    droppedChild.end();
+
+    assertThat(spanNames()).containsExactly("keptRoot", "keptChild");
+    assertThat(processor.getPendingTraces()).isEqualTo(0);
+  }
+
+  @Test
+  void decisions_forgottenAfterTraceTimeout() {
+    setUp(errorPolicyBuilder());
+
+    Span root = tracer.spanBuilder("root").startSpan();
+    Span child = tracer.spanBuilder("child").setParent(Context.root().with(root)).startSpan();
+    root.end();
+
+    clock.advanceMillis(TRACE_TIMEOUT_MILLIS);
+    processor.decideExpiredTraces();
+
+    // The child is buffered as a new trace.
+    child.setStatus(StatusCode.ERROR);
+    child.end();
+    assertThat(processor.getPendingTraces()).isEqualTo(1);
+    processor.forceFlush().join(10, TimeUnit.SECONDS);
+    assertThat(spanNames()).containsExactly("child");
+  }
+
+  @Test
+  void maxPendingTraces_decidesSpansOnTheirOwn() {
+    setUp(errorPolicyBuilder().setMaxPendingTraces(1));
+
+    Span root1 = tracer.spanBuilder("root1").startSpan();
+    tracer.spanBuilder("child1").setParent(Context.root().with(root1)).startSpan().end();
+    Span root2 = tracer.spanBuilder("root2").startSpan();
+    Span child2 = tracer.spanBuilder("child2").setParent(Context.root().with(root2)).startSpan();
+    child2.setStatus(StatusCode.ERROR);
+    child2.end();
+
+    assertThat(spanNames()).containsExactly("child2");
+    assertThat(processor.getPendingTraces()).isEqualTo(1);
+    assertThat(processor.getBufferedSpans()).isEqualTo(1);
+  }
+
+  @Test
+  void maxBufferedSpans_decidesSpansOnTheirOwn() {
+    setUp(errorPolicyBuilder().setMaxBufferedSpans(2));
+
+    Span root = tracer.spanBuilder("root").startSpan();
+    tracer.spanBuilder("child1").setParent(Context.root().with(root)).startSpan().end();
+    tracer.spanBuilder("child2").setParent(Context.root().with(root)).startSpan().end();
+    Span child3 = tracer.spanBuilder("child3").setParent(Context.root().with(root)).startSpan();
+    child3.setStatus(StatusCode.ERROR);
+    child3.end();
+
+    assertThat(spanNames()).containsExactly("child3");
+    assertThat(processor.getBufferedSpans()).isEqualTo(2);
+  }
+
+  @Test
+  void concurrentTraces() throws Exception {
+    setUp(errorPolicyBuilder());
+    int numberOfThreads = 8;
+    int tracesPerThread = 100;
+    ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < numberOfThreads; t++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                for (int i = 0; i < tracesPerThread; i++) {
+                  Span root = tracer.spanBuilder("root").startSpan();
+                  for (int j = 0; j < 3; j++) {
+                    tracer
+                        .spanBuilder("child")
+                        .setParent(Context.root().with(root))
+                        .startSpan()
+                        .end();
+                  }
+                  if (i % 2 == 0) {
+                    root.setStatus(StatusCode.ERROR);
+                  }
+                  root.end();
+                }
+              }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    assertThat(exporter.getFinishedSpanItems()).hasSize(numberOfThreads * tracesPerThread / 2 * 4);
+    assertThat(processor.getPendingTraces()).isEqualTo(0);
+    assertThat(processor.getBufferedSpans()).isEqualTo(0);
+  }
+
+  @Test
+  void forceFlush_decidesPendingTraces() {
+    setUp(errorPolicyBuilder());
+
+    Span root = tracer.spanBuilder("root").startSpan();
+    Span child = tracer.spanBuilder("child").setParent(Context.root().with(root)).startSpan();
+    child.setStatus(StatusCode.ERROR);
+    child.end();
+    Span otherRoot = tracer.spanBuilder("otherRoot").startSpan();
+    tracer.spanBuilder("otherChild").setParent(Context.root().with(otherRoot)).startSpan().end();
+
+    assertThat(processor.forceFlush().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+    assertThat(spanNames()).containsExactly("child");
+    assertThat(processor.getPendingTraces()).isEqualTo(0);
+    assertThat(processor.getBufferedSpans()).isEqualTo(0);
+  }
+
+  @Test
+  void shutdown_decidesPendingTracesAndShutsDownDownstream() {
+    SpanProcessor downstream = mock(SpanProcessor.class);
+    when(downstream.shutdown()).thenReturn(CompletableResultCode.ofSuccess());
+    setUp(
+        TailSamplingSpanProcessor.builder(downstream)
+            .addPolicy(TailSamplingPolicy.error())
+            .setTraceTimeout(TRACE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+    Span root = tracer.spanBuilder("root").startSpan();
+    Span child = tracer.spanBuilder("child").setParent(Context.root().with(root)).startSpan();
+    child.setStatus(StatusCode.ERROR);
+    child.end();
+
+    assertThat(processor.shutdown().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+    verify(downstream).onEnd((ReadableSpan) child);
+    verify(downstream).shutdown();
+    assertThat(processor.shutdown().isSuccess()).isTrue();
+    verify(downstream).shutdown();
+  }
+
+  private List<String> spanNames() {
+    return exporter.getFinishedSpanItems().stream()
+        .map(SpanData::getName)
+        .collect(Collectors.toList());
+  }
+}
@@ -27,6 +27,26 @@ public class DoubleMinMaxSumCountBenchmark {
     aggregatorHandle = DoubleMinMaxSumCountAggregator.getInstance().createHandle();
   }
 
+  @Benchmark
+  @Fork(1)
+  @Warmup(iterations = 5, time = 1)
+  @Measurement(iterations = 10, time = 1)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(value = 64)
+  public void aggregate_64Threads() {
+    aggregatorHandle.recordDouble(100.0056);
+  }
+
+  @Benchmark
+  @Fork(1)
+  @Warmup(iterations = 5, time = 1)
+  @Measurement(iterations = 10, time = 1)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(value = 32)
+  public void aggregate_32Threads() {
+    aggregatorHandle.recordDouble(100.0056);
+  }
+
   @Benchmark
   @Fork(1)
   @Warmup(iterations = 5, time = 1)
@@ -0,0 +1,85 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+public class ExponentialHistogramBenchmark {
+
+  private final ExponentialHistogramAggregator aggregator =
+      new ExponentialHistogramAggregator(ExponentialHistogramAggregator.DEFAULT_MAX_BUCKETS);
+  private AggregatorHandle<ExponentialHistogramAccumulation> aggregatorHandle;
+  private ExponentialHistogramAccumulation accumulation1;
+  private ExponentialHistogramAccumulation accumulation2;
+
+  @Setup(Level.Trial)
+  public final void setup() {
+    aggregatorHandle = aggregator.createHandle();
+    accumulation1 = randomAccumulation();
+    accumulation2 = randomAccumulation();
+  }
+
+  // Latencies between 1us and 10s, in nanoseconds.
+  private ExponentialHistogramAccumulation randomAccumulation() {
+    AggregatorHandle<ExponentialHistogramAccumulation> handle = aggregator.createHandle();
+    for (int i = 0; i < 10_000; i++) {
+      handle.recordDouble(Math.pow(10, 3 + 7 * ThreadLocalRandom.current().nextDouble()));
+    }
+    return handle.accumulateThenReset();
+  }
+
+  @Benchmark
+  @Fork(1)
+  @Warmup(iterations = 5, time = 1)
+  @Measurement(iterations = 10, time = 1)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(value = 32)
+  public void aggregate_32Threads() {
+    aggregatorHandle.recordDouble(100.0056);
+  }
+
+  @Benchmark
+  @Fork(1)
+  @Warmup(iterations = 5, time = 1)
+  @Measurement(iterations = 10, time = 1)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(value = 10)
+  public void aggregate_10Threads() {
+    aggregatorHandle.recordDouble(100.0056);
+  }
+
+  @Benchmark
+  @Fork(1)
+  @Warmup(iterations = 5, time = 1)
+  @Measurement(iterations = 10, time = 1)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(value = 1)
+  public void aggregate_1Threads() {
+    aggregatorHandle.recordDouble(100.0056);
+  }
+
+  @Benchmark
+  @Fork(1)
+  @Warmup(iterations = 5, time = 1)
+  @Measurement(iterations = 10, time = 1)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(value = 1)
+  public ExponentialHistogramAccumulation merge() {
+    return aggregator.merge(accumulation1, accumulation2);
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of generating the identifiers of a span with the default {@link IdGenerator},
+ * in their base16 form and in the binary form used by the {@link SdkTracer}.
+ *
+ * <p>The {@code batched} generator is an alternative that was considered and rejected, kept here so
+ * that the comparison can be run again, for example on another JVM.
+ */
+@State(Scope.Benchmark)
+@Measurement(iterations = 15, time = 1)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+public class IdGeneratorBenchmark {
+  @Param({"random", "batched"})
+  private String generator;
+
+  private IdGenerator idGenerator;
+  private LongIdGenerator longIdGenerator;
+
+  @Setup
+  public void setup() {
+    longIdGenerator =
+        generator.equals("batched")
+            ? new BatchedIdGenerator()
+            : (LongIdGenerator) IdGenerator.random();
+    idGenerator = longIdGenerator;
+  }
+
+  @Benchmark
+  public String generateTraceId() {
+    return idGenerator.generateTraceId();
+  }
+
+  @Benchmark
+  public String generateSpanId() {
+    return idGenerator.generateSpanId();
+  }
+
+  @Benchmark
+  public void generateTraceIdAsLongs(Blackhole blackhole) {
+    blackhole.consume(longIdGenerator.generateTraceIdHighBytesAsLong());
+    blackhole.consume(longIdGenerator.generateTraceIdLowBytesAsLong());
+  }
+
+  @Benchmark
+  public long generateSpanIdAsLong() {
+    return longIdGenerator.generateSpanIdAsLong();
+  }
+
+  /** Generates the identifiers of a root span, as the {@link SdkSpanBuilder} does. */
+  @Benchmark
+  @Threads(4)
+  public void generateRootSpanIds_04Threads(Blackhole blackhole) {
+    blackhole.consume(longIdGenerator.generateSpanIdAsLong());
+    blackhole.consume(longIdGenerator.generateTraceIdHighBytesAsLong());
+    blackhole.consume(longIdGenerator.generateTraceIdLowBytesAsLong());
+  }
+
+  /**
+   * Generates identifiers from blocks of random values, filled by each thread with xoroshiro128++
+   * seeded from a {@link SplittableRandom}. Filling a block is cheaper per value than {@link
+   * java.util.concurrent.ThreadLocalRandom}, but looking up the block of the current thread costs
+   * more than it saves.
+   */
+  private static final class BatchedIdGenerator implements LongIdGenerator {
+    private static final int BLOCK_SIZE = 64;
+
+    private final SplittableRandom seeds = new SplittableRandom();
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(this::newBlock);
+
+    @Override
+    public long generateSpanIdAsLong() {
+      return nextValidLong(blocks.get());
+    }
+
+    @Override
+    public long generateTraceIdHighBytesAsLong() {
+      return blocks.get().nextLong();
+    }
+
+    @Override
+    public long generateTraceIdLowBytesAsLong() {
+      return nextValidLong(blocks.get());
+    }
+
+    private synchronized Block newBlock() {
+      return new Block(seeds.split());
+    }
+
+    private static long nextValidLong(Block block) {
+      long id;
+      do {
+        id = block.nextLong();
+      } while (id == 0);
+      return id;
+    }
+  }
+
+  private static final class Block {
+    private final long[] values = new long[BatchedIdGenerator.BLOCK_SIZE];
+    private int next = values.length;
+    private long s0;
+    private long s1;
+
+    Block(SplittableRandom seed) {
+      s0 = seed.nextLong();
+      s1 = seed.nextLong();
+      if (s0 == 0 && s1 == 0) {
+        s1 = 1;
+      }
+    }
+
+    long nextLong() {
+      if (next == values.length) {
+        fill();
+        next = 0;
+      }
+      return values[next++];
+    }
+
+    private void fill() {
+      long s0 = this.s0;
+      long s1 = this.s1;
+      for (int i = 0; i < values.length; i++) {
+        values[i] = Long.rotateLeft(s0 + s1, 17) + s0;
+        s1 ^= s0;
+        s0 = Long.rotateLeft(s0, 49) ^ s1 ^ (s1 << 21);
+        s1 = Long.rotateLeft(s1, 28);
+      }
+      this.s0 = s0;
+      this.s1 = s1;
+    }
+  }
+}
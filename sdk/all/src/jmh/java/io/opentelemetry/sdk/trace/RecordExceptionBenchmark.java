@@ -0,0 +1,95 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.trace.config.TraceConfig;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of {@link Span#recordException(Throwable)} on the recording thread, and with
+ * the stack trace read afterwards as an exporter would, with stack traces rendered eagerly or
+ * lazily, truncated or not and deduplicated or not.
+ */
+@State(Scope.Benchmark)
+@Threads(value = 1)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RecordExceptionBenchmark {
+
+  private static final int THROWABLE_SIZE = 50;
+
+  @Param({"false", "true"})
+  private boolean renderStackTracesLazily;
+
+  @Param({"-1", "10"})
+  private int maxNumberOfStackTraceFrames;
+
+  @Param({"false", "true"})
+  private boolean deduplicateStackTraces;
+
+  private Tracer tracer;
+  private Throwable throwable;
+
+  @Setup(Level.Trial)
+  public final void setup() {
+    TraceConfig traceConfig =
+        TraceConfig.builder()
+            .setRenderStackTracesLazily(renderStackTracesLazily)
+            .setMaxNumberOfStackTraceFrames(maxNumberOfStackTraceFrames)
+            .setDeduplicateStackTraces(deduplicateStackTraces)
+            .build();
+    tracer = SdkTracerProvider.builder().setTraceConfig(traceConfig).build().get("benchmarkTracer");
+    try {
+      throwAfter(0);
+    } catch (Throwable t) {
+      throwable = t;
+    }
+  }
+
+  private static void throwAfter(int count) {
+    if (count == THROWABLE_SIZE) {
+      throw new AssertionError("threw");
+    } else {
+      throwAfter(count + 1);
+    }
+  }
+
+  @Benchmark
+  public Span recordException() {
+    Span span = tracer.spanBuilder("span").startSpan();
+    span.recordException(throwable);
+    span.end();
+    return span;
+  }
+
+  @Benchmark
+  public String recordExceptionAndExport() {
+    ReadableSpan span = (ReadableSpan) tracer.spanBuilder("span").startSpan();
+    ((Span) span).recordException(throwable);
+    ((Span) span).end();
+    return span.toSpanData()
+        .getEvents()
+        .get(0)
+        .getAttributes()
+        .get(SemanticAttributes.EXCEPTION_STACKTRACE);
+  }
+}
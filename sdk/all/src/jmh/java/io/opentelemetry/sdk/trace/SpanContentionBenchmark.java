@@ -0,0 +1,203 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.internal.SystemClock;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.config.TraceConfig;
+import io.opentelemetry.sdk.trace.data.SpanData.Event;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the spin lock based state of {@link RecordEventsReadableSpan} with the previous monitor
+ * based implementation, reproduced by {@link SynchronizedSpanState}, both for the common case of a
+ * single thread writing each span and for several threads writing the same span. Both variants
+ * record the same attributes and create the same events, run with {@code -prof gc} to compare their
+ * {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class SpanContentionBenchmark {
+
+  private static final AttributeKey<Long> LONG_KEY = AttributeKey.longKey("longAttribute");
+  private static final AttributeKey<String> STRING_KEY = AttributeKey.stringKey("stringAttribute");
+
+  private static final SpanContext SPAN_CONTEXT =
+      SpanContext.create(
+          "7b8e9f2e5c1d4a3b2f6e8d9c0a1b2c3d",
+          "5c1d4a3b2f6e8d9c",
+          TraceFlags.getSampled(),
+          TraceState.getDefault());
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkState {
+    // Shared by all the benchmark threads, never ended.
+    Span sharedSpan;
+    SynchronizedSpanState sharedSynchronizedState;
+
+    @Setup(Level.Trial)
+    public final void setup() {
+      sharedSpan = startSpan();
+      sharedSynchronizedState = new SynchronizedSpanState(TraceConfig.getDefault());
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Span singleWriter_spinLock_01Thread() {
+    return writeAndEnd(startSpan());
+  }
+
+  @Benchmark
+  @Threads(1)
+  public SynchronizedSpanState singleWriter_synchronized_01Thread() {
+    return writeAndEnd(new SynchronizedSpanState(TraceConfig.getDefault()));
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Span singleWriter_spinLock_04Threads() {
+    return writeAndEnd(startSpan());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public SynchronizedSpanState singleWriter_synchronized_04Threads() {
+    return writeAndEnd(new SynchronizedSpanState(TraceConfig.getDefault()));
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Span sharedSpan_spinLock_04Threads(BenchmarkState state) {
+    Span span = state.sharedSpan;
+    span.setAttribute(LONG_KEY, 33L);
+    span.addEvent("event");
+    return span;
+  }
+
+  @Benchmark
+  @Threads(4)
+  public SynchronizedSpanState sharedSpan_synchronized_04Threads(BenchmarkState state) {
+    SynchronizedSpanState span = state.sharedSynchronizedState;
+    span.setAttribute(LONG_KEY, 33L);
+    span.addEvent("event");
+    return span;
+  }
+
+  // Bypasses the span builder so that only the span state is measured.
+  private static Span startSpan() {
+    return RecordEventsReadableSpan.startSpan(
+        SPAN_CONTEXT,
+        "span",
+        InstrumentationLibraryInfo.getEmpty(),
+        Span.Kind.INTERNAL,
+        SpanContext.getInvalid(),
+        Context.root(),
+        TraceConfig.getDefault(),
+        NoopSpanProcessor.getInstance(),
+        SystemClock.getInstance(),
+        Resource.getDefault(),
+        /* attributes= */ null,
+        Collections.emptyList(),
+        /* totalRecordedLinks= */ 0,
+        /* startEpochNanos= */ 1);
+  }
+
+  private static Span writeAndEnd(Span span) {
+    span.setAttribute(LONG_KEY, 33L);
+    span.setAttribute(STRING_KEY, "value");
+    span.addEvent("event");
+    span.end(2, TimeUnit.NANOSECONDS);
+    return span;
+  }
+
+  private static SynchronizedSpanState writeAndEnd(SynchronizedSpanState span) {
+    span.setAttribute(LONG_KEY, 33L);
+    span.setAttribute(STRING_KEY, "value");
+    span.addEvent("event");
+    span.end(2);
+    return span;
+  }
+
+  /** The monitor based span state used by {@link RecordEventsReadableSpan} before. */
+  static final class SynchronizedSpanState {
+    private final Object lock = new Object();
+    private final TraceConfig traceConfig;
+    private final List<Event> events = new ArrayList<>();
+    private AttributesMap attributes;
+    private int totalRecordedEvents;
+
+    @SuppressWarnings("unused")
+    private long endEpochNanos;
+
+    private boolean hasEnded;
+
+    SynchronizedSpanState(TraceConfig traceConfig) {
+      this.traceConfig = traceConfig;
+    }
+
+    <T> void setAttribute(AttributeKey<T> key, T value) {
+      synchronized (lock) {
+        if (hasEnded) {
+          return;
+        }
+        if (attributes == null) {
+          attributes = new AttributesMap(traceConfig.getMaxNumberOfAttributes());
+        }
+        attributes.put(key, value);
+      }
+    }
+
+    void addEvent(String name) {
+      Event event = Event.create(SystemClock.getInstance().now(), name, Attributes.empty(), 0);
+      synchronized (lock) {
+        if (hasEnded) {
+          return;
+        }
+        if (events.size() < traceConfig.getMaxNumberOfEvents()) {
+          events.add(event);
+        }
+        totalRecordedEvents++;
+      }
+    }
+
+    void end(long endEpochNanos) {
+      synchronized (lock) {
+        if (hasEnded) {
+          return;
+        }
+        this.endEpochNanos = endEpochNanos;
+        hasEnded = true;
+      }
+    }
+  }
+}
@@ -5,10 +5,12 @@
 
 package io.opentelemetry.sdk.trace;
 
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
 import io.opentelemetry.sdk.trace.config.TraceConfig;
+import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
 import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
 import io.opentelemetry.sdk.trace.samplers.Sampler;
@@ -26,6 +28,7 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.wait.strategy.Wait;
 import org.testcontainers.utility.DockerImageName;
@@ -126,4 +129,64 @@ public class SpanPipelineBenchmark {
       doWork();
     }
   }
+
+  /**
+   * Measures the conversion of spans to {@link SpanData}, as done by the span processors and
+   * exporters of the pipeline, without the exporter itself. A span that is still recording is
+   * snapshotted on every call, while an ended span shares a single {@link SpanData}. Run with
+   * {@code -prof gc} to compare the allocation rates.
+   */
+  @State(Scope.Benchmark)
+  @BenchmarkMode(Mode.Throughput)
+  @Warmup(iterations = 5, time = 1)
+  @Measurement(iterations = 10, time = 1)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Fork(1)
+  public static class ToSpanDataBenchmark {
+    // The number of times the batch span processor may convert a span: to estimate its size, to
+    // check its status for the priority backpressure policy and to export it.
+    private static final int CONVERSIONS_PER_SPAN = 3;
+
+    private ReadableSpan recordingSpan;
+    private ReadableSpan endedSpan;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      Tracer tracer =
+          SdkTracerProvider.builder()
+              .setTraceConfig(TraceConfig.builder().setSampler(Sampler.alwaysOn()).build())
+              .build()
+              .get("PipelineBenchmarkTracer");
+      recordingSpan = createSpan(tracer);
+      endedSpan = createSpan(tracer);
+      ((Span) endedSpan).end();
+    }
+
+    private static ReadableSpan createSpan(Tracer tracer) {
+      Span span = tracer.spanBuilder("PipelineBenchmarkSpan").startSpan();
+      for (int i = 0; i < 10; i++) {
+        span.setAttribute("benchmarkAttribute_" + i, "benchmarkAttrValue_" + i);
+      }
+      for (int i = 0; i < 3; i++) {
+        span.addEvent("benchmarkEvent_" + i, Attributes.empty());
+      }
+      return (ReadableSpan) span;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void recordingSpan(Blackhole blackhole) {
+      for (int i = 0; i < CONVERSIONS_PER_SPAN; i++) {
+        blackhole.consume(recordingSpan.toSpanData());
+      }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void endedSpan(Blackhole blackhole) {
+      for (int i = 0; i < CONVERSIONS_PER_SPAN; i++) {
+        blackhole.consume(endedSpan.toSpanData());
+      }
+    }
+  }
 }
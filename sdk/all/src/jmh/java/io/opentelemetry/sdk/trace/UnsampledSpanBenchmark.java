@@ -0,0 +1,88 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.config.TraceConfig;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of starting and ending a span dropped by the sampler, as a root span, under a
+ * dropped local parent and under an unsampled remote parent. Run with {@code -prof gc} to see the
+ * allocations per dropped span.
+ */
+@State(Scope.Benchmark)
+@Threads(value = 1)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UnsampledSpanBenchmark {
+
+  private Tracer tracer;
+  private Context droppedParentContext;
+  private Context remoteParentContext;
+
+  @Setup(Level.Trial)
+  public final void setup() {
+    tracer =
+        SdkTracerProvider.builder()
+            .setTraceConfig(
+                TraceConfig.builder().setSampler(Sampler.parentBased(Sampler.alwaysOff())).build())
+            .build()
+            .get("benchmarkTracer");
+    droppedParentContext = Context.root().with(tracer.spanBuilder("parent").startSpan());
+    remoteParentContext =
+        Context.root()
+            .with(
+                Span.wrap(
+                    SpanContext.createFromRemoteParent(
+                        "ff000000000000000000000000000041",
+                        "ff00000000000041",
+                        TraceFlags.getDefault(),
+                        TraceState.getDefault())));
+  }
+
+  @Benchmark
+  public Span droppedRoot() {
+    Span span = tracer.spanBuilder("span").setNoParent().startSpan();
+    span.end();
+    return span;
+  }
+
+  @Benchmark
+  public Span droppedChildOfDroppedParent() {
+    Span span = tracer.spanBuilder("span").setParent(droppedParentContext).startSpan();
+    span.end();
+    return span;
+  }
+
+  @Benchmark
+  public Span droppedChildOfRemoteParent() {
+    Span span = tracer.spanBuilder("span").setParent(remoteParentContext).startSpan();
+    span.end();
+    return span;
+  }
+}
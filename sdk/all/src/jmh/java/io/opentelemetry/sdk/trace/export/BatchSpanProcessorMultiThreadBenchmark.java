@@ -0,0 +1,110 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.export;
+
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of {@link BatchSpanProcessor#onEnd(ReadableSpan)} when many threads end
+ * spans concurrently, with the default blocking queue and with the lock-free queue, with and
+ * without sharding.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class BatchSpanProcessorMultiThreadBenchmark {
+
+  private static class NoopSpanExporter implements SpanExporter {
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+      return CompletableResultCode.ofSuccess();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkState {
+    @Param({"false", "true"})
+    private boolean useLockFreeQueue;
+
+    @Param({"1", "4"})
+    private int numberOfShards;
+
+    private BatchSpanProcessor processor;
+    private ReadableSpan span;
+
+    @Setup(Level.Trial)
+    public final void setup() {
+      processor =
+          BatchSpanProcessor.builder(new NoopSpanExporter())
+              .setUseLockFreeQueue(useLockFreeQueue)
+              .setNumberOfShards(numberOfShards)
+              .build();
+      Tracer tracer = SdkTracerProvider.builder().build().get("benchmarkTracer");
+      span = (ReadableSpan) tracer.spanBuilder("span").startSpan();
+    }
+
+    @TearDown(Level.Trial)
+    public final void tearDown() {
+      processor.shutdown().join(10, TimeUnit.SECONDS);
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void onEnd_01Thread(BenchmarkState state) {
+    state.processor.onEnd(state.span);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void onEnd_04Threads(BenchmarkState state) {
+    state.processor.onEnd(state.span);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public void onEnd_16Threads(BenchmarkState state) {
+    state.processor.onEnd(state.span);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public void onEnd_64Threads(BenchmarkState state) {
+    state.processor.onEnd(state.span);
+  }
+}
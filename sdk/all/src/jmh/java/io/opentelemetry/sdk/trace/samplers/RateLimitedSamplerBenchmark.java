@@ -0,0 +1,88 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.samplers;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.internal.SystemClock;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of {@link RateLimitedSampler} when many threads sample concurrently, with
+ * a single stripe, which funnels every sampled span through one word like a classic token bucket,
+ * and with the default number of stripes. With a low rate almost all spans are dropped, with a high
+ * rate many are sampled.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@State(Scope.Benchmark)
+public class RateLimitedSamplerBenchmark {
+
+  private static final String TRACE_ID = TraceId.fromLongs(1, 2);
+
+  @Param({"100", "10000000"})
+  private double spansPerSecond;
+
+  @Param({"true", "false"})
+  private boolean singleStripe;
+
+  private Sampler sampler;
+
+  @Setup(Level.Trial)
+  public final void setup() {
+    sampler =
+        singleStripe
+            ? new RateLimitedSampler(spansPerSecond, SystemClock.getInstance(), 1)
+            : RateLimitedSampler.create(spansPerSecond);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public SamplingResult shouldSample_01Thread() {
+    return shouldSample();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public SamplingResult shouldSample_04Threads() {
+    return shouldSample();
+  }
+
+  @Benchmark
+  @Threads(16)
+  public SamplingResult shouldSample_16Threads() {
+    return shouldSample();
+  }
+
+  private SamplingResult shouldSample() {
+    return sampler.shouldSample(
+        Context.root(),
+        TRACE_ID,
+        "span",
+        Span.Kind.INTERNAL,
+        Attributes.empty(),
+        Collections.emptyList());
+  }
+}
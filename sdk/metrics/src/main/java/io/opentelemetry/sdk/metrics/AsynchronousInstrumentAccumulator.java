@@ -28,7 +28,11 @@ final class AsynchronousInstrumentAccumulator {
     }
 
     AsynchronousInstrument.DoubleResult result =
-        (value, labels) -> instrumentProcessor.batch(labels, aggregator.accumulateDouble(value));
+        (value, labels) -> {
+          if (instrumentProcessor.batch(labels, aggregator.accumulateDouble(value))) {
+            instrumentProcessor.recordOverflow();
+          }
+        };
 
     return new AsynchronousInstrumentAccumulator(
         instrumentProcessor, () -> metricUpdater.accept(result));
@@ -44,7 +48,11 @@ final class AsynchronousInstrumentAccumulator {
     }
 
     AsynchronousInstrument.LongResult result =
-        (value, labels) -> instrumentProcessor.batch(labels, aggregator.accumulateLong(value));
+        (value, labels) -> {
+          if (instrumentProcessor.batch(labels, aggregator.accumulateLong(value))) {
+            instrumentProcessor.recordOverflow();
+          }
+        };
 
     return new AsynchronousInstrumentAccumulator(
         instrumentProcessor, () -> metricUpdater.accept(result));
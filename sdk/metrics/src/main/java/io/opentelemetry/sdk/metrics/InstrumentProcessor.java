@@ -16,6 +16,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * An {@code InstrumentProcessor} represents an internal instance of an {@code Accumulator} for a
@@ -24,8 +25,14 @@ import java.util.Map;
  *
  * <p>An entire collection cycle must be protected by a lock. A collection cycle is defined by
  * multiple calls to {@code #batch(...)} followed by one {@code #completeCollectionCycle(...)};
+ *
+ * <p>At most {@code maxLabelSets - 1} label sets are batched, the accumulations of any other label
+ * set are merged into the {@link #OVERFLOW_LABELS}.
  */
 final class InstrumentProcessor<T> {
+  /** The label set of the recordings of an instrument which reached its maximum of label sets. */
+  static final Labels OVERFLOW_LABELS = Labels.of("otel.metric.overflow", "true");
+
   private final InstrumentDescriptor descriptor;
   private final Aggregator<T> aggregator;
   private final Resource resource;
@@ -33,6 +40,8 @@ final class InstrumentProcessor<T> {
   private Map<Labels, T> accumulationMap;
   private long startEpochNanos;
   private final boolean delta;
+  private final int maxLabelSets;
+  private final LongAdder overflows;
 
   /**
    * Create a new {@link InstrumentProcessor} for use in metric recording aggregation.
@@ -55,7 +64,11 @@ final class InstrumentProcessor<T> {
         meterProviderSharedState.getResource(),
         meterSharedState.getInstrumentationLibraryInfo(),
         meterProviderSharedState.getStartEpochNanos(),
-        isDelta(configuration.getTemporality()));
+        isDelta(configuration.getTemporality()),
+        configuration.getMaxLabelSets(),
+        meterProviderSharedState
+            .getLabelSetOverflows()
+            .getCounter(meterSharedState.getInstrumentationLibraryInfo(), descriptor));
   }
 
   private InstrumentProcessor(
@@ -64,7 +77,9 @@ final class InstrumentProcessor<T> {
       Resource resource,
       InstrumentationLibraryInfo instrumentationLibraryInfo,
       long startEpochNanos,
-      boolean delta) {
+      boolean delta,
+      int maxLabelSets,
+      LongAdder overflows) {
     this.descriptor = descriptor;
     this.aggregator = aggregator;
     this.resource = resource;
@@ -72,22 +87,42 @@ final class InstrumentProcessor<T> {
     this.delta = delta;
     this.accumulationMap = new HashMap<>();
     this.startEpochNanos = startEpochNanos;
+    this.maxLabelSets = maxLabelSets;
+    this.overflows = overflows;
   }
 
   /**
    * Batches multiple entries together that are part of the same metric. It may remove labels from
    * the {@link Labels} and merge aggregations together.
    *
+   * <p>Once the metric has its maximum number of label sets, an accumulation with a new label set
+   * is merged into the {@link #OVERFLOW_LABELS}. The caller counts it with {@link
+   * #recordOverflow()} when it holds a single recording, as an observation does.
+   *
    * @param labelSet the {@link Labels} associated with this {@code Aggregator}.
    * @param accumulation the accumulation produced by this instrument.
+   * @return whether the accumulation was merged into the {@link #OVERFLOW_LABELS}.
    */
-  void batch(Labels labelSet, T accumulation) {
+  boolean batch(Labels labelSet, T accumulation) {
     T currentAccumulation = accumulationMap.get(labelSet);
+    boolean overflowed = false;
+    if (currentAccumulation == null && !labelSet.equals(OVERFLOW_LABELS)) {
+      int labelSets = accumulationMap.size();
+      if (accumulationMap.containsKey(OVERFLOW_LABELS)) {
+        labelSets--;
+      }
+      if (labelSets >= maxLabelSets - 1) {
+        labelSet = OVERFLOW_LABELS;
+        currentAccumulation = accumulationMap.get(labelSet);
+        overflowed = true;
+      }
+    }
     if (currentAccumulation == null) {
       accumulationMap.put(labelSet, accumulation);
-      return;
+    } else {
+      accumulationMap.put(labelSet, aggregator.merge(currentAccumulation, accumulation));
     }
-    accumulationMap.put(labelSet, aggregator.merge(currentAccumulation, accumulation));
+    return overflowed;
   }
 
   /**
@@ -122,6 +157,16 @@ final class InstrumentProcessor<T> {
     return metricData == null ? Collections.emptyList() : Collections.singletonList(metricData);
   }
 
+  /** Returns the maximum number of label sets, including the {@link #OVERFLOW_LABELS}. */
+  int getMaxLabelSets() {
+    return maxLabelSets;
+  }
+
+  /** Counts a recording folded into the {@link #OVERFLOW_LABELS}, may be called concurrently. */
+  void recordOverflow() {
+    overflows.increment();
+  }
+
   private static boolean isDelta(MetricData.AggregationTemporality temporality) {
     switch (temporality) {
       case CUMULATIVE:
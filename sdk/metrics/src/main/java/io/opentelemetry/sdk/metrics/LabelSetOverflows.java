@@ -0,0 +1,81 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.common.InstrumentDescriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Counts, for each instrument of a {@link SdkMeterProvider}, the recordings folded into the
+ * overflow label set because the instrument reached its maximum number of label sets, and reports
+ * them in the {@code labelSetOverflows} metric of the {@code io.opentelemetry.sdk.metrics} library.
+ *
+ * <p>The unit is the recording: each value recorded in the overflow label set of a synchronous
+ * instrument, whether through a handle bound once or for each recording, and each observation of an
+ * asynchronous instrument folded into it, is counted once. The label sets of a cumulative metric
+ * which are folded into the overflow label set when collected, after their values were recorded
+ * with a label set of their own, are not counted, as their number of recordings is not known.
+ *
+ * <p>The metric is only reported once an instrument overflowed, and is not itself recorded with an
+ * instrument so that it cannot overflow.
+ */
+@ThreadSafe
+final class LabelSetOverflows {
+  // Visible for testing
+  static final InstrumentationLibraryInfo INSTRUMENTATION_LIBRARY_INFO =
+      InstrumentationLibraryInfo.create("io.opentelemetry.sdk.metrics", null);
+
+  private static final String METER_LABEL = "meter";
+  private static final String INSTRUMENT_LABEL = "instrument";
+
+  private final ConcurrentHashMap<Labels, LongAdder> counters = new ConcurrentHashMap<>();
+
+  /** Returns the counter of the overflows of the given instrument. */
+  LongAdder getCounter(
+      InstrumentationLibraryInfo instrumentationLibraryInfo, InstrumentDescriptor descriptor) {
+    return counters.computeIfAbsent(
+        Labels.of(
+            METER_LABEL, instrumentationLibraryInfo.getName(),
+            INSTRUMENT_LABEL, descriptor.getName()),
+        unused -> new LongAdder());
+  }
+
+  /**
+   * Returns the cumulative counts of the instruments which overflowed, or {@code null} if none did.
+   */
+  @Nullable
+  MetricData collect(Resource resource, long startEpochNanos, long epochNanos) {
+    List<MetricData.LongPoint> points = new ArrayList<>();
+    counters.forEach(
+        (labels, counter) -> {
+          long count = counter.sum();
+          if (count > 0) {
+            points.add(MetricData.LongPoint.create(startEpochNanos, epochNanos, labels, count));
+          }
+        });
+    if (points.isEmpty()) {
+      return null;
+    }
+    return MetricData.createLongSum(
+        resource,
+        INSTRUMENTATION_LIBRARY_INFO,
+        "labelSetOverflows",
+        "The number of recordings and observations folded into the overflow label set of an "
+            + "instrument which reached its maximum number of label sets",
+        "1",
+        MetricData.LongSumData.create(
+            /* isMonotonic= */ true, MetricData.AggregationTemporality.CUMULATIVE, points));
+  }
+}
@@ -14,7 +14,8 @@ import javax.annotation.concurrent.Immutable;
 @Immutable
 abstract class MeterProviderSharedState {
   static MeterProviderSharedState create(Clock clock, Resource resource) {
-    return new AutoValue_MeterProviderSharedState(clock, resource, new ViewRegistry(), clock.now());
+    return new AutoValue_MeterProviderSharedState(
+        clock, resource, new ViewRegistry(), clock.now(), new LabelSetOverflows());
   }
 
   abstract Clock getClock();
@@ -24,4 +25,6 @@ abstract class MeterProviderSharedState {
   abstract ViewRegistry getViewRegistry();
 
   abstract long getStartEpochNanos();
+
+  abstract LabelSetOverflows getLabelSetOverflows();
 }
@@ -128,6 +128,16 @@ public final class SdkMeterProvider implements MeterProvider {
       for (SdkMeter meter : meters) {
         result.addAll(meter.collectAll(sharedState.getClock().now()));
       }
+      MetricData labelSetOverflows =
+          sharedState
+              .getLabelSetOverflows()
+              .collect(
+                  sharedState.getResource(),
+                  sharedState.getStartEpochNanos(),
+                  sharedState.getClock().now());
+      if (labelSetOverflows != null) {
+        result.add(labelSetOverflows);
+      }
       return Collections.unmodifiableCollection(result);
     }
   }
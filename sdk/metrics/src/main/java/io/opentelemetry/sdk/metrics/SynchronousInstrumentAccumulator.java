@@ -13,10 +13,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nullable;
 
 final class SynchronousInstrumentAccumulator<T> {
   private final ConcurrentHashMap<Labels, AggregatorHandle<T>> aggregatorLabels;
+  // The number of entries of aggregatorLabels, other than the overflow one, plus those being added.
+  private final AtomicInteger labelSetCount = new AtomicInteger();
+  private final int maxLabelSets;
   private final ReentrantLock collectLock;
   private final Aggregator<T> aggregator;
   private final InstrumentProcessor<T> instrumentProcessor;
@@ -27,6 +32,7 @@ final class SynchronousInstrumentAccumulator<T> {
     collectLock = new ReentrantLock();
     this.aggregator = aggregator;
     this.instrumentProcessor = instrumentProcessor;
+    this.maxLabelSets = instrumentProcessor.getMaxLabelSets();
   }
 
   AggregatorHandle<?> bind(Labels labels) {
@@ -37,25 +43,58 @@ final class SynchronousInstrumentAccumulator<T> {
       return aggregatorHandle;
     }
 
-    // Missing entry or no longer mapped, try to add a new entry.
-    aggregatorHandle = aggregator.createHandle();
+    // Missing entry or no longer mapped, try to add a new entry if there is room for it, or bind
+    // to the overflow entry otherwise.
+    if (!tryReserveLabelSet(labels)) {
+      return bind(InstrumentProcessor.OVERFLOW_LABELS);
+    }
+    aggregatorHandle =
+        labels.equals(InstrumentProcessor.OVERFLOW_LABELS)
+            ? new OverflowAggregatorHandle<>(aggregator.createHandle(), instrumentProcessor)
+            : aggregator.createHandle();
     while (true) {
       AggregatorHandle<?> boundAggregatorHandle =
           aggregatorLabels.putIfAbsent(labels, aggregatorHandle);
       if (boundAggregatorHandle != null) {
         if (boundAggregatorHandle.acquire()) {
           // At this moment it is guaranteed that the Bound is in the map and will not be removed.
+          releaseLabelSet(labels);
           return boundAggregatorHandle;
         }
         // Try to remove the boundAggregator. This will race with the collect method, but only one
         // will succeed.
-        aggregatorLabels.remove(labels, boundAggregatorHandle);
+        if (aggregatorLabels.remove(labels, boundAggregatorHandle)) {
+          releaseLabelSet(labels);
+        }
         continue;
       }
       return aggregatorHandle;
     }
   }
 
+  // Counts a new entry, unless there are already maxLabelSets - 1 entries other than the overflow
+  // one, which is always allowed. A compare-and-set loop rather than a lock, as for the map itself.
+  private boolean tryReserveLabelSet(Labels labels) {
+    if (labels.equals(InstrumentProcessor.OVERFLOW_LABELS)) {
+      return true;
+    }
+    while (true) {
+      int count = labelSetCount.get();
+      if (count >= maxLabelSets - 1) {
+        return false;
+      }
+      if (labelSetCount.compareAndSet(count, count + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void releaseLabelSet(Labels labels) {
+    if (!labels.equals(InstrumentProcessor.OVERFLOW_LABELS)) {
+      labelSetCount.decrementAndGet();
+    }
+  }
+
   /**
    * Collects records from all the entries (labelSet, Bound) that changed since the last collect()
    * call.
@@ -68,7 +107,9 @@ final class SynchronousInstrumentAccumulator<T> {
         if (unmappedEntry) {
           // If able to unmap then remove the record from the current Map. This can race with the
           // acquire but because we requested a specific value only one will succeed.
-          aggregatorLabels.remove(entry.getKey(), entry.getValue());
+          if (aggregatorLabels.remove(entry.getKey(), entry.getValue())) {
+            releaseLabelSet(entry.getKey());
+          }
         }
         T accumulation = entry.getValue().accumulateThenReset();
         if (accumulation == null) {
@@ -81,4 +122,35 @@ final class SynchronousInstrumentAccumulator<T> {
       collectLock.unlock();
     }
   }
+
+  // The handle of the overflow label set, counting each recording folded into it, whether the
+  // handle was bound for a single recording or is held by a bound instrument.
+  private static final class OverflowAggregatorHandle<T> extends AggregatorHandle<T> {
+    private final AggregatorHandle<T> delegate;
+    private final InstrumentProcessor<T> instrumentProcessor;
+
+    private OverflowAggregatorHandle(
+        AggregatorHandle<T> delegate, InstrumentProcessor<T> instrumentProcessor) {
+      this.delegate = delegate;
+      this.instrumentProcessor = instrumentProcessor;
+    }
+
+    @Override
+    @Nullable
+    protected T doAccumulateThenReset() {
+      return delegate.accumulateThenReset();
+    }
+
+    @Override
+    protected void doRecordLong(long value) {
+      delegate.recordLong(value);
+      instrumentProcessor.recordOverflow();
+    }
+
+    @Override
+    protected void doRecordDouble(double value) {
+      delegate.recordDouble(value);
+      instrumentProcessor.recordOverflow();
+    }
+  }
 }
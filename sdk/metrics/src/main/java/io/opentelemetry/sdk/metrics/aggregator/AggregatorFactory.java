@@ -54,6 +54,96 @@ public interface AggregatorFactory {
     return ImmutableAggregatorFactory.MIN_MAX_SUM_COUNT;
   }
 
+  /**
+   * Returns an {@code AggregationFactory} that counts the recorded measurements in buckets
+   * delimited by the given boundaries, and calculates their count and sum. With {@code n}
+   * boundaries there are {@code n + 1} buckets: a measurement is in the first bucket whose boundary
+   * is greater than or equal to it, or in the last bucket if there is none.
+   *
+   * @param boundaries the boundaries of the buckets, in increasing order.
+   * @return an {@code AggregationFactory} that counts the recorded measurements in buckets.
+   * @throws IllegalArgumentException if the boundaries are not in increasing order or one is NaN or
+   *     infinite.
+   */
+  static AggregatorFactory histogram(double... boundaries) {
+    return ImmutableAggregatorFactory.histogram(boundaries);
+  }
+
+  /**
+   * Returns an {@code AggregationFactory} that counts the recorded measurements in buckets of
+   * exponentially increasing width, and calculates their count and sum. It uses at most 160 buckets
+   * for the positive measurements and 160 for the negative ones, with the narrowest buckets that
+   * fit the recorded measurements.
+   *
+   * @return an {@code AggregationFactory} that counts the recorded measurements in exponential
+   *     buckets.
+   * @see #exponentialHistogram(int)
+   */
+  static AggregatorFactory exponentialHistogram() {
+    return ImmutableAggregatorFactory.exponentialHistogram(
+        ExponentialHistogramAggregator.DEFAULT_MAX_BUCKETS);
+  }
+
+  /**
+   * Returns an {@code AggregationFactory} that counts the recorded measurements in buckets of
+   * exponentially increasing width, and calculates their count and sum.
+   *
+   * <p>The boundaries of the buckets are the powers of {@code 2^(2^-scale)}, so that the relative
+   * width of the buckets only depends on the scale. The measurements are counted at the highest
+   * scale, up to 20, at which the buckets of the recorded measurements fit in {@code maxBuckets}
+   * buckets for each sign, so that the memory used is bounded while the buckets stay as narrow as
+   * the range of the measurements allows. Infinite and NaN measurements are ignored.
+   *
+   * @param maxBuckets the maximum number of buckets for each sign, at least 2.
+   * @return an {@code AggregationFactory} that counts the recorded measurements in exponential
+   *     buckets.
+   * @throws IllegalArgumentException if {@code maxBuckets} is less than 2.
+   */
+  static AggregatorFactory exponentialHistogram(int maxBuckets) {
+    return ImmutableAggregatorFactory.exponentialHistogram(maxBuckets);
+  }
+
+  /**
+   * Returns an {@code AggregationFactory} that calculates the count and sum of the recorded
+   * measurements, and estimates their 50th, 90th, 99th and 99.9th percentiles within 1% of their
+   * value, along with their exact min and max. It uses at most 2048 buckets for the positive
+   * measurements and 2048 for the negative ones.
+   *
+   * @return an {@code AggregationFactory} that estimates percentiles of the recorded measurements.
+   * @see #quantileSketch(double, int, double...)
+   */
+  static AggregatorFactory quantileSketch() {
+    return ImmutableAggregatorFactory.quantileSketch(
+        QuantileSketchAggregator.DEFAULT_RELATIVE_ACCURACY,
+        QuantileSketchAggregator.DEFAULT_MAX_BUCKETS,
+        QuantileSketchAggregator.DEFAULT_PERCENTILES);
+  }
+
+  /**
+   * Returns an {@code AggregationFactory} that calculates the count and sum of the recorded
+   * measurements, and estimates the given percentiles of them with a bounded relative error.
+   *
+   * <p>The measurements are counted in buckets whose boundaries are the powers of {@code (1 +
+   * relativeAccuracy) / (1 - relativeAccuracy)}, so that the estimate of a percentile is within
+   * {@code relativeAccuracy} of its value, and the sketches of different handles or collections
+   * merge without losing accuracy. Once the measurements of a sign span more than {@code
+   * maxBuckets} buckets, the buckets of the smallest magnitudes are collapsed, so that the memory
+   * used is bounded and the largest percentiles stay accurate. The 0th and 100th percentiles are
+   * the exact min and max. Infinite and NaN measurements are ignored.
+   *
+   * @param relativeAccuracy the relative accuracy of the estimates, at least {@code 1e-6} and less
+   *     than 1.
+   * @param maxBuckets the maximum number of buckets for each sign, at least 1.
+   * @param percentiles the percentiles to estimate, in the range {@code [0, 100]}.
+   * @return an {@code AggregationFactory} that estimates percentiles of the recorded measurements.
+   * @throws IllegalArgumentException if {@code relativeAccuracy} is out of range, {@code
+   *     maxBuckets} is less than 1 or a percentile is out of range.
+   */
+  static AggregatorFactory quantileSketch(
+      double relativeAccuracy, int maxBuckets, double... percentiles) {
+    return ImmutableAggregatorFactory.quantileSketch(relativeAccuracy, maxBuckets, percentiles);
+  }
+
   /**
    * Returns a new {@link Aggregator}.
    *
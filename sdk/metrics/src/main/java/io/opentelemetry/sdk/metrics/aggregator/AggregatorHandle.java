@@ -77,7 +77,7 @@ public abstract class AggregatorHandle<T> {
   @Nullable
   public final T accumulateThenReset() {
     if (!hasRecordings) {
-      return null;
+      return doReleaseIdle();
     }
     hasRecordings = false;
     return doAccumulateThenReset();
@@ -86,6 +86,16 @@ public abstract class AggregatorHandle<T> {
   /** Implementation of the {@code accumulateThenReset}. */
   protected abstract T doAccumulateThenReset();
 
+  /**
+   * Called by {@code accumulateThenReset} instead of {@link #doAccumulateThenReset()} when nothing
+   * was recorded since the previous collection, so that an idle handle can release what it keeps
+   * for the next recordings. Returns the accumulation of the values recorded concurrently, if any.
+   */
+  @Nullable
+  protected T doReleaseIdle() {
+    return null;
+  }
+
   /**
    * Updates the current aggregator with a newly recorded {@code long} value.
    *
@@ -93,7 +103,7 @@ public abstract class AggregatorHandle<T> {
    */
   public final void recordLong(long value) {
     doRecordLong(value);
-    hasRecordings = true;
+    markRecorded();
   }
 
   /**
@@ -112,7 +122,15 @@ public abstract class AggregatorHandle<T> {
    */
   public final void recordDouble(double value) {
     doRecordDouble(value);
-    hasRecordings = true;
+    markRecorded();
+  }
+
+  // Only writes the flag when it is not set yet, so that threads recording concurrently do not all
+  // write to the same cache line.
+  private void markRecorded() {
+    if (!hasRecordings) {
+      hasRecordings = true;
+    }
   }
 
   /**
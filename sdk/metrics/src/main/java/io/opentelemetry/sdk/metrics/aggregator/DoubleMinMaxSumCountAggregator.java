@@ -5,7 +5,6 @@
 
 package io.opentelemetry.sdk.metrics.aggregator;
 
-import com.google.errorprone.annotations.concurrent.GuardedBy;
 import io.opentelemetry.api.common.Labels;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.metrics.common.InstrumentDescriptor;
@@ -13,7 +12,7 @@ import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.resources.Resource;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import javax.annotation.concurrent.ThreadSafe;
 
 @ThreadSafe
@@ -72,58 +71,98 @@ public final class DoubleMinMaxSumCountAggregator
         MetricData.DoubleSummaryData.create(points));
   }
 
-  static final class Handle extends AggregatorHandle<MinMaxSumCountAccumulation> {
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    // The current value. This controls its own internal thread-safety via method access. Don't
-    // try to use its fields directly.
-    @GuardedBy("lock")
-    private final DoubleState current = new DoubleState();
+  static final class Handle extends StripedMinMaxSumCountHandle<Handle.DoubleCell> {
 
     @Override
-    protected MinMaxSumCountAccumulation doAccumulateThenReset() {
-      lock.writeLock().lock();
-      try {
-        MinMaxSumCountAccumulation toReturn =
-            MinMaxSumCountAccumulation.create(current.count, current.sum, current.min, current.max);
-        current.reset();
-        return toReturn;
-      } finally {
-        lock.writeLock().unlock();
-      }
+    protected DoubleCell newCell() {
+      return new DoubleCell();
     }
 
     @Override
     protected void doRecordDouble(double value) {
-      lock.writeLock().lock();
+      DoubleCell cell = enter();
       try {
-        current.record(value);
+        cell.record(value);
       } finally {
-        lock.writeLock().unlock();
+        exit(cell);
       }
     }
 
-    private static final class DoubleState {
-      private long count;
-      private double sum;
-      private double min;
-      private double max;
+    // The sum, min and max are stored as the bits of doubles, to be updated with compare-and-set.
+    static final class DoubleCell extends StripedMinMaxSumCountHandle.Cell {
+      private static final long POSITIVE_INFINITY_BITS =
+          Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+      private static final long NEGATIVE_INFINITY_BITS =
+          Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY);
+
+      private static final AtomicLongFieldUpdater<DoubleCell> COUNT =
+          AtomicLongFieldUpdater.newUpdater(DoubleCell.class, "count");
+      private static final AtomicLongFieldUpdater<DoubleCell> SUM =
+          AtomicLongFieldUpdater.newUpdater(DoubleCell.class, "sumBits");
+      private static final AtomicLongFieldUpdater<DoubleCell> MIN =
+          AtomicLongFieldUpdater.newUpdater(DoubleCell.class, "minBits");
+      private static final AtomicLongFieldUpdater<DoubleCell> MAX =
+          AtomicLongFieldUpdater.newUpdater(DoubleCell.class, "maxBits");
+
+      private volatile long count;
+      private volatile long sumBits;
+      private volatile long minBits = POSITIVE_INFINITY_BITS;
+      private volatile long maxBits = NEGATIVE_INFINITY_BITS;
+
+      private void record(double value) {
+        COUNT.incrementAndGet(this);
+        long currentSum;
+        do {
+          currentSum = sumBits;
+        } while (!SUM.compareAndSet(
+            this,
+            currentSum,
+            Double.doubleToRawLongBits(Double.longBitsToDouble(currentSum) + value)));
+        long valueBits = Double.doubleToRawLongBits(value);
+        // Like Math.min and Math.max, a NaN value is the min and max of any other value.
+        boolean isNaN = Double.isNaN(value);
+        while (true) {
+          long currentMin = minBits;
+          if (!(isNaN || value < Double.longBitsToDouble(currentMin))
+              || MIN.compareAndSet(this, currentMin, valueBits)) {
+            break;
+          }
+        }
+        while (true) {
+          long currentMax = maxBits;
+          if (!(isNaN || value > Double.longBitsToDouble(currentMax))
+              || MAX.compareAndSet(this, currentMax, valueBits)) {
+            break;
+          }
+        }
+      }
+
+      @Override
+      long getCount() {
+        return count;
+      }
+
+      @Override
+      double getSum() {
+        return Double.longBitsToDouble(sumBits);
+      }
 
-      public DoubleState() {
-        reset();
+      @Override
+      double getMin() {
+        return Double.longBitsToDouble(minBits);
       }
 
-      private void reset() {
-        this.sum = 0;
-        this.count = 0;
-        this.min = Double.POSITIVE_INFINITY;
-        this.max = Double.NEGATIVE_INFINITY;
+      @Override
+      double getMax() {
+        return Double.longBitsToDouble(maxBits);
       }
 
-      public void record(double value) {
-        count++;
-        sum += value;
-        min = Math.min(value, min);
-        max = Math.max(value, max);
+      @Override
+      void reset() {
+        count = 0;
+        sumBits = 0;
+        minBits = POSITIVE_INFINITY_BITS;
+        maxBits = NEGATIVE_INFINITY_BITS;
       }
     }
   }
@@ -0,0 +1,140 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import com.google.auto.value.AutoValue;
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The accumulation of an {@link ExponentialHistogramAggregator}.
+ *
+ * <p>At scale {@code s}, the bucket at index {@code i} counts the values greater than {@code
+ * base^i} and less than or equal to {@code base^(i+1)}, where {@code base = 2^(2^-s)}. Negative
+ * values are counted in the same way by their absolute value, and zeros separately.
+ */
+@Immutable
+@AutoValue
+abstract class ExponentialHistogramAccumulation {
+  /**
+   * Creates a new {@link ExponentialHistogramAccumulation} with the given values.
+   *
+   * @param scale the scale of the buckets.
+   * @param count the number of measurements.
+   * @param sum the sum of the measurements.
+   * @param zeroCount the number of measurements equal to zero.
+   * @param positiveBuckets the buckets of the positive measurements.
+   * @param negativeBuckets the buckets of the negative measurements.
+   * @return a new {@link ExponentialHistogramAccumulation} with the given values.
+   */
+  static ExponentialHistogramAccumulation create(
+      int scale,
+      long count,
+      double sum,
+      long zeroCount,
+      ExponentialHistogramBuckets positiveBuckets,
+      ExponentialHistogramBuckets negativeBuckets) {
+    return new AutoValue_ExponentialHistogramAccumulation(
+        scale, count, sum, zeroCount, positiveBuckets, negativeBuckets);
+  }
+
+  ExponentialHistogramAccumulation() {}
+
+  /**
+   * Returns the scale of the buckets stored by this accumulation.
+   *
+   * @return the scale of the buckets stored by this accumulation.
+   */
+  abstract int getScale();
+
+  /**
+   * Returns the count (number of measurements) stored by this accumulation.
+   *
+   * @return the count stored by this accumulation.
+   */
+  abstract long getCount();
+
+  /**
+   * Returns the sum (sum of measurements) stored by this accumulation.
+   *
+   * @return the sum stored by this accumulation.
+   */
+  abstract double getSum();
+
+  /**
+   * Returns the number of measurements equal to zero stored by this accumulation.
+   *
+   * @return the number of measurements equal to zero stored by this accumulation.
+   */
+  abstract long getZeroCount();
+
+  /**
+   * Returns the buckets of the positive measurements stored by this accumulation.
+   *
+   * @return the buckets of the positive measurements stored by this accumulation.
+   */
+  abstract ExponentialHistogramBuckets getPositiveBuckets();
+
+  /**
+   * Returns the buckets of the negative measurements stored by this accumulation.
+   *
+   * @return the buckets of the negative measurements stored by this accumulation.
+   */
+  abstract ExponentialHistogramBuckets getNegativeBuckets();
+
+  /**
+   * Returns a histogram point with the boundaries of the buckets of this accumulation, from the
+   * negative buckets to the positive ones, with the zeros in between.
+   */
+  final MetricData.DoubleHistogramPoint toPoint(
+      long startEpochNanos, long epochNanos, Labels labels) {
+    int scale = getScale();
+    ExponentialHistogramBuckets negativeBuckets = getNegativeBuckets();
+    ExponentialHistogramBuckets positiveBuckets = getPositiveBuckets();
+    List<Double> boundaries =
+        new ArrayList<>(
+            negativeBuckets.getCounts().length + positiveBuckets.getCounts().length + 2);
+    List<Long> counts = new ArrayList<>(boundaries.size() + 1);
+    if (!negativeBuckets.isEmpty()) {
+      counts.add(0L);
+      for (int index = negativeBuckets.getMaxIndex();
+          index >= negativeBuckets.getOffset();
+          index--) {
+        boundaries.add(-ExponentialHistogramAggregator.getLowerBoundary(index + 1, scale));
+        counts.add(negativeBuckets.get(index));
+      }
+      boundaries.add(
+          -ExponentialHistogramAggregator.getLowerBoundary(negativeBuckets.getOffset(), scale));
+    }
+    counts.add(getZeroCount());
+    if (!positiveBuckets.isEmpty()) {
+      boundaries.add(
+          ExponentialHistogramAggregator.getLowerBoundary(positiveBuckets.getOffset(), scale));
+      for (int index = positiveBuckets.getOffset();
+          index <= positiveBuckets.getMaxIndex();
+          index++) {
+        boundaries.add(ExponentialHistogramAggregator.getLowerBoundary(index + 1, scale));
+        counts.add(positiveBuckets.get(index));
+      }
+      counts.add(0L);
+    }
+    // The buckets of the largest doubles end at infinity, which is implicit in histogram points.
+    if (!boundaries.isEmpty() && boundaries.get(0) == Double.NEGATIVE_INFINITY) {
+      boundaries.remove(0);
+      counts.remove(0);
+    }
+    if (!boundaries.isEmpty()
+        && boundaries.get(boundaries.size() - 1) == Double.POSITIVE_INFINITY) {
+      boundaries.remove(boundaries.size() - 1);
+      counts.remove(counts.size() - 1);
+    }
+    return MetricData.DoubleHistogramPoint.create(
+        startEpochNanos, epochNanos, labels, getCount(), getSum(), boundaries, counts);
+  }
+}
@@ -0,0 +1,467 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.common.InstrumentDescriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * An {@link Aggregator} counting the recorded {@code long} or {@code double} values in buckets of
+ * exponentially increasing width, using at most a given number of buckets for each sign.
+ *
+ * <p>At scale {@code s}, the bucket at index {@code i} counts the values greater than {@code
+ * base^i} and less than or equal to {@code base^(i+1)}, where {@code base = 2^(2^-s)}, so the
+ * relative error of the bucket of a value is bounded by the scale. The index of a value is derived
+ * from the exponent of its {@code double} representation, refined by the logarithm of its
+ * significand for positive scales. Values are recorded at the highest scale, which is decreased,
+ * merging pairs of adjacent buckets, whenever the recorded values do not fit in the buckets
+ * anymore.
+ *
+ * <p>Infinite and NaN values cannot be bucketed and are ignored.
+ */
+@ThreadSafe
+final class ExponentialHistogramAggregator implements Aggregator<ExponentialHistogramAccumulation> {
+  // The highest scale, with 2^20 buckets between consecutive powers of two. At this scale, the
+  // index of any double, shifted by the scale, still fits in an int.
+  static final int MAX_SCALE = 20;
+  static final int DEFAULT_MAX_BUCKETS = 160;
+
+  private static final int SIGNIFICAND_WIDTH = 52;
+  private static final long SIGNIFICAND_MASK = (1L << SIGNIFICAND_WIDTH) - 1;
+  private static final long EXPONENT_MASK = 0x7FF0000000000000L;
+  private static final int EXPONENT_BIAS = 1023;
+  // The exponent of the smallest subnormal double, 2^-1074.
+  private static final int MIN_SUBNORMAL_EXPONENT = -1074;
+  private static final double LOG_BASE_2_OF_E = 1 / Math.log(2);
+
+  private static final ExponentialHistogramAccumulation EMPTY_ACCUMULATION =
+      ExponentialHistogramAccumulation.create(
+          MAX_SCALE,
+          0,
+          0,
+          0,
+          ExponentialHistogramBuckets.empty(),
+          ExponentialHistogramBuckets.empty());
+
+  private final int maxBuckets;
+
+  ExponentialHistogramAggregator(int maxBuckets) {
+    this.maxBuckets = maxBuckets;
+  }
+
+  @Override
+  public AggregatorHandle<ExponentialHistogramAccumulation> createHandle() {
+    return new Handle(this);
+  }
+
+  @Override
+  public ExponentialHistogramAccumulation accumulateLong(long value) {
+    return accumulateDouble((double) value);
+  }
+
+  @Override
+  public ExponentialHistogramAccumulation accumulateDouble(double value) {
+    if (!Double.isFinite(value)) {
+      return EMPTY_ACCUMULATION;
+    }
+    if (value == 0) {
+      return ExponentialHistogramAccumulation.create(
+          MAX_SCALE,
+          1,
+          value,
+          1,
+          ExponentialHistogramBuckets.empty(),
+          ExponentialHistogramBuckets.empty());
+    }
+    ExponentialHistogramBuckets buckets =
+        ExponentialHistogramBuckets.create(getIndex(Math.abs(value), MAX_SCALE), new long[] {1});
+    return ExponentialHistogramAccumulation.create(
+        MAX_SCALE,
+        1,
+        value,
+        0,
+        value > 0 ? buckets : ExponentialHistogramBuckets.empty(),
+        value > 0 ? ExponentialHistogramBuckets.empty() : buckets);
+  }
+
+  /**
+   * Merges the accumulations at the highest scale at which the buckets of both fit in the maximum
+   * number of buckets, only allocating the counts of the merged buckets.
+   */
+  @Override
+  public ExponentialHistogramAccumulation merge(
+      ExponentialHistogramAccumulation a1, ExponentialHistogramAccumulation a2) {
+    int scale = Math.min(a1.getScale(), a2.getScale());
+    scale -=
+        Math.max(
+            getDownscaleNeeded(
+                a1.getPositiveBuckets(),
+                a1.getScale(),
+                a2.getPositiveBuckets(),
+                a2.getScale(),
+                scale),
+            getDownscaleNeeded(
+                a1.getNegativeBuckets(),
+                a1.getScale(),
+                a2.getNegativeBuckets(),
+                a2.getScale(),
+                scale));
+    return ExponentialHistogramAccumulation.create(
+        scale,
+        a1.getCount() + a2.getCount(),
+        a1.getSum() + a2.getSum(),
+        a1.getZeroCount() + a2.getZeroCount(),
+        merge(
+            a1.getPositiveBuckets(), a1.getScale(), a2.getPositiveBuckets(), a2.getScale(), scale),
+        merge(
+            a1.getNegativeBuckets(), a1.getScale(), a2.getNegativeBuckets(), a2.getScale(), scale));
+  }
+
+  @Override
+  public MetricData toMetricData(
+      Resource resource,
+      InstrumentationLibraryInfo instrumentationLibraryInfo,
+      InstrumentDescriptor descriptor,
+      Map<Labels, ExponentialHistogramAccumulation> accumulationByLabels,
+      long startEpochNanos,
+      long epochNanos) {
+    List<MetricData.DoubleHistogramPoint> points =
+        MetricDataUtils.toExponentialHistogramPointList(
+            accumulationByLabels, startEpochNanos, epochNanos);
+    return MetricData.createDoubleHistogram(
+        resource,
+        instrumentationLibraryInfo,
+        descriptor.getName(),
+        descriptor.getDescription(),
+        descriptor.getUnit(),
+        MetricData.DoubleHistogramData.create(
+            MetricData.AggregationTemporality.CUMULATIVE, points));
+  }
+
+  // Visible for testing
+  int getMaxBuckets() {
+    return maxBuckets;
+  }
+
+  /** Returns the index of the bucket of the given positive finite value at the given scale. */
+  static int getIndex(double value, int scale) {
+    long bits = Double.doubleToRawLongBits(value);
+    int biasedExponent = (int) ((bits & EXPONENT_MASK) >>> SIGNIFICAND_WIDTH);
+    long significand = bits & SIGNIFICAND_MASK;
+    int exponent;
+    boolean isPowerOfTwo;
+    if (biasedExponent == 0) {
+      // A subnormal value, significand * 2^-1074.
+      exponent = MIN_SUBNORMAL_EXPONENT + 63 - Long.numberOfLeadingZeros(significand);
+      isPowerOfTwo = (significand & (significand - 1)) == 0;
+    } else {
+      exponent = biasedExponent - EXPONENT_BIAS;
+      isPowerOfTwo = significand == 0;
+    }
+    // A power of two is the upper boundary of the bucket below it.
+    if (scale <= 0) {
+      return (isPowerOfTwo ? exponent - 1 : exponent) >> -scale;
+    }
+    if (isPowerOfTwo) {
+      return (exponent << scale) - 1;
+    }
+    // The 2^scale buckets between 2^exponent and 2^(exponent+1) split the logarithm evenly.
+    double logOfSignificand = Math.log(Math.scalb(value, -exponent)) * LOG_BASE_2_OF_E;
+    int subIndex = (int) Math.ceil(Math.scalb(logOfSignificand, scale)) - 1;
+    // Rounding errors cannot move the value to another power of two.
+    subIndex = Math.max(0, Math.min(subIndex, (1 << scale) - 1));
+    return (exponent << scale) + subIndex;
+  }
+
+  /** Returns the lower boundary of the bucket at the given index at the given scale. */
+  static double getLowerBoundary(int index, int scale) {
+    if (scale <= 0) {
+      return Math.scalb(1.0, index << -scale);
+    }
+    int subIndex = index & ((1 << scale) - 1);
+    double significand = subIndex == 0 ? 1 : Math.pow(2, Math.scalb((double) subIndex, -scale));
+    return Math.scalb(significand, index >> scale);
+  }
+
+  // Returns by how much the scale must be decreased for the buckets to fit in maxBuckets.
+  private static int getDownscaleNeeded(int minIndex, int maxIndex, int maxBuckets) {
+    int downscale = 0;
+    // The indices of the smallest and largest doubles at the highest scale are more than
+    // Integer.MAX_VALUE apart.
+    while ((long) (maxIndex >> downscale) - (minIndex >> downscale) >= maxBuckets) {
+      downscale++;
+    }
+    return downscale;
+  }
+
+  private int getDownscaleNeeded(
+      ExponentialHistogramBuckets b1,
+      int scale1,
+      ExponentialHistogramBuckets b2,
+      int scale2,
+      int scale) {
+    if (b1.isEmpty() && b2.isEmpty()) {
+      return 0;
+    }
+    int minIndex = Integer.MAX_VALUE;
+    int maxIndex = Integer.MIN_VALUE;
+    if (!b1.isEmpty()) {
+      minIndex = b1.getOffset() >> (scale1 - scale);
+      maxIndex = b1.getMaxIndex() >> (scale1 - scale);
+    }
+    if (!b2.isEmpty()) {
+      minIndex = Math.min(minIndex, b2.getOffset() >> (scale2 - scale));
+      maxIndex = Math.max(maxIndex, b2.getMaxIndex() >> (scale2 - scale));
+    }
+    return getDownscaleNeeded(minIndex, maxIndex, maxBuckets);
+  }
+
+  private static ExponentialHistogramBuckets merge(
+      ExponentialHistogramBuckets b1,
+      int scale1,
+      ExponentialHistogramBuckets b2,
+      int scale2,
+      int scale) {
+    if (b1.isEmpty() && b2.isEmpty()) {
+      return ExponentialHistogramBuckets.empty();
+    }
+    if (b2.isEmpty() && scale1 == scale) {
+      return b1;
+    }
+    if (b1.isEmpty() && scale2 == scale) {
+      return b2;
+    }
+    int minIndex = Integer.MAX_VALUE;
+    int maxIndex = Integer.MIN_VALUE;
+    if (!b1.isEmpty()) {
+      minIndex = b1.getOffset() >> (scale1 - scale);
+      maxIndex = b1.getMaxIndex() >> (scale1 - scale);
+    }
+    if (!b2.isEmpty()) {
+      minIndex = Math.min(minIndex, b2.getOffset() >> (scale2 - scale));
+      maxIndex = Math.max(maxIndex, b2.getMaxIndex() >> (scale2 - scale));
+    }
+    long[] counts = new long[maxIndex - minIndex + 1];
+    addCounts(b1, scale1 - scale, counts, minIndex);
+    addCounts(b2, scale2 - scale, counts, minIndex);
+    return ExponentialHistogramBuckets.create(minIndex, counts);
+  }
+
+  private static void addCounts(
+      ExponentialHistogramBuckets buckets, int downscale, long[] counts, int offset) {
+    long[] bucketCounts = buckets.getCounts();
+    for (int i = 0; i < bucketCounts.length; i++) {
+      counts[((buckets.getOffset() + i) >> downscale) - offset] += bucketCounts[i];
+    }
+  }
+
+  static final class Handle
+      extends StripedAggregatorHandle<ExponentialHistogramAccumulation, Handle.HistogramCell> {
+    // A cell holds four arrays of maxBuckets counts and recordings take its lock anyway, so a
+    // couple of stripes are enough. The arrays are cleared in place at collection, and a cell is
+    // only released once it had no recordings for a whole interval of its set.
+    private static final int MAX_STRIPES = 2;
+
+    private final ExponentialHistogramAggregator aggregator;
+
+    Handle(ExponentialHistogramAggregator aggregator) {
+      super(MAX_STRIPES, /* releaseIdleCells= */ true);
+      this.aggregator = aggregator;
+    }
+
+    @Override
+    protected HistogramCell newCell() {
+      return new HistogramCell(aggregator.maxBuckets);
+    }
+
+    @Override
+    protected ExponentialHistogramAccumulation accumulateThenReset(List<HistogramCell> cells) {
+      ExponentialHistogramAccumulation accumulation = null;
+      for (HistogramCell cell : cells) {
+        ExponentialHistogramAccumulation cellAccumulation = cell.accumulateThenReset();
+        if (cellAccumulation == null) {
+          continue;
+        }
+        accumulation =
+            accumulation == null
+                ? cellAccumulation
+                : aggregator.merge(accumulation, cellAccumulation);
+      }
+      return accumulation == null ? EMPTY_ACCUMULATION : accumulation;
+    }
+
+    @Override
+    protected void doRecordLong(long value) {
+      record((double) value);
+    }
+
+    @Override
+    protected void doRecordDouble(double value) {
+      record(value);
+    }
+
+    private void record(double value) {
+      if (!Double.isFinite(value)) {
+        return;
+      }
+      HistogramCell cell = enter();
+      try {
+        cell.record(value);
+      } finally {
+        exit(cell);
+      }
+    }
+
+    // Rescaling updates all the buckets of a cell, so the threads of a stripe take turns on its
+    // lock, which is uncontended unless they record at the same time.
+    static final class HistogramCell extends StripedAggregatorHandle.Cell {
+      @GuardedBy("this")
+      private final BucketCounts positiveCounts;
+
+      @GuardedBy("this")
+      private final BucketCounts negativeCounts;
+
+      @GuardedBy("this")
+      private int scale = MAX_SCALE;
+
+      @GuardedBy("this")
+      private long count;
+
+      @GuardedBy("this")
+      private double sum;
+
+      @GuardedBy("this")
+      private long zeroCount;
+
+      private HistogramCell(int maxBuckets) {
+        positiveCounts = new BucketCounts(maxBuckets);
+        negativeCounts = new BucketCounts(maxBuckets);
+      }
+
+      private synchronized void record(double value) {
+        count++;
+        sum += value;
+        if (value == 0) {
+          zeroCount++;
+          return;
+        }
+        BucketCounts counts = value > 0 ? positiveCounts : negativeCounts;
+        int index = getIndex(Math.abs(value), scale);
+        int downscale = counts.getDownscaleNeeded(index);
+        if (downscale > 0) {
+          positiveCounts.downscale(downscale);
+          negativeCounts.downscale(downscale);
+          scale -= downscale;
+          index >>= downscale;
+        }
+        counts.increment(index);
+      }
+
+      @Nullable
+      private synchronized ExponentialHistogramAccumulation accumulateThenReset() {
+        if (count == 0) {
+          return null;
+        }
+        ExponentialHistogramAccumulation accumulation =
+            ExponentialHistogramAccumulation.create(
+                scale,
+                count,
+                sum,
+                zeroCount,
+                positiveCounts.toBucketsAndClear(),
+                negativeCounts.toBucketsAndClear());
+        scale = MAX_SCALE;
+        count = 0;
+        sum = 0;
+        zeroCount = 0;
+        return accumulation;
+      }
+    }
+  }
+
+  /**
+   * The counts of a window of at most {@code maxBuckets} consecutive buckets, in a circular array
+   * where the count of the bucket at index {@code i} is at position {@code i mod maxBuckets}.
+   */
+  static final class BucketCounts {
+    private long[] counts;
+    // The counts being built while downscaling, always zero otherwise.
+    private long[] downscaledCounts;
+    private int minIndex = Integer.MAX_VALUE;
+    private int maxIndex = Integer.MIN_VALUE;
+
+    BucketCounts(int maxBuckets) {
+      counts = new long[maxBuckets];
+      downscaledCounts = new long[maxBuckets];
+    }
+
+    boolean isEmpty() {
+      return minIndex > maxIndex;
+    }
+
+    /** Returns by how much the scale must be decreased for the given index to fit. */
+    int getDownscaleNeeded(int index) {
+      if (isEmpty()) {
+        return 0;
+      }
+      return ExponentialHistogramAggregator.getDownscaleNeeded(
+          Math.min(minIndex, index), Math.max(maxIndex, index), counts.length);
+    }
+
+    /** Increments the count of the bucket at the given index, which must fit in the window. */
+    void increment(int index) {
+      counts[position(index)]++;
+      minIndex = Math.min(minIndex, index);
+      maxIndex = Math.max(maxIndex, index);
+    }
+
+    /** Merges the buckets by groups of {@code 2^downscale}, as if the scale was decreased. */
+    void downscale(int downscale) {
+      if (isEmpty()) {
+        return;
+      }
+      for (int index = minIndex; index <= maxIndex; index++) {
+        int position = position(index);
+        downscaledCounts[position(index >> downscale)] += counts[position];
+        counts[position] = 0;
+      }
+      long[] swap = counts;
+      counts = downscaledCounts;
+      downscaledCounts = swap;
+      minIndex >>= downscale;
+      maxIndex >>= downscale;
+    }
+
+    ExponentialHistogramBuckets toBucketsAndClear() {
+      if (isEmpty()) {
+        return ExponentialHistogramBuckets.empty();
+      }
+      long[] bucketCounts = new long[maxIndex - minIndex + 1];
+      for (int index = minIndex; index <= maxIndex; index++) {
+        int position = position(index);
+        bucketCounts[index - minIndex] = counts[position];
+        counts[position] = 0;
+      }
+      ExponentialHistogramBuckets buckets =
+          ExponentialHistogramBuckets.create(minIndex, bucketCounts);
+      minIndex = Integer.MAX_VALUE;
+      maxIndex = Integer.MIN_VALUE;
+      return buckets;
+    }
+
+    private int position(int index) {
+      return Math.floorMod(index, counts.length);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import com.google.auto.value.AutoValue;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The counts of a range of consecutive buckets of an {@link ExponentialHistogramAccumulation} or a
+ * {@link QuantileSketchAccumulation}: the count of the bucket at index {@code getOffset() + i} is
+ * {@code getCounts()[i]}.
+ */
+@Immutable
+@AutoValue
+abstract class ExponentialHistogramBuckets {
+  private static final ExponentialHistogramBuckets EMPTY = create(0, new long[0]);
+
+  static ExponentialHistogramBuckets empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates a new {@link ExponentialHistogramBuckets}, which takes ownership of the counts.
+   *
+   * @param offset the index of the first bucket.
+   * @param counts the counts of the buckets, never modified afterwards.
+   * @return a new {@link ExponentialHistogramBuckets}.
+   */
+  static ExponentialHistogramBuckets create(int offset, long[] counts) {
+    return new AutoValue_ExponentialHistogramBuckets(offset, counts);
+  }
+
+  ExponentialHistogramBuckets() {}
+
+  /**
+   * Returns the index of the first bucket.
+   *
+   * @return the index of the first bucket.
+   */
+  abstract int getOffset();
+
+  /**
+   * Returns the counts of the buckets, which must not be modified.
+   *
+   * @return the counts of the buckets.
+   */
+  @SuppressWarnings("mutable")
+  abstract long[] getCounts();
+
+  final boolean isEmpty() {
+    return getCounts().length == 0;
+  }
+
+  /** Returns the index of the last bucket, only if not empty. */
+  final int getMaxIndex() {
+    return getOffset() + getCounts().length - 1;
+  }
+
+  /** Returns the count of the bucket at the given index, between the first and the last. */
+  final long get(int index) {
+    return getCounts()[index - getOffset()];
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import com.google.auto.value.AutoValue;
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+@AutoValue
+abstract class HistogramAccumulation {
+  /**
+   * Creates a new {@link HistogramAccumulation} with the given values.
+   *
+   * @param count the number of measurements.
+   * @param sum the sum of the measurements.
+   * @param counts the number of measurements in each bucket.
+   * @return a new {@link HistogramAccumulation} with the given values.
+   */
+  static HistogramAccumulation create(long count, double sum, List<Long> counts) {
+    return new AutoValue_HistogramAccumulation(count, sum, counts);
+  }
+
+  HistogramAccumulation() {}
+
+  /**
+   * Returns the count (number of measurements) stored by this accumulation.
+   *
+   * @return the count stored by this accumulation.
+   */
+  abstract long getCount();
+
+  /**
+   * Returns the sum (sum of measurements) stored by this accumulation.
+   *
+   * @return the sum stored by this accumulation.
+   */
+  abstract double getSum();
+
+  /**
+   * Returns the number of measurements in each bucket stored by this accumulation.
+   *
+   * @return the counts of the buckets stored by this accumulation.
+   */
+  abstract List<Long> getCounts();
+
+  final MetricData.DoubleHistogramPoint toPoint(
+      long startEpochNanos, long epochNanos, Labels labels, List<Double> boundaries) {
+    return MetricData.DoubleHistogramPoint.create(
+        startEpochNanos, epochNanos, labels, getCount(), getSum(), boundaries, getCounts());
+  }
+}
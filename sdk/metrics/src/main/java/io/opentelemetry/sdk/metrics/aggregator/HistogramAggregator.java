@@ -0,0 +1,188 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.common.InstrumentDescriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * An {@link Aggregator} counting the recorded {@code long} or {@code double} values in buckets
+ * delimited by explicit boundaries, which must be in increasing order.
+ *
+ * <p>The bucket of a value is found with a binary search of the boundaries, and its count
+ * incremented atomically, so recording a value takes a logarithmic time in the number of buckets
+ * and allocates nothing.
+ */
+@ThreadSafe
+final class HistogramAggregator implements Aggregator<HistogramAccumulation> {
+  private final double[] boundaries;
+  // The boundaries, as reported in the points.
+  private final List<Double> boundaryList;
+
+  HistogramAggregator(double[] boundaries) {
+    this.boundaries = boundaries;
+    List<Double> boundaryList = new ArrayList<>(boundaries.length);
+    for (double boundary : boundaries) {
+      boundaryList.add(boundary);
+    }
+    this.boundaryList = Collections.unmodifiableList(boundaryList);
+  }
+
+  @Override
+  public AggregatorHandle<HistogramAccumulation> createHandle() {
+    return new Handle(boundaries);
+  }
+
+  @Override
+  public HistogramAccumulation accumulateLong(long value) {
+    return accumulateDouble((double) value);
+  }
+
+  @Override
+  public HistogramAccumulation accumulateDouble(double value) {
+    Long[] counts = new Long[boundaries.length + 1];
+    Arrays.fill(counts, 0L);
+    counts[bucketIndex(boundaries, value)] = 1L;
+    return HistogramAccumulation.create(
+        1, value, Collections.unmodifiableList(Arrays.asList(counts)));
+  }
+
+  @Override
+  public HistogramAccumulation merge(HistogramAccumulation a1, HistogramAccumulation a2) {
+    List<Long> counts1 = a1.getCounts();
+    List<Long> counts2 = a2.getCounts();
+    List<Long> counts = new ArrayList<>(counts1.size());
+    for (int i = 0; i < counts1.size(); i++) {
+      counts.add(counts1.get(i) + counts2.get(i));
+    }
+    return HistogramAccumulation.create(
+        a1.getCount() + a2.getCount(),
+        a1.getSum() + a2.getSum(),
+        Collections.unmodifiableList(counts));
+  }
+
+  @Override
+  public MetricData toMetricData(
+      Resource resource,
+      InstrumentationLibraryInfo instrumentationLibraryInfo,
+      InstrumentDescriptor descriptor,
+      Map<Labels, HistogramAccumulation> accumulationByLabels,
+      long startEpochNanos,
+      long epochNanos) {
+    List<MetricData.DoubleHistogramPoint> points =
+        MetricDataUtils.toDoubleHistogramPointList(
+            accumulationByLabels, boundaryList, startEpochNanos, epochNanos);
+    return MetricData.createDoubleHistogram(
+        resource,
+        instrumentationLibraryInfo,
+        descriptor.getName(),
+        descriptor.getDescription(),
+        descriptor.getUnit(),
+        MetricData.DoubleHistogramData.create(
+            MetricData.AggregationTemporality.CUMULATIVE, points));
+  }
+
+  // Visible for testing
+  List<Double> getBoundaries() {
+    return boundaryList;
+  }
+
+  // A value equal to a boundary is in the bucket the boundary ends, and NaN in the last bucket.
+  private static int bucketIndex(double[] boundaries, double value) {
+    int index = Arrays.binarySearch(boundaries, value);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  static final class Handle
+      extends StripedAggregatorHandle<HistogramAccumulation, Handle.HistogramCell> {
+    private final double[] boundaries;
+
+    Handle(double[] boundaries) {
+      this.boundaries = boundaries;
+    }
+
+    @Override
+    protected HistogramCell newCell() {
+      return new HistogramCell(boundaries.length + 1);
+    }
+
+    @Override
+    protected HistogramAccumulation accumulateThenReset(List<HistogramCell> cells) {
+      long[] counts = new long[boundaries.length + 1];
+      double sum = 0;
+      for (HistogramCell cell : cells) {
+        for (int i = 0; i < counts.length; i++) {
+          counts[i] += cell.counts.get(i);
+          cell.counts.set(i, 0);
+        }
+        sum += Double.longBitsToDouble(cell.sumBits);
+        cell.sumBits = 0;
+      }
+      long count = 0;
+      List<Long> countList = new ArrayList<>(counts.length);
+      for (long bucketCount : counts) {
+        count += bucketCount;
+        countList.add(bucketCount);
+      }
+      return HistogramAccumulation.create(count, sum, Collections.unmodifiableList(countList));
+    }
+
+    @Override
+    protected void doRecordLong(long value) {
+      record((double) value);
+    }
+
+    @Override
+    protected void doRecordDouble(double value) {
+      record(value);
+    }
+
+    private void record(double value) {
+      int index = bucketIndex(boundaries, value);
+      HistogramCell cell = enter();
+      try {
+        cell.record(index, value);
+      } finally {
+        exit(cell);
+      }
+    }
+
+    // The sum is stored as the bits of a double, to be updated with compare-and-set.
+    static final class HistogramCell extends StripedAggregatorHandle.Cell {
+      private static final AtomicLongFieldUpdater<HistogramCell> SUM =
+          AtomicLongFieldUpdater.newUpdater(HistogramCell.class, "sumBits");
+
+      private final AtomicLongArray counts;
+      private volatile long sumBits;
+
+      private HistogramCell(int numberOfBuckets) {
+        counts = new AtomicLongArray(numberOfBuckets);
+      }
+
+      private void record(int index, double value) {
+        counts.incrementAndGet(index);
+        long currentSum;
+        do {
+          currentSum = sumBits;
+        } while (!SUM.compareAndSet(
+            this,
+            currentSum,
+            Double.doubleToRawLongBits(Double.longBitsToDouble(currentSum) + value)));
+      }
+    }
+  }
+}
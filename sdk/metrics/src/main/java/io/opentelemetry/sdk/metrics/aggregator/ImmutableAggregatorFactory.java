@@ -5,7 +5,13 @@
 
 package io.opentelemetry.sdk.metrics.aggregator;
 
+import io.opentelemetry.api.internal.Utils;
 import io.opentelemetry.sdk.metrics.common.InstrumentDescriptor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 import javax.annotation.concurrent.Immutable;
 
 @Immutable
@@ -26,6 +32,47 @@ final class ImmutableAggregatorFactory<L, D> implements AggregatorFactory {
       new ImmutableAggregatorFactory<>(
           LongMinMaxSumCountAggregator.getInstance(), DoubleMinMaxSumCountAggregator.getInstance());
 
+  static AggregatorFactory histogram(double[] boundaries) {
+    Objects.requireNonNull(boundaries, "boundaries");
+    for (int i = 0; i < boundaries.length; i++) {
+      Utils.checkArgument(!Double.isNaN(boundaries[i]), "boundaries must not be NaN");
+      Utils.checkArgument(!Double.isInfinite(boundaries[i]), "boundaries must be finite");
+      Utils.checkArgument(
+          i == 0 || boundaries[i - 1] < boundaries[i], "boundaries must be in increasing order");
+    }
+    HistogramAggregator aggregator = new HistogramAggregator(boundaries.clone());
+    return new ImmutableAggregatorFactory<>(aggregator, aggregator);
+  }
+
+  static AggregatorFactory exponentialHistogram(int maxBuckets) {
+    Utils.checkArgument(maxBuckets >= 2, "maxBuckets must be at least 2");
+    ExponentialHistogramAggregator aggregator = new ExponentialHistogramAggregator(maxBuckets);
+    return new ImmutableAggregatorFactory<>(aggregator, aggregator);
+  }
+
+  static AggregatorFactory quantileSketch(
+      double relativeAccuracy, int maxBuckets, double[] percentiles) {
+    Utils.checkArgument(
+        relativeAccuracy >= QuantileSketchAggregator.MIN_RELATIVE_ACCURACY && relativeAccuracy < 1,
+        "relativeAccuracy must be at least 1e-6 and less than 1");
+    Utils.checkArgument(maxBuckets >= 1, "maxBuckets must be positive");
+    Objects.requireNonNull(percentiles, "percentiles");
+    double[] sortedPercentiles = percentiles.clone();
+    Arrays.sort(sortedPercentiles);
+    List<Double> percentileList = new ArrayList<>(sortedPercentiles.length);
+    for (double percentile : sortedPercentiles) {
+      Utils.checkArgument(
+          percentile >= 0 && percentile <= 100, "percentiles must be in the range [0, 100]");
+      if (percentileList.isEmpty() || percentileList.get(percentileList.size() - 1) != percentile) {
+        percentileList.add(percentile);
+      }
+    }
+    QuantileSketchAggregator aggregator =
+        new QuantileSketchAggregator(
+            relativeAccuracy, maxBuckets, Collections.unmodifiableList(percentileList));
+    return new ImmutableAggregatorFactory<>(aggregator, aggregator);
+  }
+
   private final Aggregator<L> longAggregator;
   private final Aggregator<D> doubleAggregator;
 
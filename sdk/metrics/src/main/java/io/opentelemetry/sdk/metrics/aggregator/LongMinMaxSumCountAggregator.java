@@ -5,7 +5,6 @@
 
 package io.opentelemetry.sdk.metrics.aggregator;
 
-import com.google.errorprone.annotations.concurrent.GuardedBy;
 import io.opentelemetry.api.common.Labels;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.metrics.common.InstrumentDescriptor;
@@ -13,7 +12,7 @@ import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.resources.Resource;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import javax.annotation.concurrent.ThreadSafe;
 
 @ThreadSafe
@@ -70,58 +69,81 @@ public final class LongMinMaxSumCountAggregator implements Aggregator<MinMaxSumC
         MetricData.DoubleSummaryData.create(points));
   }
 
-  static final class Handle extends AggregatorHandle<MinMaxSumCountAccumulation> {
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    // The current value. This controls its own internal thread-safety via method access. Don't
-    // try to use its fields directly.
-    @GuardedBy("lock")
-    private final LongState current = new LongState();
+  static final class Handle extends StripedMinMaxSumCountHandle<Handle.LongCell> {
 
     @Override
-    protected MinMaxSumCountAccumulation doAccumulateThenReset() {
-      lock.writeLock().lock();
-      try {
-        MinMaxSumCountAccumulation toReturn =
-            MinMaxSumCountAccumulation.create(current.count, current.sum, current.min, current.max);
-        current.reset();
-        return toReturn;
-      } finally {
-        lock.writeLock().unlock();
-      }
+    protected LongCell newCell() {
+      return new LongCell();
     }
 
     @Override
     protected void doRecordLong(long value) {
-      lock.writeLock().lock();
+      LongCell cell = enter();
       try {
-        current.record(value);
+        cell.record(value);
       } finally {
-        lock.writeLock().unlock();
+        exit(cell);
       }
     }
 
-    private static final class LongState {
-      private long count;
-      private long sum;
-      private long min;
-      private long max;
+    static final class LongCell extends StripedMinMaxSumCountHandle.Cell {
+      private static final AtomicLongFieldUpdater<LongCell> COUNT =
+          AtomicLongFieldUpdater.newUpdater(LongCell.class, "count");
+      private static final AtomicLongFieldUpdater<LongCell> SUM =
+          AtomicLongFieldUpdater.newUpdater(LongCell.class, "sum");
+      private static final AtomicLongFieldUpdater<LongCell> MIN =
+          AtomicLongFieldUpdater.newUpdater(LongCell.class, "min");
+      private static final AtomicLongFieldUpdater<LongCell> MAX =
+          AtomicLongFieldUpdater.newUpdater(LongCell.class, "max");
+
+      private volatile long count;
+      private volatile long sum;
+      private volatile long min = Long.MAX_VALUE;
+      private volatile long max = Long.MIN_VALUE;
+
+      private void record(long value) {
+        COUNT.incrementAndGet(this);
+        SUM.addAndGet(this, value);
+        while (true) {
+          long currentMin = min;
+          if (value >= currentMin || MIN.compareAndSet(this, currentMin, value)) {
+            break;
+          }
+        }
+        while (true) {
+          long currentMax = max;
+          if (value <= currentMax || MAX.compareAndSet(this, currentMax, value)) {
+            break;
+          }
+        }
+      }
+
+      @Override
+      long getCount() {
+        return count;
+      }
+
+      @Override
+      double getSum() {
+        return sum;
+      }
 
-      public LongState() {
-        reset();
+      @Override
+      double getMin() {
+        return count == 0 ? Double.POSITIVE_INFINITY : min;
       }
 
-      private void reset() {
-        this.sum = 0;
-        this.count = 0;
-        this.min = Long.MAX_VALUE;
-        this.max = Long.MIN_VALUE;
+      @Override
+      double getMax() {
+        return count == 0 ? Double.NEGATIVE_INFINITY : max;
       }
 
-      public void record(long value) {
-        count++;
-        sum += value;
-        min = Math.min(value, min);
-        max = Math.max(value, max);
+      @Override
+      void reset() {
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
       }
     }
   }
@@ -79,4 +79,41 @@ final class MetricDataUtils {
             points.add(aggregator.toPoint(startEpochNanos, epochNanos, labels)));
     return points;
   }
+
+  static List<MetricData.DoubleHistogramPoint> toDoubleHistogramPointList(
+      Map<Labels, HistogramAccumulation> accumulationMap,
+      List<Double> boundaries,
+      long startEpochNanos,
+      long epochNanos) {
+    List<MetricData.DoubleHistogramPoint> points = new ArrayList<>(accumulationMap.size());
+    accumulationMap.forEach(
+        (labels, aggregator) ->
+            points.add(aggregator.toPoint(startEpochNanos, epochNanos, labels, boundaries)));
+    return points;
+  }
+
+  static List<MetricData.DoubleHistogramPoint> toExponentialHistogramPointList(
+      Map<Labels, ExponentialHistogramAccumulation> accumulationMap,
+      long startEpochNanos,
+      long epochNanos) {
+    List<MetricData.DoubleHistogramPoint> points = new ArrayList<>(accumulationMap.size());
+    accumulationMap.forEach(
+        (labels, aggregator) ->
+            points.add(aggregator.toPoint(startEpochNanos, epochNanos, labels)));
+    return points;
+  }
+
+  static List<MetricData.DoubleSummaryPoint> toQuantileSketchPointList(
+      Map<Labels, QuantileSketchAccumulation> accumulationMap,
+      List<Double> percentiles,
+      double gamma,
+      long startEpochNanos,
+      long epochNanos) {
+    List<MetricData.DoubleSummaryPoint> points = new ArrayList<>(accumulationMap.size());
+    accumulationMap.forEach(
+        (labels, aggregator) ->
+            points.add(
+                aggregator.toPoint(startEpochNanos, epochNanos, labels, percentiles, gamma)));
+    return points;
+  }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import com.google.auto.value.AutoValue;
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The accumulation of a {@link QuantileSketchAggregator}.
+ *
+ * <p>The bucket at index {@code i} counts the values greater than {@code gamma^(i-1)} and less than
+ * or equal to {@code gamma^i}, where {@code gamma} depends on the relative accuracy of the
+ * aggregator. Negative values are counted in the same way by their absolute value, and zeros
+ * separately.
+ */
+@Immutable
+@AutoValue
+abstract class QuantileSketchAccumulation {
+  /**
+   * Creates a new {@link QuantileSketchAccumulation} with the given values.
+   *
+   * @param count the number of measurements.
+   * @param sum the sum of the measurements.
+   * @param min the min value out of all measurements.
+   * @param max the max value out of all measurements.
+   * @param zeroCount the number of measurements equal to zero.
+   * @param positiveBuckets the buckets of the positive measurements.
+   * @param negativeBuckets the buckets of the negative measurements.
+   * @return a new {@link QuantileSketchAccumulation} with the given values.
+   */
+  static QuantileSketchAccumulation create(
+      long count,
+      double sum,
+      double min,
+      double max,
+      long zeroCount,
+      ExponentialHistogramBuckets positiveBuckets,
+      ExponentialHistogramBuckets negativeBuckets) {
+    return new AutoValue_QuantileSketchAccumulation(
+        count, sum, min, max, zeroCount, positiveBuckets, negativeBuckets);
+  }
+
+  QuantileSketchAccumulation() {}
+
+  /**
+   * Returns the count (number of measurements) stored by this accumulation.
+   *
+   * @return the count stored by this accumulation.
+   */
+  abstract long getCount();
+
+  /**
+   * Returns the sum (sum of measurements) stored by this accumulation.
+   *
+   * @return the sum stored by this accumulation.
+   */
+  abstract double getSum();
+
+  /**
+   * Returns the min (minimum of all measurements) stored by this accumulation.
+   *
+   * @return the min stored by this accumulation.
+   */
+  abstract double getMin();
+
+  /**
+   * Returns the max (maximum of all measurements) stored by this accumulation.
+   *
+   * @return the max stored by this accumulation.
+   */
+  abstract double getMax();
+
+  /**
+   * Returns the number of measurements equal to zero stored by this accumulation.
+   *
+   * @return the number of measurements equal to zero stored by this accumulation.
+   */
+  abstract long getZeroCount();
+
+  /**
+   * Returns the buckets of the positive measurements stored by this accumulation.
+   *
+   * @return the buckets of the positive measurements stored by this accumulation.
+   */
+  abstract ExponentialHistogramBuckets getPositiveBuckets();
+
+  /**
+   * Returns the buckets of the negative measurements stored by this accumulation.
+   *
+   * @return the buckets of the negative measurements stored by this accumulation.
+   */
+  abstract ExponentialHistogramBuckets getNegativeBuckets();
+
+  /**
+   * Returns the estimate of the value at the given percentile of the measurements, whose relative
+   * error is at most the relative accuracy of the buckets. The 0th and 100th percentiles are the
+   * exact min and max.
+   *
+   * @param percentile the percentile, in the range {@code [0, 100]}.
+   * @param gamma the ratio between the boundaries of consecutive buckets.
+   * @return the estimate of the value at the given percentile, or NaN if there is no measurement.
+   */
+  final double getValueAtPercentile(double percentile, double gamma) {
+    if (getCount() == 0) {
+      return Double.NaN;
+    }
+    if (percentile == 0) {
+      return getMin();
+    }
+    if (percentile == 100) {
+      return getMax();
+    }
+    // The rank of the value, from 0 for the min to count - 1 for the max.
+    double rank = percentile / 100 * (getCount() - 1);
+    long seen = 0;
+    // The negative values in increasing order are in the negative buckets by decreasing index.
+    ExponentialHistogramBuckets negativeBuckets = getNegativeBuckets();
+    for (int i = negativeBuckets.getCounts().length - 1; i >= 0; i--) {
+      seen += negativeBuckets.getCounts()[i];
+      if (seen > rank) {
+        return clamp(-getBucketValue(negativeBuckets.getOffset() + i, gamma));
+      }
+    }
+    seen += getZeroCount();
+    if (seen > rank) {
+      return clamp(0);
+    }
+    ExponentialHistogramBuckets positiveBuckets = getPositiveBuckets();
+    for (int i = 0; i < positiveBuckets.getCounts().length; i++) {
+      seen += positiveBuckets.getCounts()[i];
+      if (seen > rank) {
+        return clamp(getBucketValue(positiveBuckets.getOffset() + i, gamma));
+      }
+    }
+    return getMax();
+  }
+
+  final MetricData.DoubleSummaryPoint toPoint(
+      long startEpochNanos,
+      long epochNanos,
+      Labels labels,
+      List<Double> percentiles,
+      double gamma) {
+    List<MetricData.ValueAtPercentile> valueAtPercentiles;
+    if (getCount() == 0) {
+      valueAtPercentiles = new ArrayList<>(0);
+    } else {
+      valueAtPercentiles = new ArrayList<>(percentiles.size());
+      for (double percentile : percentiles) {
+        valueAtPercentiles.add(
+            MetricData.ValueAtPercentile.create(
+                percentile, getValueAtPercentile(percentile, gamma)));
+      }
+    }
+    return MetricData.DoubleSummaryPoint.create(
+        startEpochNanos, epochNanos, labels, getCount(), getSum(), valueAtPercentiles);
+  }
+
+  // The value of the bucket whose relative distance to both boundaries is the same, at most the
+  // relative accuracy.
+  private static double getBucketValue(int index, double gamma) {
+    return 2 * Math.pow(gamma, index) / (gamma + 1);
+  }
+
+  private double clamp(double value) {
+    return Math.max(getMin(), Math.min(value, getMax()));
+  }
+}
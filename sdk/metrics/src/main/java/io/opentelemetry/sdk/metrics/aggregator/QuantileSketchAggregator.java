@@ -0,0 +1,420 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.common.InstrumentDescriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * An {@link Aggregator} estimating percentiles of the recorded {@code long} or {@code double}
+ * values with a bounded relative error, in the manner of DDSketch.
+ *
+ * <p>The bucket at index {@code i} counts the values greater than {@code gamma^(i-1)} and less than
+ * or equal to {@code gamma^i}, where {@code gamma = (1 + alpha) / (1 - alpha)} for a relative
+ * accuracy {@code alpha}, so that any value of a bucket is within {@code alpha} of its center.
+ * Negative values are counted in the same way by their absolute value, and zeros separately. The
+ * buckets of the same indices can be added, so accumulations merge exactly.
+ *
+ * <p>The buckets of each sign are kept in a window of at most {@code maxBuckets} consecutive
+ * indices, starting small and growing with the range of the recorded values. Once the window is
+ * full, the lowest buckets are collapsed into the lowest remaining one: the percentiles of the
+ * largest magnitudes, the latency outliers, keep their accuracy, while the memory of a handle is
+ * bounded whatever is recorded.
+ *
+ * <p>Infinite and NaN values cannot be bucketed and are ignored.
+ */
+@ThreadSafe
+final class QuantileSketchAggregator implements Aggregator<QuantileSketchAccumulation> {
+  // At this relative accuracy, the index of any double fits in an int with room to spare.
+  static final double MIN_RELATIVE_ACCURACY = 1e-6;
+  static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+  static final int DEFAULT_MAX_BUCKETS = 2048;
+  static final double[] DEFAULT_PERCENTILES = {0.0, 50.0, 90.0, 99.0, 99.9, 100.0};
+
+  private static final QuantileSketchAccumulation EMPTY_ACCUMULATION =
+      QuantileSketchAccumulation.create(
+          0,
+          0,
+          Double.POSITIVE_INFINITY,
+          Double.NEGATIVE_INFINITY,
+          0,
+          ExponentialHistogramBuckets.empty(),
+          ExponentialHistogramBuckets.empty());
+
+  private final double relativeAccuracy;
+  private final int maxBuckets;
+  private final List<Double> percentiles;
+  private final double gamma;
+  // 1 / log(gamma), the index of a value is the ceiling of its logarithm times this.
+  private final double multiplier;
+
+  /**
+   * Creates a {@link QuantileSketchAggregator}.
+   *
+   * @param relativeAccuracy the relative accuracy, in the range {@code [1e-6, 1)}.
+   * @param maxBuckets the maximum number of buckets for each sign, at least 1.
+   * @param percentiles the percentiles to report, in increasing order in the range {@code [0,
+   *     100]}.
+   */
+  QuantileSketchAggregator(double relativeAccuracy, int maxBuckets, List<Double> percentiles) {
+    this.relativeAccuracy = relativeAccuracy;
+    this.maxBuckets = maxBuckets;
+    this.percentiles = percentiles;
+    this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+    this.multiplier = 1 / Math.log(gamma);
+  }
+
+  @Override
+  public AggregatorHandle<QuantileSketchAccumulation> createHandle() {
+    return new Handle(this);
+  }
+
+  @Override
+  public QuantileSketchAccumulation accumulateLong(long value) {
+    return accumulateDouble((double) value);
+  }
+
+  @Override
+  public QuantileSketchAccumulation accumulateDouble(double value) {
+    if (!Double.isFinite(value)) {
+      return EMPTY_ACCUMULATION;
+    }
+    if (value == 0) {
+      return QuantileSketchAccumulation.create(
+          1,
+          value,
+          value,
+          value,
+          1,
+          ExponentialHistogramBuckets.empty(),
+          ExponentialHistogramBuckets.empty());
+    }
+    ExponentialHistogramBuckets buckets =
+        ExponentialHistogramBuckets.create(getIndex(Math.abs(value)), new long[] {1});
+    return QuantileSketchAccumulation.create(
+        1,
+        value,
+        value,
+        value,
+        0,
+        value > 0 ? buckets : ExponentialHistogramBuckets.empty(),
+        value > 0 ? ExponentialHistogramBuckets.empty() : buckets);
+  }
+
+  /**
+   * Merges the accumulations by adding the counts of the buckets of the same index, collapsing the
+   * lowest ones if the merged buckets do not fit in the maximum number of buckets.
+   */
+  @Override
+  public QuantileSketchAccumulation merge(
+      QuantileSketchAccumulation a1, QuantileSketchAccumulation a2) {
+    return QuantileSketchAccumulation.create(
+        a1.getCount() + a2.getCount(),
+        a1.getSum() + a2.getSum(),
+        Math.min(a1.getMin(), a2.getMin()),
+        Math.max(a1.getMax(), a2.getMax()),
+        a1.getZeroCount() + a2.getZeroCount(),
+        merge(a1.getPositiveBuckets(), a2.getPositiveBuckets()),
+        merge(a1.getNegativeBuckets(), a2.getNegativeBuckets()));
+  }
+
+  @Override
+  public MetricData toMetricData(
+      Resource resource,
+      InstrumentationLibraryInfo instrumentationLibraryInfo,
+      InstrumentDescriptor descriptor,
+      Map<Labels, QuantileSketchAccumulation> accumulationByLabels,
+      long startEpochNanos,
+      long epochNanos) {
+    List<MetricData.DoubleSummaryPoint> points =
+        MetricDataUtils.toQuantileSketchPointList(
+            accumulationByLabels, percentiles, gamma, startEpochNanos, epochNanos);
+    return MetricData.createDoubleSummary(
+        resource,
+        instrumentationLibraryInfo,
+        descriptor.getName(),
+        descriptor.getDescription(),
+        descriptor.getUnit(),
+        MetricData.DoubleSummaryData.create(points));
+  }
+
+  /** Returns the index of the bucket of the given positive finite value. */
+  int getIndex(double value) {
+    return (int) Math.ceil(Math.log(value) * multiplier);
+  }
+
+  // Visible for testing
+  double getGamma() {
+    return gamma;
+  }
+
+  // Visible for testing
+  double getRelativeAccuracy() {
+    return relativeAccuracy;
+  }
+
+  // Visible for testing
+  int getMaxBuckets() {
+    return maxBuckets;
+  }
+
+  // Visible for testing
+  List<Double> getPercentiles() {
+    return percentiles;
+  }
+
+  private ExponentialHistogramBuckets merge(
+      ExponentialHistogramBuckets b1, ExponentialHistogramBuckets b2) {
+    if (b1.isEmpty()) {
+      return b2;
+    }
+    if (b2.isEmpty()) {
+      return b1;
+    }
+    int maxIndex = Math.max(b1.getMaxIndex(), b2.getMaxIndex());
+    int minIndex = Math.max(Math.min(b1.getOffset(), b2.getOffset()), maxIndex - maxBuckets + 1);
+    long[] counts = new long[maxIndex - minIndex + 1];
+    addCounts(b1, counts, minIndex);
+    addCounts(b2, counts, minIndex);
+    return ExponentialHistogramBuckets.create(minIndex, counts);
+  }
+
+  // Adds the counts of the buckets, those below the offset to the first one.
+  private static void addCounts(ExponentialHistogramBuckets buckets, long[] counts, int offset) {
+    long[] bucketCounts = buckets.getCounts();
+    for (int i = 0; i < bucketCounts.length; i++) {
+      counts[Math.max(buckets.getOffset() + i - offset, 0)] += bucketCounts[i];
+    }
+  }
+
+  static final class Handle
+      extends StripedAggregatorHandle<QuantileSketchAccumulation, Handle.SketchCell> {
+    // The bucket stores of a cell grow up to maxBuckets counts each, and recordings take the lock
+    // of the cell anyway, so few stripes are used, and cells without recordings are released.
+    private static final int MAX_STRIPES = 2;
+
+    private final QuantileSketchAggregator aggregator;
+
+    Handle(QuantileSketchAggregator aggregator) {
+      super(MAX_STRIPES, /* releaseIdleCells= */ true);
+      this.aggregator = aggregator;
+    }
+
+    @Override
+    protected SketchCell newCell() {
+      return new SketchCell(aggregator.maxBuckets);
+    }
+
+    @Override
+    protected QuantileSketchAccumulation accumulateThenReset(List<SketchCell> cells) {
+      QuantileSketchAccumulation accumulation = null;
+      for (SketchCell cell : cells) {
+        QuantileSketchAccumulation cellAccumulation = cell.accumulateThenReset();
+        if (cellAccumulation == null) {
+          continue;
+        }
+        accumulation =
+            accumulation == null
+                ? cellAccumulation
+                : aggregator.merge(accumulation, cellAccumulation);
+      }
+      return accumulation == null ? EMPTY_ACCUMULATION : accumulation;
+    }
+
+    @Override
+    protected void doRecordLong(long value) {
+      record((double) value);
+    }
+
+    @Override
+    protected void doRecordDouble(double value) {
+      record(value);
+    }
+
+    private void record(double value) {
+      if (!Double.isFinite(value)) {
+        return;
+      }
+      // The logarithm is computed outside of the lock of the cell.
+      int index = value == 0 ? 0 : aggregator.getIndex(Math.abs(value));
+      SketchCell cell = enter();
+      try {
+        cell.record(value, index);
+      } finally {
+        exit(cell);
+      }
+    }
+
+    // A recording updates the count, sum, min and max together with a bucket store that may grow
+    // its array or collapse its lowest buckets, which atomic updates cannot do, so the cell is
+    // locked. With at most two cells per handle, threads of the same stripe share that lock.
+    static final class SketchCell extends StripedAggregatorHandle.Cell {
+      @GuardedBy("this")
+      private final BucketStore positiveStore;
+
+      @GuardedBy("this")
+      private final BucketStore negativeStore;
+
+      @GuardedBy("this")
+      private long count;
+
+      @GuardedBy("this")
+      private double sum;
+
+      @GuardedBy("this")
+      private double min = Double.POSITIVE_INFINITY;
+
+      @GuardedBy("this")
+      private double max = Double.NEGATIVE_INFINITY;
+
+      @GuardedBy("this")
+      private long zeroCount;
+
+      private SketchCell(int maxBuckets) {
+        positiveStore = new BucketStore(maxBuckets);
+        negativeStore = new BucketStore(maxBuckets);
+      }
+
+      private synchronized void record(double value, int index) {
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (value > 0) {
+          positiveStore.increment(index);
+        } else if (value < 0) {
+          negativeStore.increment(index);
+        } else {
+          zeroCount++;
+        }
+      }
+
+      @Nullable
+      private synchronized QuantileSketchAccumulation accumulateThenReset() {
+        if (count == 0) {
+          return null;
+        }
+        QuantileSketchAccumulation accumulation =
+            QuantileSketchAccumulation.create(
+                count,
+                sum,
+                min,
+                max,
+                zeroCount,
+                positiveStore.toBucketsAndClear(),
+                negativeStore.toBucketsAndClear());
+        count = 0;
+        sum = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        zeroCount = 0;
+        return accumulation;
+      }
+    }
+  }
+
+  /**
+   * The counts of a window of consecutive buckets, in a circular array where the count of the
+   * bucket at index {@code i} is at position {@code i mod length}. The array starts with room for a
+   * few buckets and doubles, up to {@code maxBuckets}, when the window outgrows it. Collection
+   * clears the counts in place, so the array is reused as long as its cell is kept, that is until
+   * the cell has no recordings for a whole interval of its set.
+   */
+  static final class BucketStore {
+    // Enough for the values of a single order of magnitude at the default relative accuracy.
+    private static final int INITIAL_LENGTH = 128;
+
+    private final int maxBuckets;
+    private long[] counts = new long[0];
+    private int minIndex = Integer.MAX_VALUE;
+    private int maxIndex = Integer.MIN_VALUE;
+
+    BucketStore(int maxBuckets) {
+      this.maxBuckets = maxBuckets;
+    }
+
+    boolean isEmpty() {
+      return minIndex > maxIndex;
+    }
+
+    /**
+     * Increments the count of the bucket at the given index, or of the lowest bucket of the window
+     * if the index is below the buckets kept.
+     */
+    void increment(int index) {
+      if (index < minIndex || index > maxIndex) {
+        index = extendWindow(index);
+      }
+      counts[position(index)]++;
+    }
+
+    ExponentialHistogramBuckets toBucketsAndClear() {
+      if (isEmpty()) {
+        return ExponentialHistogramBuckets.empty();
+      }
+      long[] bucketCounts = new long[maxIndex - minIndex + 1];
+      for (int index = minIndex; index <= maxIndex; index++) {
+        int position = position(index);
+        bucketCounts[index - minIndex] = counts[position];
+        counts[position] = 0;
+      }
+      ExponentialHistogramBuckets buckets =
+          ExponentialHistogramBuckets.create(minIndex, bucketCounts);
+      minIndex = Integer.MAX_VALUE;
+      maxIndex = Integer.MIN_VALUE;
+      return buckets;
+    }
+
+    // Extends the window to the given index, growing the array or collapsing the lowest buckets as
+    // needed, and returns the index of the bucket to increment.
+    private int extendWindow(int index) {
+      int newMinIndex = Math.min(minIndex, index);
+      int newMaxIndex = Math.max(maxIndex, index);
+      long length = (long) newMaxIndex - newMinIndex + 1;
+      if (length > counts.length && counts.length < maxBuckets) {
+        grow(
+            (int)
+                Math.min(
+                    Math.max(Math.max(2 * counts.length, INITIAL_LENGTH), length), maxBuckets));
+      }
+      if (length > counts.length) {
+        // Collapses the buckets below the window into its lowest bucket. Their positions are those
+        // of the new buckets above the previous window, which are then empty.
+        newMinIndex = newMaxIndex - counts.length + 1;
+        long collapsed = 0;
+        for (int i = minIndex; i < newMinIndex && i <= maxIndex; i++) {
+          int position = position(i);
+          collapsed += counts[position];
+          counts[position] = 0;
+        }
+        counts[position(newMinIndex)] += collapsed;
+      }
+      minIndex = newMinIndex;
+      maxIndex = newMaxIndex;
+      return Math.max(index, newMinIndex);
+    }
+
+    private void grow(int newLength) {
+      long[] newCounts = new long[newLength];
+      for (int i = minIndex; i <= maxIndex; i++) {
+        newCounts[Math.floorMod(i, newLength)] = counts[position(i)];
+      }
+      counts = newCounts;
+    }
+
+    private int position(int index) {
+      return Math.floorMod(index, counts.length);
+    }
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * An {@link AggregatorHandle} recording values without locks, in cells updated with atomic
+ * operations.
+ *
+ * <p>Values are recorded in cells, one per stripe, selected by the id of the recording thread, so
+ * that threads recording concurrently update different memory locations. A cell is created by the
+ * first thread recording to it, so a handle only has as many cells as threads recorded to it, up to
+ * the number of available processors rounded up to a power of two, or a lower maximum for handles
+ * whose cells are large.
+ *
+ * <p>There are two sets of cells. Recordings go to the active one, and {@link
+ * #doAccumulateThenReset()} makes the other one active, waits for the recordings in progress on the
+ * previously active set to complete, then merges and resets its cells. A recording is in progress
+ * between the increment and the decrement of the count of writers of its cell, and is retried on
+ * the new active set if the set it started on is not active anymore, so each value is entirely in
+ * exactly one accumulation. Cells are reset in place and kept for the next recordings. Handles
+ * whose cells are large may release the cells that had no recordings since the previous collection
+ * of their set, including when the whole handle is idle, so that a handle recording a steady load
+ * does not allocate while a handle or thread that stopped recording does not retain its cells.
+ */
+@ThreadSafe
+abstract class StripedAggregatorHandle<T, C extends StripedAggregatorHandle.Cell>
+    extends AggregatorHandle<T> {
+
+  private static final int NUMBER_OF_STRIPES = numberOfStripes();
+
+  private final int numberOfStripes;
+  private final boolean releaseIdleCells;
+
+  private volatile AtomicReferenceArray<C> active;
+
+  @GuardedBy("this")
+  private AtomicReferenceArray<C> standby;
+
+  /** Creates a handle with a stripe per available processor, keeping its cells. */
+  protected StripedAggregatorHandle() {
+    this(NUMBER_OF_STRIPES, /* releaseIdleCells= */ false);
+  }
+
+  /**
+   * Creates a handle with at most {@code maxStripes} stripes, which must be a power of two,
+   * releasing the collected cells that had no recordings if {@code releaseIdleCells} is {@code
+   * true}.
+   */
+  protected StripedAggregatorHandle(int maxStripes, boolean releaseIdleCells) {
+    this.numberOfStripes = Math.min(maxStripes, NUMBER_OF_STRIPES);
+    this.releaseIdleCells = releaseIdleCells;
+    this.active = new AtomicReferenceArray<>(numberOfStripes);
+    this.standby = new AtomicReferenceArray<>(numberOfStripes);
+  }
+
+  /** Returns a new cell, with no recorded values. */
+  protected abstract C newCell();
+
+  /**
+   * Returns the accumulation of the values recorded in the given cells, and resets them. Only
+   * called once there are no writers on the cells.
+   */
+  protected abstract T accumulateThenReset(List<C> cells);
+
+  /**
+   * Returns the cell of the current thread in the active set, which the caller must pass to {@link
+   * #exit(Cell)} once the value is recorded.
+   */
+  protected final C enter() {
+    int index = (int) Thread.currentThread().getId() & (numberOfStripes - 1);
+    while (true) {
+      AtomicReferenceArray<C> cells = active;
+      C cell = cells.get(index);
+      if (cell == null) {
+        C newCell = newCell();
+        cell = cells.compareAndSet(index, null, newCell) ? newCell : cells.get(index);
+      }
+      cell.enter();
+      if (cells == active) {
+        cell.markRecorded();
+        return cell;
+      }
+      // The cells are being collected.
+      cell.exit();
+    }
+  }
+
+  /** Completes the recording started with {@link #enter()}. */
+  protected final void exit(C cell) {
+    cell.exit();
+  }
+
+  @Override
+  protected final synchronized T doAccumulateThenReset() {
+    List<C> cells = collect();
+    T accumulation = accumulateThenReset(cells);
+    clearRecorded(cells);
+    return accumulation;
+  }
+
+  @Override
+  @Nullable
+  protected final synchronized T doReleaseIdle() {
+    if (!releaseIdleCells || !hasCells()) {
+      return null;
+    }
+    // Collects the set like any collection, so that its cells are released if they are still idle
+    // and the values of recordings racing with the check for recordings are not lost.
+    List<C> cells = collect();
+    boolean recorded = false;
+    for (C cell : cells) {
+      recorded |= cell.isRecorded();
+    }
+    T accumulation = recorded ? accumulateThenReset(cells) : null;
+    clearRecorded(cells);
+    return accumulation;
+  }
+
+  // Makes the standby set active, waits for the writers on the cells of the previously active set,
+  // and returns them, releasing the idle ones if configured to.
+  @GuardedBy("this")
+  private List<C> collect() {
+    AtomicReferenceArray<C> collected = active;
+    active = standby;
+    standby = collected;
+    List<C> cells = new ArrayList<>(numberOfStripes);
+    boolean hasIdleCells = false;
+    for (int i = 0; i < numberOfStripes; i++) {
+      C cell = collected.get(i);
+      if (cell == null) {
+        continue;
+      }
+      cell.awaitWriters();
+      cells.add(cell);
+      hasIdleCells |= !cell.isRecorded();
+    }
+    if (releaseIdleCells && hasIdleCells) {
+      // A new set, so that a writer still holding an idle cell of the collected set never finds it
+      // active again without that cell.
+      AtomicReferenceArray<C> kept = new AtomicReferenceArray<>(numberOfStripes);
+      for (int i = 0; i < numberOfStripes; i++) {
+        C cell = collected.get(i);
+        if (cell != null && cell.isRecorded()) {
+          kept.set(i, cell);
+        }
+      }
+      standby = kept;
+    }
+    return cells;
+  }
+
+  private static void clearRecorded(List<? extends Cell> cells) {
+    for (Cell cell : cells) {
+      cell.clearRecorded();
+    }
+  }
+
+  @GuardedBy("this")
+  private boolean hasCells() {
+    for (int i = 0; i < numberOfStripes; i++) {
+      if (active.get(i) != null || standby.get(i) != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Visible for testing
+  synchronized int getNumberOfCells() {
+    int cells = 0;
+    for (int i = 0; i < numberOfStripes; i++) {
+      if (active.get(i) != null) {
+        cells++;
+      }
+      if (standby.get(i) != null) {
+        cells++;
+      }
+    }
+    return cells;
+  }
+
+  private static int numberOfStripes() {
+    int processors = Runtime.getRuntime().availableProcessors();
+    int stripes = Integer.highestOneBit(processors);
+    return stripes < processors ? stripes << 1 : stripes;
+  }
+
+  /** The values recorded by the threads of a stripe. */
+  abstract static class Cell {
+    private static final AtomicLongFieldUpdater<Cell> WRITERS =
+        AtomicLongFieldUpdater.newUpdater(Cell.class, "writers");
+
+    private volatile long writers;
+
+    // Whether a value was recorded since the previous collection of the set of the cell, read and
+    // cleared by the collection once there are no writers.
+    private volatile boolean recorded;
+
+    final void enter() {
+      WRITERS.incrementAndGet(this);
+    }
+
+    final void markRecorded() {
+      if (!recorded) {
+        recorded = true;
+      }
+    }
+
+    final boolean isRecorded() {
+      return recorded;
+    }
+
+    final void clearRecorded() {
+      recorded = false;
+    }
+
+    final void exit() {
+      WRITERS.decrementAndGet(this);
+    }
+
+    final void awaitWriters() {
+      while (writers != 0) {
+        // A recording only takes a few atomic operations.
+        Thread.yield();
+      }
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import java.util.List;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link StripedAggregatorHandle} computing the count, sum, min and max of the recorded values.
+ * The count and sum of a cell are added atomically and its min and max updated with
+ * compare-and-set, and a value is collected with its count, sum, min and max in the same
+ * accumulation.
+ */
+@ThreadSafe
+abstract class StripedMinMaxSumCountHandle<C extends StripedMinMaxSumCountHandle.Cell>
+    extends StripedAggregatorHandle<MinMaxSumCountAccumulation, C> {
+
+  @Override
+  protected final MinMaxSumCountAccumulation accumulateThenReset(List<C> cells) {
+    long count = 0;
+    double sum = 0;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    for (C cell : cells) {
+      count += cell.getCount();
+      sum += cell.getSum();
+      min = Math.min(min, cell.getMin());
+      max = Math.max(max, cell.getMax());
+      cell.reset();
+    }
+    return MinMaxSumCountAccumulation.create(count, sum, min, max);
+  }
+
+  /** The count, sum, min and max of the values recorded by the threads of a stripe. */
+  abstract static class Cell extends StripedAggregatorHandle.Cell {
+
+    /** Returns the number of values recorded, only called once there are no writers. */
+    abstract long getCount();
+
+    /** Returns the sum of the values recorded, only called once there are no writers. */
+    abstract double getSum();
+
+    /** Returns the min of the values recorded, only called once there are no writers. */
+    abstract double getMin();
+
+    /** Returns the max of the values recorded, only called once there are no writers. */
+    abstract double getMax();
+
+    /** Forgets the values recorded, only called once there are no writers. */
+    abstract void reset();
+  }
+}
@@ -33,6 +33,8 @@ public abstract class MetricData {
           /* isMonotonic= */ false, AggregationTemporality.CUMULATIVE, Collections.emptyList());
   private static final DoubleSummaryData DEFAULT_DOUBLE_SUMMARY_DATA =
       DoubleSummaryData.create(Collections.emptyList());
+  private static final DoubleHistogramData DEFAULT_DOUBLE_HISTOGRAM_DATA =
+      DoubleHistogramData.create(AggregationTemporality.CUMULATIVE, Collections.emptyList());
 
   public static MetricData createDoubleGauge(
       Resource resource,
@@ -89,6 +91,17 @@ public abstract class MetricData {
         resource, instrumentationLibraryInfo, name, description, unit, Type.SUMMARY, data);
   }
 
+  public static MetricData createDoubleHistogram(
+      Resource resource,
+      InstrumentationLibraryInfo instrumentationLibraryInfo,
+      String name,
+      String description,
+      String unit,
+      DoubleHistogramData data) {
+    return new AutoValue_MetricData(
+        resource, instrumentationLibraryInfo, name, description, unit, Type.HISTOGRAM, data);
+  }
+
   MetricData() {}
 
   /** The kind of metric. It describes how the data is reported. */
@@ -117,6 +130,13 @@ public abstract class MetricData {
      * recorded.
      */
     SUMMARY,
+
+    /**
+     * A Histogram of measurements of numeric values, containing the number of measurements in each
+     * of the buckets delimited by explicit boundaries, the sum of all measurements and the total
+     * number of measurements recorded. Reports {@link DoubleHistogramData} data.
+     */
+    HISTOGRAM,
   }
 
   /** An enumeration which describes the time period over which metrics should be aggregated. */
@@ -251,6 +271,20 @@ public abstract class MetricData {
     return DEFAULT_DOUBLE_SUMMARY_DATA;
   }
 
+  /**
+   * Returns the {@code DoubleHistogramData} if type is {@link Type#HISTOGRAM}, otherwise a default
+   * empty data.
+   *
+   * @return the {@code DoubleHistogramData} if type is {@link Type#HISTOGRAM}, otherwise a default
+   *     empty data.
+   */
+  public final DoubleHistogramData getDoubleHistogramData() {
+    if (getType() == Type.HISTOGRAM) {
+      return (DoubleHistogramData) getData();
+    }
+    return DEFAULT_DOUBLE_HISTOGRAM_DATA;
+  }
+
   @Immutable
   abstract static class Data<T extends Point> {
     /**
@@ -338,6 +372,28 @@ public abstract class MetricData {
     public abstract Collection<DoubleSummaryPoint> getPoints();
   }
 
+  @Immutable
+  @AutoValue
+  public abstract static class DoubleHistogramData extends Data<DoubleHistogramPoint> {
+    public static DoubleHistogramData create(
+        AggregationTemporality temporality, Collection<DoubleHistogramPoint> points) {
+      return new AutoValue_MetricData_DoubleHistogramData(temporality, points);
+    }
+
+    /**
+     * Returns the {@code AggregationTemporality} of this metric,
+     *
+     * <p>AggregationTemporality describes if the aggregator reports delta changes since last report
+     * time, or cumulative changes since a fixed start time.
+     *
+     * @return the {@code AggregationTemporality} of this metric
+     */
+    public abstract AggregationTemporality getAggregationTemporality();
+
+    @Override
+    public abstract Collection<DoubleHistogramPoint> getPoints();
+  }
+
   @Immutable
   public abstract static class Point {
 
@@ -459,6 +515,61 @@ public abstract class MetricData {
     }
   }
 
+  /**
+   * DoubleHistogramPoint is a single data point that counts the values of a time series of numeric
+   * values in buckets delimited by explicit boundaries.
+   *
+   * <p>With {@code n} boundaries there are {@code n + 1} buckets: the bucket at index {@code i}
+   * counts the values greater than the boundary at index {@code i - 1}, if any, and less than or
+   * equal to the boundary at index {@code i}, if any.
+   */
+  @Immutable
+  @AutoValue
+  public abstract static class DoubleHistogramPoint extends Point {
+
+    DoubleHistogramPoint() {}
+
+    /**
+     * The number of values that are being counted.
+     *
+     * @return the number of values that are being counted.
+     */
+    public abstract long getCount();
+
+    /**
+     * The sum of all the values that are being counted.
+     *
+     * @return the sum of the values that are being counted.
+     */
+    public abstract double getSum();
+
+    /**
+     * The boundaries of the buckets, in increasing order.
+     *
+     * @return the boundaries of the buckets.
+     */
+    public abstract List<Double> getBoundaries();
+
+    /**
+     * The number of values in each bucket, one more than the number of boundaries.
+     *
+     * @return the number of values in each bucket.
+     */
+    public abstract List<Long> getCounts();
+
+    public static DoubleHistogramPoint create(
+        long startEpochNanos,
+        long epochNanos,
+        Labels labels,
+        long count,
+        double sum,
+        List<Double> boundaries,
+        List<Long> counts) {
+      return new AutoValue_MetricData_DoubleHistogramPoint(
+          startEpochNanos, epochNanos, labels, count, sum, boundaries, counts);
+    }
+  }
+
   @Immutable
   @AutoValue
   public abstract static class ValueAtPercentile {
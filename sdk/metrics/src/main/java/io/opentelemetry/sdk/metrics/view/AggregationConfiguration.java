@@ -6,6 +6,7 @@
 package io.opentelemetry.sdk.metrics.view;
 
 import com.google.auto.value.AutoValue;
+import io.opentelemetry.api.internal.Utils;
 import io.opentelemetry.sdk.metrics.aggregator.AggregatorFactory;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import javax.annotation.concurrent.Immutable;
@@ -16,16 +17,47 @@ import javax.annotation.concurrent.Immutable;
  * minMaxSumCount, etc), and a {@link MetricData.AggregationTemporality} which describes whether
  * aggregations should be reset with every collection interval, or continue to accumulate across
  * collection intervals.
+ *
+ * <p>It also bounds the number of label sets of each instrument the View applies to, so that an
+ * instrumentation recording unbounded labels cannot exhaust the memory. Once an instrument has
+ * {@code maxLabelSets - 1} label sets, the recordings with a new label set are folded into the
+ * overflow label set {@code otel.metric.overflow=true}, and each of them is counted in the {@code
+ * labelSetOverflows} metric of the {@code io.opentelemetry.sdk.metrics} instrumentation library.
  */
 @AutoValue
 @Immutable
 public abstract class AggregationConfiguration {
 
-  /** Returns a new configuration with the provided options. */
+  /** The default maximum number of label sets of an instrument. */
+  public static final int DEFAULT_MAX_LABEL_SETS = 2000;
+
+  /**
+   * Returns a new configuration with the provided options, and at most {@value
+   * #DEFAULT_MAX_LABEL_SETS} label sets per instrument.
+   */
   public static AggregationConfiguration create(
       AggregatorFactory aggregatorFactory,
       MetricData.AggregationTemporality aggregationTemporality) {
-    return new AutoValue_AggregationConfiguration(aggregatorFactory, aggregationTemporality);
+    return create(aggregatorFactory, aggregationTemporality, DEFAULT_MAX_LABEL_SETS);
+  }
+
+  /**
+   * Returns a new configuration with the provided options.
+   *
+   * @param aggregatorFactory the {@link AggregatorFactory} of the View.
+   * @param aggregationTemporality the {@link MetricData.AggregationTemporality} of the View.
+   * @param maxLabelSets the maximum number of label sets of an instrument, including the overflow
+   *     label set.
+   * @return a new configuration with the provided options.
+   * @throws IllegalArgumentException if {@code maxLabelSets} is not positive.
+   */
+  public static AggregationConfiguration create(
+      AggregatorFactory aggregatorFactory,
+      MetricData.AggregationTemporality aggregationTemporality,
+      int maxLabelSets) {
+    Utils.checkArgument(maxLabelSets > 0, "maxLabelSets must be positive");
+    return new AutoValue_AggregationConfiguration(
+        aggregatorFactory, aggregationTemporality, maxLabelSets);
   }
 
   /** Returns the {@link AggregatorFactory} that should be used for this View. */
@@ -36,4 +68,10 @@ public abstract class AggregationConfiguration {
    * vs. cumulative).
    */
   public abstract MetricData.AggregationTemporality getTemporality();
+
+  /**
+   * Returns the maximum number of label sets of an instrument, including the overflow label set,
+   * that should be used for this View.
+   */
+  public abstract int getMaxLabelSets();
 }
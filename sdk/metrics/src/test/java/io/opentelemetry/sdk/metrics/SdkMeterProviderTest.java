@@ -6,6 +6,8 @@
 package io.opentelemetry.sdk.metrics;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.withinPercentage;
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
@@ -25,7 +27,10 @@ import io.opentelemetry.sdk.metrics.view.AggregationConfiguration;
 import io.opentelemetry.sdk.metrics.view.InstrumentSelector;
 import io.opentelemetry.sdk.resources.Resource;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 
 public class SdkMeterProviderTest {
@@ -450,6 +455,162 @@ public class SdkMeterProviderTest {
                             testClock.now(), testClock.now(), Labels.empty(), 1)))));
   }
 
+  @Test
+  void collectValueRecorder_HistogramAggregation() {
+    testMeterProvider.registerView(
+        InstrumentSelector.builder().setInstrumentType(InstrumentType.VALUE_RECORDER).build(),
+        AggregationConfiguration.create(
+            AggregatorFactory.histogram(10, 100), MetricData.AggregationTemporality.CUMULATIVE));
+    DoubleValueRecorder doubleValueRecorder =
+        testSdk.doubleValueRecorderBuilder("testDoubleValueRecorder").build();
+    doubleValueRecorder.record(5.5, Labels.empty());
+    doubleValueRecorder.record(10, Labels.empty());
+    doubleValueRecorder.record(1000.5, Labels.empty());
+
+    assertThat(testSdk.collectAll(testClock.now()))
+        .containsExactly(
+            MetricData.createDoubleHistogram(
+                RESOURCE,
+                INSTRUMENTATION_LIBRARY_INFO,
+                "testDoubleValueRecorder",
+                "",
+                "1",
+                MetricData.DoubleHistogramData.create(
+                    MetricData.AggregationTemporality.CUMULATIVE,
+                    Collections.singletonList(
+                        MetricData.DoubleHistogramPoint.create(
+                            testClock.now(),
+                            testClock.now(),
+                            Labels.empty(),
+                            3,
+                            1016,
+                            Arrays.asList(10.0, 100.0),
+                            Arrays.asList(2L, 0L, 1L))))));
+  }
+
+  @Test
+  void collectValueRecorder_QuantileSketchAggregation() {
+    testMeterProvider.registerView(
+        InstrumentSelector.builder().setInstrumentType(InstrumentType.VALUE_RECORDER).build(),
+        AggregationConfiguration.create(
+            AggregatorFactory.quantileSketch(0.01, 100, 0, 50, 100),
+            MetricData.AggregationTemporality.CUMULATIVE));
+    LongValueRecorder longValueRecorder =
+        testSdk.longValueRecorderBuilder("testLongValueRecorder").build();
+    longValueRecorder.record(10, Labels.empty());
+    longValueRecorder.record(500, Labels.empty());
+    longValueRecorder.record(1000, Labels.empty());
+
+    Collection<MetricData> metricDataList = testSdk.collectAll(testClock.now());
+    assertThat(metricDataList).hasSize(1);
+    MetricData metricData = metricDataList.iterator().next();
+    assertThat(metricData.getType()).isEqualTo(MetricData.Type.SUMMARY);
+    MetricData.DoubleSummaryPoint point =
+        metricData.getDoubleSummaryData().getPoints().iterator().next();
+    assertThat(point.getCount()).isEqualTo(3);
+    assertThat(point.getSum()).isEqualTo(1510);
+    assertThat(point.getPercentileValues()).hasSize(3);
+    assertThat(point.getPercentileValues().get(0))
+        .isEqualTo(MetricData.ValueAtPercentile.create(0, 10));
+    assertThat(point.getPercentileValues().get(1).getPercentile()).isEqualTo(50);
+    assertThat(point.getPercentileValues().get(1).getValue()).isCloseTo(500, withinPercentage(1));
+    assertThat(point.getPercentileValues().get(2))
+        .isEqualTo(MetricData.ValueAtPercentile.create(100, 1000));
+  }
+
+  @Test
+  void collectAll_LabelSetOverflow() {
+    testMeterProvider.registerView(
+        InstrumentSelector.builder().setInstrumentType(InstrumentType.COUNTER).build(),
+        AggregationConfiguration.create(
+            AggregatorFactory.sum(), MetricData.AggregationTemporality.CUMULATIVE, 3));
+    testMeterProvider.registerView(
+        InstrumentSelector.builder().setInstrumentType(InstrumentType.SUM_OBSERVER).build(),
+        AggregationConfiguration.create(
+            AggregatorFactory.lastValue(), MetricData.AggregationTemporality.CUMULATIVE, 2));
+    LongCounter longCounter = testSdk.longCounterBuilder("testLongCounter").build();
+    for (int i = 1; i <= 5; i++) {
+      longCounter.add(i, Labels.of("key", Integer.toString(i)));
+    }
+    testSdk
+        .longSumObserverBuilder("testLongSumObserver")
+        .setUpdater(
+            result -> {
+              result.observe(10, Labels.of("key", "a"));
+              result.observe(20, Labels.of("key", "b"));
+              result.observe(30, Labels.of("key", "c"));
+            })
+        .build();
+
+    Map<String, MetricData> metricDataByName = new HashMap<>();
+    for (MetricData metricData : testMeterProvider.getMetricProducer().collectAllMetrics()) {
+      metricDataByName.put(metricData.getName(), metricData);
+    }
+    assertThat(metricDataByName)
+        .containsOnlyKeys("testLongCounter", "testLongSumObserver", "labelSetOverflows");
+    assertThat(metricDataByName.get("testLongCounter").getLongSumData().getPoints())
+        .containsExactlyInAnyOrder(
+            MetricData.LongPoint.create(testClock.now(), testClock.now(), Labels.of("key", "1"), 1),
+            MetricData.LongPoint.create(testClock.now(), testClock.now(), Labels.of("key", "2"), 2),
+            MetricData.LongPoint.create(
+                testClock.now(), testClock.now(), InstrumentProcessor.OVERFLOW_LABELS, 12));
+    assertThat(metricDataByName.get("testLongSumObserver").getLongSumData().getPoints())
+        .containsExactlyInAnyOrder(
+            MetricData.LongPoint.create(
+                testClock.now(), testClock.now(), Labels.of("key", "a"), 10),
+            MetricData.LongPoint.create(
+                testClock.now(), testClock.now(), InstrumentProcessor.OVERFLOW_LABELS, 30));
+    MetricData labelSetOverflows = metricDataByName.get("labelSetOverflows");
+    assertThat(labelSetOverflows.getInstrumentationLibraryInfo())
+        .isEqualTo(LabelSetOverflows.INSTRUMENTATION_LIBRARY_INFO);
+    assertThat(labelSetOverflows.getLongSumData().isMonotonic()).isTrue();
+    assertThat(labelSetOverflows.getLongSumData().getPoints())
+        .containsExactlyInAnyOrder(
+            MetricData.LongPoint.create(
+                testClock.now(),
+                testClock.now(),
+                Labels.of(
+                    "meter", SdkMeterProviderTest.class.getName(), "instrument", "testLongCounter"),
+                3),
+            MetricData.LongPoint.create(
+                testClock.now(),
+                testClock.now(),
+                Labels.of(
+                    "meter",
+                    SdkMeterProviderTest.class.getName(),
+                    "instrument",
+                    "testLongSumObserver"),
+                2));
+
+    assertThatThrownBy(
+            () ->
+                AggregationConfiguration.create(
+                    AggregatorFactory.sum(), MetricData.AggregationTemporality.CUMULATIVE, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxLabelSets must be positive");
+  }
+
+  @Test
+  void collectAll_LabelSetOverflow_Cumulative() {
+    testMeterProvider.registerView(
+        InstrumentSelector.builder().setInstrumentType(InstrumentType.COUNTER).build(),
+        AggregationConfiguration.create(
+            AggregatorFactory.sum(), MetricData.AggregationTemporality.CUMULATIVE, 2));
+    LongCounter longCounter = testSdk.longCounterBuilder("testLongCounter").build();
+    longCounter.add(1, Labels.of("key", "1"));
+    testSdk.collectAll(testClock.now());
+
+    // The handle of the first label set is released, but the cumulative sum still holds it.
+    longCounter.add(2, Labels.of("key", "2"));
+    Collection<MetricData> metricDataList = testSdk.collectAll(testClock.now());
+    assertThat(metricDataList).hasSize(1);
+    assertThat(metricDataList.iterator().next().getLongSumData().getPoints())
+        .containsExactlyInAnyOrder(
+            MetricData.LongPoint.create(testClock.now(), testClock.now(), Labels.of("key", "1"), 1),
+            MetricData.LongPoint.create(
+                testClock.now(), testClock.now(), InstrumentProcessor.OVERFLOW_LABELS, 2));
+  }
+
   private static void registerViewForAllTypes(
       SdkMeterProvider meterProvider, AggregationConfiguration configuration) {
     for (InstrumentType instrumentType : InstrumentType.values()) {
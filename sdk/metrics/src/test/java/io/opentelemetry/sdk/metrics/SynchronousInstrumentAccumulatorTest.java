@@ -18,6 +18,7 @@ import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.view.AggregationConfiguration;
 import io.opentelemetry.sdk.resources.Resource;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 public class SynchronousInstrumentAccumulatorTest {
@@ -60,4 +61,58 @@ public class SynchronousInstrumentAccumulatorTest {
     // internal detail we cannot call collectAll after this anymore.
     assertThat(aggregatorHandle.tryUnmap()).isTrue();
   }
+
+  @Test
+  void bind_overflow() {
+    InstrumentProcessor<?> instrumentProcessor =
+        InstrumentProcessor.createProcessor(
+            providerSharedState,
+            meterSharedState,
+            DESCRIPTOR,
+            AggregationConfiguration.create(
+                AggregatorFactory.count(), MetricData.AggregationTemporality.DELTA, 3));
+    SynchronousInstrumentAccumulator<?> accumulator =
+        new SynchronousInstrumentAccumulator<>(
+            AggregatorFactory.count().create(DESCRIPTOR), instrumentProcessor);
+    AggregatorHandle<?> first = accumulator.bind(Labels.of("K", "1"));
+    AggregatorHandle<?> second = accumulator.bind(Labels.of("K", "2"));
+    // The third label set is the overflow one.
+    AggregatorHandle<?> overflow = accumulator.bind(Labels.of("K", "3"));
+    AggregatorHandle<?> anotherOverflow = accumulator.bind(Labels.of("K", "4"));
+    try {
+      assertThat(overflow).isNotSameAs(first).isNotSameAs(second).isSameAs(anotherOverflow);
+      overflow.recordLong(1);
+      overflow.recordLong(1);
+      anotherOverflow.recordLong(1);
+      AggregatorHandle<?> sameFirst = accumulator.bind(Labels.of("K", "1"));
+      assertThat(sameFirst).isSameAs(first);
+      sameFirst.release();
+    } finally {
+      first.release();
+      second.release();
+      overflow.release();
+      anotherOverflow.release();
+    }
+    assertThat(
+            providerSharedState
+                .getLabelSetOverflows()
+                .getCounter(meterSharedState.getInstrumentationLibraryInfo(), DESCRIPTOR)
+                .sum())
+        // Each recording is counted, not each bind.
+        .isEqualTo(3);
+
+    List<MetricData> metricData = accumulator.collectAll(providerSharedState.getClock().now());
+    assertThat(metricData).hasSize(1);
+    assertThat(metricData.get(0).getLongSumData().getPoints())
+        .extracting(MetricData.Point::getLabels)
+        .containsExactlyInAnyOrder(InstrumentProcessor.OVERFLOW_LABELS);
+
+    // The entries released and collected leave room for new label sets.
+    AggregatorHandle<?> third = accumulator.bind(Labels.of("K", "3"));
+    try {
+      assertThat(third).isNotSameAs(overflow);
+    } finally {
+      third.release();
+    }
+  }
 }
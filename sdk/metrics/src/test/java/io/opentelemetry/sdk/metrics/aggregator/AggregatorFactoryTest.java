@@ -6,6 +6,7 @@
 package io.opentelemetry.sdk.metrics.aggregator;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.opentelemetry.sdk.metrics.common.InstrumentDescriptor;
 import io.opentelemetry.sdk.metrics.common.InstrumentType;
@@ -82,6 +83,160 @@ class AggregatorFactoryTest {
         .isInstanceOf(DoubleMinMaxSumCountAggregator.getInstance().getClass());
   }
 
+  @Test
+  void getHistogramAggregatorFactory() {
+    AggregatorFactory histogram = AggregatorFactory.histogram(1, 10);
+    Aggregator<HistogramAccumulation> longAggregator =
+        histogram.create(
+            InstrumentDescriptor.create(
+                "name",
+                "description",
+                "unit",
+                InstrumentType.VALUE_RECORDER,
+                InstrumentValueType.LONG));
+    assertThat(longAggregator)
+        .isInstanceOfSatisfying(
+            HistogramAggregator.class,
+            aggregator -> assertThat(aggregator.getBoundaries()).containsExactly(1.0, 10.0));
+    assertThat(
+            histogram.create(
+                InstrumentDescriptor.create(
+                    "name",
+                    "description",
+                    "unit",
+                    InstrumentType.VALUE_RECORDER,
+                    InstrumentValueType.DOUBLE)))
+        .isInstanceOf(HistogramAggregator.class);
+  }
+
+  @Test
+  void getHistogramAggregatorFactory_copiesBoundaries() {
+    double[] boundaries = {1, 10};
+    AggregatorFactory histogram = AggregatorFactory.histogram(boundaries);
+    boundaries[0] = 100;
+    Aggregator<HistogramAccumulation> aggregator =
+        histogram.create(
+            InstrumentDescriptor.create(
+                "name",
+                "description",
+                "unit",
+                InstrumentType.VALUE_RECORDER,
+                InstrumentValueType.DOUBLE));
+    assertThat(((HistogramAggregator) aggregator).getBoundaries()).containsExactly(1.0, 10.0);
+  }
+
+  @Test
+  void getHistogramAggregatorFactory_invalidBoundaries() {
+    assertThatThrownBy(() -> AggregatorFactory.histogram((double[]) null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("boundaries");
+    assertThatThrownBy(() -> AggregatorFactory.histogram(1, Double.NaN))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("boundaries must not be NaN");
+    assertThatThrownBy(() -> AggregatorFactory.histogram(1, Double.POSITIVE_INFINITY))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("boundaries must be finite");
+    assertThatThrownBy(() -> AggregatorFactory.histogram(Double.NEGATIVE_INFINITY, 1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("boundaries must be finite");
+    assertThatThrownBy(() -> AggregatorFactory.histogram(10, 1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("boundaries must be in increasing order");
+    assertThatThrownBy(() -> AggregatorFactory.histogram(1, 1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("boundaries must be in increasing order");
+  }
+
+  @Test
+  void getExponentialHistogramAggregatorFactory() {
+    Aggregator<ExponentialHistogramAccumulation> defaultAggregator =
+        AggregatorFactory.exponentialHistogram()
+            .create(
+                InstrumentDescriptor.create(
+                    "name",
+                    "description",
+                    "unit",
+                    InstrumentType.VALUE_RECORDER,
+                    InstrumentValueType.DOUBLE));
+    assertThat(defaultAggregator)
+        .isInstanceOfSatisfying(
+            ExponentialHistogramAggregator.class,
+            aggregator -> assertThat(aggregator.getMaxBuckets()).isEqualTo(160));
+    Aggregator<ExponentialHistogramAccumulation> longAggregator =
+        AggregatorFactory.exponentialHistogram(20)
+            .create(
+                InstrumentDescriptor.create(
+                    "name",
+                    "description",
+                    "unit",
+                    InstrumentType.VALUE_RECORDER,
+                    InstrumentValueType.LONG));
+    assertThat(longAggregator)
+        .isInstanceOfSatisfying(
+            ExponentialHistogramAggregator.class,
+            aggregator -> assertThat(aggregator.getMaxBuckets()).isEqualTo(20));
+    assertThatThrownBy(() -> AggregatorFactory.exponentialHistogram(1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxBuckets must be at least 2");
+  }
+
+  @Test
+  void getQuantileSketchAggregatorFactory() {
+    Aggregator<QuantileSketchAccumulation> defaultAggregator =
+        AggregatorFactory.quantileSketch()
+            .create(
+                InstrumentDescriptor.create(
+                    "name",
+                    "description",
+                    "unit",
+                    InstrumentType.VALUE_RECORDER,
+                    InstrumentValueType.DOUBLE));
+    assertThat(defaultAggregator)
+        .isInstanceOfSatisfying(
+            QuantileSketchAggregator.class,
+            aggregator -> {
+              assertThat(aggregator.getRelativeAccuracy()).isEqualTo(0.01);
+              assertThat(aggregator.getMaxBuckets()).isEqualTo(2048);
+              assertThat(aggregator.getPercentiles())
+                  .containsExactly(0.0, 50.0, 90.0, 99.0, 99.9, 100.0);
+            });
+    Aggregator<QuantileSketchAccumulation> longAggregator =
+        AggregatorFactory.quantileSketch(0.05, 100, 99.0, 50.0, 99.0)
+            .create(
+                InstrumentDescriptor.create(
+                    "name",
+                    "description",
+                    "unit",
+                    InstrumentType.VALUE_RECORDER,
+                    InstrumentValueType.LONG));
+    assertThat(longAggregator)
+        .isInstanceOfSatisfying(
+            QuantileSketchAggregator.class,
+            aggregator -> {
+              assertThat(aggregator.getRelativeAccuracy()).isEqualTo(0.05);
+              assertThat(aggregator.getMaxBuckets()).isEqualTo(100);
+              assertThat(aggregator.getPercentiles()).containsExactly(50.0, 99.0);
+            });
+    assertThatThrownBy(() -> AggregatorFactory.quantileSketch(0, 100, 50.0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("relativeAccuracy must be at least 1e-6 and less than 1");
+    assertThatThrownBy(() -> AggregatorFactory.quantileSketch(1, 100, 50.0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("relativeAccuracy must be at least 1e-6 and less than 1");
+    assertThatThrownBy(() -> AggregatorFactory.quantileSketch(0.01, 0, 50.0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxBuckets must be positive");
+    assertThatThrownBy(() -> AggregatorFactory.quantileSketch(0.01, 100, 50.0, 101.0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("percentiles must be in the range [0, 100]");
+    assertThatThrownBy(() -> AggregatorFactory.quantileSketch(0.01, 100, Double.NaN))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("percentiles must be in the range [0, 100]");
+    assertThatThrownBy(() -> AggregatorFactory.quantileSketch(0.01, 100, (double[]) null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("percentiles");
+  }
+
   @Test
   void getSumAggregatorFactory() {
     AggregatorFactory sum = AggregatorFactory.sum();
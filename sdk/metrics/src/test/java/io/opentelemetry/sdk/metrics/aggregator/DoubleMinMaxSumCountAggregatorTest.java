@@ -136,6 +136,72 @@ class DoubleMinMaxSumCountAggregatorTest {
             MinMaxSumCountAccumulation.create(numberOfThreads * numberOfUpdates, 101000, 1, 23));
   }
 
+  @Test
+  void testRecordings_NaN() {
+    AggregatorHandle<MinMaxSumCountAccumulation> aggregatorHandle =
+        DoubleMinMaxSumCountAggregator.getInstance().createHandle();
+
+    aggregatorHandle.recordDouble(1);
+    aggregatorHandle.recordDouble(Double.NaN);
+    aggregatorHandle.recordDouble(2);
+    MinMaxSumCountAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+    assertThat(accumulation.getCount()).isEqualTo(3);
+    assertThat(accumulation.getSum()).isNaN();
+    assertThat(accumulation.getMin()).isNaN();
+    assertThat(accumulation.getMax()).isNaN();
+
+    aggregatorHandle.recordDouble(1);
+    assertThat(aggregatorHandle.accumulateThenReset())
+        .isEqualTo(MinMaxSumCountAccumulation.create(1, 1, 1, 1));
+  }
+
+  @Test
+  void testMultithreadedUpdates_consistentAccumulations() throws Exception {
+    final AggregatorHandle<MinMaxSumCountAccumulation> aggregatorHandle =
+        DoubleMinMaxSumCountAggregator.getInstance().createHandle();
+    int numberOfThreads = 8;
+    final int numberOfUpdates = 100_000;
+    final CountDownLatch startingGun = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < numberOfThreads; i++) {
+      Thread t =
+          new Thread(
+              () -> {
+                try {
+                  startingGun.await();
+                } catch (InterruptedException e) {
+                  throw new RuntimeException(e);
+                }
+                for (int j = 0; j < numberOfUpdates; j++) {
+                  aggregatorHandle.recordDouble(2.5);
+                }
+              });
+      workers.add(t);
+      t.start();
+    }
+    startingGun.countDown();
+
+    // Each value is collected with its count, sum, min and max, in the same accumulation.
+    long count = 0;
+    boolean running = true;
+    while (running) {
+      running = false;
+      for (Thread worker : workers) {
+        running |= worker.isAlive();
+      }
+      MinMaxSumCountAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+      if (accumulation == null || accumulation.getCount() == 0) {
+        continue;
+      }
+      assertThat(accumulation.getSum()).isEqualTo(2.5 * accumulation.getCount());
+      assertThat(accumulation.getMin()).isEqualTo(2.5);
+      assertThat(accumulation.getMax()).isEqualTo(2.5);
+      count += accumulation.getCount();
+    }
+
+    assertThat(count).isEqualTo((long) numberOfThreads * numberOfUpdates);
+  }
+
   private static final class Summary {
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
@@ -0,0 +1,404 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.common.InstrumentDescriptor;
+import io.opentelemetry.sdk.metrics.common.InstrumentType;
+import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class ExponentialHistogramAggregatorTest {
+  private static final ExponentialHistogramAggregator aggregator =
+      new ExponentialHistogramAggregator(ExponentialHistogramAggregator.DEFAULT_MAX_BUCKETS);
+
+  @Test
+  void createHandle() {
+    assertThat(aggregator.createHandle()).isInstanceOf(ExponentialHistogramAggregator.Handle.class);
+  }
+
+  @Test
+  void handle_keepsFewCells() throws InterruptedException {
+    ExponentialHistogramAggregator.Handle handle =
+        (ExponentialHistogramAggregator.Handle) aggregator.createHandle();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      Thread thread = new Thread(() -> handle.recordDouble(1));
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(handle.getNumberOfCells()).isBetween(1, 2);
+
+    ExponentialHistogramAccumulation accumulation = handle.accumulateThenReset();
+    assertThat(accumulation.getCount()).isEqualTo(8);
+    // The collected cells are reset in place and kept for the next recordings.
+    int cells = handle.getNumberOfCells();
+    assertThat(cells).isBetween(1, 2);
+
+    // The cells are released once their set is collected without recordings.
+    handle.accumulateThenReset();
+    assertThat(handle.getNumberOfCells()).isEqualTo(cells);
+    handle.accumulateThenReset();
+    assertThat(handle.getNumberOfCells()).isZero();
+  }
+
+  @Test
+  void handle_keepsCellsOfSteadyRecordings() {
+    ExponentialHistogramAggregator.Handle handle =
+        (ExponentialHistogramAggregator.Handle) aggregator.createHandle();
+    for (int i = 0; i < 4; i++) {
+      handle.recordDouble(1);
+      assertThat(handle.accumulateThenReset().getCount()).isEqualTo(1);
+      assertThat(handle.getNumberOfCells()).isEqualTo(Math.min(i + 1, 2));
+    }
+  }
+
+  @Test
+  void getIndex_scaleZero() {
+    // At scale 0, the bucket at index i is (2^i, 2^(i+1)].
+    assertThat(ExponentialHistogramAggregator.getIndex(1, 0)).isEqualTo(-1);
+    assertThat(ExponentialHistogramAggregator.getIndex(1.5, 0)).isEqualTo(0);
+    assertThat(ExponentialHistogramAggregator.getIndex(2, 0)).isEqualTo(0);
+    assertThat(ExponentialHistogramAggregator.getIndex(3, 0)).isEqualTo(1);
+    assertThat(ExponentialHistogramAggregator.getIndex(4, 0)).isEqualTo(1);
+    assertThat(ExponentialHistogramAggregator.getIndex(0.75, 0)).isEqualTo(-1);
+    assertThat(ExponentialHistogramAggregator.getIndex(0.5, 0)).isEqualTo(-2);
+    assertThat(ExponentialHistogramAggregator.getIndex(Double.MAX_VALUE, 0)).isEqualTo(1023);
+    assertThat(ExponentialHistogramAggregator.getIndex(Double.MIN_NORMAL, 0)).isEqualTo(-1023);
+    assertThat(ExponentialHistogramAggregator.getIndex(Double.MIN_VALUE, 0)).isEqualTo(-1075);
+    assertThat(ExponentialHistogramAggregator.getIndex(3 * Double.MIN_VALUE, 0)).isEqualTo(-1073);
+  }
+
+  @Test
+  void getIndex_negativeScale() {
+    // At scale -1, the bucket at index i is (4^i, 4^(i+1)].
+    assertThat(ExponentialHistogramAggregator.getIndex(1, -1)).isEqualTo(-1);
+    assertThat(ExponentialHistogramAggregator.getIndex(3, -1)).isEqualTo(0);
+    assertThat(ExponentialHistogramAggregator.getIndex(4, -1)).isEqualTo(0);
+    assertThat(ExponentialHistogramAggregator.getIndex(5, -1)).isEqualTo(1);
+    assertThat(ExponentialHistogramAggregator.getIndex(16, -1)).isEqualTo(1);
+    assertThat(ExponentialHistogramAggregator.getIndex(0.25, -1)).isEqualTo(-2);
+  }
+
+  @Test
+  void getIndex_positiveScale() {
+    // At scale 1, the bucket at index i is (sqrt(2)^i, sqrt(2)^(i+1)].
+    assertThat(ExponentialHistogramAggregator.getIndex(1, 1)).isEqualTo(-1);
+    assertThat(ExponentialHistogramAggregator.getIndex(1.4, 1)).isEqualTo(0);
+    assertThat(ExponentialHistogramAggregator.getIndex(1.5, 1)).isEqualTo(1);
+    assertThat(ExponentialHistogramAggregator.getIndex(2, 1)).isEqualTo(1);
+    assertThat(ExponentialHistogramAggregator.getIndex(2.5, 1)).isEqualTo(2);
+    assertThat(ExponentialHistogramAggregator.getIndex(0.6, 1)).isEqualTo(-2);
+
+    for (int scale = 1; scale <= ExponentialHistogramAggregator.MAX_SCALE; scale++) {
+      for (double value : new double[] {1e-300, 0.001, 0.7, 1.3, 100, 12345.678, 1e300}) {
+        int index = ExponentialHistogramAggregator.getIndex(value, scale);
+        assertThat(value)
+            .isGreaterThan(ExponentialHistogramAggregator.getLowerBoundary(index, scale))
+            .isLessThanOrEqualTo(ExponentialHistogramAggregator.getLowerBoundary(index + 1, scale));
+      }
+    }
+  }
+
+  @Test
+  void getLowerBoundary() {
+    assertThat(ExponentialHistogramAggregator.getLowerBoundary(0, 0)).isEqualTo(1);
+    assertThat(ExponentialHistogramAggregator.getLowerBoundary(3, 0)).isEqualTo(8);
+    assertThat(ExponentialHistogramAggregator.getLowerBoundary(-2, 0)).isEqualTo(0.25);
+    assertThat(ExponentialHistogramAggregator.getLowerBoundary(1, -2)).isEqualTo(16);
+    assertThat(ExponentialHistogramAggregator.getLowerBoundary(4, 2)).isEqualTo(2);
+    assertThat(ExponentialHistogramAggregator.getLowerBoundary(1, 1))
+        .isCloseTo(Math.sqrt(2), within(1e-15));
+    assertThat(ExponentialHistogramAggregator.getLowerBoundary(-1, 1))
+        .isCloseTo(Math.sqrt(0.5), within(1e-15));
+    assertThat(ExponentialHistogramAggregator.getLowerBoundary(1024, 0))
+        .isEqualTo(Double.POSITIVE_INFINITY);
+  }
+
+  @Test
+  void testRecordings() {
+    AggregatorHandle<ExponentialHistogramAccumulation> aggregatorHandle = aggregator.createHandle();
+    aggregatorHandle.recordLong(2);
+    aggregatorHandle.recordLong(2);
+    aggregatorHandle.recordDouble(0);
+    aggregatorHandle.recordDouble(-2);
+    ExponentialHistogramAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+    assertThat(accumulation.getScale()).isEqualTo(ExponentialHistogramAggregator.MAX_SCALE);
+    assertThat(accumulation.getCount()).isEqualTo(4);
+    assertThat(accumulation.getSum()).isEqualTo(2);
+    assertThat(accumulation.getZeroCount()).isEqualTo(1);
+    int index = (1 << ExponentialHistogramAggregator.MAX_SCALE) - 1;
+    assertThat(accumulation.getPositiveBuckets())
+        .isEqualTo(ExponentialHistogramBuckets.create(index, new long[] {2}));
+    assertThat(accumulation.getNegativeBuckets())
+        .isEqualTo(ExponentialHistogramBuckets.create(index, new long[] {1}));
+  }
+
+  @Test
+  void testRecordings_downscale() {
+    AggregatorHandle<ExponentialHistogramAccumulation> aggregatorHandle =
+        new ExponentialHistogramAggregator(4).createHandle();
+    aggregatorHandle.recordDouble(1.5);
+    aggregatorHandle.recordDouble(3);
+    aggregatorHandle.recordDouble(6);
+    aggregatorHandle.recordDouble(12);
+    ExponentialHistogramAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+    // Four consecutive powers of two fit in four buckets at scale 0.
+    assertThat(accumulation.getScale()).isEqualTo(0);
+    assertThat(accumulation.getPositiveBuckets())
+        .isEqualTo(ExponentialHistogramBuckets.create(0, new long[] {1, 1, 1, 1}));
+
+    aggregatorHandle.recordDouble(1.5);
+    aggregatorHandle.recordDouble(3);
+    aggregatorHandle.recordDouble(6);
+    aggregatorHandle.recordDouble(12);
+    aggregatorHandle.recordDouble(24);
+    aggregatorHandle.recordDouble(-0.1);
+    accumulation = aggregatorHandle.accumulateThenReset();
+    // The recordings are at the highest scale again after a reset.
+    assertThat(accumulation.getScale()).isEqualTo(-1);
+    assertThat(accumulation.getCount()).isEqualTo(6);
+    assertThat(accumulation.getPositiveBuckets())
+        .isEqualTo(ExponentialHistogramBuckets.create(0, new long[] {2, 2, 1}));
+    assertThat(accumulation.getNegativeBuckets())
+        .isEqualTo(ExponentialHistogramBuckets.create(-2, new long[] {1}));
+  }
+
+  @Test
+  void testRecordings_wideRange() {
+    AggregatorHandle<ExponentialHistogramAccumulation> aggregatorHandle =
+        new ExponentialHistogramAggregator(2).createHandle();
+    aggregatorHandle.recordDouble(Double.MIN_VALUE);
+    aggregatorHandle.recordDouble(Double.MAX_VALUE);
+    ExponentialHistogramAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+    assertThat(accumulation.getPositiveBuckets().getCounts()).hasSizeLessThanOrEqualTo(2);
+    assertThat(accumulation.getCount()).isEqualTo(2);
+    assertThat(accumulation.toPoint(0, 100, Labels.empty()).getCounts())
+        .containsExactly(0L, 1L, 1L);
+  }
+
+  @Test
+  void testRecordings_nonFinite() {
+    AggregatorHandle<ExponentialHistogramAccumulation> aggregatorHandle = aggregator.createHandle();
+    aggregatorHandle.recordDouble(Double.NaN);
+    aggregatorHandle.recordDouble(Double.POSITIVE_INFINITY);
+    aggregatorHandle.recordDouble(Double.NEGATIVE_INFINITY);
+    ExponentialHistogramAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+    assertThat(accumulation.getCount()).isEqualTo(0);
+    assertThat(accumulation.getSum()).isEqualTo(0);
+    assertThat(accumulation.getPositiveBuckets().isEmpty()).isTrue();
+    assertThat(accumulation.getNegativeBuckets().isEmpty()).isTrue();
+  }
+
+  @Test
+  void toAccumulationAndReset() {
+    AggregatorHandle<ExponentialHistogramAccumulation> aggregatorHandle = aggregator.createHandle();
+    assertThat(aggregatorHandle.accumulateThenReset()).isNull();
+
+    aggregatorHandle.recordLong(100);
+    assertThat(aggregatorHandle.accumulateThenReset()).isEqualTo(aggregator.accumulateLong(100));
+    assertThat(aggregatorHandle.accumulateThenReset()).isNull();
+
+    aggregatorHandle.recordDouble(-0.5);
+    assertThat(aggregatorHandle.accumulateThenReset()).isEqualTo(aggregator.accumulateDouble(-0.5));
+    assertThat(aggregatorHandle.accumulateThenReset()).isNull();
+  }
+
+  @Test
+  void merge() {
+    ExponentialHistogramAccumulation a1 =
+        ExponentialHistogramAccumulation.create(
+            1,
+            3,
+            10,
+            1,
+            ExponentialHistogramBuckets.create(2, new long[] {1, 1}),
+            ExponentialHistogramBuckets.empty());
+    ExponentialHistogramAccumulation a2 =
+        ExponentialHistogramAccumulation.create(
+            0,
+            2,
+            -5,
+            0,
+            ExponentialHistogramBuckets.create(1, new long[] {1}),
+            ExponentialHistogramBuckets.create(0, new long[] {1}));
+    assertThat(aggregator.merge(a1, a2))
+        .isEqualTo(
+            ExponentialHistogramAccumulation.create(
+                0,
+                5,
+                5,
+                1,
+                ExponentialHistogramBuckets.create(1, new long[] {3}),
+                ExponentialHistogramBuckets.create(0, new long[] {1})));
+  }
+
+  @Test
+  void merge_downscale() {
+    ExponentialHistogramAggregator smallAggregator = new ExponentialHistogramAggregator(2);
+    ExponentialHistogramAccumulation merged =
+        smallAggregator.merge(
+            smallAggregator.accumulateDouble(1.5), smallAggregator.accumulateDouble(6));
+    // 1.5 and 6 are in (1, 2] and (4, 8] at scale 0, and in (1, 4] and (4, 16] at scale -1.
+    assertThat(merged.getScale()).isEqualTo(-1);
+    assertThat(merged.getPositiveBuckets())
+        .isEqualTo(ExponentialHistogramBuckets.create(0, new long[] {1, 1}));
+    assertThat(merged.getCount()).isEqualTo(2);
+    assertThat(merged.getSum()).isEqualTo(7.5);
+  }
+
+  @Test
+  void merge_consistentWithRecordings() {
+    AggregatorHandle<ExponentialHistogramAccumulation> aggregatorHandle =
+        new ExponentialHistogramAggregator(8).createHandle();
+    ExponentialHistogramAggregator smallAggregator = new ExponentialHistogramAggregator(8);
+    ExponentialHistogramAccumulation merged = null;
+    for (double value : new double[] {0.1, 7, 1000, -3, 0, 42, 1e6, -0.001}) {
+      aggregatorHandle.recordDouble(value);
+      ExponentialHistogramAccumulation accumulation = smallAggregator.accumulateDouble(value);
+      merged = merged == null ? accumulation : smallAggregator.merge(merged, accumulation);
+    }
+    assertThat(merged).isEqualTo(aggregatorHandle.accumulateThenReset());
+  }
+
+  @Test
+  void toPoint() {
+    ExponentialHistogramAccumulation accumulation =
+        ExponentialHistogramAccumulation.create(
+            0,
+            6,
+            10,
+            1,
+            ExponentialHistogramBuckets.create(0, new long[] {2, 0, 1}),
+            ExponentialHistogramBuckets.create(-1, new long[] {1, 1}));
+    assertThat(accumulation.toPoint(0, 100, Labels.of("k", "v")))
+        .isEqualTo(
+            MetricData.DoubleHistogramPoint.create(
+                0,
+                100,
+                Labels.of("k", "v"),
+                6,
+                10,
+                Arrays.asList(-2.0, -1.0, -0.5, 1.0, 2.0, 4.0, 8.0),
+                Arrays.asList(0L, 1L, 1L, 1L, 2L, 0L, 1L, 0L)));
+
+    assertThat(
+            ExponentialHistogramAccumulation.create(
+                    0,
+                    1,
+                    0,
+                    1,
+                    ExponentialHistogramBuckets.empty(),
+                    ExponentialHistogramBuckets.empty())
+                .toPoint(0, 100, Labels.empty()))
+        .isEqualTo(
+            MetricData.DoubleHistogramPoint.create(
+                0,
+                100,
+                Labels.empty(),
+                1,
+                0,
+                Collections.emptyList(),
+                Collections.singletonList(1L)));
+  }
+
+  @Test
+  void toMetricData() {
+    AggregatorHandle<ExponentialHistogramAccumulation> aggregatorHandle = aggregator.createHandle();
+    aggregatorHandle.recordLong(10);
+
+    MetricData metricData =
+        aggregator.toMetricData(
+            Resource.getDefault(),
+            InstrumentationLibraryInfo.getEmpty(),
+            InstrumentDescriptor.create(
+                "name",
+                "description",
+                "unit",
+                InstrumentType.VALUE_RECORDER,
+                InstrumentValueType.LONG),
+            Collections.singletonMap(Labels.empty(), aggregatorHandle.accumulateThenReset()),
+            0,
+            100);
+    assertThat(metricData).isNotNull();
+    assertThat(metricData.getType()).isEqualTo(MetricData.Type.HISTOGRAM);
+    MetricData.DoubleHistogramPoint point =
+        metricData.getDoubleHistogramData().getPoints().iterator().next();
+    assertThat(point.getCount()).isEqualTo(1);
+    assertThat(point.getCounts()).containsExactly(0L, 1L, 0L);
+    assertThat(point.getBoundaries().get(0)).isLessThan(10);
+    assertThat(point.getBoundaries().get(1)).isGreaterThanOrEqualTo(10).isLessThan(10.0001);
+  }
+
+  @Test
+  void testMultithreadedUpdates_consistentAccumulations() throws Exception {
+    final AggregatorHandle<ExponentialHistogramAccumulation> aggregatorHandle =
+        new ExponentialHistogramAggregator(4).createHandle();
+    int numberOfThreads = 8;
+    final int numberOfUpdates = 100_000;
+    final CountDownLatch startingGun = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < numberOfThreads; i++) {
+      final double update = 1 << i;
+      Thread t =
+          new Thread(
+              () -> {
+                try {
+                  startingGun.await();
+                } catch (InterruptedException e) {
+                  throw new RuntimeException(e);
+                }
+                for (int j = 0; j < numberOfUpdates; j++) {
+                  aggregatorHandle.recordDouble(update);
+                }
+              });
+      workers.add(t);
+      t.start();
+    }
+    startingGun.countDown();
+
+    // Each value is collected with its count and sum, in the same accumulation.
+    ExponentialHistogramAggregator mergingAggregator = new ExponentialHistogramAggregator(4);
+    ExponentialHistogramAccumulation total = null;
+    boolean running = true;
+    while (running) {
+      running = false;
+      for (Thread worker : workers) {
+        running |= worker.isAlive();
+      }
+      ExponentialHistogramAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+      if (accumulation == null) {
+        continue;
+      }
+      assertThat(Arrays.stream(accumulation.getPositiveBuckets().getCounts()).sum())
+          .isEqualTo(accumulation.getCount());
+      total = total == null ? accumulation : mergingAggregator.merge(total, accumulation);
+    }
+
+    assertThat(total.getCount()).isEqualTo((long) numberOfThreads * numberOfUpdates);
+    assertThat(total.getSum()).isEqualTo(255.0 * numberOfUpdates);
+    // 1 to 128 are in (1/16, 1], (1, 16] and (16, 256] at scale -2, the highest with 4 buckets.
+    assertThat(total.getScale()).isEqualTo(-2);
+    assertThat(total.getPositiveBuckets())
+        .isEqualTo(
+            ExponentialHistogramBuckets.create(
+                -1, new long[] {numberOfUpdates, 4L * numberOfUpdates, 3L * numberOfUpdates}));
+  }
+}
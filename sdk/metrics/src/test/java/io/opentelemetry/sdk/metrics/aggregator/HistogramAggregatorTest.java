@@ -0,0 +1,195 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.common.InstrumentDescriptor;
+import io.opentelemetry.sdk.metrics.common.InstrumentType;
+import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class HistogramAggregatorTest {
+  private static final HistogramAggregator aggregator =
+      new HistogramAggregator(new double[] {10, 100, 1000});
+
+  @Test
+  void createHandle() {
+    assertThat(aggregator.createHandle()).isInstanceOf(HistogramAggregator.Handle.class);
+  }
+
+  @Test
+  void testRecordings() {
+    AggregatorHandle<HistogramAccumulation> aggregatorHandle = aggregator.createHandle();
+    aggregatorHandle.recordLong(20);
+    aggregatorHandle.recordLong(5);
+    aggregatorHandle.recordLong(150);
+    aggregatorHandle.recordLong(2000);
+    aggregatorHandle.recordDouble(12.5);
+    assertThat(aggregatorHandle.accumulateThenReset())
+        .isEqualTo(HistogramAccumulation.create(5, 2187.5, Arrays.asList(1L, 2L, 1L, 1L)));
+  }
+
+  @Test
+  void testRecordings_boundaries() {
+    AggregatorHandle<HistogramAccumulation> aggregatorHandle = aggregator.createHandle();
+    // A value equal to a boundary is in the bucket it ends.
+    aggregatorHandle.recordDouble(10);
+    aggregatorHandle.recordDouble(Math.nextUp(10.0));
+    aggregatorHandle.recordDouble(1000);
+    aggregatorHandle.recordDouble(Double.NEGATIVE_INFINITY);
+    aggregatorHandle.recordDouble(Double.POSITIVE_INFINITY);
+    HistogramAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+    assertThat(accumulation.getCount()).isEqualTo(5);
+    assertThat(accumulation.getCounts()).containsExactly(2L, 1L, 1L, 1L);
+  }
+
+  @Test
+  void testRecordings_NaN() {
+    AggregatorHandle<HistogramAccumulation> aggregatorHandle = aggregator.createHandle();
+    aggregatorHandle.recordDouble(1);
+    aggregatorHandle.recordDouble(Double.NaN);
+    HistogramAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+    assertThat(accumulation.getSum()).isNaN();
+    assertThat(accumulation.getCounts()).containsExactly(1L, 0L, 0L, 1L);
+  }
+
+  @Test
+  void testRecordings_noBoundaries() {
+    AggregatorHandle<HistogramAccumulation> aggregatorHandle =
+        new HistogramAggregator(new double[0]).createHandle();
+    aggregatorHandle.recordLong(-5);
+    aggregatorHandle.recordLong(5);
+    assertThat(aggregatorHandle.accumulateThenReset())
+        .isEqualTo(HistogramAccumulation.create(2, 0, Collections.singletonList(2L)));
+  }
+
+  @Test
+  void toAccumulationAndReset() {
+    AggregatorHandle<HistogramAccumulation> aggregatorHandle = aggregator.createHandle();
+    assertThat(aggregatorHandle.accumulateThenReset()).isNull();
+
+    aggregatorHandle.recordLong(100);
+    assertThat(aggregatorHandle.accumulateThenReset())
+        .isEqualTo(HistogramAccumulation.create(1, 100, Arrays.asList(0L, 1L, 0L, 0L)));
+    assertThat(aggregatorHandle.accumulateThenReset()).isNull();
+
+    aggregatorHandle.recordLong(0);
+    assertThat(aggregatorHandle.accumulateThenReset())
+        .isEqualTo(HistogramAccumulation.create(1, 0, Arrays.asList(1L, 0L, 0L, 0L)));
+    assertThat(aggregatorHandle.accumulateThenReset()).isNull();
+  }
+
+  @Test
+  void accumulate() {
+    assertThat(aggregator.accumulateLong(50))
+        .isEqualTo(HistogramAccumulation.create(1, 50, Arrays.asList(0L, 1L, 0L, 0L)));
+    assertThat(aggregator.accumulateDouble(5000.5))
+        .isEqualTo(HistogramAccumulation.create(1, 5000.5, Arrays.asList(0L, 0L, 0L, 1L)));
+  }
+
+  @Test
+  void merge() {
+    assertThat(
+            aggregator.merge(
+                HistogramAccumulation.create(3, 30, Arrays.asList(1L, 2L, 0L, 0L)),
+                HistogramAccumulation.create(2, 2000, Arrays.asList(0L, 0L, 1L, 1L))))
+        .isEqualTo(HistogramAccumulation.create(5, 2030, Arrays.asList(1L, 2L, 1L, 1L)));
+  }
+
+  @Test
+  void toMetricData() {
+    AggregatorHandle<HistogramAccumulation> aggregatorHandle = aggregator.createHandle();
+    aggregatorHandle.recordLong(10);
+
+    MetricData metricData =
+        aggregator.toMetricData(
+            Resource.getDefault(),
+            InstrumentationLibraryInfo.getEmpty(),
+            InstrumentDescriptor.create(
+                "name",
+                "description",
+                "unit",
+                InstrumentType.VALUE_RECORDER,
+                InstrumentValueType.LONG),
+            Collections.singletonMap(Labels.empty(), aggregatorHandle.accumulateThenReset()),
+            0,
+            100);
+    assertThat(metricData).isNotNull();
+    assertThat(metricData.getType()).isEqualTo(MetricData.Type.HISTOGRAM);
+    assertThat(metricData.getDoubleHistogramData().getPoints())
+        .containsExactly(
+            MetricData.DoubleHistogramPoint.create(
+                0,
+                100,
+                Labels.empty(),
+                1,
+                10,
+                Arrays.asList(10.0, 100.0, 1000.0),
+                Arrays.asList(1L, 0L, 0L, 0L)));
+  }
+
+  @Test
+  void testMultithreadedUpdates_consistentAccumulations() throws Exception {
+    final AggregatorHandle<HistogramAccumulation> aggregatorHandle = aggregator.createHandle();
+    int numberOfThreads = 8;
+    final int numberOfUpdates = 100_000;
+    final CountDownLatch startingGun = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < numberOfThreads; i++) {
+      final long update = i % 2 == 0 ? 50 : 500;
+      Thread t =
+          new Thread(
+              () -> {
+                try {
+                  startingGun.await();
+                } catch (InterruptedException e) {
+                  throw new RuntimeException(e);
+                }
+                for (int j = 0; j < numberOfUpdates; j++) {
+                  aggregatorHandle.recordLong(update);
+                }
+              });
+      workers.add(t);
+      t.start();
+    }
+    startingGun.countDown();
+
+    // Each value is collected with its count and sum, in the same accumulation.
+    long[] counts = new long[4];
+    boolean running = true;
+    while (running) {
+      running = false;
+      for (Thread worker : workers) {
+        running |= worker.isAlive();
+      }
+      HistogramAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+      if (accumulation == null) {
+        continue;
+      }
+      List<Long> bucketCounts = accumulation.getCounts();
+      assertThat(accumulation.getCount())
+          .isEqualTo(bucketCounts.stream().mapToLong(Long::longValue).sum());
+      assertThat(accumulation.getSum())
+          .isEqualTo(50.0 * bucketCounts.get(1) + 500.0 * bucketCounts.get(2));
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] += bucketCounts.get(i);
+      }
+    }
+
+    long expected = (long) numberOfThreads / 2 * numberOfUpdates;
+    assertThat(counts).containsExactly(0, expected, expected, 0);
+  }
+}
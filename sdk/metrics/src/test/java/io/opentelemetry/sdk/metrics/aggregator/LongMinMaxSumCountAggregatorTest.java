@@ -133,6 +133,53 @@ class LongMinMaxSumCountAggregatorTest {
             MinMaxSumCountAccumulation.create(numberOfThreads * numberOfUpdates, 101000, 1, 23));
   }
 
+  @Test
+  void testMultithreadedUpdates_consistentAccumulations() throws Exception {
+    final AggregatorHandle<MinMaxSumCountAccumulation> aggregatorHandle =
+        LongMinMaxSumCountAggregator.getInstance().createHandle();
+    int numberOfThreads = 8;
+    final int numberOfUpdates = 100_000;
+    final CountDownLatch startingGun = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < numberOfThreads; i++) {
+      Thread t =
+          new Thread(
+              () -> {
+                try {
+                  startingGun.await();
+                } catch (InterruptedException e) {
+                  throw new RuntimeException(e);
+                }
+                for (int j = 0; j < numberOfUpdates; j++) {
+                  aggregatorHandle.recordLong(5);
+                }
+              });
+      workers.add(t);
+      t.start();
+    }
+    startingGun.countDown();
+
+    // Each value is collected with its count, sum, min and max, in the same accumulation.
+    long count = 0;
+    boolean running = true;
+    while (running) {
+      running = false;
+      for (Thread worker : workers) {
+        running |= worker.isAlive();
+      }
+      MinMaxSumCountAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+      if (accumulation == null || accumulation.getCount() == 0) {
+        continue;
+      }
+      assertThat(accumulation.getSum()).isEqualTo(5 * accumulation.getCount());
+      assertThat(accumulation.getMin()).isEqualTo(5);
+      assertThat(accumulation.getMax()).isEqualTo(5);
+      count += accumulation.getCount();
+    }
+
+    assertThat(count).isEqualTo((long) numberOfThreads * numberOfUpdates);
+  }
+
   private static final class Summary {
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
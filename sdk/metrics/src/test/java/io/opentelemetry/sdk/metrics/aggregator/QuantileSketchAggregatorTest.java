@@ -0,0 +1,407 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.common.InstrumentDescriptor;
+import io.opentelemetry.sdk.metrics.common.InstrumentType;
+import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class QuantileSketchAggregatorTest {
+  private static final QuantileSketchAggregator aggregator =
+      new QuantileSketchAggregator(
+          QuantileSketchAggregator.DEFAULT_RELATIVE_ACCURACY,
+          QuantileSketchAggregator.DEFAULT_MAX_BUCKETS,
+          Arrays.asList(0.0, 50.0, 99.0, 100.0));
+  // gamma = 2, the bucket at index i is (2^(i-1), 2^i].
+  private static final QuantileSketchAggregator smallAggregator =
+      new QuantileSketchAggregator(1.0 / 3, 4, Arrays.asList(50.0, 100.0));
+
+  @Test
+  void createHandle() {
+    assertThat(aggregator.createHandle()).isInstanceOf(QuantileSketchAggregator.Handle.class);
+  }
+
+  @Test
+  void handle_keepsFewCells() throws InterruptedException {
+    QuantileSketchAggregator.Handle handle =
+        (QuantileSketchAggregator.Handle) aggregator.createHandle();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      Thread thread = new Thread(() -> handle.recordDouble(1));
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(handle.getNumberOfCells()).isBetween(1, 2);
+
+    QuantileSketchAccumulation accumulation = handle.accumulateThenReset();
+    assertThat(accumulation.getCount()).isEqualTo(8);
+    // The collected cells are reset in place and kept for the next recordings.
+    int cells = handle.getNumberOfCells();
+    assertThat(cells).isBetween(1, 2);
+
+    // The cells are released once their set is collected without recordings.
+    handle.accumulateThenReset();
+    assertThat(handle.getNumberOfCells()).isEqualTo(cells);
+    handle.accumulateThenReset();
+    assertThat(handle.getNumberOfCells()).isZero();
+  }
+
+  @Test
+  void handle_keepsCellsOfSteadyRecordings() {
+    QuantileSketchAggregator.Handle handle =
+        (QuantileSketchAggregator.Handle) aggregator.createHandle();
+    for (int i = 0; i < 4; i++) {
+      handle.recordDouble(1);
+      assertThat(handle.accumulateThenReset().getCount()).isEqualTo(1);
+      assertThat(handle.getNumberOfCells()).isEqualTo(Math.min(i + 1, 2));
+    }
+  }
+
+  @Test
+  void getIndex() {
+    assertThat(smallAggregator.getGamma()).isCloseTo(2, within(1e-12));
+    assertThat(smallAggregator.getIndex(1)).isEqualTo(0);
+    assertThat(smallAggregator.getIndex(1.5)).isEqualTo(1);
+    assertThat(smallAggregator.getIndex(3)).isEqualTo(2);
+    assertThat(smallAggregator.getIndex(0.7)).isEqualTo(0);
+    assertThat(smallAggregator.getIndex(0.3)).isEqualTo(-1);
+
+    double gamma = aggregator.getGamma();
+    for (double value : new double[] {1e-300, 0.001, 0.7, 1.3, 12345.678, 1e300}) {
+      int index = aggregator.getIndex(value);
+      assertThat(value)
+          .isGreaterThan(Math.pow(gamma, index - 1) * (1 - 1e-12))
+          .isLessThanOrEqualTo(Math.pow(gamma, index) * (1 + 1e-12));
+    }
+    assertThat(aggregator.getIndex(Double.MAX_VALUE)).isPositive();
+  }
+
+  @Test
+  void testRecordings() {
+    AggregatorHandle<QuantileSketchAccumulation> aggregatorHandle = smallAggregator.createHandle();
+    aggregatorHandle.recordLong(3);
+    aggregatorHandle.recordDouble(3.5);
+    aggregatorHandle.recordDouble(0);
+    aggregatorHandle.recordDouble(-1.5);
+    aggregatorHandle.recordLong(12);
+    QuantileSketchAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+    assertThat(accumulation.getCount()).isEqualTo(5);
+    assertThat(accumulation.getSum()).isEqualTo(17);
+    assertThat(accumulation.getMin()).isEqualTo(-1.5);
+    assertThat(accumulation.getMax()).isEqualTo(12);
+    assertThat(accumulation.getZeroCount()).isEqualTo(1);
+    assertThat(accumulation.getPositiveBuckets())
+        .isEqualTo(ExponentialHistogramBuckets.create(2, new long[] {2, 0, 1}));
+    assertThat(accumulation.getNegativeBuckets())
+        .isEqualTo(ExponentialHistogramBuckets.create(1, new long[] {1}));
+  }
+
+  @Test
+  void testRecordings_collapseLowestBuckets() {
+    AggregatorHandle<QuantileSketchAccumulation> aggregatorHandle = smallAggregator.createHandle();
+    for (double value : new double[] {1.5, 3, 6, 12, 24, 48}) {
+      aggregatorHandle.recordDouble(value);
+    }
+    // Indices 1 to 6 do not fit in 4 buckets, 1 and 2 are collapsed into 3.
+    QuantileSketchAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+    assertThat(accumulation.getPositiveBuckets())
+        .isEqualTo(ExponentialHistogramBuckets.create(3, new long[] {3, 1, 1, 1}));
+
+    for (double value : new double[] {3, 6, 12, 24, 0.7, 200}) {
+      aggregatorHandle.recordDouble(value);
+    }
+    // 0.7 is below the window and counted in its lowest bucket, index 2, then 200 moves the window
+    // up and indices 2 to 4 are collapsed into 5.
+    accumulation = aggregatorHandle.accumulateThenReset();
+    assertThat(accumulation.getPositiveBuckets())
+        .isEqualTo(ExponentialHistogramBuckets.create(5, new long[] {5, 0, 0, 1}));
+    assertThat(accumulation.getMin()).isEqualTo(0.7);
+    assertThat(accumulation.getMax()).isEqualTo(200);
+  }
+
+  @Test
+  void testRecordings_wideRange() {
+    AggregatorHandle<QuantileSketchAccumulation> aggregatorHandle = aggregator.createHandle();
+    aggregatorHandle.recordDouble(Double.MIN_VALUE);
+    aggregatorHandle.recordDouble(1);
+    aggregatorHandle.recordDouble(Double.MAX_VALUE);
+    QuantileSketchAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+    ExponentialHistogramBuckets buckets = accumulation.getPositiveBuckets();
+    assertThat(buckets.getCounts()).hasSize(QuantileSketchAggregator.DEFAULT_MAX_BUCKETS);
+    assertThat(buckets.getMaxIndex()).isEqualTo(aggregator.getIndex(Double.MAX_VALUE));
+    // The smallest values are collapsed into the lowest bucket.
+    assertThat(buckets.get(buckets.getOffset())).isEqualTo(2);
+    assertThat(accumulation.getValueAtPercentile(0, aggregator.getGamma()))
+        .isEqualTo(Double.MIN_VALUE);
+    assertThat(accumulation.getValueAtPercentile(100, aggregator.getGamma()))
+        .isEqualTo(Double.MAX_VALUE);
+  }
+
+  @Test
+  void testRecordings_nonFinite() {
+    AggregatorHandle<QuantileSketchAccumulation> aggregatorHandle = aggregator.createHandle();
+    aggregatorHandle.recordDouble(Double.NaN);
+    aggregatorHandle.recordDouble(Double.POSITIVE_INFINITY);
+    aggregatorHandle.recordDouble(Double.NEGATIVE_INFINITY);
+    aggregatorHandle.recordDouble(1);
+    QuantileSketchAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+    assertThat(accumulation.getCount()).isEqualTo(1);
+    assertThat(accumulation.getSum()).isEqualTo(1);
+    assertThat(aggregator.accumulateDouble(Double.NaN).getCount()).isEqualTo(0);
+  }
+
+  @Test
+  void toAccumulationAndReset() {
+    AggregatorHandle<QuantileSketchAccumulation> aggregatorHandle = aggregator.createHandle();
+    assertThat(aggregatorHandle.accumulateThenReset()).isNull();
+
+    aggregatorHandle.recordLong(5);
+    assertThat(aggregatorHandle.accumulateThenReset()).isEqualTo(aggregator.accumulateLong(5));
+    assertThat(aggregatorHandle.accumulateThenReset()).isNull();
+
+    aggregatorHandle.recordDouble(-5);
+    assertThat(aggregatorHandle.accumulateThenReset()).isEqualTo(aggregator.accumulateDouble(-5));
+    assertThat(aggregatorHandle.accumulateThenReset()).isNull();
+  }
+
+  @Test
+  void getValueAtPercentile() {
+    AggregatorHandle<QuantileSketchAccumulation> aggregatorHandle = aggregator.createHandle();
+    for (int i = 10_000; i >= 1; i--) {
+      aggregatorHandle.recordLong(i);
+    }
+    QuantileSketchAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+    double gamma = aggregator.getGamma();
+    assertThat(accumulation.getValueAtPercentile(0, gamma)).isEqualTo(1);
+    assertThat(accumulation.getValueAtPercentile(50, gamma)).isCloseTo(5000, withinPercentage(1));
+    assertThat(accumulation.getValueAtPercentile(90, gamma)).isCloseTo(9000, withinPercentage(1));
+    assertThat(accumulation.getValueAtPercentile(99, gamma)).isCloseTo(9900, withinPercentage(1));
+    assertThat(accumulation.getValueAtPercentile(99.9, gamma)).isCloseTo(9990, withinPercentage(1));
+    assertThat(accumulation.getValueAtPercentile(100, gamma)).isEqualTo(10_000);
+  }
+
+  @Test
+  void getValueAtPercentile_negativeValues() {
+    AggregatorHandle<QuantileSketchAccumulation> aggregatorHandle = aggregator.createHandle();
+    for (int i = 1; i <= 100; i++) {
+      aggregatorHandle.recordLong(i);
+      aggregatorHandle.recordLong(-i);
+    }
+    aggregatorHandle.recordLong(0);
+    QuantileSketchAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+    double gamma = aggregator.getGamma();
+    assertThat(accumulation.getValueAtPercentile(0, gamma)).isEqualTo(-100);
+    assertThat(accumulation.getValueAtPercentile(10, gamma)).isCloseTo(-80, withinPercentage(1));
+    assertThat(accumulation.getValueAtPercentile(50, gamma)).isEqualTo(0);
+    assertThat(accumulation.getValueAtPercentile(90, gamma)).isCloseTo(80, withinPercentage(1));
+    assertThat(accumulation.getValueAtPercentile(100, gamma)).isEqualTo(100);
+  }
+
+  @Test
+  void merge() {
+    assertThat(aggregator.merge(aggregator.accumulateLong(1), aggregator.accumulateLong(-1)))
+        .isEqualTo(
+            QuantileSketchAccumulation.create(
+                2,
+                0,
+                -1,
+                1,
+                0,
+                ExponentialHistogramBuckets.create(0, new long[] {1}),
+                ExponentialHistogramBuckets.create(0, new long[] {1})));
+  }
+
+  @Test
+  void merge_collapseLowestBuckets() {
+    QuantileSketchAccumulation a1 =
+        QuantileSketchAccumulation.create(
+            2,
+            4.5,
+            1.5,
+            3,
+            0,
+            ExponentialHistogramBuckets.create(1, new long[] {1, 1}),
+            ExponentialHistogramBuckets.empty());
+    QuantileSketchAccumulation a2 =
+        QuantileSketchAccumulation.create(
+            2,
+            72,
+            24,
+            48,
+            0,
+            ExponentialHistogramBuckets.create(5, new long[] {1, 1}),
+            ExponentialHistogramBuckets.empty());
+    QuantileSketchAccumulation merged = smallAggregator.merge(a1, a2);
+    assertThat(merged.getCount()).isEqualTo(4);
+    assertThat(merged.getSum()).isEqualTo(76.5);
+    assertThat(merged.getMin()).isEqualTo(1.5);
+    assertThat(merged.getMax()).isEqualTo(48);
+    assertThat(merged.getPositiveBuckets())
+        .isEqualTo(ExponentialHistogramBuckets.create(3, new long[] {2, 0, 1, 1}));
+    assertThat(smallAggregator.merge(a2, a1)).isEqualTo(merged);
+  }
+
+  @Test
+  void merge_consistentWithRecordings() {
+    AggregatorHandle<QuantileSketchAccumulation> all = aggregator.createHandle();
+    AggregatorHandle<QuantileSketchAccumulation> first = aggregator.createHandle();
+    AggregatorHandle<QuantileSketchAccumulation> second = aggregator.createHandle();
+    for (int i = 0; i < 1000; i++) {
+      double value = (i - 100) * 0.37;
+      all.recordDouble(value);
+      (i % 3 == 0 ? first : second).recordDouble(value);
+    }
+    QuantileSketchAccumulation merged =
+        aggregator.merge(first.accumulateThenReset(), second.accumulateThenReset());
+    QuantileSketchAccumulation expected = all.accumulateThenReset();
+    assertThat(merged.getCount()).isEqualTo(expected.getCount());
+    assertThat(merged.getSum()).isCloseTo(expected.getSum(), withinPercentage(1e-9));
+    assertThat(merged.getMin()).isEqualTo(expected.getMin());
+    assertThat(merged.getMax()).isEqualTo(expected.getMax());
+    assertThat(merged.getZeroCount()).isEqualTo(expected.getZeroCount());
+    assertThat(merged.getPositiveBuckets()).isEqualTo(expected.getPositiveBuckets());
+    assertThat(merged.getNegativeBuckets()).isEqualTo(expected.getNegativeBuckets());
+  }
+
+  @Test
+  void toPoint() {
+    QuantileSketchAccumulation accumulation =
+        aggregator.merge(aggregator.accumulateLong(10), aggregator.accumulateLong(20));
+    MetricData.DoubleSummaryPoint point =
+        accumulation.toPoint(
+            0, 100, Labels.of("k", "v"), aggregator.getPercentiles(), aggregator.getGamma());
+    assertThat(point.getStartEpochNanos()).isEqualTo(0);
+    assertThat(point.getEpochNanos()).isEqualTo(100);
+    assertThat(point.getLabels()).isEqualTo(Labels.of("k", "v"));
+    assertThat(point.getCount()).isEqualTo(2);
+    assertThat(point.getSum()).isEqualTo(30);
+    assertThat(point.getPercentileValues()).hasSize(4);
+    assertThat(point.getPercentileValues().get(0))
+        .isEqualTo(MetricData.ValueAtPercentile.create(0.0, 10));
+    assertThat(point.getPercentileValues().get(1).getPercentile()).isEqualTo(50.0);
+    assertThat(point.getPercentileValues().get(1).getValue()).isCloseTo(10, withinPercentage(1));
+    assertThat(point.getPercentileValues().get(2).getPercentile()).isEqualTo(99.0);
+    // The percentiles below 100 of two values are estimates of the lowest one.
+    assertThat(point.getPercentileValues().get(2).getValue()).isCloseTo(10, withinPercentage(1));
+    assertThat(point.getPercentileValues().get(3))
+        .isEqualTo(MetricData.ValueAtPercentile.create(100.0, 20));
+
+    // There are no percentiles without measurements.
+    assertThat(
+            aggregator
+                .accumulateDouble(Double.NaN)
+                .toPoint(0, 100, Labels.empty(), aggregator.getPercentiles(), 2)
+                .getPercentileValues())
+        .isEmpty();
+  }
+
+  @Test
+  void toMetricData() {
+    AggregatorHandle<QuantileSketchAccumulation> aggregatorHandle = aggregator.createHandle();
+    aggregatorHandle.recordLong(10);
+
+    MetricData metricData =
+        aggregator.toMetricData(
+            Resource.getDefault(),
+            InstrumentationLibraryInfo.getEmpty(),
+            InstrumentDescriptor.create(
+                "name",
+                "description",
+                "unit",
+                InstrumentType.VALUE_RECORDER,
+                InstrumentValueType.LONG),
+            Collections.singletonMap(Labels.empty(), aggregatorHandle.accumulateThenReset()),
+            0,
+            100);
+    assertThat(metricData).isNotNull();
+    assertThat(metricData.getType()).isEqualTo(MetricData.Type.SUMMARY);
+    MetricData.DoubleSummaryPoint point =
+        metricData.getDoubleSummaryData().getPoints().iterator().next();
+    assertThat(point.getCount()).isEqualTo(1);
+    assertThat(point.getSum()).isEqualTo(10);
+    assertThat(point.getPercentileValues())
+        .containsExactly(
+            MetricData.ValueAtPercentile.create(0.0, 10),
+            MetricData.ValueAtPercentile.create(50.0, 10),
+            MetricData.ValueAtPercentile.create(99.0, 10),
+            MetricData.ValueAtPercentile.create(100.0, 10));
+  }
+
+  @Test
+  void testMultithreadedUpdates_consistentAccumulations() throws Exception {
+    final AggregatorHandle<QuantileSketchAccumulation> aggregatorHandle =
+        smallAggregator.createHandle();
+    int numberOfThreads = 8;
+    final int numberOfUpdates = 100_000;
+    final CountDownLatch startingGun = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < numberOfThreads; i++) {
+      final double update = 1.5 * (1 << i);
+      Thread t =
+          new Thread(
+              () -> {
+                try {
+                  startingGun.await();
+                } catch (InterruptedException e) {
+                  throw new RuntimeException(e);
+                }
+                for (int j = 0; j < numberOfUpdates; j++) {
+                  aggregatorHandle.recordDouble(update);
+                }
+              });
+      workers.add(t);
+      t.start();
+    }
+    startingGun.countDown();
+
+    // Each value is collected with its count and sum, in the same accumulation.
+    QuantileSketchAccumulation total = null;
+    boolean running = true;
+    while (running) {
+      running = false;
+      for (Thread worker : workers) {
+        running |= worker.isAlive();
+      }
+      QuantileSketchAccumulation accumulation = aggregatorHandle.accumulateThenReset();
+      if (accumulation == null) {
+        continue;
+      }
+      assertThat(Arrays.stream(accumulation.getPositiveBuckets().getCounts()).sum())
+          .isEqualTo(accumulation.getCount());
+      total = total == null ? accumulation : smallAggregator.merge(total, accumulation);
+    }
+
+    assertThat(total.getCount()).isEqualTo((long) numberOfThreads * numberOfUpdates);
+    assertThat(total.getSum()).isEqualTo(1.5 * 255 * numberOfUpdates);
+    assertThat(total.getMin()).isEqualTo(1.5);
+    assertThat(total.getMax()).isEqualTo(192);
+    // 1.5 to 192 are at indices 1 to 8, the lowest ones are collapsed into index 5.
+    assertThat(total.getPositiveBuckets())
+        .isEqualTo(
+            ExponentialHistogramBuckets.create(
+                5,
+                new long[] {
+                  5L * numberOfUpdates, numberOfUpdates, numberOfUpdates, numberOfUpdates
+                }));
+  }
+}
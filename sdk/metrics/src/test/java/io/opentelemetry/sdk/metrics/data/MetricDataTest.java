@@ -9,6 +9,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import io.opentelemetry.api.common.Labels;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.data.MetricData.DoubleHistogramPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.DoublePoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.DoubleSummaryPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
@@ -44,6 +45,15 @@ class MetricDataTest {
           Arrays.asList(
               ValueAtPercentile.create(0.0, DOUBLE_VALUE),
               ValueAtPercentile.create(100, DOUBLE_VALUE)));
+  private static final DoubleHistogramPoint HISTOGRAM_POINT =
+      DoubleHistogramPoint.create(
+          START_EPOCH_NANOS,
+          EPOCH_NANOS,
+          Labels.of("key", "value"),
+          LONG_VALUE,
+          DOUBLE_VALUE,
+          Collections.singletonList(1.0),
+          Arrays.asList(4L, 6L));
 
   @Test
   void metricData_Getters() {
@@ -150,6 +160,33 @@ class MetricDataTest {
     assertThat(metricData.getDoubleSummaryData().getPoints()).containsExactly(SUMMARY_POINT);
   }
 
+  @Test
+  void metricData_HistogramPoints() {
+    assertThat(HISTOGRAM_POINT.getStartEpochNanos()).isEqualTo(START_EPOCH_NANOS);
+    assertThat(HISTOGRAM_POINT.getEpochNanos()).isEqualTo(EPOCH_NANOS);
+    assertThat(HISTOGRAM_POINT.getLabels().size()).isEqualTo(1);
+    assertThat(HISTOGRAM_POINT.getLabels().get("key")).isEqualTo("value");
+    assertThat(HISTOGRAM_POINT.getCount()).isEqualTo(LONG_VALUE);
+    assertThat(HISTOGRAM_POINT.getSum()).isEqualTo(DOUBLE_VALUE);
+    assertThat(HISTOGRAM_POINT.getBoundaries()).containsExactly(1.0);
+    assertThat(HISTOGRAM_POINT.getCounts()).containsExactly(4L, 6L);
+    MetricData metricData =
+        MetricData.createDoubleHistogram(
+            Resource.getEmpty(),
+            InstrumentationLibraryInfo.getEmpty(),
+            "metric_name",
+            "metric_description",
+            "ms",
+            MetricData.DoubleHistogramData.create(
+                MetricData.AggregationTemporality.DELTA,
+                Collections.singletonList(HISTOGRAM_POINT)));
+    assertThat(metricData.getType()).isEqualTo(MetricData.Type.HISTOGRAM);
+    assertThat(metricData.getDoubleHistogramData().getAggregationTemporality())
+        .isEqualTo(MetricData.AggregationTemporality.DELTA);
+    assertThat(metricData.getDoubleHistogramData().getPoints()).containsExactly(HISTOGRAM_POINT);
+    assertThat(metricData.getDoubleSummaryData().getPoints()).isEmpty();
+  }
+
   @Test
   void metricData_GetDefault() {
     MetricData metricData =
@@ -179,5 +216,6 @@ class MetricDataTest {
     assertThat(metricData.getDoubleSumData().getPoints()).isEmpty();
     assertThat(metricData.getLongGaugeData().getPoints()).isEmpty();
     assertThat(metricData.getDoubleSummaryData().getPoints()).isEmpty();
+    assertThat(metricData.getDoubleHistogramData().getPoints()).isEmpty();
   }
 }
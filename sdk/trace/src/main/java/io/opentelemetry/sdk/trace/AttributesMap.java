@@ -8,30 +8,49 @@ package io.opentelemetry.sdk.trace;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
 
 /**
  * A map with a fixed capacity that drops attributes when the map gets full.
  *
  * <p>Note: this doesn't implement the Map interface, but behaves very similarly to one.
+ *
+ * <p>Entries are stored in insertion order in a flat array with keys and values interleaved, which
+ * is scanned linearly for small maps and indexed by an open-addressing hash table for larger ones.
+ * {@link #immutableCopy()} shares the array with the returned snapshot, which only sees the entries
+ * present when it was taken. Appending a new key writes past the end of the snapshot and is done in
+ * place, only replacing the value of an existing key copies the entries while a snapshot shares
+ * them.
  */
 @SuppressWarnings({"rawtypes", "unchecked"})
 final class AttributesMap implements Attributes {
-  private final Map<AttributeKey<?>, Object> data;
+  // Storage holding up to this many entries is scanned linearly, larger storage is hash indexed.
+  private static final int MAX_LINEAR_SCAN_ENTRIES = 8;
+  private static final Storage EMPTY_STORAGE = new Storage(0);
 
   private final long capacity;
-  private int totalAddedValues = 0;
+  private Storage storage;
+  private int size;
+  private int totalAddedValues;
+  // Whether a snapshot sees the current storage, so existing entries must not be overwritten.
+  private boolean shared;
 
-  private AttributesMap(long capacity, Map<AttributeKey<?>, Object> data) {
+  private AttributesMap(long capacity, Storage storage, int size, int totalAddedValues) {
     this.capacity = capacity;
-    this.data = data;
+    this.storage = storage;
+    this.size = size;
+    this.totalAddedValues = totalAddedValues;
   }
 
   AttributesMap(long capacity) {
-    this(capacity, new LinkedHashMap<>());
+    this(capacity, EMPTY_STORAGE, 0, 0);
   }
 
   public <T> void put(AttributeKey<T> key, T value) {
@@ -39,10 +58,29 @@ final class AttributesMap implements Attributes {
       return;
     }
     totalAddedValues++;
-    if (data.size() >= capacity && !data.containsKey(key)) {
+    int position = storage.indexOf(key, size);
+    if (position >= 0) {
+      if (shared) {
+        storage = storage.copy(size, storage.entryCapacity());
+        shared = false;
+      }
+      storage.data[2 * position + 1] = value;
+      return;
+    }
+    if (size >= capacity) {
       return;
     }
-    data.put(key, value);
+    if (size >= storage.entryCapacity()) {
+      storage = storage.copy(size, newCapacity());
+      shared = false;
+    }
+    storage.append(size, key, value);
+    size++;
+  }
+
+  private int newCapacity() {
+    long newCapacity = Math.max(MAX_LINEAR_SCAN_ENTRIES, 2L * size);
+    return (int) Math.min(newCapacity, Math.min(capacity, Integer.MAX_VALUE / 2));
   }
 
   int getTotalAddedValues() {
@@ -52,32 +90,36 @@ final class AttributesMap implements Attributes {
   @SuppressWarnings("unchecked")
   @Override
   public <T> T get(AttributeKey<T> key) {
-    return (T) data.get(key);
+    if (key == null) {
+      return null;
+    }
+    int position = storage.indexOf(key, size);
+    return position < 0 ? null : (T) storage.data[2 * position + 1];
   }
 
   @Override
   public int size() {
-    return data.size();
+    return size;
   }
 
   @Override
   public boolean isEmpty() {
-    return data.isEmpty();
+    return size == 0;
   }
 
   @SuppressWarnings({"rawtypes", "unchecked"})
   @Override
   public void forEach(BiConsumer<AttributeKey<?>, Object> consumer) {
-    for (Map.Entry<AttributeKey<?>, Object> entry : data.entrySet()) {
-      AttributeKey key = entry.getKey();
-      Object value = entry.getValue();
-      consumer.accept(key, value);
+    Object[] data = storage.data;
+    for (int i = 0; i < 2 * size; i += 2) {
+      consumer.accept((AttributeKey) data[i], data[i + 1]);
     }
   }
 
+  /** Returns an unmodifiable view of this map, which reflects later updates. */
   @Override
   public Map<AttributeKey<?>, Object> asMap() {
-    return Collections.unmodifiableMap(data);
+    return new MapView();
   }
 
   @Override
@@ -85,11 +127,27 @@ final class AttributesMap implements Attributes {
     return Attributes.builder().putAll(this);
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof AttributesMap)) {
+      return false;
+    }
+    return asMap().equals(((AttributesMap) o).asMap());
+  }
+
+  @Override
+  public int hashCode() {
+    return asMap().hashCode();
+  }
+
   @Override
   public String toString() {
     return "AttributesMap{"
         + "data="
-        + data
+        + asMap()
         + ", capacity="
         + capacity
         + ", totalAddedValues="
@@ -97,8 +155,146 @@ final class AttributesMap implements Attributes {
         + '}';
   }
 
+  /**
+   * Returns an immutable snapshot of this map. The entries are not copied, later updates of this
+   * map copy them before overwriting an entry visible to the snapshot.
+   */
   Attributes immutableCopy() {
-    Map<AttributeKey<?>, Object> dataCopy = new LinkedHashMap<>(data);
-    return new AttributesMap(capacity, Collections.unmodifiableMap(dataCopy));
+    shared = true;
+    return new AttributesMap(capacity, storage, size, totalAddedValues);
+  }
+
+  private final class MapView extends AbstractMap<AttributeKey<?>, Object> {
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public Object get(Object key) {
+      return key instanceof AttributeKey ? AttributesMap.this.get((AttributeKey<?>) key) : null;
+    }
+
+    @Override
+    public Set<Entry<AttributeKey<?>, Object>> entrySet() {
+      return new AbstractSet<Entry<AttributeKey<?>, Object>>() {
+        @Override
+        public int size() {
+          return size;
+        }
+
+        @Override
+        public Iterator<Entry<AttributeKey<?>, Object>> iterator() {
+          Object[] data = storage.data;
+          int end = size;
+          return new Iterator<Entry<AttributeKey<?>, Object>>() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+              return position < end;
+            }
+
+            @Override
+            public Entry<AttributeKey<?>, Object> next() {
+              if (position >= end) {
+                throw new NoSuchElementException();
+              }
+              int i = 2 * position++;
+              return new SimpleImmutableEntry<>((AttributeKey<?>) data[i], data[i + 1]);
+            }
+          };
+        }
+      };
+    }
+  }
+
+  /** The entries of an {@link AttributesMap}, possibly shared with its snapshots. */
+  private static final class Storage {
+    // Keys at even and values at odd indexes, in insertion order.
+    private final Object[] data;
+    // Open-addressing table of entry position + 1 by key hash, 0 marks a free slot. Null for small
+    // storage, which is scanned linearly instead.
+    @Nullable private final int[] index;
+
+    private Storage(int entryCapacity) {
+      this.data = new Object[2 * entryCapacity];
+      this.index =
+          entryCapacity > MAX_LINEAR_SCAN_ENTRIES ? new int[tableSizeFor(2 * entryCapacity)] : null;
+    }
+
+    int entryCapacity() {
+      return data.length / 2;
+    }
+
+    void append(int position, AttributeKey<?> key, Object value) {
+      data[2 * position] = key;
+      data[2 * position + 1] = value;
+      if (index != null) {
+        insertIntoIndex(index, key, position);
+      }
+    }
+
+    /** Returns the position of {@code key} among the first {@code size} entries, or -1. */
+    int indexOf(AttributeKey<?> key, int size) {
+      if (index == null) {
+        for (int i = 0; i < size; i++) {
+          Object candidate = data[2 * i];
+          if (candidate == key || key.equals(candidate)) {
+            return i;
+          }
+        }
+        return -1;
+      }
+      int mask = index.length - 1;
+      for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+        int position = index[slot] - 1;
+        if (position < 0) {
+          return -1;
+        }
+        // Entries at or after size were appended after a snapshot sharing this storage was taken.
+        if (position < size) {
+          Object candidate = data[2 * position];
+          if (candidate == key || key.equals(candidate)) {
+            return position;
+          }
+        }
+      }
+    }
+
+    /** Returns a new storage with the first {@code size} entries of this one. */
+    Storage copy(int size, int entryCapacity) {
+      Storage copy = new Storage(entryCapacity);
+      System.arraycopy(data, 0, copy.data, 0, 2 * size);
+      if (copy.index != null) {
+        for (int i = 0; i < size; i++) {
+          insertIntoIndex(copy.index, (AttributeKey<?>) data[2 * i], i);
+        }
+      }
+      return copy;
+    }
+
+    private static void insertIntoIndex(int[] index, AttributeKey<?> key, int position) {
+      int mask = index.length - 1;
+      int slot = hash(key) & mask;
+      while (index[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      index[slot] = position + 1;
+    }
+
+    private static int hash(AttributeKey<?> key) {
+      int h = key.hashCode();
+      return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int minSize) {
+      return Integer.highestOneBit(minSize - 1) << 1;
+    }
   }
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import io.opentelemetry.sdk.trace.config.EventRetentionPolicy;
+import io.opentelemetry.sdk.trace.data.SpanData.Event;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Retains the latest events recorded on a span, and optionally the first ones, in arrays that grow
+ * in chunks as events are recorded, up to the max number of events.
+ *
+ * <p>Each event is identified by its sequence number, the number of events recorded on the span
+ * before it, which the span passes to {@link #put(int, Event)}. The first events are stored in
+ * their own slot of the head and never replaced, the following ones in the ring of the tail, where
+ * they overwrite the oldest event. A writer that lost the race for a ring slot to a later event
+ * leaves it alone, as its event is not among the latest anymore.
+ *
+ * <p>{@link #getEvents(int)} returns the events retained for a given count of recorded events. It
+ * skips the events already overwritten by later ones, and does not wait for the writers that
+ * reserved a sequence number but did not store their event yet: such an event is missing from the
+ * result, so it is reported as dropped, like an event recorded after the span ended.
+ */
+@ThreadSafe
+final class EventRingBuffer {
+
+  private final int headSize;
+  private final int tailSize;
+  // Slot i holds the event with sequence number i.
+  private final ChunkedArray<Event> head;
+  // Slot i holds an event with a sequence number s such that (s - headSize) % tailSize == i.
+  private final ChunkedArray<Entry> tail;
+
+  /**
+   * Returns a buffer retaining {@code maxNumberOfEvents} events with the given policy, which must
+   * not be {@link EventRetentionPolicy#KEEP_FIRST}.
+   */
+  static EventRingBuffer create(EventRetentionPolicy policy, int maxNumberOfEvents) {
+    int headSize = policy == EventRetentionPolicy.KEEP_FIRST_AND_LATEST ? maxNumberOfEvents / 2 : 0;
+    return new EventRingBuffer(headSize, maxNumberOfEvents - headSize);
+  }
+
+  private EventRingBuffer(int headSize, int tailSize) {
+    this.headSize = headSize;
+    this.tailSize = tailSize;
+    this.head = new ChunkedArray<>(headSize);
+    this.tail = new ChunkedArray<>(tailSize);
+  }
+
+  /** Stores the event with the given sequence number. */
+  void put(int sequence, Event event) {
+    if (sequence < headSize) {
+      head.set(sequence, event);
+      return;
+    }
+    int offset = (sequence - headSize) % tailSize;
+    Entry entry = new Entry(sequence, event);
+    while (true) {
+      Entry current = tail.get(offset);
+      if (current != null && current.sequence > sequence) {
+        return;
+      }
+      if (tail.compareAndSet(offset, current, entry)) {
+        return;
+      }
+    }
+  }
+
+  /** Returns the retained events among the first {@code totalRecordedEvents}, in order. */
+  List<Event> getEvents(int totalRecordedEvents) {
+    if (totalRecordedEvents == 0) {
+      return Collections.emptyList();
+    }
+    int headCount = Math.min(totalRecordedEvents, headSize);
+    int tailStart = Math.max(headSize, totalRecordedEvents - tailSize);
+    Event[] result = new Event[headCount + Math.max(0, totalRecordedEvents - tailStart)];
+    int size = 0;
+    for (int i = 0; i < headCount; i++) {
+      // Empty if the writer of this slot did not store its event yet.
+      Event event = head.get(i);
+      if (event != null) {
+        result[size++] = event;
+      }
+    }
+    for (int sequence = tailStart; sequence < totalRecordedEvents; sequence++) {
+      // Holds an earlier event if the writer did not store this one yet, or a later event if this
+      // one was overwritten.
+      Entry entry = tail.get((sequence - headSize) % tailSize);
+      if (entry != null && entry.sequence == sequence) {
+        result[size++] = entry.event;
+      }
+    }
+    if (size < result.length) {
+      result = Arrays.copyOf(result, size);
+    }
+    return Collections.unmodifiableList(Arrays.asList(result));
+  }
+
+  // Visible for testing
+  int allocatedSlots() {
+    return head.allocatedSlots() + tail.allocatedSlots();
+  }
+
+  /**
+   * An array of a fixed length whose slots are allocated in chunks, the first time one of their
+   * slots is written. Slots of chunks not allocated yet read as {@code null}.
+   */
+  @ThreadSafe
+  private static final class ChunkedArray<T> {
+    private static final int CHUNK_SIZE = 16;
+
+    private final int length;
+    private final AtomicReferenceArray<AtomicReferenceArray<T>> chunks;
+
+    ChunkedArray(int length) {
+      this.length = length;
+      this.chunks = new AtomicReferenceArray<>((length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    @Nullable
+    T get(int index) {
+      AtomicReferenceArray<T> chunk = chunks.get(index / CHUNK_SIZE);
+      return chunk == null ? null : chunk.get(index % CHUNK_SIZE);
+    }
+
+    void set(int index, T value) {
+      chunk(index).set(index % CHUNK_SIZE, value);
+    }
+
+    boolean compareAndSet(int index, @Nullable T expect, T update) {
+      return chunk(index).compareAndSet(index % CHUNK_SIZE, expect, update);
+    }
+
+    int allocatedSlots() {
+      int slots = 0;
+      for (int i = 0; i < chunks.length(); i++) {
+        AtomicReferenceArray<T> chunk = chunks.get(i);
+        if (chunk != null) {
+          slots += chunk.length();
+        }
+      }
+      return slots;
+    }
+
+    private AtomicReferenceArray<T> chunk(int index) {
+      int chunkIndex = index / CHUNK_SIZE;
+      AtomicReferenceArray<T> chunk = chunks.get(chunkIndex);
+      if (chunk == null) {
+        // The last chunk is only as long as the slots left.
+        chunk = new AtomicReferenceArray<>(Math.min(CHUNK_SIZE, length - chunkIndex * CHUNK_SIZE));
+        if (!chunks.compareAndSet(chunkIndex, null, chunk)) {
+          chunk = chunks.get(chunkIndex);
+        }
+      }
+      return chunk;
+    }
+  }
+
+  @Immutable
+  private static final class Entry {
+    final int sequence;
+    final Event event;
+
+    Entry(int sequence, Event event) {
+      this.sequence = sequence;
+      this.event = event;
+    }
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.api.metrics.GlobalMetricsProvider;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongCounter.BoundLongCounter;
+import io.opentelemetry.api.metrics.LongValueRecorder;
+import io.opentelemetry.api.metrics.LongValueRecorder.BoundLongValueRecorder;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link SpanProcessor} recording the time spent in the {@link SpanProcessor#onStart(Context,
+ * ReadWriteSpan)} and {@link SpanProcessor#onEnd(ReadableSpan)} methods of the processor it wraps.
+ *
+ * <p>Only one call in {@code samplingInterval} is measured, chosen at random, so that the other
+ * calls only cost a draw of a thread-local random number. The latency of the measured calls is
+ * recorded in the {@code spanProcessorLatency} metric, and the measured calls taking longer than
+ * the budget, if any, are counted in the {@code spanProcessorSlowCalls} metric and logged once.
+ * Both metrics are labeled with the class of the processor and with an id unique to each
+ * instrumented processor in the process, so that processors of the same class are told apart.
+ */
+final class InstrumentedSpanProcessor implements SpanProcessor {
+  private static final Logger logger = Logger.getLogger(InstrumentedSpanProcessor.class.getName());
+
+  private static final String SPAN_PROCESSOR_LABEL = "spanProcessor";
+  private static final String SPAN_PROCESSOR_ID_LABEL = "spanProcessorId";
+  private static final String METHOD_LABEL = "method";
+
+  private static final AtomicLong nextId = new AtomicLong();
+
+  private final SpanProcessor delegate;
+  private final Labels labels;
+  // The latency is that of the calls, whatever the clock of the spans.
+  private final LongSupplier nanoTime;
+  private final int samplingInterval;
+  // 0 if there is no budget.
+  private final long budgetNanos;
+  private final BoundLongValueRecorder onStartLatency;
+  private final BoundLongValueRecorder onEndLatency;
+  @Nullable private final BoundLongCounter onStartSlowCalls;
+  @Nullable private final BoundLongCounter onEndSlowCalls;
+  private final AtomicBoolean loggedSlowCall = new AtomicBoolean();
+
+  /**
+   * Returns a {@link SpanProcessor} measuring one call in {@code samplingInterval} to the methods
+   * of {@code delegate}, and counting those taking more than {@code budgetNanos} if it is positive.
+   */
+  static SpanProcessor create(SpanProcessor delegate, int samplingInterval, long budgetNanos) {
+    Meter meter = GlobalMetricsProvider.getMeter("io.opentelemetry.sdk.trace");
+    LongValueRecorder latency =
+        meter
+            .longValueRecorderBuilder("spanProcessorLatency")
+            .setUnit("ns")
+            .setDescription(
+                "The time spent in the onStart and onEnd methods of a SpanProcessor, for a sample "
+                    + "of the calls")
+            .build();
+    Labels labels =
+        Labels.of(
+            SPAN_PROCESSOR_LABEL,
+            name(delegate),
+            SPAN_PROCESSOR_ID_LABEL,
+            Long.toString(nextId.getAndIncrement()));
+    Labels onStartLabels = labels.toBuilder().put(METHOD_LABEL, "onStart").build();
+    Labels onEndLabels = labels.toBuilder().put(METHOD_LABEL, "onEnd").build();
+    BoundLongCounter onStartSlowCalls = null;
+    BoundLongCounter onEndSlowCalls = null;
+    if (budgetNanos > 0) {
+      LongCounter slowCalls =
+          meter
+              .longCounterBuilder("spanProcessorSlowCalls")
+              .setUnit("1")
+              .setDescription(
+                  "The number of sampled calls to the onStart and onEnd methods of a "
+                      + "SpanProcessor which took longer than the budget")
+              .build();
+      onStartSlowCalls = slowCalls.bind(onStartLabels);
+      onEndSlowCalls = slowCalls.bind(onEndLabels);
+    }
+    return new InstrumentedSpanProcessor(
+        delegate,
+        labels,
+        System::nanoTime,
+        samplingInterval,
+        budgetNanos,
+        latency.bind(onStartLabels),
+        latency.bind(onEndLabels),
+        onStartSlowCalls,
+        onEndSlowCalls);
+  }
+
+  // Visible for testing
+  InstrumentedSpanProcessor(
+      SpanProcessor delegate,
+      Labels labels,
+      LongSupplier nanoTime,
+      int samplingInterval,
+      long budgetNanos,
+      BoundLongValueRecorder onStartLatency,
+      BoundLongValueRecorder onEndLatency,
+      @Nullable BoundLongCounter onStartSlowCalls,
+      @Nullable BoundLongCounter onEndSlowCalls) {
+    this.delegate = delegate;
+    this.labels = labels;
+    this.nanoTime = nanoTime;
+    this.samplingInterval = samplingInterval;
+    this.budgetNanos = budgetNanos;
+    this.onStartLatency = onStartLatency;
+    this.onEndLatency = onEndLatency;
+    this.onStartSlowCalls = onStartSlowCalls;
+    this.onEndSlowCalls = onEndSlowCalls;
+  }
+
+  @Override
+  public void onStart(Context parentContext, ReadWriteSpan span) {
+    if (!isSampled()) {
+      delegate.onStart(parentContext, span);
+      return;
+    }
+    long startNanos = nanoTime.getAsLong();
+    try {
+      delegate.onStart(parentContext, span);
+    } finally {
+      record(nanoTime.getAsLong() - startNanos, "onStart", onStartLatency, onStartSlowCalls);
+    }
+  }
+
+  @Override
+  public boolean isStartRequired() {
+    return delegate.isStartRequired();
+  }
+
+  @Override
+  public void onEnd(ReadableSpan span) {
+    if (!isSampled()) {
+      delegate.onEnd(span);
+      return;
+    }
+    long startNanos = nanoTime.getAsLong();
+    try {
+      delegate.onEnd(span);
+    } finally {
+      record(nanoTime.getAsLong() - startNanos, "onEnd", onEndLatency, onEndSlowCalls);
+    }
+  }
+
+  @Override
+  public boolean isEndRequired() {
+    return delegate.isEndRequired();
+  }
+
+  @Override
+  public CompletableResultCode shutdown() {
+    return delegate.shutdown();
+  }
+
+  @Override
+  public CompletableResultCode forceFlush() {
+    return delegate.forceFlush();
+  }
+
+  private boolean isSampled() {
+    return samplingInterval == 1 || ThreadLocalRandom.current().nextInt(samplingInterval) == 0;
+  }
+
+  private void record(
+      long latencyNanos,
+      String method,
+      BoundLongValueRecorder latency,
+      @Nullable BoundLongCounter slowCalls) {
+    latency.record(latencyNanos);
+    if (slowCalls == null || latencyNanos <= budgetNanos) {
+      return;
+    }
+    slowCalls.add(1);
+    if (!loggedSlowCall.getAndSet(true)) {
+      logger.log(
+          Level.WARNING,
+          "SpanProcessor "
+              + name(delegate)
+              + " (spanProcessorId="
+              + labels.get(SPAN_PROCESSOR_ID_LABEL)
+              + ") spent "
+              + TimeUnit.NANOSECONDS.toMicros(latencyNanos)
+              + "us in "
+              + method
+              + ", more than its budget of "
+              + TimeUnit.NANOSECONDS.toMicros(budgetNanos)
+              + "us. Further slow calls are only counted in the spanProcessorSlowCalls metric.");
+    }
+  }
+
+  // Anonymous and lambda classes have no simple name.
+  private static String name(SpanProcessor processor) {
+    Class<?> type = processor.getClass();
+    return type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+  }
+
+  // Visible for testing
+  SpanProcessor getDelegate() {
+    return delegate;
+  }
+
+  // Visible for testing
+  Labels getLabels() {
+    return labels;
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.sdk.trace.config.TraceConfig;
+import io.opentelemetry.sdk.trace.internal.LazyAttributes;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The attributes of an exception event, whose {@code exception.stacktrace} attribute is rendered
+ * from the recorded exception the first time the attributes are read, usually by an exporter,
+ * instead of on the thread recording the exception.
+ *
+ * <p>Once rendered, the attributes are those of an exception event recorded without this mode, and
+ * all reads are delegated to them. Only {@link #size()}, {@link #isEmpty()}, the methods of {@link
+ * LazyAttributes} and reads of other attributes with {@link #get(AttributeKey)} don't render the
+ * stack trace.
+ */
+@Immutable
+final class LazyStackTraceAttributes implements LazyAttributes {
+
+  // The frames rendered when they are not limited, as the depth of a stack trace is only known
+  // once it is copied. Framework stack traces are often deeper.
+  private static final int TYPICAL_FRAMES = 50;
+  // "\tat " followed by a class, method, file and line.
+  private static final int FRAME_LENGTH = 100;
+  // The first line, with the exception class and message.
+  private static final int HEADER_LENGTH = 100;
+
+  // The other attributes of the event, without the stack trace.
+  private final Attributes attributes;
+  private final Throwable exception;
+  private final int maxFrames;
+  private final boolean deduplicate;
+
+  // Rendering is idempotent, so racing threads may each render and publish equal attributes.
+  @Nullable private volatile Attributes rendered;
+
+  LazyStackTraceAttributes(
+      Attributes attributes, Throwable exception, int maxFrames, boolean deduplicate) {
+    this.attributes = attributes;
+    this.exception = exception;
+    this.maxFrames = maxFrames;
+    this.deduplicate = deduplicate;
+  }
+
+  @Override
+  @Nullable
+  public <T> T get(AttributeKey<T> key) {
+    if (SemanticAttributes.EXCEPTION_STACKTRACE.equals(key)) {
+      return render().get(key);
+    }
+    return attributes.get(key);
+  }
+
+  @Override
+  public void forEach(BiConsumer<AttributeKey<?>, Object> consumer) {
+    render().forEach(consumer);
+  }
+
+  @Override
+  public Attributes getEagerAttributes() {
+    return attributes;
+  }
+
+  @Override
+  @Nullable
+  public Attributes getComputedAttributes() {
+    return rendered;
+  }
+
+  @Override
+  public int getLazyValueLengthHint() {
+    int frames =
+        maxFrames == TraceConfig.UNLIMITED_STACK_TRACE_FRAMES
+            ? TYPICAL_FRAMES
+            : Math.min(maxFrames, TYPICAL_FRAMES);
+    return HEADER_LENGTH + frames * FRAME_LENGTH;
+  }
+
+  @Override
+  public int size() {
+    return attributes.size() + 1;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return false;
+  }
+
+  @Override
+  public Map<AttributeKey<?>, Object> asMap() {
+    return render().asMap();
+  }
+
+  @Override
+  public AttributesBuilder toBuilder() {
+    return render().toBuilder();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o instanceof LazyStackTraceAttributes) {
+      return render().equals(((LazyStackTraceAttributes) o).render());
+    }
+    return render().equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return render().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return render().toString();
+  }
+
+  private Attributes render() {
+    Attributes rendered = this.rendered;
+    if (rendered == null) {
+      rendered =
+          attributes.toBuilder()
+              .put(
+                  SemanticAttributes.EXCEPTION_STACKTRACE,
+                  StackTraceRenderer.render(exception, maxFrames, deduplicate))
+              .build();
+      this.rendered = rendered;
+    }
+    return rendered;
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.TraceId;
+
+/**
+ * An {@link IdGenerator} that generates {@link SpanId}s and {@link TraceId}s as primitive {@code
+ * long} values.
+ *
+ * <p>When the {@link SdkTracer} is configured with a {@link LongIdGenerator}, the {@link
+ * SpanContext} of every started span keeps its identifiers in this binary form and only computes
+ * the base16 representation when it is requested, e.g. by a sampler, a propagator or an exporter
+ * that works with base16 identifiers.
+ */
+public interface LongIdGenerator extends IdGenerator {
+
+  /**
+   * Generates a new valid {@code SpanId}, which must not be {@code 0}.
+   *
+   * @return a new valid {@code SpanId} as a long value.
+   */
+  long generateSpanIdAsLong();
+
+  /**
+   * Generates the higher 8 bytes of a new {@code TraceId}. Any value, including {@code 0}, is
+   * allowed.
+   *
+   * @return the higher part of a new {@code TraceId}.
+   */
+  long generateTraceIdHighBytesAsLong();
+
+  /**
+   * Generates the lower 8 bytes of a new {@code TraceId}, which must not be {@code 0} so that the
+   * {@code TraceId} is valid independently of its higher part.
+   *
+   * @return the lower part of a new {@code TraceId}.
+   */
+  long generateTraceIdLowBytesAsLong();
+
+  @Override
+  default String generateSpanId() {
+    return SpanId.fromLong(generateSpanIdAsLong());
+  }
+
+  @Override
+  default String generateTraceId() {
+    return TraceId.fromLongs(generateTraceIdHighBytesAsLong(), generateTraceIdLowBytesAsLong());
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import io.opentelemetry.api.internal.SpanContextEquality;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.api.trace.TraceState;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A {@link SpanContext} that stores the trace and span identifiers as primitive {@code long}
+ * values, as generated by a {@link LongIdGenerator}.
+ *
+ * <p>The base16 representations are only computed the first time they are requested and then
+ * cached. The cache fields are written without synchronization: as with {@link String#hashCode()},
+ * concurrent callers may both compute the (identical, immutable) value, which is harmless.
+ *
+ * <p>Equality follows the contract of {@link SpanContext}, so it is equal to the context created by
+ * {@link SpanContext#create} with the same values and has the same hash code.
+ */
+@Immutable
+final class LongIdSpanContext implements SpanContext {
+
+  private final long traceIdHigh;
+  private final long traceIdLow;
+  private final long spanId;
+  private final byte traceFlags;
+  private final TraceState traceState;
+
+  @Nullable private String traceIdHex;
+  @Nullable private String spanIdHex;
+
+  /**
+   * Creates a new {@link LongIdSpanContext}. If the base16 representation of the trace identifier
+   * is already known, e.g. because it was computed for the sampler or is shared with the parent, it
+   * can be passed as {@code traceIdHex} to avoid computing it again.
+   */
+  static LongIdSpanContext create(
+      long traceIdHigh,
+      long traceIdLow,
+      @Nullable String traceIdHex,
+      long spanId,
+      byte traceFlags,
+      TraceState traceState) {
+    return new LongIdSpanContext(
+        traceIdHigh, traceIdLow, traceIdHex, spanId, traceFlags, traceState);
+  }
+
+  private LongIdSpanContext(
+      long traceIdHigh,
+      long traceIdLow,
+      @Nullable String traceIdHex,
+      long spanId,
+      byte traceFlags,
+      TraceState traceState) {
+    this.traceIdHigh = traceIdHigh;
+    this.traceIdLow = traceIdLow;
+    this.traceIdHex = traceIdHex;
+    this.spanId = spanId;
+    this.traceFlags = traceFlags;
+    this.traceState = traceState;
+  }
+
+  @Override
+  public String getTraceIdAsHexString() {
+    String traceIdHex = this.traceIdHex;
+    if (traceIdHex == null) {
+      traceIdHex = TraceId.fromLongs(traceIdHigh, traceIdLow);
+      this.traceIdHex = traceIdHex;
+    }
+    return traceIdHex;
+  }
+
+  @Override
+  public byte[] getTraceIdBytes() {
+    return TraceId.bytesFromLongs(traceIdHigh, traceIdLow);
+  }
+
+  @Override
+  public long getTraceIdHighBytesAsLong() {
+    return traceIdHigh;
+  }
+
+  @Override
+  public long getTraceIdLowBytesAsLong() {
+    return traceIdLow;
+  }
+
+  @Override
+  public String getSpanIdAsHexString() {
+    String spanIdHex = this.spanIdHex;
+    if (spanIdHex == null) {
+      spanIdHex = SpanId.fromLong(spanId);
+      this.spanIdHex = spanIdHex;
+    }
+    return spanIdHex;
+  }
+
+  @Override
+  public byte[] getSpanIdBytes() {
+    return SpanId.bytesFromLong(spanId);
+  }
+
+  @Override
+  public long getSpanIdAsLong() {
+    return spanId;
+  }
+
+  @Override
+  public byte getTraceFlags() {
+    return traceFlags;
+  }
+
+  @Override
+  public TraceState getTraceState() {
+    return traceState;
+  }
+
+  @Override
+  public boolean isValid() {
+    return (traceIdHigh != 0 || traceIdLow != 0) && spanId != 0;
+  }
+
+  @Override
+  public boolean isRemote() {
+    return false;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof LongIdSpanContext) {
+      LongIdSpanContext that = (LongIdSpanContext) o;
+      return traceIdHigh == that.traceIdHigh
+          && traceIdLow == that.traceIdLow
+          && spanId == that.spanId
+          && traceFlags == that.traceFlags
+          && traceState.equals(that.traceState);
+    }
+    return SpanContextEquality.equals(this, o);
+  }
+
+  @Override
+  public int hashCode() {
+    return SpanContextEquality.hashCode(this);
+  }
+
+  @Override
+  public String toString() {
+    return "LongIdSpanContext{"
+        + "traceIdAsHexString="
+        + getTraceIdAsHexString()
+        + ", spanIdAsHexString="
+        + getSpanIdAsHexString()
+        + ", traceFlags="
+        + traceFlags
+        + ", traceState="
+        + traceState
+        + ", remote=false}";
+  }
+}
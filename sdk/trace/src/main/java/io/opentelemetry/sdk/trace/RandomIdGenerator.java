@@ -5,34 +5,33 @@
 
 package io.opentelemetry.sdk.trace;
 
-import io.opentelemetry.api.trace.SpanId;
-import io.opentelemetry.api.trace.TraceId;
 import java.util.concurrent.ThreadLocalRandom;
 
-enum RandomIdGenerator implements IdGenerator {
+enum RandomIdGenerator implements LongIdGenerator {
   INSTANCE;
 
   private static final long INVALID_ID = 0;
 
   @Override
-  public String generateSpanId() {
-    long id;
-    ThreadLocalRandom random = ThreadLocalRandom.current();
-    do {
-      id = random.nextLong();
-    } while (id == INVALID_ID);
-    return SpanId.fromLong(id);
+  public long generateSpanIdAsLong() {
+    return nextValidLong(ThreadLocalRandom.current());
+  }
+
+  @Override
+  public long generateTraceIdHighBytesAsLong() {
+    return ThreadLocalRandom.current().nextLong();
   }
 
   @Override
-  public String generateTraceId() {
-    long idHi;
-    long idLo;
-    ThreadLocalRandom random = ThreadLocalRandom.current();
+  public long generateTraceIdLowBytesAsLong() {
+    return nextValidLong(ThreadLocalRandom.current());
+  }
+
+  private static long nextValidLong(ThreadLocalRandom random) {
+    long id;
     do {
-      idHi = random.nextLong();
-      idLo = random.nextLong();
-    } while (idHi == INVALID_ID && idLo == INVALID_ID);
-    return TraceId.fromLongs(idHi, idLo);
+      id = random.nextLong();
+    } while (id == INVALID_ID);
+    return id;
   }
 }
@@ -15,30 +15,48 @@ import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.common.Clock;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.config.EventRetentionPolicy;
 import io.opentelemetry.sdk.trace.config.TraceConfig;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.data.SpanData.Event;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
 
-/** Implementation for the {@link Span} class that records trace events. */
+/**
+ * Implementation for the {@link Span} class that records trace events.
+ *
+ * <p>The name, status and end time of the span live in an immutable {@link State} which is replaced
+ * with a compare-and-set. Attributes and events are mutated in place while holding a spin lock,
+ * which unlike a monitor never inflates or pins a virtual thread, and which {@link #end()} also
+ * holds while installing the ended state: once it is installed no concurrent writer can change the
+ * span anymore.
+ *
+ * <p>As the state of an ended span is frozen, {@link #toSpanData()} builds the {@link SpanData} of
+ * an ended span once and returns the same instance to every caller, e.g. to each span processor and
+ * exporter, instead of taking a new snapshot on every call.
+ */
 @ThreadSafe
 final class RecordEventsReadableSpan implements ReadWriteSpan {
 
   private static final Logger logger = Logger.getLogger(RecordEventsReadableSpan.class.getName());
 
+  private static final AtomicReferenceFieldUpdater<RecordEventsReadableSpan, State> stateUpdater =
+      AtomicReferenceFieldUpdater.newUpdater(RecordEventsReadableSpan.class, State.class, "state");
+
+  private static final AtomicIntegerFieldUpdater<RecordEventsReadableSpan> lockedUpdater =
+      AtomicIntegerFieldUpdater.newUpdater(RecordEventsReadableSpan.class, "locked");
+
   // The config used when constructing this Span.
   private final TraceConfig traceConfig;
   // Contains the identifiers associated with this Span.
@@ -62,31 +80,21 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
   private final InstrumentationLibraryInfo instrumentationLibraryInfo;
   // The start time of the span.
   private final long startEpochNanos;
-  // Lock used to internally guard the mutable state of this instance
-  private final Object lock = new Object();
-
-  @GuardedBy("lock")
-  private String name;
+  // The name, status and end time of the span. Only updated via stateUpdater.
+  private volatile State state;
+  // The SpanData of the ended span, created on the first call to toSpanData() after end. Written
+  // without synchronization: concurrent callers may both create an identical immutable instance.
+  @Nullable private SpanData endedSpanData;
+  // 1 while a thread holds the spin lock guarding the fields below, only updated via lockedUpdater.
+  private volatile int locked;
   // Set of recorded attributes. DO NOT CALL any other method that changes the ordering of events.
-  @GuardedBy("lock")
-  @Nullable
-  private AttributesMap attributes;
-  // List of recorded events.
-  @GuardedBy("lock")
-  private final List<Event> events;
+  @Nullable private AttributesMap attributes;
+  // List of recorded events when the event retention policy is KEEP_FIRST.
+  @Nullable private List<Event> events;
+  // The events retained when the event retention policy is not KEEP_FIRST.
+  @Nullable private EventRingBuffer eventBuffer;
   // Number of events recorded.
-  @GuardedBy("lock")
-  private int totalRecordedEvents = 0;
-  // The status of the span.
-  @GuardedBy("lock")
-  @Nullable
-  private SpanData.Status status = SpanData.Status.unset();
-  // The end time of the span.
-  @GuardedBy("lock")
-  private long endEpochNanos;
-  // True if the span is ended.
-  @GuardedBy("lock")
-  private boolean hasEnded;
+  private int totalRecordedEvents;
 
   private RecordEventsReadableSpan(
       SpanContext context,
@@ -107,16 +115,14 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
     this.parentSpanContext = parentSpanContext;
     this.links = links;
     this.totalRecordedLinks = totalRecordedLinks;
-    this.name = name;
     this.kind = kind;
     this.spanProcessor = spanProcessor;
     this.resource = resource;
-    this.hasEnded = false;
     this.clock = clock;
     this.startEpochNanos = startEpochNanos;
-    this.attributes = attributes;
-    this.events = new ArrayList<>();
     this.traceConfig = traceConfig;
+    this.attributes = attributes;
+    this.state = State.create(name);
   }
 
   /**
@@ -173,27 +179,49 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
 
   @Override
   public SpanData toSpanData() {
-    // Copy within synchronized context
-    synchronized (lock) {
-      return SpanWrapper.create(
-          this,
-          links,
-          getImmutableTimedEvents(),
-          getImmutableAttributes(),
-          (attributes == null) ? 0 : attributes.getTotalAddedValues(),
-          totalRecordedEvents,
-          getSpanDataStatus(),
-          name,
-          endEpochNanos,
-          hasEnded);
+    // A single read of the state gives a consistent snapshot.
+    State state = this.state;
+    if (!state.hasEnded) {
+      return createSpanData(state);
     }
+    SpanData spanData = endedSpanData;
+    if (spanData == null) {
+      spanData = createSpanData(state);
+      endedSpanData = spanData;
+    }
+    return spanData;
+  }
+
+  private SpanData createSpanData(State state) {
+    List<Event> immutableEvents;
+    Attributes immutableAttributes;
+    int totalAttributeCount;
+    int totalRecordedEvents;
+    lock();
+    try {
+      immutableEvents = getImmutableTimedEvents();
+      immutableAttributes = getImmutableAttributes();
+      totalAttributeCount = attributes == null ? 0 : attributes.getTotalAddedValues();
+      totalRecordedEvents = this.totalRecordedEvents;
+    } finally {
+      unlock();
+    }
+    return SpanWrapper.create(
+        this,
+        links,
+        immutableEvents,
+        immutableAttributes,
+        totalAttributeCount,
+        totalRecordedEvents,
+        state.status,
+        state.name,
+        state.endEpochNanos,
+        state.hasEnded);
   }
 
   @Override
   public boolean hasEnded() {
-    synchronized (lock) {
-      return hasEnded;
-    }
+    return state.hasEnded;
   }
 
   @Override
@@ -208,9 +236,7 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
    */
   @Override
   public String getName() {
-    synchronized (lock) {
-      return name;
-    }
+    return state.name;
   }
 
   /**
@@ -233,9 +259,8 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
    */
   @Override
   public long getLatencyNanos() {
-    synchronized (lock) {
-      return (hasEnded ? endEpochNanos : clock.now()) - startEpochNanos;
-    }
+    State state = this.state;
+    return (state.hasEnded ? state.endEpochNanos : clock.now()) - startEpochNanos;
   }
 
   /**
@@ -252,20 +277,21 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
     if (key == null || key.getKey() == null || key.getKey().length() == 0 || value == null) {
       return this;
     }
-    synchronized (lock) {
-      if (hasEnded) {
+    if (traceConfig.shouldTruncateStringAttributeValues()) {
+      value = StringUtils.truncateToSize(key, value, traceConfig.getMaxLengthOfAttributeValues());
+    }
+    lock();
+    try {
+      if (state.hasEnded) {
         logger.log(Level.FINE, "Calling setAttribute() on an ended Span.");
         return this;
       }
       if (attributes == null) {
         attributes = new AttributesMap(traceConfig.getMaxNumberOfAttributes());
       }
-
-      if (traceConfig.shouldTruncateStringAttributeValues()) {
-        value = StringUtils.truncateToSize(key, value, traceConfig.getMaxLengthOfAttributeValues());
-      }
-
       attributes.put(key, value);
+    } finally {
+      unlock();
     }
     return this;
   }
@@ -325,27 +351,41 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
     }
 
     AttributesBuilder result = Attributes.builder();
-    int i = 0;
-    for (Map.Entry<AttributeKey<?>, Object> entry : attributes.asMap().entrySet()) {
-      if (i >= limit) {
-        break;
-      }
-      result.put((AttributeKey) entry.getKey(), entry.getValue());
-      i++;
-    }
+    int[] count = {0};
+    attributes.forEach(
+        (key, value) -> {
+          if (count[0]++ < limit) {
+            result.put((AttributeKey) key, value);
+          }
+        });
     return result.build();
   }
 
   private void addTimedEvent(Event timedEvent) {
-    synchronized (lock) {
-      if (hasEnded) {
+    lock();
+    try {
+      if (state.hasEnded) {
         logger.log(Level.FINE, "Calling addEvent() on an ended Span.");
         return;
       }
-      if (events.size() < traceConfig.getMaxNumberOfEvents()) {
+      int maxNumberOfEvents = traceConfig.getMaxNumberOfEvents();
+      if (traceConfig.getEventRetentionPolicy() != EventRetentionPolicy.KEEP_FIRST) {
+        if (eventBuffer == null) {
+          eventBuffer =
+              EventRingBuffer.create(traceConfig.getEventRetentionPolicy(), maxNumberOfEvents);
+        }
+        eventBuffer.put(totalRecordedEvents, timedEvent);
+      } else if (events == null) {
+        if (maxNumberOfEvents > 0) {
+          events = new ArrayList<>();
+          events.add(timedEvent);
+        }
+      } else if (events.size() < maxNumberOfEvents) {
         events.add(timedEvent);
       }
       totalRecordedEvents++;
+    } finally {
+      unlock();
     }
   }
 
@@ -354,14 +394,17 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
     if (statusCode == null) {
       return this;
     }
-    synchronized (lock) {
-      if (hasEnded) {
+    SpanData.Status status = SpanData.Status.create(statusCode, description);
+    while (true) {
+      State current = state;
+      if (current.hasEnded) {
         logger.log(Level.FINE, "Calling setStatus() on an ended Span.");
         return this;
       }
-      this.status = SpanData.Status.create(statusCode, description);
+      if (compareAndSetState(current, current.withStatus(status))) {
+        return this;
+      }
     }
-    return this;
   }
 
   @Override
@@ -382,19 +425,48 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
     if (exception.getMessage() != null) {
       attributes.put(SemanticAttributes.EXCEPTION_MESSAGE, exception.getMessage());
     }
-    StringWriter writer = new StringWriter();
-    exception.printStackTrace(new PrintWriter(writer));
-    attributes.put(SemanticAttributes.EXCEPTION_STACKTRACE, writer.toString());
+    int maxFrames = traceConfig.getMaxNumberOfStackTraceFrames();
+    boolean deduplicate = traceConfig.shouldDeduplicateStackTraces();
+    // Identifying a stack trace to deduplicate it copies its frames, which is deferred too.
+    boolean renderStackTraceLazily = traceConfig.shouldRenderStackTracesLazily() || deduplicate;
+    if (!renderStackTraceLazily) {
+      attributes.put(
+          SemanticAttributes.EXCEPTION_STACKTRACE,
+          StackTraceRenderer.render(exception, maxFrames, deduplicate));
+    }
 
     if (additionalAttributes != null) {
       attributes.putAll(additionalAttributes);
     }
 
-    addEvent(
-        SemanticAttributes.EXCEPTION_EVENT_NAME,
-        attributes.build(),
-        timestampNanos,
-        TimeUnit.NANOSECONDS);
+    Attributes eventAttributes = attributes.build();
+    // A stack trace in the additional attributes replaces the rendered one, so none is needed.
+    if (!renderStackTraceLazily
+        || eventAttributes.get(SemanticAttributes.EXCEPTION_STACKTRACE) != null) {
+      addEvent(
+          SemanticAttributes.EXCEPTION_EVENT_NAME,
+          eventAttributes,
+          timestampNanos,
+          TimeUnit.NANOSECONDS);
+      return this;
+    }
+
+    // Limits the other attributes up front, as limiting the lazy ones would render the stack trace.
+    int limit = traceConfig.getMaxNumberOfAttributesPerEvent();
+    Attributes limitedAttributes =
+        limit <= 0
+            ? Attributes.empty()
+            : new LazyStackTraceAttributes(
+                copyAndLimitAttributes(eventAttributes, limit - 1),
+                exception,
+                maxFrames,
+                deduplicate);
+    addTimedEvent(
+        Event.create(
+            timestampNanos,
+            SemanticAttributes.EXCEPTION_EVENT_NAME,
+            limitedAttributes,
+            eventAttributes.size() + 1));
     return this;
   }
 
@@ -403,14 +475,16 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
     if (name == null) {
       return this;
     }
-    synchronized (lock) {
-      if (hasEnded) {
+    while (true) {
+      State current = state;
+      if (current.hasEnded) {
         logger.log(Level.FINE, "Calling updateName() on an ended Span.");
         return this;
       }
-      this.name = name;
+      if (compareAndSetState(current, current.withName(name))) {
+        return this;
+      }
     }
-    return this;
   }
 
   @Override
@@ -427,29 +501,60 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
   }
 
   private void endInternal(long endEpochNanos) {
-    synchronized (lock) {
-      if (hasEnded) {
-        logger.log(Level.FINE, "Calling end() on an ended Span.");
-        return;
+    // Holding the lock keeps attributes and events from changing once the span has ended.
+    lock();
+    try {
+      while (true) {
+        State current = state;
+        if (current.hasEnded) {
+          logger.log(Level.FINE, "Calling end() on an ended Span.");
+          return;
+        }
+        if (compareAndSetState(current, current.ended(endEpochNanos))) {
+          break;
+        }
       }
-      this.endEpochNanos = endEpochNanos;
-      hasEnded = true;
+    } finally {
+      unlock();
     }
     spanProcessor.onEnd(this);
   }
 
   @Override
   public boolean isRecording() {
-    synchronized (lock) {
-      return !hasEnded;
+    return !state.hasEnded;
+  }
+
+  private boolean compareAndSetState(State expect, State update) {
+    return stateUpdater.compareAndSet(this, expect, update);
+  }
+
+  private void lock() {
+    while (!lockedUpdater.compareAndSet(this, 0, 1)) {
+      Thread.yield();
     }
   }
 
-  @GuardedBy("lock")
-  private SpanData.Status getSpanDataStatus() {
-    synchronized (lock) {
-      return status;
+  private void unlock() {
+    locked = 0;
+  }
+
+  private List<Event> getImmutableTimedEvents() {
+    if (eventBuffer != null) {
+      return eventBuffer.getEvents(totalRecordedEvents);
     }
+    if (events == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(new ArrayList<>(events));
+  }
+
+  private Attributes getImmutableAttributes() {
+    if (attributes == null || attributes.isEmpty()) {
+      return Attributes.empty();
+    }
+    // Attributes set after the snapshot of a span which has not ended yet must not show in it.
+    return attributes.immutableCopy();
   }
 
   SpanContext getParentSpanContext() {
@@ -473,42 +578,17 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
     return totalRecordedLinks;
   }
 
-  @GuardedBy("lock")
-  private List<Event> getImmutableTimedEvents() {
-    if (events.isEmpty()) {
-      return Collections.emptyList();
-    }
-
-    return Collections.unmodifiableList(new ArrayList<>(events));
-  }
-
-  @GuardedBy("lock")
-  private Attributes getImmutableAttributes() {
-    if (attributes == null || attributes.isEmpty()) {
-      return Attributes.empty();
-    }
-    // if the span has ended, then the attributes are unmodifiable,
-    // so we can return them directly and save copying all the data.
-    if (hasEnded) {
-      return attributes;
-    }
-    // otherwise, make a copy of the data into an immutable container.
-    return attributes.immutableCopy();
-  }
-
   @Override
   public String toString() {
-    String name;
+    State state = this.state;
     String attributes;
-    String status;
-    long totalRecordedEvents;
-    long endEpochNanos;
-    synchronized (lock) {
-      name = this.name;
+    int totalRecordedEvents;
+    lock();
+    try {
       attributes = String.valueOf(this.attributes);
-      status = String.valueOf(this.status);
       totalRecordedEvents = this.totalRecordedEvents;
-      endEpochNanos = this.endEpochNanos;
+    } finally {
+      unlock();
     }
     StringBuilder sb = new StringBuilder();
     sb.append("RecordEventsReadableSpan{traceId=");
@@ -518,13 +598,13 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
     sb.append(", parentSpanContext=");
     sb.append(parentSpanContext);
     sb.append(", name=");
-    sb.append(name);
+    sb.append(state.name);
     sb.append(", kind=");
     sb.append(kind);
     sb.append(", attributes=");
     sb.append(attributes);
     sb.append(", status=");
-    sb.append(status);
+    sb.append(state.status);
     sb.append(", totalRecordedEvents=");
     sb.append(totalRecordedEvents);
     sb.append(", totalRecordedLinks=");
@@ -532,8 +612,44 @@ final class RecordEventsReadableSpan implements ReadWriteSpan {
     sb.append(", startEpochNanos=");
     sb.append(startEpochNanos);
     sb.append(", endEpochNanos=");
-    sb.append(endEpochNanos);
+    sb.append(state.endEpochNanos);
     sb.append("}");
     return sb.toString();
   }
+
+  /**
+   * A snapshot of the name, status and end time of a span, every update of which creates a new
+   * instance.
+   */
+  @Immutable
+  private static final class State {
+    final String name;
+    final SpanData.Status status;
+    final long endEpochNanos;
+    final boolean hasEnded;
+
+    static State create(String name) {
+      return new State(
+          name, SpanData.Status.unset(), /* endEpochNanos= */ 0, /* hasEnded= */ false);
+    }
+
+    private State(String name, SpanData.Status status, long endEpochNanos, boolean hasEnded) {
+      this.name = name;
+      this.status = status;
+      this.endEpochNanos = endEpochNanos;
+      this.hasEnded = hasEnded;
+    }
+
+    State withName(String name) {
+      return new State(name, status, endEpochNanos, hasEnded);
+    }
+
+    State withStatus(SpanData.Status status) {
+      return new State(name, status, endEpochNanos, hasEnded);
+    }
+
+    State ended(long endEpochNanos) {
+      return new State(name, status, endEpochNanos, /* hasEnded= */ true);
+    }
+  }
 }
@@ -18,6 +18,7 @@ import io.opentelemetry.api.trace.Span.Kind;
 import io.opentelemetry.api.trace.SpanBuilder;
 import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceId;
 import io.opentelemetry.api.trace.TraceState;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.common.Clock;
@@ -177,14 +178,33 @@ final class SdkSpanBuilder implements SpanBuilder {
         isRootSpan ? Context.root() : parent == null ? Context.current() : parent;
     final Span parentSpan = Span.fromContext(parentContext);
     final SpanContext parentSpanContext = parentSpan.getSpanContext();
+    LongIdGenerator longIdGenerator =
+        idsGenerator instanceof LongIdGenerator ? (LongIdGenerator) idsGenerator : null;
     String traceId;
-    String spanId = idsGenerator.generateSpanId();
-    if (!parentSpanContext.isValid()) {
-      // New root span.
-      traceId = idsGenerator.generateTraceId();
+    long traceIdHigh = 0;
+    long traceIdLow = 0;
+    // The span id is not needed by the sampler, it is only generated once the span is known to be
+    // needed.
+    if (longIdGenerator != null) {
+      if (!parentSpanContext.isValid()) {
+        // New root span, the base16 trace id is needed by the sampler.
+        traceIdHigh = longIdGenerator.generateTraceIdHighBytesAsLong();
+        traceIdLow = longIdGenerator.generateTraceIdLowBytesAsLong();
+        traceId = TraceId.fromLongs(traceIdHigh, traceIdLow);
+      } else {
+        // New child span.
+        traceIdHigh = parentSpanContext.getTraceIdHighBytesAsLong();
+        traceIdLow = parentSpanContext.getTraceIdLowBytesAsLong();
+        traceId = parentSpanContext.getTraceIdAsHexString();
+      }
     } else {
-      // New child span.
-      traceId = parentSpanContext.getTraceIdAsHexString();
+      if (!parentSpanContext.isValid()) {
+        // New root span.
+        traceId = idsGenerator.generateTraceId();
+      } else {
+        // New child span.
+        traceId = parentSpanContext.getTraceIdAsHexString();
+      }
     }
     List<SpanData.Link> immutableLinks =
         links == null ? Collections.emptyList() : Collections.unmodifiableList(links);
@@ -201,10 +221,25 @@ final class SdkSpanBuilder implements SpanBuilder {
 
     TraceState samplingResultTraceState =
         samplingResult.getUpdatedTraceState(parentSpanContext.getTraceState());
+    byte traceFlags =
+        isSampled(samplingDecision) ? TraceFlags.getSampled() : TraceFlags.getDefault();
     SpanContext spanContext =
-        createSpanContext(traceId, spanId, samplingResultTraceState, isSampled(samplingDecision));
+        longIdGenerator != null
+            ? LongIdSpanContext.create(
+                traceIdHigh,
+                traceIdLow,
+                traceId,
+                longIdGenerator.generateSpanIdAsLong(),
+                traceFlags,
+                samplingResultTraceState)
+            : SpanContext.create(
+                traceId, idsGenerator.generateSpanId(), traceFlags, samplingResultTraceState);
 
     if (!isRecording(samplingDecision)) {
+      // Even under a dropped parent, the span gets its own span id, so that it is never mistaken
+      // for
+      // its parent. With a LongIdGenerator, the id is a random long whose base16 representation is
+      // only computed if the span context is propagated.
       return Span.wrap(spanContext);
     }
     Attributes samplingAttributes = samplingResult.getAttributes();
@@ -237,12 +272,6 @@ final class SdkSpanBuilder implements SpanBuilder {
         startEpochNanos);
   }
 
-  private static SpanContext createSpanContext(
-      String traceId, String spanId, TraceState traceState, boolean isSampled) {
-    byte traceFlags = isSampled ? TraceFlags.getSampled() : TraceFlags.getDefault();
-    return SpanContext.create(traceId, spanId, traceFlags, traceState);
-  }
-
   private static Clock getClock(Span parent, Clock clock) {
     if (parent instanceof RecordEventsReadableSpan) {
       RecordEventsReadableSpan parentRecordEventsSpan = (RecordEventsReadableSpan) parent;
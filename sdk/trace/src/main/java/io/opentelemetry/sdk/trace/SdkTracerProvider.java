@@ -46,9 +46,18 @@ public final class SdkTracerProvider implements TracerProvider, SdkTracerManagem
       IdGenerator idsGenerator,
       Resource resource,
       Supplier<TraceConfig> traceConfigSupplier,
-      List<SpanProcessor> spanProcessors) {
+      List<SpanProcessor> spanProcessors,
+      int processorLatencySamplingInterval,
+      long processorLatencyBudgetNanos) {
     this.sharedState =
-        new TracerSharedState(clock, idsGenerator, resource, traceConfigSupplier, spanProcessors);
+        new TracerSharedState(
+            clock,
+            idsGenerator,
+            resource,
+            traceConfigSupplier,
+            spanProcessors,
+            processorLatencySamplingInterval,
+            processorLatencyBudgetNanos);
     this.tracerSdkComponentRegistry =
         new ComponentRegistry<>(
             instrumentationLibraryInfo -> new SdkTracer(sharedState, instrumentationLibraryInfo));
@@ -5,6 +5,7 @@
 
 package io.opentelemetry.sdk.trace;
 
+import static io.opentelemetry.api.internal.Utils.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import io.opentelemetry.sdk.common.Clock;
@@ -13,6 +14,7 @@ import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.config.TraceConfig;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /** Builder of {@link SdkTracerProvider}. */
@@ -23,6 +25,8 @@ public final class SdkTracerProviderBuilder {
   private IdGenerator idsGenerator = IdGenerator.random();
   private Resource resource = Resource.getDefault();
   private Supplier<TraceConfig> traceConfigSupplier = TraceConfig::getDefault;
+  private int processorLatencySamplingInterval = 0;
+  private long processorLatencyBudgetNanos = 0;
 
   /**
    * Assign a {@link Clock}.
@@ -94,6 +98,39 @@ public final class SdkTracerProviderBuilder {
     return this;
   }
 
+  /**
+   * Measures the time spent in the {@link SpanProcessor#onStart} and {@link SpanProcessor#onEnd}
+   * methods of each span processor, for one call in {@code samplingInterval} chosen at random. The
+   * latencies are recorded in the {@code spanProcessorLatency} metric of the global {@link
+   * io.opentelemetry.api.metrics.MeterProvider}, labeled with the class of the span processor, an
+   * id unique to each span processor ({@code spanProcessorId}) and the method. If unset, or set to
+   * {@code 0}, the latency is not measured.
+   *
+   * @param samplingInterval the number of calls per measured call, {@code 1} to measure all calls.
+   * @return this
+   */
+  public SdkTracerProviderBuilder setSpanProcessorLatencySamplingInterval(int samplingInterval) {
+    checkArgument(samplingInterval >= 0, "samplingInterval must be non-negative");
+    this.processorLatencySamplingInterval = samplingInterval;
+    return this;
+  }
+
+  /**
+   * Sets the time a span processor may spend in {@link SpanProcessor#onStart} or {@link
+   * SpanProcessor#onEnd}. The measured calls taking longer are counted in the {@code
+   * spanProcessorSlowCalls} metric, and the first one of each span processor is logged. Only has an
+   * effect if the latency is measured, see {@link #setSpanProcessorLatencySamplingInterval}. If
+   * unset, or set to {@code 0}, there is no budget.
+   *
+   * @return this
+   */
+  public SdkTracerProviderBuilder setSpanProcessorLatencyBudget(long budget, TimeUnit unit) {
+    requireNonNull(unit, "unit");
+    checkArgument(budget >= 0, "budget must be non-negative");
+    this.processorLatencyBudgetNanos = unit.toNanos(budget);
+    return this;
+  }
+
   /**
    * Create a new TraceSdkProvider instance.
    *
@@ -101,7 +138,13 @@ public final class SdkTracerProviderBuilder {
    */
   public SdkTracerProvider build() {
     return new SdkTracerProvider(
-        clock, idsGenerator, resource, traceConfigSupplier, spanProcessors);
+        clock,
+        idsGenerator,
+        resource,
+        traceConfigSupplier,
+        spanProcessors,
+        processorLatencySamplingInterval,
+        processorLatencyBudgetNanos);
   }
 
   SdkTracerProviderBuilder() {}
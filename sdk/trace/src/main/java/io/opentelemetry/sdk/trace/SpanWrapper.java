@@ -87,6 +87,11 @@ abstract class SpanWrapper implements SpanData {
     return delegate().getSpanContext().getSpanIdAsHexString();
   }
 
+  @Override
+  public SpanContext getSpanContext() {
+    return delegate().getSpanContext();
+  }
+
   @Override
   public boolean isSampled() {
     return delegate().getSpanContext().isSampled();
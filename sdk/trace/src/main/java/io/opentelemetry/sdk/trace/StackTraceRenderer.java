@@ -0,0 +1,222 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import io.opentelemetry.sdk.trace.config.TraceConfig;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders the stack trace of an exception for the {@code exception.stacktrace} attribute, in the
+ * format of {@link Throwable#printStackTrace()}.
+ *
+ * <p>The frames of each exception in the trace may be limited to a maximum number, in which case
+ * the frames beyond the limit are counted in the {@code ... n more} line that ends them, along with
+ * the frames in common with the enclosing trace.
+ *
+ * <p>Renderings may be deduplicated: identical traces, with the same exceptions, messages and
+ * frames, are rendered once and the rendering is shared. Up to {@link #MAX_CACHED_STACK_TRACES}
+ * renderings are kept, the least recently used one being discarded when the limit is reached.
+ * Identifying a trace copies its frames, so deduplicated traces are only rendered lazily, off the
+ * thread recording the exception, and the cache is guarded by a plain lock.
+ */
+final class StackTraceRenderer {
+
+  // Visible for testing
+  static final int MAX_CACHED_STACK_TRACES = 1024;
+
+  private static final String CAUSE_CAPTION = "Caused by: ";
+  private static final String SUPPRESSED_CAPTION = "Suppressed: ";
+
+  private static final Map<StackTraceKey, String> cache =
+      Collections.synchronizedMap(new LruCache());
+
+  /**
+   * Returns the stack trace of the given exception, with at most {@code maxFrames} frames per
+   * exception, or all of them if {@code maxFrames} is {@link
+   * TraceConfig#UNLIMITED_STACK_TRACE_FRAMES}.
+   */
+  static String render(Throwable exception, int maxFrames, boolean deduplicate) {
+    if (!deduplicate) {
+      return render(exception, maxFrames);
+    }
+    StackTraceKey key = new StackTraceKey(exception, maxFrames);
+    String stackTrace = cache.get(key);
+    if (stackTrace == null) {
+      // Rendered without holding the lock, racing threads keep the first rendering.
+      stackTrace = render(exception, maxFrames);
+      String previous = cache.putIfAbsent(key, stackTrace);
+      if (previous != null) {
+        stackTrace = previous;
+      }
+    }
+    return stackTrace;
+  }
+
+  private static String render(Throwable exception, int maxFrames) {
+    StringWriter writer = new StringWriter();
+    PrintWriter printWriter = new PrintWriter(writer);
+    if (maxFrames == TraceConfig.UNLIMITED_STACK_TRACE_FRAMES) {
+      exception.printStackTrace(printWriter);
+    } else {
+      Set<Throwable> seen = newIdentitySet();
+      seen.add(exception);
+      printWriter.println(exception);
+      StackTraceElement[] trace = exception.getStackTrace();
+      printFrames(printWriter, trace, trace.length, 0, maxFrames, "");
+      printEnclosed(printWriter, exception, trace, maxFrames, "", seen);
+    }
+    printWriter.flush();
+    return writer.toString();
+  }
+
+  // Prints the suppressed exceptions and the cause of the given exception.
+  private static void printEnclosed(
+      PrintWriter writer,
+      Throwable exception,
+      StackTraceElement[] trace,
+      int maxFrames,
+      String prefix,
+      Set<Throwable> seen) {
+    for (Throwable suppressed : exception.getSuppressed()) {
+      print(writer, suppressed, trace, maxFrames, SUPPRESSED_CAPTION, prefix + "\t", seen);
+    }
+    Throwable cause = exception.getCause();
+    if (cause != null) {
+      print(writer, cause, trace, maxFrames, CAUSE_CAPTION, prefix, seen);
+    }
+  }
+
+  private static void print(
+      PrintWriter writer,
+      Throwable exception,
+      StackTraceElement[] enclosingTrace,
+      int maxFrames,
+      String caption,
+      String prefix,
+      Set<Throwable> seen) {
+    if (!seen.add(exception)) {
+      writer.println(prefix + caption + "[CIRCULAR REFERENCE: " + exception + "]");
+      return;
+    }
+    StackTraceElement[] trace = exception.getStackTrace();
+    int m = trace.length - 1;
+    int n = enclosingTrace.length - 1;
+    while (m >= 0 && n >= 0 && trace[m].equals(enclosingTrace[n])) {
+      m--;
+      n--;
+    }
+    int framesInCommon = trace.length - 1 - m;
+    writer.println(prefix + caption + exception);
+    printFrames(writer, trace, m + 1, framesInCommon, maxFrames, prefix);
+    printEnclosed(writer, exception, trace, maxFrames, prefix, seen);
+  }
+
+  private static void printFrames(
+      PrintWriter writer,
+      StackTraceElement[] trace,
+      int uniqueFrames,
+      int framesInCommon,
+      int maxFrames,
+      String prefix) {
+    int printed = Math.min(uniqueFrames, maxFrames);
+    for (int i = 0; i < printed; i++) {
+      writer.println(prefix + "\tat " + trace[i]);
+    }
+    int omitted = uniqueFrames - printed + framesInCommon;
+    if (omitted != 0) {
+      writer.println(prefix + "\t... " + omitted + " more");
+    }
+  }
+
+  private static Set<Throwable> newIdentitySet() {
+    return Collections.newSetFromMap(new IdentityHashMap<>());
+  }
+
+  // Visible for testing
+  static void clearCache() {
+    cache.clear();
+  }
+
+  /**
+   * Identifies a rendering by the description and frames of every exception in the trace, which is
+   * all that is rendered, and by the max number of frames.
+   */
+  private static final class StackTraceKey {
+    private final Object[] parts;
+    private final int hashCode;
+
+    private StackTraceKey(Throwable exception, int maxFrames) {
+      List<Object> parts = new ArrayList<>();
+      parts.add(maxFrames);
+      addParts(parts, exception, newIdentitySet());
+      this.parts = parts.toArray();
+      this.hashCode = Arrays.deepHashCode(this.parts);
+    }
+
+    private static void addParts(List<Object> parts, Throwable exception, Set<Throwable> seen) {
+      parts.add(exception.toString());
+      // Whether the exception is rendered in full or as a circular reference.
+      boolean first = seen.add(exception);
+      parts.add(first);
+      if (!first) {
+        return;
+      }
+      parts.add(exception.getStackTrace());
+      Throwable[] suppressed = exception.getSuppressed();
+      parts.add(suppressed.length);
+      for (Throwable throwable : suppressed) {
+        addParts(parts, throwable, seen);
+      }
+      Throwable cause = exception.getCause();
+      parts.add(cause != null);
+      if (cause != null) {
+        addParts(parts, cause, seen);
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof StackTraceKey)) {
+        return false;
+      }
+      StackTraceKey that = (StackTraceKey) o;
+      return hashCode == that.hashCode && Arrays.deepEquals(parts, that.parts);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  // Access ordered, so that the eldest entry is the least recently used one.
+  private static final class LruCache extends LinkedHashMap<StackTraceKey, String> {
+    private static final long serialVersionUID = 1L;
+
+    LruCache() {
+      super(16, 0.75f, /* accessOrder= */ true);
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<StackTraceKey, String> eldest) {
+      return size() > MAX_CACHED_STACK_TRACES;
+    }
+  }
+
+  private StackTraceRenderer() {}
+}
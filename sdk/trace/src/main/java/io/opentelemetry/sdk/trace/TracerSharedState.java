@@ -21,6 +21,9 @@ final class TracerSharedState {
   private final Clock clock;
   private final IdGenerator idGenerator;
   private final Resource resource;
+  // 0 if the latency of the span processors is not measured.
+  private final int processorLatencySamplingInterval;
+  private final long processorLatencyBudgetNanos;
 
   // Reads and writes are atomic for reference variables. Use volatile to ensure that these
   // operations are visible on other CPUs as well.
@@ -39,12 +42,19 @@ final class TracerSharedState {
       IdGenerator idGenerator,
       Resource resource,
       Supplier<TraceConfig> traceConfigSupplier,
-      List<SpanProcessor> spanProcessors) {
+      List<SpanProcessor> spanProcessors,
+      int processorLatencySamplingInterval,
+      long processorLatencyBudgetNanos) {
     this.clock = clock;
     this.idGenerator = idGenerator;
     this.resource = resource;
     this.traceConfigSupplier = traceConfigSupplier;
-    this.registeredSpanProcessors = new ArrayList<>(spanProcessors);
+    this.processorLatencySamplingInterval = processorLatencySamplingInterval;
+    this.processorLatencyBudgetNanos = processorLatencyBudgetNanos;
+    this.registeredSpanProcessors = new ArrayList<>(spanProcessors.size());
+    for (SpanProcessor spanProcessor : spanProcessors) {
+      registeredSpanProcessors.add(instrument(spanProcessor));
+    }
     activeSpanProcessor = SpanProcessor.composite(registeredSpanProcessors);
   }
 
@@ -94,11 +104,20 @@ final class TracerSharedState {
    */
   void addSpanProcessor(SpanProcessor spanProcessor) {
     synchronized (lock) {
-      registeredSpanProcessors.add(spanProcessor);
+      registeredSpanProcessors.add(instrument(spanProcessor));
       activeSpanProcessor = SpanProcessor.composite(registeredSpanProcessors);
     }
   }
 
+  // Each processor is measured on its own, so that a slow one can be told apart from the others.
+  private SpanProcessor instrument(SpanProcessor spanProcessor) {
+    if (processorLatencySamplingInterval == 0) {
+      return spanProcessor;
+    }
+    return InstrumentedSpanProcessor.create(
+        spanProcessor, processorLatencySamplingInterval, processorLatencyBudgetNanos);
+  }
+
   /**
    * Returns {@code true} if tracing is stopped.
    *
@@ -0,0 +1,25 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.config;
+
+/**
+ * Which events a span retains once more than {@link TraceConfig#getMaxNumberOfEvents()} events are
+ * recorded on it. Events that are not retained are still counted in the total number of recorded
+ * events.
+ *
+ * @see TraceConfigBuilder#setEventRetentionPolicy(EventRetentionPolicy)
+ */
+public enum EventRetentionPolicy {
+  /** Retains the first events recorded and drops the later ones. */
+  KEEP_FIRST,
+  /** Retains the latest events recorded and drops the earlier ones. */
+  KEEP_LATEST,
+  /**
+   * Retains the first half of the max number of events, rounded down, as they are recorded and the
+   * latest events in the other half, dropping the ones recorded in between.
+   */
+  KEEP_FIRST_AND_LATEST,
+}
@@ -39,6 +39,14 @@ import javax.annotation.concurrent.Immutable;
  *       link.
  *   <li>{@code otel.config.max.attr.length}: to set the global default max length of string
  *       attribute value in characters.
+ *   <li>{@code otel.config.lazy.stacktrace}: to render the stack trace of recorded exceptions only
+ *       when it is read.
+ *   <li>{@code otel.config.max.stacktrace.frames}: to set the global default max number of frames
+ *       rendered per exception in a stack trace.
+ *   <li>{@code otel.config.dedup.stacktrace}: to share the rendering of identical stack traces.
+ *   <li>{@code otel.config.event.retention}: to set which events are retained once the max number
+ *       of events per {@link Span} is reached, one of {@code keep_first}, {@code keep_latest} or
+ *       {@code keep_first_and_latest}.
  * </ul>
  *
  * <p>For environment variables, {@link TraceConfig} will look for the following names:
@@ -58,6 +66,14 @@ import javax.annotation.concurrent.Immutable;
  *       link.
  *   <li>{@code OTEL_CONFIG_MAX_ATTR_LENGTH}: to set the global default max length of string
  *       attribute value in characters.
+ *   <li>{@code OTEL_CONFIG_LAZY_STACKTRACE}: to render the stack trace of recorded exceptions only
+ *       when it is read.
+ *   <li>{@code OTEL_CONFIG_MAX_STACKTRACE_FRAMES}: to set the global default max number of frames
+ *       rendered per exception in a stack trace.
+ *   <li>{@code OTEL_CONFIG_DEDUP_STACKTRACE}: to share the rendering of identical stack traces.
+ *   <li>{@code OTEL_CONFIG_EVENT_RETENTION}: to set which events are retained once the max number
+ *       of events per {@link Span} is reached, one of {@code keep_first}, {@code keep_latest} or
+ *       {@code keep_first_and_latest}.
  * </ul>
  */
 @AutoValue
@@ -71,6 +87,14 @@ public abstract class TraceConfig {
    */
   public static final int UNLIMITED_ATTRIBUTE_LENGTH = -1;
 
+  /**
+   * Value for the number of stack trace frames which indicates stack traces should not be
+   * truncated.
+   *
+   * @see TraceConfigBuilder#setMaxNumberOfStackTraceFrames(int)
+   */
+  public static final int UNLIMITED_STACK_TRACE_FRAMES = -1;
+
   // These values are the default values for all the global parameters.
   // TODO: decide which default sampler to use
 
@@ -97,7 +121,11 @@ public abstract class TraceConfig {
       int maxNumLinks,
       int maxNumAttributesPerEvent,
       int maxNumAttributesPerLink,
-      int maxAttributeLength) {
+      int maxAttributeLength,
+      boolean renderStackTracesLazily,
+      int maxNumStackTraceFrames,
+      boolean deduplicateStackTraces,
+      EventRetentionPolicy eventRetentionPolicy) {
     return new AutoValue_TraceConfig(
         sampler,
         maxNumAttributes,
@@ -105,7 +133,11 @@ public abstract class TraceConfig {
         maxNumLinks,
         maxNumAttributesPerEvent,
         maxNumAttributesPerLink,
-        maxAttributeLength);
+        maxAttributeLength,
+        renderStackTracesLazily,
+        maxNumStackTraceFrames,
+        deduplicateStackTraces,
+        eventRetentionPolicy);
   }
 
   /**
@@ -162,6 +194,38 @@ public abstract class TraceConfig {
     return getMaxLengthOfAttributeValues() != UNLIMITED_ATTRIBUTE_LENGTH;
   }
 
+  /**
+   * Returns whether the stack trace of an exception recorded on a {@link Span} is rendered only
+   * when the {@code exception.stacktrace} attribute is read, usually by an exporter, instead of
+   * when the exception is recorded.
+   *
+   * @return whether stack traces are rendered lazily.
+   */
+  public abstract boolean shouldRenderStackTracesLazily();
+
+  /**
+   * Returns the global default max number of frames rendered for each exception of a stack trace,
+   * or {@link #UNLIMITED_STACK_TRACE_FRAMES}.
+   *
+   * @return the global default max number of frames rendered for each exception of a stack trace.
+   */
+  public abstract int getMaxNumberOfStackTraceFrames();
+
+  /**
+   * Returns whether identical stack traces are rendered once and the rendering shared between the
+   * events of all spans.
+   *
+   * @return whether identical stack traces are deduplicated.
+   */
+  public abstract boolean shouldDeduplicateStackTraces();
+
+  /**
+   * Returns which events a {@link Span} retains once the max number of events is reached.
+   *
+   * @return the policy retaining the events of a {@link Span}.
+   */
+  public abstract EventRetentionPolicy getEventRetentionPolicy();
+
   /**
    * Returns a {@link TraceConfigBuilder} initialized to the same property values as the current
    * instance.
@@ -177,6 +241,10 @@ public abstract class TraceConfig {
         .setMaxNumberOfLinks(getMaxNumberOfLinks())
         .setMaxNumberOfAttributesPerEvent(getMaxNumberOfAttributesPerEvent())
         .setMaxNumberOfAttributesPerLink(getMaxNumberOfAttributesPerLink())
-        .setMaxLengthOfAttributeValues(getMaxLengthOfAttributeValues());
+        .setMaxLengthOfAttributeValues(getMaxLengthOfAttributeValues())
+        .setRenderStackTracesLazily(shouldRenderStackTracesLazily())
+        .setMaxNumberOfStackTraceFrames(getMaxNumberOfStackTraceFrames())
+        .setDeduplicateStackTraces(shouldDeduplicateStackTraces())
+        .setEventRetentionPolicy(getEventRetentionPolicy());
   }
 }
@@ -10,6 +10,7 @@ import static java.util.Objects.requireNonNull;
 import io.opentelemetry.api.internal.Utils;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 
@@ -24,6 +25,10 @@ public final class TraceConfigBuilder
   private static final String KEY_SPAN_MAX_NUM_ATTRIBUTES_PER_EVENT = "otel.config.max.event.attrs";
   private static final String KEY_SPAN_MAX_NUM_ATTRIBUTES_PER_LINK = "otel.config.max.link.attrs";
   private static final String KEY_SPAN_ATTRIBUTE_MAX_VALUE_LENGTH = "otel.config.max.attr.length";
+  private static final String KEY_LAZY_STACK_TRACE = "otel.config.lazy.stacktrace";
+  private static final String KEY_MAX_STACK_TRACE_FRAMES = "otel.config.max.stacktrace.frames";
+  private static final String KEY_DEDUPLICATE_STACK_TRACE = "otel.config.dedup.stacktrace";
+  private static final String KEY_SPAN_EVENT_RETENTION = "otel.config.event.retention";
 
   private static final Sampler DEFAULT_SAMPLER = Sampler.parentBased(Sampler.alwaysOn());
   private static final int DEFAULT_SPAN_MAX_NUM_ATTRIBUTES = 1000;
@@ -32,6 +37,12 @@ public final class TraceConfigBuilder
   private static final int DEFAULT_SPAN_MAX_NUM_ATTRIBUTES_PER_EVENT = 32;
   private static final int DEFAULT_SPAN_MAX_NUM_ATTRIBUTES_PER_LINK = 32;
   private static final int DEFAULT_MAX_ATTRIBUTE_LENGTH = TraceConfig.UNLIMITED_ATTRIBUTE_LENGTH;
+  private static final boolean DEFAULT_LAZY_STACK_TRACE = false;
+  private static final int DEFAULT_MAX_STACK_TRACE_FRAMES =
+      TraceConfig.UNLIMITED_STACK_TRACE_FRAMES;
+  private static final boolean DEFAULT_DEDUPLICATE_STACK_TRACE = false;
+  private static final EventRetentionPolicy DEFAULT_EVENT_RETENTION_POLICY =
+      EventRetentionPolicy.KEEP_FIRST;
 
   private Sampler sampler = DEFAULT_SAMPLER;
   private int maxNumAttributes = DEFAULT_SPAN_MAX_NUM_ATTRIBUTES;
@@ -40,6 +51,10 @@ public final class TraceConfigBuilder
   private int maxNumAttributesPerEvent = DEFAULT_SPAN_MAX_NUM_ATTRIBUTES_PER_EVENT;
   private int maxNumAttributesPerLink = DEFAULT_SPAN_MAX_NUM_ATTRIBUTES_PER_LINK;
   private int maxAttributeLength = DEFAULT_MAX_ATTRIBUTE_LENGTH;
+  private boolean renderStackTracesLazily = DEFAULT_LAZY_STACK_TRACE;
+  private int maxNumStackTraceFrames = DEFAULT_MAX_STACK_TRACE_FRAMES;
+  private boolean deduplicateStackTraces = DEFAULT_DEDUPLICATE_STACK_TRACE;
+  private EventRetentionPolicy eventRetentionPolicy = DEFAULT_EVENT_RETENTION_POLICY;
 
   TraceConfigBuilder() {}
 
@@ -82,6 +97,23 @@ public final class TraceConfigBuilder
     if (intValue != null) {
       this.setMaxLengthOfAttributeValues(intValue);
     }
+    Boolean boolValue = getBooleanProperty(KEY_LAZY_STACK_TRACE, configMap);
+    if (boolValue != null) {
+      this.setRenderStackTracesLazily(boolValue);
+    }
+    intValue = getIntProperty(KEY_MAX_STACK_TRACE_FRAMES, configMap);
+    if (intValue != null) {
+      this.setMaxNumberOfStackTraceFrames(intValue);
+    }
+    boolValue = getBooleanProperty(KEY_DEDUPLICATE_STACK_TRACE, configMap);
+    if (boolValue != null) {
+      this.setDeduplicateStackTraces(boolValue);
+    }
+    String stringValue = getStringProperty(KEY_SPAN_EVENT_RETENTION, configMap);
+    if (stringValue != null) {
+      this.setEventRetentionPolicy(
+          EventRetentionPolicy.valueOf(stringValue.toUpperCase(Locale.ROOT)));
+    }
     return this;
   }
 
@@ -233,6 +265,76 @@ public final class TraceConfigBuilder
     return this;
   }
 
+  /**
+   * Sets whether the stack trace of an exception recorded on a {@link Span} is rendered only when
+   * the {@code exception.stacktrace} attribute is read, usually by an exporter on its own thread,
+   * instead of on the thread recording the exception.
+   *
+   * <p>The event then keeps a reference to the exception until it is exported, and the rendered
+   * stack trace reflects the exception when it is read, e.g., including exceptions suppressed after
+   * it was recorded. The attributes of such an event are only equal to other {@link
+   * io.opentelemetry.api.common.Attributes} when compared from the event side.
+   *
+   * @param renderStackTracesLazily whether stack traces are rendered lazily. Defaults to {@code
+   *     false}.
+   * @return this.
+   */
+  public TraceConfigBuilder setRenderStackTracesLazily(boolean renderStackTracesLazily) {
+    this.renderStackTracesLazily = renderStackTracesLazily;
+    return this;
+  }
+
+  /**
+   * Sets the global default max number of frames rendered for each exception of a stack trace, the
+   * exception itself and each of its causes and suppressed exceptions. Frames beyond the limit are
+   * counted in the {@code ... n more} line that ends the frames of each exception.
+   *
+   * @param maxNumberOfStackTraceFrames the global default max number of frames rendered for each
+   *     exception. It must be positive (or {@link TraceConfig#UNLIMITED_STACK_TRACE_FRAMES})
+   *     otherwise {@link #build()} will throw an exception.
+   * @return this.
+   */
+  public TraceConfigBuilder setMaxNumberOfStackTraceFrames(int maxNumberOfStackTraceFrames) {
+    Utils.checkArgument(
+        maxNumberOfStackTraceFrames == -1 || maxNumberOfStackTraceFrames > 0,
+        "maxNumberOfStackTraceFrames must be -1 to "
+            + "disable truncation, or positive to enable truncation");
+    this.maxNumStackTraceFrames = maxNumberOfStackTraceFrames;
+    return this;
+  }
+
+  /**
+   * Sets whether identical stack traces are rendered once, with the rendering shared between the
+   * events of all spans, which avoids rendering and retaining the same string over and over when
+   * the same error occurs repeatedly. A bounded number of renderings is kept. As identifying a
+   * stack trace copies its frames, deduplicated stack traces are rendered lazily, as with {@link
+   * #setRenderStackTracesLazily(boolean)}.
+   *
+   * @param deduplicateStackTraces whether identical stack traces are deduplicated. Defaults to
+   *     {@code false}.
+   * @return this.
+   */
+  public TraceConfigBuilder setDeduplicateStackTraces(boolean deduplicateStackTraces) {
+    this.deduplicateStackTraces = deduplicateStackTraces;
+    return this;
+  }
+
+  /**
+   * Sets which events a {@link Span} retains once the max number of events is reached. With {@link
+   * EventRetentionPolicy#KEEP_LATEST} and {@link EventRetentionPolicy#KEEP_FIRST_AND_LATEST}, a
+   * span recording events preallocates room for the max number of events when the first event is
+   * recorded, and the latest events overwrite the oldest ones in place.
+   *
+   * @param eventRetentionPolicy the policy retaining the events of a {@link Span}. Defaults to
+   *     {@link EventRetentionPolicy#KEEP_FIRST}.
+   * @return this.
+   */
+  public TraceConfigBuilder setEventRetentionPolicy(EventRetentionPolicy eventRetentionPolicy) {
+    requireNonNull(eventRetentionPolicy, "eventRetentionPolicy");
+    this.eventRetentionPolicy = eventRetentionPolicy;
+    return this;
+  }
+
   /**
    * Builds and returns a {@code TraceConfig} with the desired values.
    *
@@ -247,6 +349,10 @@ public final class TraceConfigBuilder
         maxNumLinks,
         maxNumAttributesPerEvent,
         maxNumAttributesPerLink,
-        maxAttributeLength);
+        maxAttributeLength,
+        renderStackTracesLazily,
+        maxNumStackTraceFrames,
+        deduplicateStackTraces,
+        eventRetentionPolicy);
   }
 }
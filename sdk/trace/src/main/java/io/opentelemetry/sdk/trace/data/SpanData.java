@@ -10,6 +10,7 @@ import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Span.Kind;
 import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
 import io.opentelemetry.api.trace.TraceState;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.resources.Resource;
@@ -42,6 +43,21 @@ public interface SpanData {
   /** Whether the 'sampled' option set on this span. */
   boolean isSampled();
 
+  /**
+   * Returns the {@link SpanContext} of this span. Exporters that need the binary representation of
+   * the identifiers should prefer reading them from the {@link SpanContext} over parsing {@link
+   * #getTraceId()} and {@link #getSpanId()}, as the SDK may keep them in binary form.
+   *
+   * @return the {@code SpanContext} of this span.
+   */
+  default SpanContext getSpanContext() {
+    return SpanContext.create(
+        getTraceId(),
+        getSpanId(),
+        isSampled() ? TraceFlags.getSampled() : TraceFlags.getDefault(),
+        getTraceState());
+  }
+
   /**
    * Gets the {@code TraceState} for this span.
    *
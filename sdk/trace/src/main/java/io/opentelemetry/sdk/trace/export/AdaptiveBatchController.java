@@ -0,0 +1,118 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.export;
+
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Chooses the export batch size and schedule delay of a {@link BatchSpanProcessor} worker within
+ * configured bounds, from the latency and failures of recent exports and how full the queue is.
+ *
+ * <ul>
+ *   <li>While the exporter fails, batches are halved and the delay doubled to back off.
+ *   <li>While the queue is more than half full, batches are doubled to export more spans per call,
+ *       and the delay halved.
+ *   <li>While the queue is nearly empty, batches shrink and the delay is halved, so that spans are
+ *       exported promptly.
+ *   <li>While exports take longer than the delay, the delay is doubled, so that fewer, larger
+ *       batches are sent to a slow exporter.
+ * </ul>
+ *
+ * <p>{@link #update(double)} is called by the worker after each export, {@link #recordExport(long,
+ * boolean)} when an export completes, possibly on another thread.
+ */
+final class AdaptiveBatchController {
+
+  // Weight of the latest export in the moving averages.
+  private static final double SMOOTHING = 0.3;
+  private static final double MAX_FAILURE_RATE = 0.5;
+  private static final double HIGH_FILL_RATIO = 0.5;
+  private static final double LOW_FILL_RATIO = 0.1;
+
+  private final int minBatchSize;
+  private final int maxBatchSize;
+  private final long minScheduleDelayNanos;
+  private final long maxScheduleDelayNanos;
+
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private double latencyNanos = -1;
+
+  @GuardedBy("lock")
+  private double failureRate;
+
+  private volatile int batchSize;
+  private volatile long scheduleDelayNanos;
+
+  AdaptiveBatchController(
+      int minBatchSize, int maxBatchSize, long minScheduleDelayNanos, long maxScheduleDelayNanos) {
+    this.minBatchSize = Math.min(minBatchSize, maxBatchSize);
+    this.maxBatchSize = maxBatchSize;
+    this.minScheduleDelayNanos = Math.min(minScheduleDelayNanos, maxScheduleDelayNanos);
+    this.maxScheduleDelayNanos = maxScheduleDelayNanos;
+    // Start with the static configuration.
+    this.batchSize = maxBatchSize;
+    this.scheduleDelayNanos = maxScheduleDelayNanos;
+  }
+
+  /** Records the outcome of an export. */
+  void recordExport(long latencyNanos, boolean success) {
+    synchronized (lock) {
+      this.latencyNanos =
+          this.latencyNanos < 0
+              ? latencyNanos
+              : SMOOTHING * latencyNanos + (1 - SMOOTHING) * this.latencyNanos;
+      failureRate = SMOOTHING * (success ? 0 : 1) + (1 - SMOOTHING) * failureRate;
+    }
+  }
+
+  /** Adjusts the batch size and schedule delay given the current fill ratio of the queue. */
+  void update(double queueFillRatio) {
+    double latencyNanos;
+    double failureRate;
+    synchronized (lock) {
+      latencyNanos = this.latencyNanos;
+      failureRate = this.failureRate;
+    }
+    long batchSize = this.batchSize;
+    long scheduleDelayNanos = this.scheduleDelayNanos;
+    if (failureRate > MAX_FAILURE_RATE) {
+      batchSize /= 2;
+      scheduleDelayNanos *= 2;
+    } else if (queueFillRatio >= HIGH_FILL_RATIO) {
+      batchSize *= 2;
+      scheduleDelayNanos /= 2;
+    } else {
+      if (queueFillRatio <= LOW_FILL_RATIO) {
+        batchSize -= batchSize / 4;
+      }
+      if (latencyNanos > scheduleDelayNanos) {
+        scheduleDelayNanos *= 2;
+      } else if (queueFillRatio <= LOW_FILL_RATIO) {
+        scheduleDelayNanos /= 2;
+      }
+    }
+    this.batchSize = (int) clamp(batchSize, minBatchSize, maxBatchSize);
+    // A zero delay would never grow again.
+    this.scheduleDelayNanos =
+        clamp(Math.max(scheduleDelayNanos, 1), minScheduleDelayNanos, maxScheduleDelayNanos);
+  }
+
+  /** Returns the current export batch size. */
+  int getBatchSize() {
+    return batchSize;
+  }
+
+  /** Returns the current delay between two consecutive exports. */
+  long getScheduleDelayNanos() {
+    return scheduleDelayNanos;
+  }
+
+  private static long clamp(long value, long min, long max) {
+    return Math.max(min, Math.min(max, value));
+  }
+}
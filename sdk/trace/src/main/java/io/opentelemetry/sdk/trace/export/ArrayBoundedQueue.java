@@ -0,0 +1,27 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.export;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link BoundedQueue} guarded by the single lock of an {@link ArrayBlockingQueue}. Unlike the
+ * {@link MpscArrayQueue}, any thread may poll it.
+ */
+final class ArrayBoundedQueue<E> extends ArrayBlockingQueue<E> implements BoundedQueue<E> {
+
+  private static final long serialVersionUID = 0L;
+
+  ArrayBoundedQueue(int capacity) {
+    super(capacity);
+  }
+
+  @Override
+  public boolean offer(E e, long timeoutNanos) throws InterruptedException {
+    return offer(e, timeoutNanos, TimeUnit.NANOSECONDS);
+  }
+}
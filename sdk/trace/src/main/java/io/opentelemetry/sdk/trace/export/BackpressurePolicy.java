@@ -0,0 +1,34 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.export;
+
+/**
+ * What a {@link BatchSpanProcessor} does with a span that ends while its queue is full.
+ *
+ * @see BatchSpanProcessorBuilder#setBackpressurePolicy(BackpressurePolicy)
+ */
+public enum BackpressurePolicy {
+  /** Drops the span that just ended. */
+  DROP_NEWEST,
+  /**
+   * Drops the oldest queued span to make room for the span that just ended. If spans ended by other
+   * threads take that room first, drops the span that just ended.
+   */
+  DROP_OLDEST,
+  /**
+   * Blocks the thread ending the span until there is room in the queue, and drops the span if there
+   * is still no room after the configured block timeout.
+   *
+   * @see BatchSpanProcessorBuilder#setBlockTimeout(long, java.util.concurrent.TimeUnit)
+   */
+  BLOCK,
+  /**
+   * Drops the oldest queued span that is not sampled or does not have an error status to make room
+   * for a sampled span with an error status. Other spans are dropped when the queue is full, as
+   * with {@link #DROP_NEWEST}.
+   */
+  PRIORITY,
+}
@@ -10,21 +10,31 @@ import io.opentelemetry.api.metrics.GlobalMetricsProvider;
 import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.LongCounter.BoundLongCounter;
 import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.internal.DaemonThreadFactory;
 import io.opentelemetry.sdk.trace.ReadWriteSpan;
 import io.opentelemetry.sdk.trace.ReadableSpan;
 import io.opentelemetry.sdk.trace.SpanProcessor;
 import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * Implementation of the {@link SpanProcessor} that batches spans exported by the SDK then pushes
@@ -35,8 +45,36 @@ import java.util.logging.Logger;
  * when there are {@code maxExportBatchSize} pending spans or {@code scheduleDelayNanos} has passed
  * since the last export finished.
  *
- * <p>This batch {@link SpanProcessor} can cause high contention in a very high traffic service.
- * TODO: Add a link to the SpanProcessor that uses Disruptor as alternative with low contention.
+ * <p>By default the queue is an {@link ArrayBlockingQueue}, whose single lock can cause high
+ * contention in a very high traffic service. {@link
+ * BatchSpanProcessorBuilder#setUseLockFreeQueue(boolean)} replaces it with a lock-free
+ * multi-producer/single-consumer queue. In both cases the worker thread sleeps until a full batch
+ * is queued, the schedule delay has passed or a flush is requested, instead of polling the queue.
+ *
+ * <p>A single worker thread converts, batches and exports all the spans. When that is not enough,
+ * {@link BatchSpanProcessorBuilder#setNumberOfShards(int)} splits the processor into independent
+ * shards, each with its own queue and worker thread exporting to the same {@link SpanExporter}.
+ * Spans are assigned to a shard by the thread ending them or, with {@link
+ * BatchSpanProcessorBuilder#setShardByTraceId(boolean)}, by their trace id.
+ *
+ * <p>The queue is limited by number of spans. {@link
+ * BatchSpanProcessorBuilder#setMaxQueueBytes(long)} additionally limits it by the estimated heap
+ * retained by the queued spans, so that a burst of spans with large attributes or many events is
+ * dropped before it causes memory pressure, while small spans can still use the full queue.
+ *
+ * <p>When the queue is full, spans are dropped according to the {@link BackpressurePolicy} set with
+ * {@link BatchSpanProcessorBuilder#setBackpressurePolicy(BackpressurePolicy)}. The {@link
+ * BackpressurePolicy#DROP_OLDEST} and {@link BackpressurePolicy#PRIORITY} policies remove queued
+ * spans from the threads ending spans, so they cannot be used with the lock-free queue. With {@link
+ * BackpressurePolicy#PRIORITY}, whether a span has priority is decided once as it ends, and
+ * priority spans are queued separately from the other spans, so that the oldest span without
+ * priority is removed in constant time.
+ *
+ * <p>With {@link BatchSpanProcessorBuilder#setAdaptiveBatching(boolean)}, the batch size and
+ * schedule delay are adjusted after each scheduled export, between the configured minimums and
+ * {@code maxExportBatchSize} and {@code scheduleDelayNanos}: batches grow while the queue fills up
+ * and shrink when it is nearly empty so that spans are exported promptly, while a failing or slow
+ * exporter makes the processor back off.
  *
  * <p>Configuration options for {@link BatchSpanProcessor} can be read from system properties,
  * environment variables, or {@link java.util.Properties} objects.
@@ -50,6 +88,20 @@ import java.util.logging.Logger;
  *   <li>{@code otel.bsp.max.export.batch}: sets the maximum batch size.
  *   <li>{@code otel.bsp.export.timeout}: sets the maximum allowed time to export data.
  *   <li>{@code otel.bsp.export.sampled}: sets whether only sampled spans should be exported.
+ *   <li>{@code otel.bsp.lock.free.queue}: sets whether spans are queued in a lock-free queue.
+ *   <li>{@code otel.bsp.max.concurrent.exports}: sets the maximum number of batches exported
+ *       concurrently.
+ *   <li>{@code otel.bsp.shards}: sets the number of shards.
+ *   <li>{@code otel.bsp.max.queue.bytes}: sets the maximum estimated size of the queued spans.
+ *   <li>{@code otel.bsp.backpressure.policy}: sets the policy applied when the queue is full, one
+ *       of {@code drop_newest}, {@code drop_oldest}, {@code block} or {@code priority}.
+ *   <li>{@code otel.bsp.block.timeout.millis}: sets the maximum time a thread ending a span is
+ *       blocked with the {@code block} policy.
+ *   <li>{@code otel.bsp.adaptive}: sets whether the batch size and schedule delay are adjusted
+ *       automatically.
+ *   <li>{@code otel.bsp.min.export.batch.size}: sets the minimum batch size in adaptive mode.
+ *   <li>{@code otel.bsp.min.schedule.delay.millis}: sets the minimum schedule delay in adaptive
+ *       mode.
  * </ul>
  *
  * <p>For environment variables, {@link BatchSpanProcessor} will look for the following names:
@@ -60,6 +112,20 @@ import java.util.logging.Logger;
  *   <li>{@code OTEL_BSP_MAX_EXPORT_BATCH}: sets the maximum batch size.
  *   <li>{@code OTEL_BSP_EXPORT_TIMEOUT}: sets the maximum allowed time to export data.
  *   <li>{@code OTEL_BSP_EXPORT_SAMPLED}: sets whether only sampled spans should be exported.
+ *   <li>{@code OTEL_BSP_LOCK_FREE_QUEUE}: sets whether spans are queued in a lock-free queue.
+ *   <li>{@code OTEL_BSP_MAX_CONCURRENT_EXPORTS}: sets the maximum number of batches exported
+ *       concurrently.
+ *   <li>{@code OTEL_BSP_SHARDS}: sets the number of shards.
+ *   <li>{@code OTEL_BSP_MAX_QUEUE_BYTES}: sets the maximum estimated size of the queued spans.
+ *   <li>{@code OTEL_BSP_BACKPRESSURE_POLICY}: sets the policy applied when the queue is full, one
+ *       of {@code drop_newest}, {@code drop_oldest}, {@code block} or {@code priority}.
+ *   <li>{@code OTEL_BSP_BLOCK_TIMEOUT_MILLIS}: sets the maximum time a thread ending a span is
+ *       blocked with the {@code block} policy.
+ *   <li>{@code OTEL_BSP_ADAPTIVE}: sets whether the batch size and schedule delay are adjusted
+ *       automatically.
+ *   <li>{@code OTEL_BSP_MIN_EXPORT_BATCH_SIZE}: sets the minimum batch size in adaptive mode.
+ *   <li>{@code OTEL_BSP_MIN_SCHEDULE_DELAY_MILLIS}: sets the minimum schedule delay in adaptive
+ *       mode.
  * </ul>
  */
 public final class BatchSpanProcessor implements SpanProcessor {
@@ -69,7 +135,19 @@ public final class BatchSpanProcessor implements SpanProcessor {
   private static final String SPAN_PROCESSOR_TYPE_LABEL = "spanProcessorType";
   private static final String SPAN_PROCESSOR_TYPE_VALUE = BatchSpanProcessor.class.getSimpleName();
 
-  private final Worker worker;
+  private static final String SHARD_LABEL = "shard";
+  private static final String BACKPRESSURE_POLICY_LABEL = "backpressurePolicy";
+  private static final String DROP_REASON_LABEL = "dropReason";
+  // Spans dropped because the queue is full, by the backpressure policy.
+  private static final String QUEUE_FULL = "queueFull";
+  // Spans dropped because they do not fit in the memory budget.
+  private static final String MAX_QUEUE_BYTES = "maxQueueBytes";
+
+  private static final Logger logger = Logger.getLogger(BatchSpanProcessor.class.getName());
+
+  private final SpanExporter spanExporter;
+  private final Worker[] workers;
+  private final boolean shardByTraceId;
   private final boolean sampled;
   private final AtomicBoolean isShutdown = new AtomicBoolean(false);
 
@@ -89,18 +167,153 @@ public final class BatchSpanProcessor implements SpanProcessor {
       boolean sampled,
       long scheduleDelayNanos,
       int maxQueueSize,
+      long maxQueueBytes,
       int maxExportBatchSize,
-      long exporterTimeoutNanos) {
-    this.worker =
-        new Worker(
-            spanExporter,
-            scheduleDelayNanos,
-            maxExportBatchSize,
-            exporterTimeoutNanos,
-            new ArrayBlockingQueue<>(maxQueueSize));
-    Thread workerThread = new DaemonThreadFactory(WORKER_THREAD_NAME).newThread(worker);
-    workerThread.start();
+      long exporterTimeoutNanos,
+      boolean useLockFreeQueue,
+      int maxConcurrentExports,
+      int numberOfShards,
+      boolean shardByTraceId,
+      BackpressurePolicy backpressurePolicy,
+      long blockTimeoutNanos,
+      boolean adaptiveBatching,
+      int minExportBatchSize,
+      long minScheduleDelayNanos) {
+    this.spanExporter = spanExporter;
+    this.workers = new Worker[numberOfShards];
+    this.shardByTraceId = shardByTraceId;
     this.sampled = sampled;
+    // The queue capacity is split between the shards.
+    int shardQueueSize = (maxQueueSize + numberOfShards - 1) / numberOfShards;
+    long shardQueueBytes = (maxQueueBytes + numberOfShards - 1) / numberOfShards;
+
+    Meter meter = GlobalMetricsProvider.getMeter("io.opentelemetry.sdk.trace");
+    LongCounter processedSpansCounter =
+        meter
+            .longCounterBuilder("processedSpans")
+            .setUnit("1")
+            .setDescription(
+                "The number of spans processed by the BatchSpanProcessor. "
+                    + "[dropped=true if they were dropped due to high throughput, with "
+                    + "dropReason=queueFull if the queue was full or dropReason=maxQueueBytes if "
+                    + "they did not fit in the memory budget]")
+            .build();
+    // Without a memory budget the size of the spans is not estimated, so there is nothing to
+    // report.
+    LongCounter droppedBytesCounter =
+        maxQueueBytes > 0
+            ? meter
+                .longCounterBuilder("droppedBytes")
+                .setUnit("By")
+                .setDescription("The estimated size of the spans dropped by the BatchSpanProcessor")
+                .build()
+            : null;
+    Labels[] shardLabels = new Labels[numberOfShards];
+    AdaptiveBatchController[] batchControllers =
+        adaptiveBatching ? new AdaptiveBatchController[numberOfShards] : null;
+    DaemonThreadFactory threadFactory = new DaemonThreadFactory(WORKER_THREAD_NAME);
+    for (int i = 0; i < numberOfShards; i++) {
+      // Without sharding, keep the labels of the unsharded processor.
+      shardLabels[i] =
+          numberOfShards == 1
+              ? Labels.of(SPAN_PROCESSOR_TYPE_LABEL, SPAN_PROCESSOR_TYPE_VALUE)
+              : Labels.of(
+                  SPAN_PROCESSOR_TYPE_LABEL,
+                  SPAN_PROCESSOR_TYPE_VALUE,
+                  SHARD_LABEL,
+                  String.valueOf(i));
+      Labels overBudgetLabels =
+          shardLabels[i].toBuilder()
+              .put("dropped", "true")
+              .put(DROP_REASON_LABEL, MAX_QUEUE_BYTES)
+              .build();
+      Labels queueFullLabels =
+          shardLabels[i].toBuilder()
+              .put("dropped", "true")
+              .put(DROP_REASON_LABEL, QUEUE_FULL)
+              .put(BACKPRESSURE_POLICY_LABEL, backpressurePolicy.name().toLowerCase(Locale.ROOT))
+              .build();
+      if (batchControllers != null) {
+        batchControllers[i] =
+            new AdaptiveBatchController(
+                minExportBatchSize, maxExportBatchSize, minScheduleDelayNanos, scheduleDelayNanos);
+      }
+      workers[i] =
+          new Worker(
+              spanExporter,
+              scheduleDelayNanos,
+              maxExportBatchSize,
+              exporterTimeoutNanos,
+              maxConcurrentExports,
+              batchControllers == null ? null : batchControllers[i],
+              useLockFreeQueue
+                  ? new MpscArrayQueue<>(shardQueueSize)
+                  : new ArrayBoundedQueue<>(shardQueueSize),
+              backpressurePolicy == BackpressurePolicy.PRIORITY
+                  ? new ArrayBoundedQueue<>(shardQueueSize)
+                  : null,
+              shardQueueSize,
+              shardQueueBytes,
+              backpressurePolicy,
+              blockTimeoutNanos,
+              processedSpansCounter.bind(overBudgetLabels),
+              processedSpansCounter.bind(queueFullLabels),
+              processedSpansCounter.bind(
+                  shardLabels[i].toBuilder().put("dropped", "false").build()),
+              droppedBytesCounter == null ? null : droppedBytesCounter.bind(overBudgetLabels),
+              droppedBytesCounter == null ? null : droppedBytesCounter.bind(queueFullLabels));
+      threadFactory.newThread(workers[i]).start();
+    }
+    meter
+        .longValueObserverBuilder("queueSize")
+        .setDescription("The number of spans queued")
+        .setUnit("1")
+        .setUpdater(
+            result -> {
+              for (int i = 0; i < workers.length; i++) {
+                result.observe(workers[i].queueSize(), shardLabels[i]);
+              }
+            })
+        .build();
+    if (maxQueueBytes > 0) {
+      meter
+          .longValueObserverBuilder("queuedBytes")
+          .setDescription("The estimated size of the spans queued")
+          .setUnit("By")
+          .setUpdater(
+              result -> {
+                for (int i = 0; i < workers.length; i++) {
+                  result.observe(workers[i].queuedBytes.get(), shardLabels[i]);
+                }
+              })
+          .build();
+    }
+    if (batchControllers != null) {
+      meter
+          .longValueObserverBuilder("exportBatchSize")
+          .setDescription("The batch size chosen by the adaptive BatchSpanProcessor")
+          .setUnit("1")
+          .setUpdater(
+              result -> {
+                for (int i = 0; i < batchControllers.length; i++) {
+                  result.observe(batchControllers[i].getBatchSize(), shardLabels[i]);
+                }
+              })
+          .build();
+      meter
+          .longValueObserverBuilder("scheduleDelay")
+          .setDescription("The schedule delay chosen by the adaptive BatchSpanProcessor")
+          .setUnit("ms")
+          .setUpdater(
+              result -> {
+                for (int i = 0; i < batchControllers.length; i++) {
+                  result.observe(
+                      TimeUnit.NANOSECONDS.toMillis(batchControllers[i].getScheduleDelayNanos()),
+                      shardLabels[i]);
+                }
+              })
+          .build();
+    }
   }
 
   @Override
@@ -116,7 +329,18 @@ public final class BatchSpanProcessor implements SpanProcessor {
     if (sampled && !span.getSpanContext().isSampled()) {
       return;
     }
-    worker.addSpan(span);
+    selectWorker(span).addSpan(span);
+  }
+
+  private Worker selectWorker(ReadableSpan span) {
+    if (workers.length == 1) {
+      return workers[0];
+    }
+    long hash =
+        shardByTraceId
+            ? span.getSpanContext().getTraceIdLowBytesAsLong()
+            : Thread.currentThread().getId();
+    return workers[(int) Math.floorMod(hash, (long) workers.length)];
   }
 
   @Override
@@ -129,81 +353,277 @@ public final class BatchSpanProcessor implements SpanProcessor {
     if (isShutdown.getAndSet(true)) {
       return CompletableResultCode.ofSuccess();
     }
-    return worker.shutdown();
+    final CompletableResultCode result = new CompletableResultCode();
+
+    final CompletableResultCode flushResult = forceFlush();
+    flushResult.whenComplete(
+        () -> {
+          for (Worker worker : workers) {
+            worker.stop();
+          }
+          final CompletableResultCode shutdownResult;
+          try {
+            shutdownResult = spanExporter.shutdown();
+          } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Exporter threw an Exception", e);
+            result.fail();
+            return;
+          }
+          shutdownResult.whenComplete(
+              () -> {
+                if (!flushResult.isSuccess() || !shutdownResult.isSuccess()) {
+                  result.fail();
+                } else {
+                  result.succeed();
+                }
+              });
+        });
+
+    return result;
   }
 
   @Override
   public CompletableResultCode forceFlush() {
-    return worker.forceFlush();
+    if (workers.length == 1) {
+      return workers[0].forceFlush();
+    }
+    List<CompletableResultCode> results = new ArrayList<>(workers.length);
+    for (Worker worker : workers) {
+      results.add(worker.forceFlush());
+    }
+    return CompletableResultCode.ofAll(results);
   }
 
   // Worker is a thread that batches multiple spans and calls the registered SpanExporter to export
-  // the data.
+  // the data. Each shard of the processor has its own worker and queue.
   private static final class Worker implements Runnable {
 
-    private final BoundLongCounter droppedSpans;
+    // Spans dropped because they do not fit in the memory budget, and their estimated size.
+    private final BoundLongCounter overBudgetSpans;
+    @Nullable private final BoundLongCounter overBudgetBytes;
+    // Spans dropped by the backpressure policy because the queue is full, and their estimated size.
+    private final BoundLongCounter queueFullSpans;
+    @Nullable private final BoundLongCounter queueFullBytes;
     private final BoundLongCounter exportedSpans;
 
     private static final Logger logger = Logger.getLogger(Worker.class.getName());
     private final SpanExporter spanExporter;
-    private final long scheduleDelayNanos;
-    private final int maxExportBatchSize;
+    // The current schedule delay and batch size, changed by the batch controller in adaptive mode.
+    private long scheduleDelayNanos;
+    private int exportBatchSize;
+    @Nullable private final AdaptiveBatchController batchController;
     private final long exporterTimeoutNanos;
+    private final int maxConcurrentExports;
 
     private long nextExportTime;
 
-    private final BlockingQueue<ReadableSpan> queue;
+    private final BoundedQueue<ReadableSpan> queue;
+    // With the priority policy, the priority spans, exported before the spans in the queue. Both
+    // queues have the full capacity, the number of spans they hold together is limited by
+    // queuedSpans.
+    @Nullable private final BoundedQueue<ReadableSpan> priorityQueue;
+    // With the priority policy, the number of spans in both queues or about to be added to them.
+    private final AtomicInteger queuedSpans = new AtomicInteger();
+    private final int queueCapacity;
+    // The maximum estimated size of the queued spans, or 0 if the queue is only limited by number.
+    private final long maxQueueBytes;
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final BackpressurePolicy backpressurePolicy;
+    private final long blockTimeoutNanos;
+    // The number of queued spans that completes the current batch while the worker is waiting, so
+    // producers know when to wake it up, or Integer.MAX_VALUE while it is running.
+    private final AtomicInteger spansNeeded = new AtomicInteger(Integer.MAX_VALUE);
+    private final BlockingQueue<Boolean> signal = new ArrayBlockingQueue<>(1);
 
     private final AtomicReference<CompletableResultCode> flushRequested = new AtomicReference<>();
     private volatile boolean continueWork = true;
-    private final ArrayList<SpanData> batch;
+    private List<SpanData> batch;
+    // Exports that have been started but not waited for yet, oldest first. Only used by the worker.
+    private final ArrayDeque<PendingExport> pendingExports = new ArrayDeque<>();
 
     private Worker(
         SpanExporter spanExporter,
         long scheduleDelayNanos,
-        int maxExportBatchSize,
+        int exportBatchSize,
         long exporterTimeoutNanos,
-        BlockingQueue<ReadableSpan> queue) {
+        int maxConcurrentExports,
+        @Nullable AdaptiveBatchController batchController,
+        BoundedQueue<ReadableSpan> queue,
+        @Nullable BoundedQueue<ReadableSpan> priorityQueue,
+        int queueCapacity,
+        long maxQueueBytes,
+        BackpressurePolicy backpressurePolicy,
+        long blockTimeoutNanos,
+        BoundLongCounter overBudgetSpans,
+        BoundLongCounter queueFullSpans,
+        BoundLongCounter exportedSpans,
+        @Nullable BoundLongCounter overBudgetBytes,
+        @Nullable BoundLongCounter queueFullBytes) {
       this.spanExporter = spanExporter;
       this.scheduleDelayNanos = scheduleDelayNanos;
-      this.maxExportBatchSize = maxExportBatchSize;
+      this.exportBatchSize = exportBatchSize;
       this.exporterTimeoutNanos = exporterTimeoutNanos;
+      this.maxConcurrentExports = maxConcurrentExports;
+      this.batchController = batchController;
       this.queue = queue;
-      Meter meter = GlobalMetricsProvider.getMeter("io.opentelemetry.sdk.trace");
-      meter
-          .longValueObserverBuilder("queueSize")
-          .setDescription("The number of spans queued")
-          .setUnit("1")
-          .setUpdater(
-              result ->
-                  result.observe(
-                      queue.size(),
-                      Labels.of(SPAN_PROCESSOR_TYPE_LABEL, SPAN_PROCESSOR_TYPE_VALUE)))
-          .build();
-      LongCounter processedSpansCounter =
-          meter
-              .longCounterBuilder("processedSpans")
-              .setUnit("1")
-              .setDescription(
-                  "The number of spans processed by the BatchSpanProcessor. "
-                      + "[dropped=true if they were dropped due to high throughput]")
-              .build();
-      droppedSpans =
-          processedSpansCounter.bind(
-              Labels.of(SPAN_PROCESSOR_TYPE_LABEL, SPAN_PROCESSOR_TYPE_VALUE, "dropped", "true"));
-      exportedSpans =
-          processedSpansCounter.bind(
-              Labels.of(SPAN_PROCESSOR_TYPE_LABEL, SPAN_PROCESSOR_TYPE_VALUE, "dropped", "false"));
-
-      this.batch = new ArrayList<>(this.maxExportBatchSize);
+      this.priorityQueue = priorityQueue;
+      this.queueCapacity = queueCapacity;
+      this.maxQueueBytes = maxQueueBytes;
+      this.backpressurePolicy = backpressurePolicy;
+      this.blockTimeoutNanos = blockTimeoutNanos;
+      this.overBudgetSpans = overBudgetSpans;
+      this.queueFullSpans = queueFullSpans;
+      this.exportedSpans = exportedSpans;
+      this.overBudgetBytes = overBudgetBytes;
+      this.queueFullBytes = queueFullBytes;
+      this.batch = new ArrayList<>(this.exportBatchSize);
     }
 
     private void addSpan(ReadableSpan span) {
-      if (!queue.offer(span)) {
-        droppedSpans.add(1);
+      long size = 0;
+      if (maxQueueBytes > 0) {
+        size = SpanSizeEstimator.estimate(span.toSpanData());
+        if (!reserveBytes(size)) {
+          overBudgetSpans.add(1);
+          addDroppedBytes(overBudgetBytes, size);
+          return;
+        }
+        // Queue the estimate with the span, to release it when the span leaves the queue.
+        span = new SizedSpan(span, size);
+      }
+      boolean queued =
+          priorityQueue != null
+              ? offerWithPriority(span)
+              : queue.offer(span) || offerToFullQueue(span);
+      if (!queued) {
+        releaseBytes(size);
+        queueFullSpans.add(1);
+        addDroppedBytes(queueFullBytes, size);
+        return;
+      }
+      // The queue size takes the queue lock, so it is only read while the worker waits for spans.
+      int needed = spansNeeded.get();
+      if (needed != Integer.MAX_VALUE && queueSize() >= needed) {
+        signal.offer(true);
+      }
+    }
+
+    // Applies the backpressure policy to a span that did not fit in the queue, returns whether the
+    // span was queued in the end.
+    private boolean offerToFullQueue(ReadableSpan span) {
+      switch (backpressurePolicy) {
+        case DROP_NEWEST:
+          return false;
+        case DROP_OLDEST:
+          return offerDroppingOldest(span);
+        case BLOCK:
+          return offerBlocking(span);
+        case PRIORITY:
+          // Handled by offerWithPriority.
+          return false;
+      }
+      return false;
+    }
+
+    // Makes room for the span by dropping the oldest queued span once. If other threads fill the
+    // queue again in the meantime, the span is dropped instead of retrying.
+    private boolean offerDroppingOldest(ReadableSpan span) {
+      ReadableSpan oldest = queue.poll();
+      if (oldest != null) {
+        dropQueuedSpan(oldest);
+      }
+      return queue.offer(span);
+    }
+
+    // Queues a span with the priority policy: a priority span that does not fit replaces the oldest
+    // queued span without priority, other spans are dropped when the queues are full.
+    private boolean offerWithPriority(ReadableSpan span) {
+      // Both queues have room for all the spans counted in queuedSpans, so offering them a span
+      // that was counted always succeeds.
+      boolean priority = isPriority(span);
+      if (reserveSlot()) {
+        return priority ? priorityQueue.offer(span) : queue.offer(span);
+      }
+      if (!priority) {
+        return false;
+      }
+      // The replaced span's slot is reused by the priority span.
+      ReadableSpan victim = queue.poll();
+      if (victim == null) {
+        return false;
+      }
+      dropQueuedSpan(victim);
+      return priorityQueue.offer(span);
+    }
+
+    private boolean reserveSlot() {
+      int current;
+      do {
+        current = queuedSpans.get();
+        if (current >= queueCapacity) {
+          return false;
+        }
+      } while (!queuedSpans.compareAndSet(current, current + 1));
+      return true;
+    }
+
+    private boolean offerBlocking(ReadableSpan span) {
+      // Once stopped, the worker no longer makes room in the queue.
+      if (!continueWork) {
+        return false;
+      }
+      // Make sure the worker is not waiting for more spans.
+      signal.offer(true);
+      try {
+        return queue.offer(span, blockTimeoutNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    private static boolean isPriority(ReadableSpan span) {
+      return span.getSpanContext().isSampled()
+          && span.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR;
+    }
+
+    // Accounts for a queued span removed by the backpressure policy.
+    private void dropQueuedSpan(ReadableSpan span) {
+      long size = SizedSpan.sizeOf(span);
+      releaseBytes(size);
+      queueFullSpans.add(1);
+      addDroppedBytes(queueFullBytes, size);
+    }
+
+    private boolean reserveBytes(long size) {
+      long current;
+      do {
+        current = queuedBytes.get();
+        if (current + size > maxQueueBytes) {
+          return false;
+        }
+      } while (!queuedBytes.compareAndSet(current, current + size));
+      return true;
+    }
+
+    private void releaseBytes(long size) {
+      if (maxQueueBytes > 0) {
+        queuedBytes.addAndGet(-size);
       }
     }
 
+    private static void addDroppedBytes(@Nullable BoundLongCounter droppedBytes, long size) {
+      if (droppedBytes != null) {
+        droppedBytes.add(size);
+      }
+    }
+
+    // Converts a span taken from the queue and releases its share of the memory budget.
+    private SpanData toSpanData(ReadableSpan span) {
+      releaseBytes(SizedSpan.sizeOf(span));
+      return span.toSpanData();
+    }
+
     @Override
     public void run() {
       updateNextExportTime();
@@ -213,88 +633,227 @@ public final class BatchSpanProcessor implements SpanProcessor {
           flush();
         }
 
-        try {
-          ReadableSpan lastElement = queue.poll(100, TimeUnit.MILLISECONDS);
-          if (lastElement != null) {
-            batch.add(lastElement.toSpanData());
+        while (batch.size() < exportBatchSize) {
+          // The backpressure policy may remove spans concurrently, so the queue is not checked
+          // before polling it.
+          ReadableSpan span = pollSpan();
+          if (span == null) {
+            break;
           }
-        } catch (InterruptedException e) {
-          Thread.currentThread().interrupt();
-          return;
+          batch.add(toSpanData(span));
         }
 
-        if (batch.size() >= maxExportBatchSize || System.nanoTime() >= nextExportTime) {
+        if (batch.size() >= exportBatchSize || System.nanoTime() >= nextExportTime) {
           exportCurrentBatch();
+          adaptBatching();
           updateNextExportTime();
         }
+
+        if (continueWork && queueSize() == 0 && flushRequested.get() == null) {
+          try {
+            awaitSpans();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+      }
+    }
+
+    // Takes the next span from the queues, priority spans first.
+    @Nullable
+    private ReadableSpan pollSpan() {
+      if (priorityQueue == null) {
+        return queue.poll();
+      }
+      ReadableSpan span = priorityQueue.poll();
+      if (span == null) {
+        span = queue.poll();
       }
+      if (span != null) {
+        queuedSpans.decrementAndGet();
+      }
+      return span;
+    }
+
+    private int queueSize() {
+      return priorityQueue == null ? queue.size() : queuedSpans.get();
+    }
+
+    // Sleeps until the current batch can be completed, the next export is due or a flush is
+    // requested.
+    private void awaitSpans() throws InterruptedException {
+      long waitNanos = nextExportTime - System.nanoTime();
+      if (waitNanos <= 0) {
+        return;
+      }
+      int needed = exportBatchSize - batch.size();
+      spansNeeded.set(needed);
+      // Spans added before spansNeeded was published did not signal.
+      if (queueSize() < needed) {
+        signal.poll(waitNanos, TimeUnit.NANOSECONDS);
+      }
+      spansNeeded.set(Integer.MAX_VALUE);
     }
 
     private void flush() {
-      int spansToFlush = queue.size();
+      int spansToFlush = queueSize();
       while (spansToFlush > 0) {
-        ReadableSpan span = queue.poll();
-        assert span != null;
-        batch.add(span.toSpanData());
+        ReadableSpan span = pollSpan();
+        if (span == null) {
+          // Spans were removed by the backpressure policy.
+          break;
+        }
+        batch.add(toSpanData(span));
         spansToFlush--;
-        if (batch.size() >= maxExportBatchSize) {
+        if (batch.size() >= exportBatchSize) {
           exportCurrentBatch();
         }
       }
       exportCurrentBatch();
-      flushRequested.get().succeed();
-      flushRequested.set(null);
+      awaitPendingExports(0);
+      // Clear the request before completing it, so that a flush requested as soon as this one
+      // completes is not mistaken for it.
+      flushRequested.getAndSet(null).succeed();
+    }
+
+    // Lets the batch controller adjust the batch size and schedule delay after a scheduled export.
+    private void adaptBatching() {
+      if (batchController == null) {
+        return;
+      }
+      batchController.update((double) queueSize() / queueCapacity);
+      exportBatchSize = batchController.getBatchSize();
+      scheduleDelayNanos = batchController.getScheduleDelayNanos();
     }
 
     private void updateNextExportTime() {
       nextExportTime = System.nanoTime() + scheduleDelayNanos;
     }
 
-    private CompletableResultCode shutdown() {
-      final CompletableResultCode result = new CompletableResultCode();
-
-      final CompletableResultCode flushResult = forceFlush();
-      flushResult.whenComplete(
-          () -> {
-            continueWork = false;
-            final CompletableResultCode shutdownResult = spanExporter.shutdown();
-            shutdownResult.whenComplete(
-                () -> {
-                  if (!flushResult.isSuccess() || !shutdownResult.isSuccess()) {
-                    result.fail();
-                  } else {
-                    result.succeed();
-                  }
-                });
-          });
-
-      return result;
+    private void stop() {
+      continueWork = false;
+      // Wake up the worker in case it is waiting for spans, so that it can exit.
+      signal.offer(true);
     }
 
     private CompletableResultCode forceFlush() {
       CompletableResultCode flushResult = new CompletableResultCode();
+      // we set the atomic here to trigger the worker loop to do a flush on its next iteration.
       this.flushRequested.compareAndSet(null, flushResult);
-      return this.flushRequested.get();
+      CompletableResultCode possibleResult = this.flushRequested.get();
+      // there's a race here where the flush happening in the worker loop could complete before we
+      // get what's in the atomic. In that case, just return success, since we know it succeeded in
+      // the interim.
+      signal.offer(true);
+      return possibleResult == null ? CompletableResultCode.ofSuccess() : possibleResult;
     }
 
+    // Starts the export of the current batch, then waits until fewer than maxConcurrentExports
+    // exports are pending. With the default of one concurrent export this waits for the batch to be
+    // exported.
     private void exportCurrentBatch() {
       if (batch.isEmpty()) {
         return;
       }
 
+      // The exporter may still use the batch after we stopped waiting for it, so start a new one.
+      final List<SpanData> exportedBatch = batch;
+      batch = new ArrayList<>(exportBatchSize);
+      final long startNanos = System.nanoTime();
       try {
-        final CompletableResultCode result = spanExporter.export(batch);
-        result.join(exporterTimeoutNanos, TimeUnit.NANOSECONDS);
-        if (result.isSuccess()) {
-          exportedSpans.add(batch.size());
-        } else {
-          logger.log(Level.FINE, "Exporter failed");
-        }
+        final CompletableResultCode result = spanExporter.export(exportedBatch);
+        result.whenComplete(
+            () -> {
+              if (batchController != null) {
+                batchController.recordExport(System.nanoTime() - startNanos, result.isSuccess());
+              }
+              if (result.isSuccess()) {
+                exportedSpans.add(exportedBatch.size());
+              } else {
+                logger.log(Level.FINE, "Exporter failed");
+              }
+            });
+        pendingExports.add(new PendingExport(result, System.nanoTime() + exporterTimeoutNanos));
       } catch (Exception e) {
         logger.log(Level.WARNING, "Exporter threw an Exception", e);
-      } finally {
-        batch.clear();
+        if (batchController != null) {
+          batchController.recordExport(System.nanoTime() - startNanos, /* success= */ false);
+        }
       }
+      awaitPendingExports(maxConcurrentExports - 1);
+    }
+
+    // Waits until at most maxPendingExports exports are pending. Exports that do not complete
+    // within the exporter timeout are no longer waited for.
+    private void awaitPendingExports(int maxPendingExports) {
+      pendingExports.removeIf(pendingExport -> pendingExport.result.isDone());
+      while (pendingExports.size() > maxPendingExports) {
+        PendingExport oldest = pendingExports.poll();
+        oldest.result.join(oldest.deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  // A span queued with a memory budget, with the size estimated when it was queued. The span has
+  // ended, so the estimate stays valid while it is queued.
+  private static final class SizedSpan implements ReadableSpan {
+    private final ReadableSpan delegate;
+    private final long size;
+
+    private SizedSpan(ReadableSpan delegate, long size) {
+      this.delegate = delegate;
+      this.size = size;
+    }
+
+    // Returns the estimated size of a queued span, or 0 without a memory budget.
+    private static long sizeOf(ReadableSpan span) {
+      return span instanceof SizedSpan ? ((SizedSpan) span).size : 0;
+    }
+
+    @Override
+    public SpanContext getSpanContext() {
+      return delegate.getSpanContext();
+    }
+
+    @Override
+    public String getName() {
+      return delegate.getName();
+    }
+
+    @Override
+    public SpanData toSpanData() {
+      return delegate.toSpanData();
+    }
+
+    @Override
+    public InstrumentationLibraryInfo getInstrumentationLibraryInfo() {
+      return delegate.getInstrumentationLibraryInfo();
+    }
+
+    @Override
+    public boolean hasEnded() {
+      return delegate.hasEnded();
+    }
+
+    @Override
+    public long getLatencyNanos() {
+      return delegate.getLatencyNanos();
+    }
+
+    @Override
+    public Span.Kind getKind() {
+      return delegate.getKind();
+    }
+  }
+
+  private static final class PendingExport {
+    private final CompletableResultCode result;
+    private final long deadlineNanos;
+
+    private PendingExport(CompletableResultCode result, long deadlineNanos) {
+      this.result = result;
+      this.deadlineNanos = deadlineNanos;
     }
   }
 }
@@ -9,6 +9,7 @@ import static io.opentelemetry.api.internal.Utils.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import java.time.Duration;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -22,6 +23,15 @@ public final class BatchSpanProcessorBuilder
   private static final String KEY_MAX_EXPORT_BATCH_SIZE = "otel.bsp.max.export.batch.size";
   private static final String KEY_EXPORT_TIMEOUT_MILLIS = "otel.bsp.export.timeout.millis";
   private static final String KEY_SAMPLED = "otel.bsp.export.sampled";
+  private static final String KEY_USE_LOCK_FREE_QUEUE = "otel.bsp.lock.free.queue";
+  private static final String KEY_MAX_CONCURRENT_EXPORTS = "otel.bsp.max.concurrent.exports";
+  private static final String KEY_NUMBER_OF_SHARDS = "otel.bsp.shards";
+  private static final String KEY_MAX_QUEUE_BYTES = "otel.bsp.max.queue.bytes";
+  private static final String KEY_BACKPRESSURE_POLICY = "otel.bsp.backpressure.policy";
+  private static final String KEY_BLOCK_TIMEOUT_MILLIS = "otel.bsp.block.timeout.millis";
+  private static final String KEY_ADAPTIVE_BATCHING = "otel.bsp.adaptive";
+  private static final String KEY_MIN_EXPORT_BATCH_SIZE = "otel.bsp.min.export.batch.size";
+  private static final String KEY_MIN_SCHEDULE_DELAY_MILLIS = "otel.bsp.min.schedule.delay.millis";
 
   // Visible for testing
   static final long DEFAULT_SCHEDULE_DELAY_MILLIS = 5000;
@@ -33,13 +43,44 @@ public final class BatchSpanProcessorBuilder
   static final int DEFAULT_EXPORT_TIMEOUT_MILLIS = 30_000;
   // Visible for testing
   static final boolean DEFAULT_EXPORT_ONLY_SAMPLED = true;
+  // Visible for testing
+  static final boolean DEFAULT_USE_LOCK_FREE_QUEUE = false;
+  // Visible for testing
+  static final int DEFAULT_MAX_CONCURRENT_EXPORTS = 1;
+  // Visible for testing
+  static final int DEFAULT_NUMBER_OF_SHARDS = 1;
+  // Visible for testing
+  static final boolean DEFAULT_SHARD_BY_TRACE_ID = false;
+  // Visible for testing
+  static final long DEFAULT_MAX_QUEUE_BYTES = 0;
+  // Visible for testing
+  static final BackpressurePolicy DEFAULT_BACKPRESSURE_POLICY = BackpressurePolicy.DROP_NEWEST;
+  // Visible for testing
+  static final long DEFAULT_BLOCK_TIMEOUT_MILLIS = 100;
+  // Visible for testing
+  static final boolean DEFAULT_ADAPTIVE_BATCHING = false;
+  // Visible for testing
+  static final int DEFAULT_MIN_EXPORT_BATCH_SIZE = 64;
+  // Visible for testing
+  static final long DEFAULT_MIN_SCHEDULE_DELAY_MILLIS = 100;
 
   private final SpanExporter spanExporter;
   private long scheduleDelayNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SCHEDULE_DELAY_MILLIS);
   private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+  private long maxQueueBytes = DEFAULT_MAX_QUEUE_BYTES;
   private int maxExportBatchSize = DEFAULT_MAX_EXPORT_BATCH_SIZE;
   private long exporterTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_EXPORT_TIMEOUT_MILLIS);
   private boolean exportOnlySampled = DEFAULT_EXPORT_ONLY_SAMPLED;
+  private boolean useLockFreeQueue = DEFAULT_USE_LOCK_FREE_QUEUE;
+  private int maxConcurrentExports = DEFAULT_MAX_CONCURRENT_EXPORTS;
+  private int numberOfShards = DEFAULT_NUMBER_OF_SHARDS;
+  private boolean shardByTraceId = DEFAULT_SHARD_BY_TRACE_ID;
+  private BackpressurePolicy backpressurePolicy = DEFAULT_BACKPRESSURE_POLICY;
+  private long blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_BLOCK_TIMEOUT_MILLIS);
+  private boolean adaptiveBatching = DEFAULT_ADAPTIVE_BATCHING;
+  private int minExportBatchSize = DEFAULT_MIN_EXPORT_BATCH_SIZE;
+  private long minScheduleDelayNanos =
+      TimeUnit.MILLISECONDS.toNanos(DEFAULT_MIN_SCHEDULE_DELAY_MILLIS);
 
   BatchSpanProcessorBuilder(SpanExporter spanExporter) {
     this.spanExporter = requireNonNull(spanExporter, "spanExporter");
@@ -75,6 +116,42 @@ public final class BatchSpanProcessorBuilder
     if (boolValue != null) {
       this.setExportOnlySampled(boolValue);
     }
+    boolValue = getBooleanProperty(KEY_USE_LOCK_FREE_QUEUE, configMap);
+    if (boolValue != null) {
+      this.setUseLockFreeQueue(boolValue);
+    }
+    intValue = getIntProperty(KEY_MAX_CONCURRENT_EXPORTS, configMap);
+    if (intValue != null) {
+      this.setMaxConcurrentExports(intValue);
+    }
+    intValue = getIntProperty(KEY_NUMBER_OF_SHARDS, configMap);
+    if (intValue != null) {
+      this.setNumberOfShards(intValue);
+    }
+    longValue = getLongProperty(KEY_MAX_QUEUE_BYTES, configMap);
+    if (longValue != null) {
+      this.setMaxQueueBytes(longValue);
+    }
+    String stringValue = getStringProperty(KEY_BACKPRESSURE_POLICY, configMap);
+    if (stringValue != null) {
+      this.setBackpressurePolicy(BackpressurePolicy.valueOf(stringValue.toUpperCase(Locale.ROOT)));
+    }
+    longValue = getLongProperty(KEY_BLOCK_TIMEOUT_MILLIS, configMap);
+    if (longValue != null) {
+      this.setBlockTimeout(Duration.ofMillis(longValue));
+    }
+    boolValue = getBooleanProperty(KEY_ADAPTIVE_BATCHING, configMap);
+    if (boolValue != null) {
+      this.setAdaptiveBatching(boolValue);
+    }
+    intValue = getIntProperty(KEY_MIN_EXPORT_BATCH_SIZE, configMap);
+    if (intValue != null) {
+      this.setMinExportBatchSize(intValue);
+    }
+    longValue = getLongProperty(KEY_MIN_SCHEDULE_DELAY_MILLIS, configMap);
+    if (longValue != null) {
+      this.setMinScheduleDelay(Duration.ofMillis(longValue));
+    }
     return this;
   }
 
@@ -203,6 +280,36 @@ public final class BatchSpanProcessorBuilder
     return maxQueueSize;
   }
 
+  /**
+   * Sets the maximum estimated size in bytes of the spans kept in the queue before start dropping,
+   * or {@code 0} to limit the queue only by number of spans. The size of a span is estimated from
+   * its name, attributes, events, links and status when it is added to the queue, which requires
+   * converting it to {@link io.opentelemetry.sdk.trace.data.SpanData} on the thread ending it.
+   *
+   * <p>The maximum queue size still applies, so it should be set high enough not to drop small
+   * spans before the memory budget is used. Spans dropped because of the budget are counted in the
+   * {@code processedSpans} metric with a {@code dropReason=maxQueueBytes} label. With a memory
+   * budget, the processor reports the estimated size of the queued spans in the {@code queuedBytes}
+   * metric and of the dropped spans in the {@code droppedBytes} metric, with the same {@code
+   * dropReason} label.
+   *
+   * <p>Default value is {@code 0}.
+   *
+   * @param maxQueueBytes the maximum estimated size of the queued spans in bytes.
+   * @return this.
+   * @see BatchSpanProcessorBuilder#DEFAULT_MAX_QUEUE_BYTES
+   */
+  public BatchSpanProcessorBuilder setMaxQueueBytes(long maxQueueBytes) {
+    checkArgument(maxQueueBytes >= 0, "maxQueueBytes must be non-negative.");
+    this.maxQueueBytes = maxQueueBytes;
+    return this;
+  }
+
+  // Visible for testing
+  long getMaxQueueBytes() {
+    return maxQueueBytes;
+  }
+
   /**
    * Sets the maximum batch size for every export. This must be smaller or equal to {@code
    * maxQueuedSpans}.
@@ -224,20 +331,251 @@ public final class BatchSpanProcessorBuilder
     return maxExportBatchSize;
   }
 
+  /**
+   * Sets whether spans are queued in a lock-free multi-producer/single-consumer queue instead of an
+   * {@link java.util.concurrent.ArrayBlockingQueue}. The lock-free queue avoids contention between
+   * the threads ending spans in services with many cores and a high span rate.
+   *
+   * <p>The lock-free queue can only be used with the {@link BackpressurePolicy#DROP_NEWEST} and
+   * {@link BackpressurePolicy#BLOCK} policies, since only the worker thread can remove spans from
+   * it. {@link #build()} throws an {@link IllegalArgumentException} with other policies.
+   *
+   * <p>Default value is {@code false}.
+   *
+   * @param useLockFreeQueue if {@code true} use the lock-free queue.
+   * @return this.
+   * @see BatchSpanProcessorBuilder#DEFAULT_USE_LOCK_FREE_QUEUE
+   */
+  public BatchSpanProcessorBuilder setUseLockFreeQueue(boolean useLockFreeQueue) {
+    this.useLockFreeQueue = useLockFreeQueue;
+    return this;
+  }
+
+  // Visible for testing
+  boolean getUseLockFreeQueue() {
+    return useLockFreeQueue;
+  }
+
+  /**
+   * Sets the maximum number of batches that are exported concurrently. With more than one, the
+   * worker starts exporting the next batch while previous exports are still in progress, which
+   * keeps the queue from filling up when the exporter is asynchronous and slow to respond. Each
+   * batch is exported independently and {@link BatchSpanProcessor#forceFlush()} and {@link
+   * BatchSpanProcessor#shutdown()} wait for all of them.
+   *
+   * <p>Default value is {@code 1}.
+   *
+   * @param maxConcurrentExports the maximum number of batches exported concurrently.
+   * @return this.
+   * @see BatchSpanProcessorBuilder#DEFAULT_MAX_CONCURRENT_EXPORTS
+   */
+  public BatchSpanProcessorBuilder setMaxConcurrentExports(int maxConcurrentExports) {
+    checkArgument(maxConcurrentExports > 0, "maxConcurrentExports must be positive.");
+    this.maxConcurrentExports = maxConcurrentExports;
+    return this;
+  }
+
+  // Visible for testing
+  int getMaxConcurrentExports() {
+    return maxConcurrentExports;
+  }
+
+  /**
+   * Sets the number of shards of the processor. Each shard has its own queue and worker thread,
+   * which batches and exports its spans independently of the other shards, so that converting and
+   * batching spans is not limited to a single thread. The maximum queue size and memory budget are
+   * split evenly between the shards. With more than one shard, the {@code queueSize} and {@code
+   * processedSpans} metrics are reported per shard, with a {@code shard} label.
+   *
+   * <p>Default value is {@code 1}.
+   *
+   * @param numberOfShards the number of shards.
+   * @return this.
+   * @see BatchSpanProcessorBuilder#DEFAULT_NUMBER_OF_SHARDS
+   */
+  public BatchSpanProcessorBuilder setNumberOfShards(int numberOfShards) {
+    checkArgument(numberOfShards > 0, "numberOfShards must be positive.");
+    this.numberOfShards = numberOfShards;
+    return this;
+  }
+
+  // Visible for testing
+  int getNumberOfShards() {
+    return numberOfShards;
+  }
+
+  /**
+   * Sets whether spans are assigned to a shard by their trace id, so that all the spans of a trace
+   * are exported by the same shard, instead of by the thread ending them. Only used with more than
+   * one shard.
+   *
+   * <p>Default value is {@code false}.
+   *
+   * @param shardByTraceId if {@code true} select shards by trace id.
+   * @return this.
+   * @see BatchSpanProcessorBuilder#DEFAULT_SHARD_BY_TRACE_ID
+   */
+  public BatchSpanProcessorBuilder setShardByTraceId(boolean shardByTraceId) {
+    this.shardByTraceId = shardByTraceId;
+    return this;
+  }
+
+  // Visible for testing
+  boolean getShardByTraceId() {
+    return shardByTraceId;
+  }
+
+  /**
+   * Sets what happens to a span that ends while the queue is full. Spans dropped by the policy are
+   * counted in the {@code processedSpans} metric with a {@code dropReason=queueFull} label and a
+   * {@code backpressurePolicy} label. Spans that exceed the memory budget set with {@link
+   * #setMaxQueueBytes(long)} are always dropped as they end.
+   *
+   * <p>Default value is {@link BackpressurePolicy#DROP_NEWEST}.
+   *
+   * @param backpressurePolicy the policy applied when the queue is full.
+   * @return this.
+   * @see BatchSpanProcessorBuilder#DEFAULT_BACKPRESSURE_POLICY
+   */
+  public BatchSpanProcessorBuilder setBackpressurePolicy(BackpressurePolicy backpressurePolicy) {
+    this.backpressurePolicy = requireNonNull(backpressurePolicy, "backpressurePolicy");
+    return this;
+  }
+
+  // Visible for testing
+  BackpressurePolicy getBackpressurePolicy() {
+    return backpressurePolicy;
+  }
+
+  /**
+   * Sets the maximum time a thread ending a span waits for room in the queue with the {@link
+   * BackpressurePolicy#BLOCK} policy. If unset, defaults to {@value
+   * DEFAULT_BLOCK_TIMEOUT_MILLIS}ms.
+   */
+  public BatchSpanProcessorBuilder setBlockTimeout(long timeout, TimeUnit unit) {
+    requireNonNull(unit, "unit");
+    checkArgument(timeout >= 0, "timeout must be non-negative");
+    blockTimeoutNanos = unit.toNanos(timeout);
+    return this;
+  }
+
+  /**
+   * Sets the maximum time a thread ending a span waits for room in the queue with the {@link
+   * BackpressurePolicy#BLOCK} policy. If unset, defaults to {@value
+   * DEFAULT_BLOCK_TIMEOUT_MILLIS}ms.
+   */
+  public BatchSpanProcessorBuilder setBlockTimeout(Duration timeout) {
+    requireNonNull(timeout, "timeout");
+    return setBlockTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  // Visible for testing
+  long getBlockTimeoutNanos() {
+    return blockTimeoutNanos;
+  }
+
+  /**
+   * Sets whether the batch size and schedule delay are adjusted automatically. In adaptive mode,
+   * each worker chooses a batch size between the minimum set with {@link
+   * #setMinExportBatchSize(int)} and the maximum export batch size, and a schedule delay between
+   * the minimum set with {@link #setMinScheduleDelay(long, TimeUnit)} and the schedule delay.
+   * Batches grow while the queue fills up and shrink while it is nearly empty, the delay grows
+   * while exports are slower than it and both back off while the exporter fails. The chosen values
+   * are reported in the {@code exportBatchSize} and {@code scheduleDelay} metrics.
+   *
+   * <p>Default value is {@code false}.
+   *
+   * @param adaptiveBatching if {@code true} adjust the batch size and schedule delay.
+   * @return this.
+   * @see BatchSpanProcessorBuilder#DEFAULT_ADAPTIVE_BATCHING
+   */
+  public BatchSpanProcessorBuilder setAdaptiveBatching(boolean adaptiveBatching) {
+    this.adaptiveBatching = adaptiveBatching;
+    return this;
+  }
+
+  // Visible for testing
+  boolean getAdaptiveBatching() {
+    return adaptiveBatching;
+  }
+
+  /**
+   * Sets the minimum batch size chosen in adaptive mode. Values larger than the maximum export
+   * batch size are lowered to it.
+   *
+   * <p>Default value is {@code 64}.
+   *
+   * @param minExportBatchSize the minimum batch size in adaptive mode.
+   * @return this.
+   * @see BatchSpanProcessorBuilder#DEFAULT_MIN_EXPORT_BATCH_SIZE
+   */
+  public BatchSpanProcessorBuilder setMinExportBatchSize(int minExportBatchSize) {
+    checkArgument(minExportBatchSize > 0, "minExportBatchSize must be positive.");
+    this.minExportBatchSize = minExportBatchSize;
+    return this;
+  }
+
+  // Visible for testing
+  int getMinExportBatchSize() {
+    return minExportBatchSize;
+  }
+
+  /**
+   * Sets the minimum schedule delay chosen in adaptive mode. Values larger than the schedule delay
+   * are lowered to it. If unset, defaults to {@value DEFAULT_MIN_SCHEDULE_DELAY_MILLIS}ms.
+   */
+  public BatchSpanProcessorBuilder setMinScheduleDelay(long delay, TimeUnit unit) {
+    requireNonNull(unit, "unit");
+    checkArgument(delay >= 0, "delay must be non-negative");
+    minScheduleDelayNanos = unit.toNanos(delay);
+    return this;
+  }
+
+  /**
+   * Sets the minimum schedule delay chosen in adaptive mode. Values larger than the schedule delay
+   * are lowered to it. If unset, defaults to {@value DEFAULT_MIN_SCHEDULE_DELAY_MILLIS}ms.
+   */
+  public BatchSpanProcessorBuilder setMinScheduleDelay(Duration delay) {
+    requireNonNull(delay, "delay");
+    return setMinScheduleDelay(delay.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  // Visible for testing
+  long getMinScheduleDelayNanos() {
+    return minScheduleDelayNanos;
+  }
+
   /**
    * Returns a new {@link BatchSpanProcessor} that batches, then converts spans to proto and
    * forwards them to the given {@code spanExporter}.
    *
    * @return a new {@link BatchSpanProcessor}.
    * @throws NullPointerException if the {@code spanExporter} is {@code null}.
+   * @throws IllegalArgumentException if the lock-free queue is used with a backpressure policy that
+   *     removes queued spans.
    */
   public BatchSpanProcessor build() {
+    checkArgument(
+        !useLockFreeQueue
+            || backpressurePolicy == BackpressurePolicy.DROP_NEWEST
+            || backpressurePolicy == BackpressurePolicy.BLOCK,
+        "The lock-free queue cannot be used with the " + backpressurePolicy + " policy.");
     return new BatchSpanProcessor(
         spanExporter,
         exportOnlySampled,
         scheduleDelayNanos,
         maxQueueSize,
+        maxQueueBytes,
         maxExportBatchSize,
-        exporterTimeoutNanos);
+        exporterTimeoutNanos,
+        useLockFreeQueue,
+        maxConcurrentExports,
+        numberOfShards,
+        shardByTraceId,
+        backpressurePolicy,
+        blockTimeoutNanos,
+        adaptiveBatching,
+        minExportBatchSize,
+        minScheduleDelayNanos);
   }
 }
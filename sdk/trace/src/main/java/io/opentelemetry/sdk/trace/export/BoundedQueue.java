@@ -0,0 +1,31 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.export;
+
+import javax.annotation.Nullable;
+
+/**
+ * The operations of a bounded queue used by the {@link BatchSpanProcessor} workers, implemented by
+ * an {@link ArrayBoundedQueue} or by a lock-free {@link MpscArrayQueue}.
+ */
+interface BoundedQueue<E> {
+
+  /** Adds the element if the queue is not full, returns whether it was added. */
+  boolean offer(E e);
+
+  /**
+   * Adds the element, waiting up to the given time for the queue to have room, returns whether it
+   * was added.
+   */
+  boolean offer(E e, long timeoutNanos) throws InterruptedException;
+
+  /** Removes and returns the oldest element, or returns {@code null} if the queue is empty. */
+  @Nullable
+  E poll();
+
+  /** Returns the number of elements in the queue. */
+  int size();
+}
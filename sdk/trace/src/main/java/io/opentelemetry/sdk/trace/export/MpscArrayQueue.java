@@ -0,0 +1,143 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.export;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.Nullable;
+
+/**
+ * A bounded, lock-free queue supporting many concurrent producers and a single consumer.
+ *
+ * <p>Producers reserve a slot by incrementing the producer index with a compare-and-set and then
+ * publish the element into it. The consumer reads slots in order and frees them, so {@link #offer}
+ * never takes a lock and only contends with other producers on the producer index.
+ *
+ * <p>{@link #poll()} must only be called from a single thread at a time. {@link #size()} may be
+ * called from any thread and is an estimate while producers or the consumer are active.
+ */
+final class MpscArrayQueue<E> implements BoundedQueue<E> {
+
+  // The consumer spins this many times waiting for a reserved slot to be published before parking.
+  private static final int MAX_SPINS = 100;
+  private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicLongFieldUpdater<MpscArrayQueue> producerIndexUpdater =
+      AtomicLongFieldUpdater.newUpdater(MpscArrayQueue.class, "producerIndex");
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicLongFieldUpdater<MpscArrayQueue> consumerIndexUpdater =
+      AtomicLongFieldUpdater.newUpdater(MpscArrayQueue.class, "consumerIndex");
+
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<E> buffer;
+
+  // Index of the next slot to be reserved by a producer.
+  private volatile long producerIndex;
+  // Index of the next slot to be read by the consumer.
+  private volatile long consumerIndex;
+
+  MpscArrayQueue(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.capacity = capacity;
+    int bufferSize = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.mask = bufferSize - 1;
+    this.buffer = new AtomicReferenceArray<>(bufferSize);
+  }
+
+  @Override
+  public boolean offer(E e) {
+    if (e == null) {
+      throw new NullPointerException();
+    }
+    long index;
+    do {
+      index = producerIndex;
+      if (index - consumerIndex >= capacity) {
+        return false;
+      }
+    } while (!producerIndexUpdater.compareAndSet(this, index, index + 1));
+    buffer.lazySet(offset(index), e);
+    return true;
+  }
+
+  @Override
+  public boolean offer(E e, long timeoutNanos) throws InterruptedException {
+    if (offer(e)) {
+      return true;
+    }
+    // Producers are not notified when the consumer frees a slot, so retry with an increasing
+    // back-off.
+    long deadline = System.nanoTime() + timeoutNanos;
+    long parkNanos = MIN_PARK_NANOS;
+    while (true) {
+      long remainingNanos = deadline - System.nanoTime();
+      if (remainingNanos <= 0) {
+        return false;
+      }
+      LockSupport.parkNanos(Math.min(parkNanos, remainingNanos));
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      if (offer(e)) {
+        return true;
+      }
+      parkNanos = Math.min(2 * parkNanos, MAX_PARK_NANOS);
+    }
+  }
+
+  @Override
+  @Nullable
+  public E poll() {
+    long index = consumerIndex;
+    int offset = offset(index);
+    E e = buffer.get(offset);
+    if (e == null) {
+      if (index == producerIndex) {
+        return null;
+      }
+      e = awaitPublished(offset);
+    }
+    buffer.lazySet(offset, null);
+    consumerIndexUpdater.lazySet(this, index + 1);
+    return e;
+  }
+
+  // Waits for the producer that reserved the slot to publish its element. This only takes long if
+  // the producer was preempted between reserving the slot and publishing, so spin briefly before
+  // parking.
+  private E awaitPublished(int offset) {
+    int spins = 0;
+    E e;
+    while ((e = buffer.get(offset)) == null) {
+      if (spins < MAX_SPINS) {
+        spins++;
+      } else {
+        LockSupport.parkNanos(MIN_PARK_NANOS);
+      }
+    }
+    return e;
+  }
+
+  @Override
+  public int size() {
+    // Read the consumer index first so that the result is never negative.
+    long consumer = consumerIndex;
+    long producer = producerIndex;
+    return (int) Math.min(producer - consumer, capacity);
+  }
+
+  private int offset(long index) {
+    return (int) index & mask;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.export;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.SpanData.Event;
+import io.opentelemetry.sdk.trace.data.SpanData.Link;
+import io.opentelemetry.sdk.trace.internal.LazyAttributes;
+import java.util.List;
+
+/**
+ * Estimates the heap retained by a span, for admitting spans to the {@link BatchSpanProcessor}
+ * queue against a memory budget.
+ *
+ * <p>The estimate is deliberately cheap rather than exact: it assumes a 64-bit JVM with compressed
+ * references, counts strings at two bytes per character and ignores objects shared between spans,
+ * such as the resource, the instrumentation library and attribute keys interned as constants. Only
+ * the content that varies from one span to another, the name, attributes, events, links and status
+ * description, is counted on top of a fixed per-span overhead.
+ *
+ * <p>Attribute values that are computed lazily, such as exception stack traces rendered when they
+ * are exported, are not computed to be estimated, so that ending a span stays cheap: until they are
+ * computed, each is counted with the length hinted by its attributes.
+ */
+final class SpanSizeEstimator {
+
+  // The span data object with its fields, identifiers, trace state and empty collections.
+  private static final long SPAN_OVERHEAD = 256;
+  // An attribute entry in the attributes array or map.
+  private static final long ATTRIBUTE_OVERHEAD = 16;
+  private static final long EVENT_OVERHEAD = 48;
+  // The link object and its span context.
+  private static final long LINK_OVERHEAD = 128;
+  private static final long STRING_OVERHEAD = 40;
+  private static final long BOXED_PRIMITIVE = 16;
+  private static final long LIST_OVERHEAD = 32;
+  private static final long REFERENCE = 4;
+
+  /** Returns the estimated number of bytes retained by the given span. */
+  static long estimate(SpanData span) {
+    long size = SPAN_OVERHEAD + estimate(span.getName());
+    size += estimate(span.getAttributes());
+    List<Event> events = span.getEvents();
+    for (int i = 0; i < events.size(); i++) {
+      Event event = events.get(i);
+      size += EVENT_OVERHEAD + estimate(event.getName()) + estimate(event.getAttributes());
+    }
+    List<Link> links = span.getLinks();
+    for (int i = 0; i < links.size(); i++) {
+      size += LINK_OVERHEAD + estimate(links.get(i).getAttributes());
+    }
+    size += estimate(span.getStatus().getDescription());
+    return size;
+  }
+
+  private static long estimate(Attributes attributes) {
+    if (attributes.isEmpty()) {
+      return 0;
+    }
+    if (attributes instanceof LazyAttributes) {
+      LazyAttributes lazyAttributes = (LazyAttributes) attributes;
+      Attributes computed = lazyAttributes.getComputedAttributes();
+      if (computed != null) {
+        return estimate(computed);
+      }
+      Attributes eager = lazyAttributes.getEagerAttributes();
+      long lazyValue = STRING_OVERHEAD + 2L * lazyAttributes.getLazyValueLengthHint();
+      return estimate(eager)
+          + (attributes.size() - eager.size()) * (ATTRIBUTE_OVERHEAD + lazyValue);
+    }
+    long[] size = {0};
+    attributes.forEach(
+        (key, value) -> size[0] += ATTRIBUTE_OVERHEAD + estimate(key.getKey()) + estimate(value));
+    return size[0];
+  }
+
+  private static long estimate(Object value) {
+    if (value instanceof String) {
+      return estimate((String) value);
+    }
+    if (value instanceof List) {
+      List<?> values = (List<?>) value;
+      long size = LIST_OVERHEAD;
+      for (int i = 0; i < values.size(); i++) {
+        size += REFERENCE + estimate(values.get(i));
+      }
+      return size;
+    }
+    // Boolean, Long and Double values.
+    return BOXED_PRIMITIVE;
+  }
+
+  private static long estimate(String value) {
+    return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+  }
+
+  private SpanSizeEstimator() {}
+}
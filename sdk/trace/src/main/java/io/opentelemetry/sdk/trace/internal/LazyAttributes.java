@@ -0,0 +1,35 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.internal;
+
+import io.opentelemetry.api.common.Attributes;
+import javax.annotation.Nullable;
+
+/**
+ * {@link Attributes} some of whose values are computed the first time they are read, such as a
+ * stack trace rendered from the recorded exception. Reading all the attributes, for example with
+ * {@link #forEach}, computes them.
+ *
+ * <p>This interface is only shared between the packages of the tracing SDK, to size the lazy values
+ * without computing them. It is not meant to be implemented or used by anyone else.
+ */
+public interface LazyAttributes extends Attributes {
+
+  /**
+   * Returns the attributes whose values are available without computing the lazy ones. The lazy
+   * attributes are the remaining {@code size() - getEagerAttributes().size()}.
+   */
+  Attributes getEagerAttributes();
+
+  /**
+   * Returns all the attributes if the lazy values have already been computed, else {@code null}.
+   */
+  @Nullable
+  Attributes getComputedAttributes();
+
+  /** Returns the expected length of each lazy value, in characters, before it is computed. */
+  int getLazyValueLengthHint();
+}
@@ -0,0 +1,13 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+/**
+ * Classes shared between the packages of the tracing SDK, for internal use only. Anything in this
+ * package can be changed or removed at any time.
+ */
+@ParametersAreNonnullByDefault
+package io.opentelemetry.sdk.trace.internal;
+
+import javax.annotation.ParametersAreNonnullByDefault;
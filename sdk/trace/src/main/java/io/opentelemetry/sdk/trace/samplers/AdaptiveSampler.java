@@ -0,0 +1,240 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.samplers;
+
+import static io.opentelemetry.api.common.AttributeKey.doubleKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Span.Kind;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.internal.SystemClock;
+import io.opentelemetry.sdk.trace.data.SpanData.Link;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link Sampler} adjusting its ratio so that it samples about a given number of root spans per
+ * second, whatever the number of root spans started.
+ *
+ * <p>The root spans, the spans without a parent or with a remote parent, are counted with a {@link
+ * LongAdder}. Every {@link #BUCKET_NANOS}, the ratio is recomputed from the number of root spans
+ * started during the last {@link #NUMBER_OF_BUCKETS} intervals, by the first thread noticing that
+ * the interval has passed. The ratio, along with the history of the intervals, is held in an
+ * immutable state swapped atomically, so that sampling never blocks.
+ *
+ * <p>Like {@link TraceIdRatioBasedSampler}, spans are sampled by comparing their trace id to the
+ * ratio, so that all the spans of a trace get the same decision as long as the ratio does not
+ * change. The ratio is recorded on the sampled spans with the {@code sampler.type} and {@code
+ * sampler.param} attributes, and, if a {@link MeterProvider} is given, reported as its {@code
+ * samplingRatio} metric, labeled with an id for each sampler.
+ */
+@ThreadSafe
+final class AdaptiveSampler implements Sampler {
+
+  static final String TYPE = "adaptive";
+  static final AttributeKey<String> SAMPLER_TYPE = stringKey("sampler.type");
+  static final AttributeKey<Double> SAMPLER_PARAM = doubleKey("sampler.param");
+
+  // The ratio is recomputed every 100ms, over the last second.
+  static final long BUCKET_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+  static final int NUMBER_OF_BUCKETS = 10;
+
+  private static final SamplingResult NEGATIVE_SAMPLING_RESULT =
+      SamplingResult.create(SamplingResult.Decision.DROP);
+
+  private final double targetSpansPerSecond;
+  private final Clock clock;
+  // The number of root spans ever started, never reset so that losing a race to update the state
+  // loses nothing.
+  private final LongAdder rootSpans = new LongAdder();
+  private final AtomicReference<State> state;
+
+  static AdaptiveSampler create(
+      double targetSpansPerSecond, @Nullable MeterProvider meterProvider) {
+    if (!(targetSpansPerSecond > 0) || Double.isInfinite(targetSpansPerSecond)) {
+      throw new IllegalArgumentException("targetSpansPerSecond must be positive and finite");
+    }
+    AdaptiveSampler sampler = new AdaptiveSampler(targetSpansPerSecond, SystemClock.getInstance());
+    if (meterProvider != null) {
+      SamplingRatioObserver.add(meterProvider, sampler);
+    }
+    return sampler;
+  }
+
+  // Visible for testing
+  AdaptiveSampler(double targetSpansPerSecond, Clock clock) {
+    this.targetSpansPerSecond = targetSpansPerSecond;
+    this.clock = clock;
+    this.state = new AtomicReference<>(State.initial(clock.nanoTime()));
+  }
+
+  @Override
+  public SamplingResult shouldSample(
+      Context parentContext,
+      String traceId,
+      String name,
+      Kind spanKind,
+      Attributes attributes,
+      List<Link> parentLinks) {
+    SpanContext parentSpanContext = Span.fromContext(parentContext).getSpanContext();
+    if (!parentSpanContext.isValid() || parentSpanContext.isRemote()) {
+      rootSpans.increment();
+    }
+    State current = state.get();
+    long now = clock.nanoTime();
+    if (now - current.nextUpdateNanos >= 0) {
+      current = update(current, now);
+    }
+    // See TraceIdRatioBasedSampler for why '<' is used.
+    return Math.abs(TraceId.getTraceIdRandomPart(traceId)) < current.idUpperBound
+        ? current.positiveSamplingResult
+        : NEGATIVE_SAMPLING_RESULT;
+  }
+
+  private State update(State current, long now) {
+    State next = current.next(now, rootSpans.sum(), targetSpansPerSecond);
+    if (state.compareAndSet(current, next)) {
+      return next;
+    }
+    // Another thread updated the state first.
+    return state.get();
+  }
+
+  // Visible for testing
+  double getRatio() {
+    return state.get().ratio;
+  }
+
+  @Override
+  public String getDescription() {
+    return String.format("AdaptiveSampler{%.2f}", targetSpansPerSecond);
+  }
+
+  @Override
+  public String toString() {
+    return getDescription();
+  }
+
+  /**
+   * Reports the ratio of the samplers created with the same {@link MeterProvider} as a single
+   * {@code samplingRatio} metric, registered on the {@link MeterProvider} with the first of them,
+   * as it keeps the first instrument registered under a name. Each sampler is labeled with its own
+   * id, and is held weakly so that a discarded sampler is collected and no longer reported.
+   */
+  private static final class SamplingRatioObserver {
+    private static final Map<MeterProvider, SamplingRatioObserver> observers =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AtomicInteger nextSamplerId = new AtomicInteger();
+    private final Map<AdaptiveSampler, Labels> samplers =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    static void add(MeterProvider meterProvider, AdaptiveSampler sampler) {
+      observers.computeIfAbsent(meterProvider, SamplingRatioObserver::new).add(sampler);
+    }
+
+    private SamplingRatioObserver(MeterProvider meterProvider) {
+      Map<AdaptiveSampler, Labels> samplers = this.samplers;
+      meterProvider
+          .get("io.opentelemetry.sdk.trace")
+          .doubleValueObserverBuilder("samplingRatio")
+          .setDescription("The ratio of root spans sampled by the AdaptiveSampler")
+          .setUnit("1")
+          .setUpdater(
+              result ->
+                  samplers.forEach((sampler, labels) -> result.observe(sampler.getRatio(), labels)))
+          .build();
+    }
+
+    private void add(AdaptiveSampler sampler) {
+      samplers.put(
+          sampler,
+          Labels.of(
+              "sampler",
+              AdaptiveSampler.class.getSimpleName(),
+              "samplerId",
+              String.valueOf(nextSamplerId.getAndIncrement())));
+    }
+  }
+
+  @Immutable
+  private static final class State {
+    final double ratio;
+    final long idUpperBound;
+    final SamplingResult positiveSamplingResult;
+    final long nextUpdateNanos;
+
+    final long lastUpdateNanos;
+    // The number of root spans started before the last update.
+    final long lastRootSpans;
+    // The number of root spans started and the duration of the last intervals, oldest first.
+    final long[] bucketRootSpans;
+    final long[] bucketNanos;
+
+    // Samples everything until the first interval has passed.
+    static State initial(long now) {
+      return new State(1.0, now, 0, new long[NUMBER_OF_BUCKETS], new long[NUMBER_OF_BUCKETS]);
+    }
+
+    private State(
+        double ratio,
+        long lastUpdateNanos,
+        long lastRootSpans,
+        long[] bucketRootSpans,
+        long[] bucketNanos) {
+      this.ratio = ratio;
+      this.idUpperBound = ratio >= 1.0 ? Long.MAX_VALUE : (long) (ratio * Long.MAX_VALUE);
+      this.positiveSamplingResult =
+          SamplingResult.create(
+              SamplingResult.Decision.RECORD_AND_SAMPLE,
+              Attributes.of(SAMPLER_TYPE, TYPE, SAMPLER_PARAM, ratio));
+      this.nextUpdateNanos = lastUpdateNanos + BUCKET_NANOS;
+      this.lastUpdateNanos = lastUpdateNanos;
+      this.lastRootSpans = lastRootSpans;
+      this.bucketRootSpans = bucketRootSpans;
+      this.bucketNanos = bucketNanos;
+    }
+
+    State next(long now, long rootSpans, double targetSpansPerSecond) {
+      long[] nextBucketRootSpans = new long[NUMBER_OF_BUCKETS];
+      long[] nextBucketNanos = new long[NUMBER_OF_BUCKETS];
+      System.arraycopy(bucketRootSpans, 1, nextBucketRootSpans, 0, NUMBER_OF_BUCKETS - 1);
+      System.arraycopy(bucketNanos, 1, nextBucketNanos, 0, NUMBER_OF_BUCKETS - 1);
+      nextBucketRootSpans[NUMBER_OF_BUCKETS - 1] = rootSpans - lastRootSpans;
+      nextBucketNanos[NUMBER_OF_BUCKETS - 1] = now - lastUpdateNanos;
+      long windowRootSpans = 0;
+      long windowNanos = 0;
+      for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+        windowRootSpans += nextBucketRootSpans[i];
+        windowNanos += nextBucketNanos[i];
+      }
+      double rootSpansPerSecond =
+          windowRootSpans / (windowNanos / (double) TimeUnit.SECONDS.toNanos(1));
+      double nextRatio =
+          rootSpansPerSecond <= targetSpansPerSecond
+              ? 1.0
+              : targetSpansPerSecond / rootSpansPerSecond;
+      return new State(nextRatio, now, rootSpans, nextBucketRootSpans, nextBucketNanos);
+    }
+  }
+}
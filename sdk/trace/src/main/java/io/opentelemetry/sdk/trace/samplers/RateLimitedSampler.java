@@ -0,0 +1,136 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.samplers;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span.Kind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.internal.SystemClock;
+import io.opentelemetry.sdk.trace.data.SpanData.Link;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link Sampler} sampling at most a given number of spans per second, with bursts of up to one
+ * second worth of spans, regardless of their parent.
+ *
+ * <p>The budget is split between stripes, independent token buckets that each refill at their share
+ * of the rate, so that threads sampling concurrently update different memory locations. A thread
+ * takes a token from the stripe selected by its id, and from the other stripes when its own is
+ * empty, so that a single thread can still sample at the full rate.
+ *
+ * <p>Each stripe is a single {@code long}, the time at which the stripe would have been empty,
+ * which is only updated when a token is taken: a span that is dropped costs a read of the clock and
+ * of the stripes. The number of stripes is the number of available processors rounded up to a power
+ * of two, limited so that each stripe refills at least one span per second.
+ */
+@ThreadSafe
+final class RateLimitedSampler implements Sampler {
+
+  // Stripes are spaced by this many longs, so that each is on its own cache line.
+  private static final int PADDING = 16;
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private static final SamplingResult POSITIVE_SAMPLING_RESULT =
+      SamplingResult.create(SamplingResult.Decision.RECORD_AND_SAMPLE);
+  private static final SamplingResult NEGATIVE_SAMPLING_RESULT =
+      SamplingResult.create(SamplingResult.Decision.DROP);
+
+  private final double spansPerSecond;
+  private final Clock clock;
+  private final int numberOfStripes;
+  // The time it takes a stripe to refill one token.
+  private final long nanosPerToken;
+  // The time it takes a stripe to refill entirely.
+  private final long maxBalanceNanos;
+  private final AtomicLongArray debits;
+
+  static RateLimitedSampler create(double spansPerSecond) {
+    if (!(spansPerSecond > 0) || Double.isInfinite(spansPerSecond)) {
+      throw new IllegalArgumentException("spansPerSecond must be positive and finite");
+    }
+    int processors = Runtime.getRuntime().availableProcessors();
+    int numberOfStripes = Integer.highestOneBit(processors);
+    if (numberOfStripes < processors) {
+      numberOfStripes <<= 1;
+    }
+    while (numberOfStripes > 1 && numberOfStripes > spansPerSecond) {
+      numberOfStripes >>= 1;
+    }
+    return new RateLimitedSampler(spansPerSecond, SystemClock.getInstance(), numberOfStripes);
+  }
+
+  // Visible for testing
+  RateLimitedSampler(double spansPerSecond, Clock clock, int numberOfStripes) {
+    this.spansPerSecond = spansPerSecond;
+    this.clock = clock;
+    // A power of two, so that a thread id is mapped to a stripe with a mask.
+    int stripes = Integer.highestOneBit(Math.max(numberOfStripes, 1));
+    this.numberOfStripes = stripes;
+    double spansPerSecondPerStripe = spansPerSecond / stripes;
+    this.nanosPerToken = Math.max((long) (NANOS_PER_SECOND / spansPerSecondPerStripe), 1);
+    // One second worth of spans, but always room for at least one.
+    this.maxBalanceNanos = Math.max(NANOS_PER_SECOND, nanosPerToken);
+    this.debits = new AtomicLongArray(stripes * PADDING);
+    long initialDebit = clock.nanoTime() - maxBalanceNanos;
+    for (int i = 0; i < stripes; i++) {
+      debits.set(i * PADDING, initialDebit);
+    }
+  }
+
+  @Override
+  public SamplingResult shouldSample(
+      Context parentContext,
+      String traceId,
+      String name,
+      Kind spanKind,
+      Attributes attributes,
+      List<Link> parentLinks) {
+    return tryAcquire() ? POSITIVE_SAMPLING_RESULT : NEGATIVE_SAMPLING_RESULT;
+  }
+
+  private boolean tryAcquire() {
+    long now = clock.nanoTime();
+    int mask = numberOfStripes - 1;
+    int first = (int) Thread.currentThread().getId() & mask;
+    for (int i = 0; i < numberOfStripes; i++) {
+      if (tryAcquire(((first + i) & mask) * PADDING, now)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean tryAcquire(int index, long now) {
+    while (true) {
+      long debit = debits.get(index);
+      long balance = Math.min(now - debit, maxBalanceNanos);
+      if (balance < nanosPerToken) {
+        return false;
+      }
+      if (debits.compareAndSet(index, debit, now - balance + nanosPerToken)) {
+        return true;
+      }
+    }
+  }
+
+  // Visible for testing
+  int getNumberOfStripes() {
+    return numberOfStripes;
+  }
+
+  @Override
+  public String getDescription() {
+    return String.format("RateLimitedSampler{%.2f}", spansPerSecond);
+  }
+
+  @Override
+  public String toString() {
+    return getDescription();
+  }
+}
@@ -5,7 +5,10 @@
 
 package io.opentelemetry.sdk.trace.samplers;
 
+import static java.util.Objects.requireNonNull;
+
 import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.MeterProvider;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Span.Kind;
 import io.opentelemetry.api.trace.SpanContext;
@@ -79,6 +82,57 @@ public interface Sampler {
     return TraceIdRatioBasedSampler.create(ratio);
   }
 
+  /**
+   * Returns a new RateLimited {@link Sampler}, which samples at most {@code spansPerSecond} spans
+   * per second, with bursts of up to one second worth of spans. Its decisions don't depend on the
+   * parent of the span, so it is usually combined with {@link #parentBased(Sampler)} to limit the
+   * number of sampled traces started by this process, e.g. {@code
+   * Sampler.parentBased(Sampler.rateLimited(100))}.
+   *
+   * <p>Spans sampled concurrently by different threads take their budget from different stripes, so
+   * that the sampler does not become a point of contention.
+   *
+   * @param spansPerSecond the maximum number of sampled spans per second. Must be positive.
+   * @return a new RateLimited {@link Sampler}.
+   * @throws IllegalArgumentException if {@code spansPerSecond} is not positive and finite
+   */
+  static Sampler rateLimited(double spansPerSecond) {
+    return RateLimitedSampler.create(spansPerSecond);
+  }
+
+  /**
+   * Returns a new Adaptive {@link Sampler}, which samples a ratio of the traces, like {@link
+   * #traceIdRatioBased(double)}, adjusted every 100 milliseconds so that about {@code
+   * targetSpansPerSecond} root spans per second are sampled, based on the number of root spans
+   * started during the last second. The root spans are the spans without a parent or with a remote
+   * parent. It is usually combined with {@link #parentBased(Sampler)}, e.g. {@code
+   * Sampler.parentBased(Sampler.adaptive(100))}.
+   *
+   * <p>The ratio in effect is recorded on the sampled spans as the {@code sampler.param} attribute.
+   *
+   * @param targetSpansPerSecond the number of root spans to sample per second. Must be positive.
+   * @return a new Adaptive {@link Sampler}.
+   * @throws IllegalArgumentException if {@code targetSpansPerSecond} is not positive and finite
+   */
+  static Sampler adaptive(double targetSpansPerSecond) {
+    return AdaptiveSampler.create(targetSpansPerSecond, /* meterProvider= */ null);
+  }
+
+  /**
+   * Returns a new Adaptive {@link Sampler}, like {@link #adaptive(double)}, which also reports the
+   * ratio in effect as the {@code samplingRatio} metric of {@code meterProvider}, labeled with an
+   * id for each sampler.
+   *
+   * @param targetSpansPerSecond the number of root spans to sample per second. Must be positive.
+   * @param meterProvider the {@link MeterProvider} to report the ratio to.
+   * @return a new Adaptive {@link Sampler}.
+   * @throws IllegalArgumentException if {@code targetSpansPerSecond} is not positive and finite
+   */
+  static Sampler adaptive(double targetSpansPerSecond, MeterProvider meterProvider) {
+    requireNonNull(meterProvider, "meterProvider");
+    return AdaptiveSampler.create(targetSpansPerSecond, meterProvider);
+  }
+
   /**
    * Called during {@link Span} creation to make a sampling samplingResult.
    *
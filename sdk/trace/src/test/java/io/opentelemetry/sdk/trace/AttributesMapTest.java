@@ -7,12 +7,14 @@ package io.opentelemetry.sdk.trace;
 
 import static io.opentelemetry.api.common.AttributeKey.longKey;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.entry;
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiConsumer;
 import org.junit.jupiter.api.Test;
 
@@ -43,6 +45,89 @@ class AttributesMapTest {
         .containsExactly(entry(longKey("one"), 1L), entry(longKey("two"), 2L));
   }
 
+  @Test
+  void put_replacesValueInPlace() {
+    AttributesMap attributesMap = new AttributesMap(5);
+    attributesMap.put(longKey("one"), 1L);
+    attributesMap.put(longKey("two"), 2L);
+    attributesMap.put(longKey("one"), 11L);
+
+    assertThat(attributesMap.asMap())
+        .containsExactly(entry(longKey("one"), 11L), entry(longKey("two"), 2L));
+    assertThat(attributesMap.getTotalAddedValues()).isEqualTo(3);
+  }
+
+  @Test
+  void put_dropsNewKeysWhenFull() {
+    AttributesMap attributesMap = new AttributesMap(2);
+    attributesMap.put(longKey("one"), 1L);
+    attributesMap.put(longKey("two"), 2L);
+    attributesMap.put(longKey("three"), 3L);
+    attributesMap.put(longKey("two"), 22L);
+
+    assertThat(attributesMap.asMap())
+        .containsExactly(entry(longKey("one"), 1L), entry(longKey("two"), 22L));
+    assertThat(attributesMap.get(longKey("three"))).isNull();
+    assertThat(attributesMap.getTotalAddedValues()).isEqualTo(4);
+  }
+
+  @Test
+  void put_doesNotChangeSnapshot() {
+    AttributesMap attributesMap = new AttributesMap(10);
+    attributesMap.put(longKey("one"), 1L);
+    Attributes snapshot = attributesMap.immutableCopy();
+
+    attributesMap.put(longKey("two"), 2L);
+    Attributes appended = attributesMap.immutableCopy();
+    attributesMap.put(longKey("one"), 11L);
+
+    assertThat(snapshot.asMap()).containsExactly(entry(longKey("one"), 1L));
+    assertThat(snapshot.get(longKey("two"))).isNull();
+    assertThat(appended.asMap())
+        .containsExactly(entry(longKey("one"), 1L), entry(longKey("two"), 2L));
+    assertThat(attributesMap.asMap())
+        .containsExactly(entry(longKey("one"), 11L), entry(longKey("two"), 2L));
+  }
+
+  @Test
+  void asMap_isUnmodifiableView() {
+    AttributesMap attributesMap = new AttributesMap(10);
+    attributesMap.put(longKey("one"), 1L);
+    Map<AttributeKey<?>, Object> map = attributesMap.asMap();
+
+    attributesMap.put(longKey("two"), 2L);
+
+    assertThat(map).containsExactly(entry(longKey("one"), 1L), entry(longKey("two"), 2L));
+    assertThat(map.get(longKey("two"))).isEqualTo(2L);
+    assertThat(map.containsKey(longKey("three"))).isFalse();
+    assertThatThrownBy(() -> map.put(longKey("three"), 3L))
+        .isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(map::clear).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void manyAttributes() {
+    AttributesMap attributesMap = new AttributesMap(100);
+    AttributesMap snapshot = null;
+    for (long i = 0; i < 200; i++) {
+      attributesMap.put(longKey("key" + i), i);
+      if (i == 20) {
+        snapshot = (AttributesMap) attributesMap.immutableCopy();
+      }
+    }
+    attributesMap.put(longKey("key50"), 500L);
+
+    assertThat(attributesMap.size()).isEqualTo(100);
+    assertThat(attributesMap.getTotalAddedValues()).isEqualTo(201);
+    for (long i = 0; i < 100; i++) {
+      assertThat(attributesMap.get(longKey("key" + i))).isEqualTo(i == 50 ? 500L : i);
+    }
+    assertThat(attributesMap.get(longKey("key100"))).isNull();
+    assertThat(snapshot.size()).isEqualTo(21);
+    assertThat(snapshot.get(longKey("key20"))).isEqualTo(20L);
+    assertThat(snapshot.get(longKey("key21"))).isNull();
+  }
+
   private void assertOrdering(
       Attributes attributes, List<String> expectedKeyOrder, List<Long> expectedValueOrder) {
     attributes.forEach(
@@ -0,0 +1,165 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.trace.config.EventRetentionPolicy;
+import io.opentelemetry.sdk.trace.data.SpanData.Event;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class EventRingBufferTest {
+
+  @Test
+  void keepLatest_retainsLatestEventsInOrder() {
+    EventRingBuffer buffer = EventRingBuffer.create(EventRetentionPolicy.KEEP_LATEST, 3);
+
+    assertThat(buffer.getEvents(0)).isEmpty();
+    for (int i = 0; i < 5; i++) {
+      buffer.put(i, event(i));
+      assertThat(buffer.getEvents(i + 1)).containsExactlyElementsOf(events(Math.max(0, i - 2), i));
+    }
+  }
+
+  @Test
+  void keepFirstAndLatest_retainsHeadAndTail() {
+    EventRingBuffer buffer = EventRingBuffer.create(EventRetentionPolicy.KEEP_FIRST_AND_LATEST, 5);
+
+    for (int i = 0; i < 10; i++) {
+      buffer.put(i, event(i));
+    }
+
+    List<Event> expected = events(0, 1);
+    expected.addAll(events(7, 9));
+    assertThat(buffer.getEvents(10)).containsExactlyElementsOf(expected);
+    // A snapshot taken when fewer events were recorded.
+    assertThat(buffer.getEvents(2)).containsExactlyElementsOf(events(0, 1));
+  }
+
+  @Test
+  void keepFirstAndLatest_singleEvent() {
+    EventRingBuffer buffer = EventRingBuffer.create(EventRetentionPolicy.KEEP_FIRST_AND_LATEST, 1);
+
+    buffer.put(0, event(0));
+    buffer.put(1, event(1));
+
+    assertThat(buffer.getEvents(2)).containsExactly(event(1));
+  }
+
+  @Test
+  void put_doesNotOverwriteLaterEvent() {
+    EventRingBuffer buffer = EventRingBuffer.create(EventRetentionPolicy.KEEP_LATEST, 2);
+
+    buffer.put(0, event(0));
+    buffer.put(1, event(1));
+    // The writer of event 2 is overtaken by the writer of event 4, which takes the same slot.
+    buffer.put(3, event(3));
+    buffer.put(4, event(4));
+    buffer.put(2, event(2));
+
+    assertThat(buffer.getEvents(5)).containsExactly(event(3), event(4));
+  }
+
+  @Test
+  void getEvents_skipsOverwrittenEvents() {
+    EventRingBuffer buffer = EventRingBuffer.create(EventRetentionPolicy.KEEP_LATEST, 2);
+
+    for (int i = 0; i < 4; i++) {
+      buffer.put(i, event(i));
+    }
+
+    // Events 1 and 2 were retained when 3 events were recorded, but event 1 was overwritten since.
+    assertThat(buffer.getEvents(3)).containsExactly(event(2));
+  }
+
+  @Test
+  void getEvents_skipsEventsNotStoredYet() {
+    EventRingBuffer buffer = EventRingBuffer.create(EventRetentionPolicy.KEEP_FIRST_AND_LATEST, 4);
+
+    // The writers of events 1 and 4 reserved their sequence number but did not store them yet.
+    buffer.put(0, event(0));
+    buffer.put(2, event(2));
+    buffer.put(3, event(3));
+    buffer.put(5, event(5));
+
+    assertThat(buffer.getEvents(6)).containsExactly(event(0), event(5));
+    buffer.put(4, event(4));
+    assertThat(buffer.getEvents(6)).containsExactly(event(0), event(4), event(5));
+  }
+
+  @Test
+  void growsWithRecordedEvents() {
+    EventRingBuffer buffer =
+        EventRingBuffer.create(EventRetentionPolicy.KEEP_FIRST_AND_LATEST, 1000);
+    assertThat(buffer.allocatedSlots()).isZero();
+
+    buffer.put(0, event(0));
+    assertThat(buffer.allocatedSlots()).isLessThan(100);
+
+    for (int i = 1; i < 2000; i++) {
+      buffer.put(i, event(i));
+    }
+    assertThat(buffer.allocatedSlots()).isEqualTo(1000);
+    List<Event> expected = events(0, 499);
+    expected.addAll(events(1500, 1999));
+    assertThat(buffer.getEvents(2000)).containsExactlyElementsOf(expected);
+  }
+
+  @Test
+  void concurrentWriters() throws Exception {
+    int numberOfThreads = 4;
+    int eventsPerThread = 10_000;
+    EventRingBuffer buffer = EventRingBuffer.create(EventRetentionPolicy.KEEP_FIRST_AND_LATEST, 8);
+    AtomicInteger sequence = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < numberOfThreads; t++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+                }
+                for (int i = 0; i < eventsPerThread; i++) {
+                  int s = sequence.getAndIncrement();
+                  buffer.put(s, event(s));
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    int total = numberOfThreads * eventsPerThread;
+    List<Event> expected = events(0, 3);
+    expected.addAll(events(total - 4, total - 1));
+    assertThat(buffer.getEvents(total)).containsExactlyElementsOf(expected);
+  }
+
+  private static Event event(int sequence) {
+    return Event.create(sequence, "event" + sequence, Attributes.empty());
+  }
+
+  // Events from first to last, inclusive.
+  private static List<Event> events(int first, int last) {
+    List<Event> events = new ArrayList<>();
+    for (int i = first; i <= last; i++) {
+      events.add(event(i));
+    }
+    return events;
+  }
+}
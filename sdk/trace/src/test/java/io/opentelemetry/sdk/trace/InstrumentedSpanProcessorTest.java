@@ -0,0 +1,230 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.api.metrics.LongCounter.BoundLongCounter;
+import io.opentelemetry.api.metrics.LongValueRecorder.BoundLongValueRecorder;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.internal.TestClock;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.config.TraceConfig;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class InstrumentedSpanProcessorTest {
+  private static final long BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Mock private SpanProcessor delegate;
+  @Mock private ReadWriteSpan span;
+  @Mock private BoundLongValueRecorder onStartLatency;
+  @Mock private BoundLongValueRecorder onEndLatency;
+  @Mock private BoundLongCounter onStartSlowCalls;
+  @Mock private BoundLongCounter onEndSlowCalls;
+
+  private final TestClock clock = TestClock.create();
+
+  @Test
+  void recordsLatency() {
+    advanceClockOnCall(TimeUnit.MICROSECONDS.toNanos(200));
+    SpanProcessor processor = newProcessor(1, BUDGET_NANOS);
+
+    processor.onStart(Context.root(), span);
+    processor.onEnd(span);
+
+    verify(delegate).onStart(Context.root(), span);
+    verify(delegate).onEnd(span);
+    verify(onStartLatency).record(TimeUnit.MICROSECONDS.toNanos(200));
+    verify(onEndLatency).record(TimeUnit.MICROSECONDS.toNanos(200));
+    verify(onStartSlowCalls, never()).add(anyLong());
+    verify(onEndSlowCalls, never()).add(anyLong());
+  }
+
+  @Test
+  void countsCallsOverBudget() {
+    advanceClockOnCall(TimeUnit.MILLISECONDS.toNanos(2));
+    SpanProcessor processor = newProcessor(1, BUDGET_NANOS);
+
+    processor.onStart(Context.root(), span);
+    processor.onEnd(span);
+    processor.onEnd(span);
+
+    verify(onStartLatency).record(TimeUnit.MILLISECONDS.toNanos(2));
+    verify(onEndLatency, times(2)).record(TimeUnit.MILLISECONDS.toNanos(2));
+    verify(onStartSlowCalls).add(1);
+    verify(onEndSlowCalls, times(2)).add(1);
+  }
+
+  @Test
+  void noBudget() {
+    advanceClockOnCall(TimeUnit.SECONDS.toNanos(1));
+    SpanProcessor processor =
+        new InstrumentedSpanProcessor(
+            delegate,
+            Labels.empty(),
+            clock::nanoTime,
+            1,
+            0,
+            onStartLatency,
+            onEndLatency,
+            null,
+            null);
+
+    processor.onStart(Context.root(), span);
+    processor.onEnd(span);
+
+    verify(onStartLatency).record(TimeUnit.SECONDS.toNanos(1));
+    verify(onEndLatency).record(TimeUnit.SECONDS.toNanos(1));
+  }
+
+  @Test
+  void recordsLatencyOfFailedCalls() {
+    doThrow(new IllegalStateException("onEnd")).when(delegate).onEnd(span);
+    SpanProcessor processor = newProcessor(1, BUDGET_NANOS);
+
+    assertThatThrownBy(() -> processor.onEnd(span))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("onEnd");
+    verify(onEndLatency).record(0);
+  }
+
+  @Test
+  void samplesCalls() {
+    SpanProcessor processor = newProcessor(10, BUDGET_NANOS);
+
+    for (int i = 0; i < 10_000; i++) {
+      processor.onEnd(span);
+    }
+
+    verify(delegate, times(10_000)).onEnd(span);
+    ArgumentCaptor<Long> latencies = ArgumentCaptor.forClass(Long.class);
+    verify(onEndLatency, atLeastOnce()).record(latencies.capture());
+    // About one in ten calls is measured.
+    assertThat(latencies.getAllValues()).hasSizeBetween(500, 1500);
+  }
+
+  @Test
+  void delegates() {
+    when(delegate.isStartRequired()).thenReturn(true);
+    when(delegate.isEndRequired()).thenReturn(false);
+    CompletableResultCode shutdown = new CompletableResultCode();
+    CompletableResultCode forceFlush = new CompletableResultCode();
+    when(delegate.shutdown()).thenReturn(shutdown);
+    when(delegate.forceFlush()).thenReturn(forceFlush);
+    SpanProcessor processor = newProcessor(1, BUDGET_NANOS);
+
+    assertThat(processor.isStartRequired()).isTrue();
+    assertThat(processor.isEndRequired()).isFalse();
+    assertThat(processor.shutdown()).isSameAs(shutdown);
+    assertThat(processor.forceFlush()).isSameAs(forceFlush);
+  }
+
+  @Test
+  void create_labelsEachProcessor() {
+    InstrumentedSpanProcessor first =
+        (InstrumentedSpanProcessor) InstrumentedSpanProcessor.create(delegate, 1, BUDGET_NANOS);
+    InstrumentedSpanProcessor second =
+        (InstrumentedSpanProcessor) InstrumentedSpanProcessor.create(delegate, 1, BUDGET_NANOS);
+
+    assertThat(first.getLabels().get("spanProcessor"))
+        .isEqualTo(second.getLabels().get("spanProcessor"))
+        .isEqualTo(delegate.getClass().getSimpleName());
+    assertThat(first.getLabels().get("spanProcessorId"))
+        .isNotEqualTo(second.getLabels().get("spanProcessorId"));
+  }
+
+  @Test
+  void tracerSharedState_instrumentsProcessors() {
+    TracerSharedState notInstrumented =
+        new TracerSharedState(
+            clock,
+            IdGenerator.random(),
+            Resource.getDefault(),
+            TraceConfig::getDefault,
+            Collections.singletonList(delegate),
+            0,
+            0);
+    assertThat(notInstrumented.getActiveSpanProcessor()).isSameAs(delegate);
+
+    TracerSharedState instrumented =
+        new TracerSharedState(
+            clock,
+            IdGenerator.random(),
+            Resource.getDefault(),
+            TraceConfig::getDefault,
+            Collections.singletonList(delegate),
+            1,
+            BUDGET_NANOS);
+    assertThat(instrumented.getActiveSpanProcessor())
+        .isInstanceOfSatisfying(
+            InstrumentedSpanProcessor.class,
+            processor -> assertThat(processor.getDelegate()).isSameAs(delegate));
+
+    // Processors added later are instrumented too.
+    TracerSharedState added =
+        new TracerSharedState(
+            clock,
+            IdGenerator.random(),
+            Resource.getDefault(),
+            TraceConfig::getDefault,
+            Collections.emptyList(),
+            1,
+            BUDGET_NANOS);
+    added.addSpanProcessor(delegate);
+    assertThat(added.getActiveSpanProcessor()).isInstanceOf(InstrumentedSpanProcessor.class);
+  }
+
+  private SpanProcessor newProcessor(int samplingInterval, long budgetNanos) {
+    return new InstrumentedSpanProcessor(
+        delegate,
+        Labels.empty(),
+        clock::nanoTime,
+        samplingInterval,
+        budgetNanos,
+        onStartLatency,
+        onEndLatency,
+        onStartSlowCalls,
+        onEndSlowCalls);
+  }
+
+  private void advanceClockOnCall(long nanos) {
+    doAnswer(
+            invocation -> {
+              clock.advanceNanos(nanos);
+              return null;
+            })
+        .when(delegate)
+        .onStart(Context.root(), span);
+    doAnswer(
+            invocation -> {
+              clock.advanceNanos(nanos);
+              return null;
+            })
+        .when(delegate)
+        .onEnd(span);
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.api.trace.TraceState;
+import org.junit.jupiter.api.Test;
+
+class LongIdSpanContextTest {
+
+  private static final long TRACE_ID_HIGH = 0xFF00000000000001L;
+  private static final long TRACE_ID_LOW = 0x0A0B0C0D0E0F0102L;
+  private static final long SPAN_ID = 0x1122334455667788L;
+  private static final TraceState TRACE_STATE = TraceState.builder().set("foo", "bar").build();
+
+  private static final SpanContext spanContext =
+      LongIdSpanContext.create(
+          TRACE_ID_HIGH, TRACE_ID_LOW, null, SPAN_ID, TraceFlags.getSampled(), TRACE_STATE);
+
+  @Test
+  void hexIdentifiers() {
+    assertThat(spanContext.getTraceIdAsHexString())
+        .isEqualTo(TraceId.fromLongs(TRACE_ID_HIGH, TRACE_ID_LOW));
+    assertThat(spanContext.getSpanIdAsHexString()).isEqualTo(SpanId.fromLong(SPAN_ID));
+    // Rendered once and cached.
+    assertThat(spanContext.getTraceIdAsHexString()).isSameAs(spanContext.getTraceIdAsHexString());
+    assertThat(spanContext.getSpanIdAsHexString()).isSameAs(spanContext.getSpanIdAsHexString());
+  }
+
+  @Test
+  void providedHexTraceId() {
+    String traceId = TraceId.fromLongs(TRACE_ID_HIGH, TRACE_ID_LOW);
+    SpanContext context =
+        LongIdSpanContext.create(
+            TRACE_ID_HIGH, TRACE_ID_LOW, traceId, SPAN_ID, TraceFlags.getDefault(), TRACE_STATE);
+    assertThat(context.getTraceIdAsHexString()).isSameAs(traceId);
+  }
+
+  @Test
+  void binaryIdentifiers() {
+    SpanContext hexContext =
+        SpanContext.create(
+            spanContext.getTraceIdAsHexString(),
+            spanContext.getSpanIdAsHexString(),
+            TraceFlags.getSampled(),
+            TRACE_STATE);
+    assertThat(spanContext.getTraceIdHighBytesAsLong()).isEqualTo(TRACE_ID_HIGH);
+    assertThat(spanContext.getTraceIdLowBytesAsLong()).isEqualTo(TRACE_ID_LOW);
+    assertThat(spanContext.getSpanIdAsLong()).isEqualTo(SPAN_ID);
+    assertThat(spanContext.getTraceIdBytes()).isEqualTo(hexContext.getTraceIdBytes());
+    assertThat(spanContext.getSpanIdBytes()).isEqualTo(hexContext.getSpanIdBytes());
+  }
+
+  @Test
+  void isValid() {
+    assertThat(spanContext.isValid()).isTrue();
+    assertThat(
+            LongIdSpanContext.create(0, 1, null, SPAN_ID, TraceFlags.getDefault(), TRACE_STATE)
+                .isValid())
+        .isTrue();
+    assertThat(
+            LongIdSpanContext.create(0, 0, null, SPAN_ID, TraceFlags.getDefault(), TRACE_STATE)
+                .isValid())
+        .isFalse();
+    assertThat(
+            LongIdSpanContext.create(
+                    TRACE_ID_HIGH, TRACE_ID_LOW, null, 0, TraceFlags.getDefault(), TRACE_STATE)
+                .isValid())
+        .isFalse();
+  }
+
+  @Test
+  void flagsStateAndRemote() {
+    assertThat(spanContext.isSampled()).isTrue();
+    assertThat(spanContext.getTraceFlags()).isEqualTo(TraceFlags.getSampled());
+    assertThat(spanContext.getTraceState()).isEqualTo(TRACE_STATE);
+    assertThat(spanContext.isRemote()).isFalse();
+  }
+
+  @Test
+  void equalsAndHashCode() {
+    SpanContext same =
+        LongIdSpanContext.create(
+            TRACE_ID_HIGH,
+            TRACE_ID_LOW,
+            TraceId.fromLongs(TRACE_ID_HIGH, TRACE_ID_LOW),
+            SPAN_ID,
+            TraceFlags.getSampled(),
+            TRACE_STATE);
+    SpanContext differentSpanId =
+        LongIdSpanContext.create(
+            TRACE_ID_HIGH, TRACE_ID_LOW, null, SPAN_ID + 1, TraceFlags.getSampled(), TRACE_STATE);
+    SpanContext differentFlags =
+        LongIdSpanContext.create(
+            TRACE_ID_HIGH, TRACE_ID_LOW, null, SPAN_ID, TraceFlags.getDefault(), TRACE_STATE);
+    assertThat(spanContext).isEqualTo(same);
+    assertThat(spanContext.hashCode()).isEqualTo(same.hashCode());
+    assertThat(spanContext).isNotEqualTo(differentSpanId);
+    assertThat(spanContext).isNotEqualTo(differentFlags);
+  }
+
+  @Test
+  void equalsAndHashCode_apiSpanContext() {
+    SpanContext api =
+        SpanContext.create(
+            TraceId.fromLongs(TRACE_ID_HIGH, TRACE_ID_LOW),
+            SpanId.fromLong(SPAN_ID),
+            TraceFlags.getSampled(),
+            TRACE_STATE);
+    assertThat(spanContext).isEqualTo(api);
+    assertThat(api).isEqualTo(spanContext);
+    assertThat(spanContext.hashCode()).isEqualTo(api.hashCode());
+
+    SpanContext remote =
+        SpanContext.createFromRemoteParent(
+            TraceId.fromLongs(TRACE_ID_HIGH, TRACE_ID_LOW),
+            SpanId.fromLong(SPAN_ID),
+            TraceFlags.getSampled(),
+            TRACE_STATE);
+    assertThat(spanContext).isNotEqualTo(remote);
+    assertThat(remote).isNotEqualTo(spanContext);
+    SpanContext otherSpanId =
+        SpanContext.create(
+            TraceId.fromLongs(TRACE_ID_HIGH, TRACE_ID_LOW),
+            SpanId.fromLong(SPAN_ID + 1),
+            TraceFlags.getSampled(),
+            TRACE_STATE);
+    assertThat(spanContext).isNotEqualTo(otherSpanId);
+    assertThat(otherSpanId).isNotEqualTo(spanContext);
+  }
+}
@@ -26,4 +26,14 @@ class RandomIdGeneratorTest {
       assertThat(spanId.toString()).isNotEqualTo(SpanId.getInvalid());
     }
   }
+
+  @Test
+  void longIds() {
+    LongIdGenerator generator = (LongIdGenerator) IdGenerator.random();
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(generator.generateTraceIdLowBytesAsLong()).isNotEqualTo(0);
+      assertThat(generator.generateSpanIdAsLong()).isNotEqualTo(0);
+    }
+  }
 }
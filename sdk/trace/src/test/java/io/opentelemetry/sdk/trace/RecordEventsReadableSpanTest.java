@@ -29,6 +29,7 @@ import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.internal.TestClock;
 import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.config.EventRetentionPolicy;
 import io.opentelemetry.sdk.trace.config.TraceConfig;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.data.SpanData.Event;
@@ -38,6 +39,7 @@ import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -48,6 +50,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.Nullable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -177,6 +180,22 @@ class RecordEventsReadableSpanTest {
         /*hasEnded=*/ true);
   }
 
+  @Test
+  void toSpanData_EndedSpanIsShared() {
+    RecordEventsReadableSpan span = createTestSpan(Kind.INTERNAL);
+    spanDoWork(span, null, null);
+    SpanData activeSpanData = span.toSpanData();
+    assertThat(span.toSpanData()).isNotSameAs(activeSpanData).isEqualTo(activeSpanData);
+
+    span.end();
+    SpanData endedSpanData = span.toSpanData();
+    assertThat(endedSpanData.hasEnded()).isTrue();
+    assertThat(span.toSpanData()).isSameAs(endedSpanData);
+    // Updates after end are ignored, so the shared instance stays accurate.
+    span.setAttribute("afterEnd", "value");
+    assertThat(span.toSpanData()).isSameAs(endedSpanData);
+  }
+
   @Test
   void toSpanData_immutableLinks() {
     RecordEventsReadableSpan span = createTestSpan(Kind.INTERNAL);
@@ -629,6 +648,63 @@ class RecordEventsReadableSpanTest {
     }
   }
 
+  @Test
+  void droppingEvents_keepLatest() {
+    final int maxNumberOfEvents = 8;
+    TraceConfig traceConfig =
+        TraceConfig.builder()
+            .setMaxNumberOfEvents(maxNumberOfEvents)
+            .setEventRetentionPolicy(EventRetentionPolicy.KEEP_LATEST)
+            .build();
+    RecordEventsReadableSpan span = createTestSpan(traceConfig);
+    assertThat(span.toSpanData().getEvents()).isEmpty();
+    for (int i = 0; i < 2 * maxNumberOfEvents; i++) {
+      span.addEvent("event" + i, Attributes.empty());
+      testClock.advanceMillis(MILLIS_PER_SECOND);
+    }
+    span.end();
+    // Ignored once the span has ended.
+    span.addEvent("event", Attributes.empty());
+
+    SpanData spanData = span.toSpanData();
+    assertThat(spanData.getTotalRecordedEvents()).isEqualTo(2 * maxNumberOfEvents);
+    assertThat(spanData.getEvents().size()).isEqualTo(maxNumberOfEvents);
+    for (int i = 0; i < maxNumberOfEvents; i++) {
+      int index = maxNumberOfEvents + i;
+      Event expectedEvent =
+          Event.create(
+              START_EPOCH_NANOS + index * NANOS_PER_SECOND, "event" + index, Attributes.empty(), 0);
+      assertThat(spanData.getEvents().get(i)).isEqualTo(expectedEvent);
+    }
+  }
+
+  @Test
+  void droppingEvents_keepFirstAndLatest() {
+    final int maxNumberOfEvents = 4;
+    TraceConfig traceConfig =
+        TraceConfig.builder()
+            .setMaxNumberOfEvents(maxNumberOfEvents)
+            .setEventRetentionPolicy(EventRetentionPolicy.KEEP_FIRST_AND_LATEST)
+            .build();
+    RecordEventsReadableSpan span = createTestSpan(traceConfig);
+    for (int i = 0; i < 3; i++) {
+      span.addEvent("event" + i);
+    }
+    assertThat(span.toSpanData().getEvents())
+        .extracting(Event::getName)
+        .containsExactly("event0", "event1", "event2");
+    for (int i = 3; i < 10; i++) {
+      span.addEvent("event" + i);
+    }
+    span.end();
+
+    SpanData spanData = span.toSpanData();
+    assertThat(spanData.getTotalRecordedEvents()).isEqualTo(10);
+    assertThat(spanData.getEvents())
+        .extracting(Event::getName)
+        .containsExactly("event0", "event1", "event8", "event9");
+  }
+
   @Test
   void recordException() {
     IllegalStateException exception = new IllegalStateException("there was an exception");
@@ -721,6 +797,134 @@ class RecordEventsReadableSpanTest {
                 .build());
   }
 
+  @Test
+  void recordException_lazyStackTrace() {
+    IllegalStateException exception = new IllegalStateException("there was an exception");
+    RecordEventsReadableSpan span =
+        createTestSpan(TraceConfig.builder().setRenderStackTracesLazily(true).build());
+
+    StringWriter writer = new StringWriter();
+    exception.printStackTrace(new PrintWriter(writer));
+    String stacktrace = writer.toString();
+
+    span.recordException(exception);
+
+    List<Event> events = span.toSpanData().getEvents();
+    assertThat(events).hasSize(1);
+    Attributes attributes = events.get(0).getAttributes();
+    assertThat(attributes).isInstanceOf(LazyStackTraceAttributes.class);
+    assertThat(attributes.size()).isEqualTo(3);
+    assertThat(attributes.get(SemanticAttributes.EXCEPTION_TYPE))
+        .isEqualTo("java.lang.IllegalStateException");
+    assertThat(attributes.get(SemanticAttributes.EXCEPTION_STACKTRACE)).isEqualTo(stacktrace);
+    assertThat(attributes)
+        .isEqualTo(
+            Attributes.builder()
+                .put(SemanticAttributes.EXCEPTION_TYPE, "java.lang.IllegalStateException")
+                .put(SemanticAttributes.EXCEPTION_MESSAGE, "there was an exception")
+                .put(SemanticAttributes.EXCEPTION_STACKTRACE, stacktrace)
+                .build());
+    Map<AttributeKey<?>, Object> exported = new HashMap<>();
+    attributes.forEach(exported::put);
+    assertThat(exported).isEqualTo(attributes.asMap());
+  }
+
+  @Test
+  void recordException_lazyStackTrace_additionalStackTrace() {
+    IllegalStateException exception = new IllegalStateException("there was an exception");
+    RecordEventsReadableSpan span =
+        createTestSpan(TraceConfig.builder().setRenderStackTracesLazily(true).build());
+
+    span.recordException(
+        exception, Attributes.of(SemanticAttributes.EXCEPTION_STACKTRACE, "custom stacktrace"));
+
+    Attributes attributes = span.toSpanData().getEvents().get(0).getAttributes();
+    assertThat(attributes).isNotInstanceOf(LazyStackTraceAttributes.class);
+    assertThat(attributes.get(SemanticAttributes.EXCEPTION_STACKTRACE))
+        .isEqualTo("custom stacktrace");
+  }
+
+  @Test
+  void recordException_maxStackTraceFrames() {
+    IllegalStateException exception = new IllegalStateException("there was an exception");
+    RecordEventsReadableSpan span =
+        createTestSpan(TraceConfig.builder().setMaxNumberOfStackTraceFrames(1).build());
+
+    span.recordException(exception);
+
+    String stacktrace =
+        span.toSpanData()
+            .getEvents()
+            .get(0)
+            .getAttributes()
+            .get(SemanticAttributes.EXCEPTION_STACKTRACE);
+    StackTraceElement[] frames = exception.getStackTrace();
+    assertThat(stacktrace.split(System.lineSeparator()))
+        .containsExactly(
+            "java.lang.IllegalStateException: there was an exception",
+            "\tat " + frames[0],
+            "\t... " + (frames.length - 1) + " more");
+  }
+
+  @Test
+  void recordException_deduplicateStackTraces() {
+    RecordEventsReadableSpan span =
+        createTestSpan(TraceConfig.builder().setDeduplicateStackTraces(true).build());
+
+    for (int i = 0; i < 2; i++) {
+      span.recordException(new IllegalStateException("there was an exception"));
+    }
+
+    List<Event> events = span.toSpanData().getEvents();
+    assertThat(events).hasSize(2);
+    assertThat(events.get(1).getAttributes().get(SemanticAttributes.EXCEPTION_STACKTRACE))
+        .isSameAs(events.get(0).getAttributes().get(SemanticAttributes.EXCEPTION_STACKTRACE));
+  }
+
+  @Test
+  void recordException_deduplicateStackTraces_deferredToExport() {
+    RecordEventsReadableSpan span =
+        createTestSpan(TraceConfig.builder().setDeduplicateStackTraces(true).build());
+    AtomicBoolean framesCopied = new AtomicBoolean();
+    IllegalStateException exception =
+        new IllegalStateException("there was an exception") {
+          @Override
+          public StackTraceElement[] getStackTrace() {
+            framesCopied.set(true);
+            return super.getStackTrace();
+          }
+        };
+
+    span.recordException(exception);
+    Attributes attributes = span.toSpanData().getEvents().get(0).getAttributes();
+
+    assertThat(framesCopied).isFalse();
+    assertThat(attributes.get(SemanticAttributes.EXCEPTION_STACKTRACE)).isNotEmpty();
+    assertThat(framesCopied).isTrue();
+  }
+
+  @Test
+  void recordException_lazyStackTrace_limitsAttributesWithoutRendering() {
+    RecordEventsReadableSpan span =
+        createTestSpan(
+            TraceConfig.builder()
+                .setRenderStackTracesLazily(true)
+                .setMaxNumberOfAttributesPerEvent(3)
+                .build());
+
+    span.recordException(
+        new IllegalStateException("there was an exception"),
+        Attributes.of(stringKey("first"), "1", stringKey("second"), "2"));
+
+    Event event = span.toSpanData().getEvents().get(0);
+    LazyStackTraceAttributes attributes = (LazyStackTraceAttributes) event.getAttributes();
+    assertThat(attributes.getComputedAttributes()).isNull();
+    assertThat(attributes.size()).isEqualTo(3);
+    assertThat(event.getTotalAttributeCount()).isEqualTo(5);
+    assertThat(attributes.getEagerAttributes().asMap())
+        .containsOnlyKeys(SemanticAttributes.EXCEPTION_TYPE, SemanticAttributes.EXCEPTION_MESSAGE);
+  }
+
   @Test
   void badArgsIgnored() {
     RecordEventsReadableSpan span = createTestRootSpan();
@@ -948,4 +1152,41 @@ class RecordEventsReadableSpanTest {
     }
     modifierFuture.get();
   }
+
+  @Test
+  void concurrentWriters() throws Exception {
+    final RecordEventsReadableSpan span = createTestSpan(Kind.INTERNAL);
+    int numThreads = 4;
+    int numOperations = 1000;
+    ExecutorService es = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        final int thread = t;
+        futures.add(
+            es.submit(
+                () -> {
+                  for (int i = 0; i < numOperations; i++) {
+                    span.setAttribute("thread" + thread, i);
+                    span.addEvent("event");
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      es.shutdown();
+    }
+    span.end();
+
+    SpanData spanData = span.toSpanData();
+    assertThat(spanData.getTotalAttributeCount()).isEqualTo(numThreads * numOperations);
+    assertThat(spanData.getAttributes().size()).isEqualTo(numThreads);
+    assertThat(spanData.getTotalRecordedEvents()).isEqualTo(numThreads * numOperations);
+    assertThat(spanData.getEvents()).hasSize(TraceConfig.getDefault().getMaxNumberOfEvents());
+    for (int t = 0; t < numThreads; t++) {
+      assertThat(spanData.getAttributes().get(longKey("thread" + t))).isEqualTo(numOperations - 1L);
+    }
+  }
 }
@@ -40,6 +40,7 @@ import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nullable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -663,6 +664,63 @@ class SdkSpanBuilderTest {
     }
   }
 
+  @Test
+  void longIdGenerator_binarySpanContext() {
+    Span parent = sdkTracer.spanBuilder(SPAN_NAME).startSpan();
+    try {
+      Span span =
+          sdkTracer.spanBuilder(SPAN_NAME).setParent(Context.root().with(parent)).startSpan();
+      try {
+        SpanContext spanContext = span.getSpanContext();
+        assertThat(spanContext).isInstanceOf(LongIdSpanContext.class);
+        assertThat(spanContext.isValid()).isTrue();
+        assertThat(spanContext.getTraceIdAsHexString())
+            .isEqualTo(parent.getSpanContext().getTraceIdAsHexString());
+        assertThat(spanContext.getTraceIdHighBytesAsLong())
+            .isEqualTo(parent.getSpanContext().getTraceIdHighBytesAsLong());
+        assertThat(spanContext.getTraceIdLowBytesAsLong())
+            .isEqualTo(parent.getSpanContext().getTraceIdLowBytesAsLong());
+        assertThat(spanContext.getSpanIdAsHexString())
+            .isEqualTo(SpanId.fromLong(spanContext.getSpanIdAsLong()));
+        assertThat(((ReadableSpan) span).toSpanData().getSpanContext()).isSameAs(spanContext);
+      } finally {
+        span.end();
+      }
+    } finally {
+      parent.end();
+    }
+  }
+
+  @Test
+  void stringIdGenerator() {
+    IdGenerator idGenerator =
+        new IdGenerator() {
+          @Override
+          public String generateSpanId() {
+            return SpanId.fromLong(3000);
+          }
+
+          @Override
+          public String generateTraceId() {
+            return TraceId.fromLongs(1000, 2000);
+          }
+        };
+    SdkTracer tracer =
+        (SdkTracer)
+            SdkTracerProvider.builder()
+                .setIdGenerator(idGenerator)
+                .build()
+                .get("SpanBuilderSdkTest");
+    Span span = tracer.spanBuilder(SPAN_NAME).startSpan();
+    try {
+      assertThat(span.getSpanContext().getTraceIdAsHexString())
+          .isEqualTo(TraceId.fromLongs(1000, 2000));
+      assertThat(span.getSpanContext().getSpanIdAsHexString()).isEqualTo(SpanId.fromLong(3000));
+    } finally {
+      span.end();
+    }
+  }
+
   @Test
   void noParent_override() {
     final Span parent = sdkTracer.spanBuilder(SPAN_NAME).startSpan();
@@ -819,6 +877,186 @@ class SdkSpanBuilderTest {
     }
   }
 
+  @Test
+  void droppedSpan_underDroppedLocalParent_hasOwnSpanId() {
+    SdkTracer tracer = tracer(Sampler.alwaysOff(), IdGenerator.random());
+    Span parent = tracer.spanBuilder(SPAN_NAME).startSpan();
+    assertThat(parent.getSpanContext().isValid()).isTrue();
+
+    Span span = tracer.spanBuilder(SPAN_NAME).setParent(Context.root().with(parent)).startSpan();
+    assertThat(span).isNotSameAs(parent);
+    assertThat(span.isRecording()).isFalse();
+    assertThat(span.getSpanContext().getTraceIdAsHexString())
+        .isEqualTo(parent.getSpanContext().getTraceIdAsHexString());
+    assertThat(span.getSpanContext().getSpanIdAsHexString())
+        .isNotEqualTo(parent.getSpanContext().getSpanIdAsHexString());
+    assertThat(span.getSpanContext().isSampled()).isFalse();
+  }
+
+  @Test
+  void droppedSpan_generatesSpanIdAfterSampling() {
+    AtomicInteger spanIds = new AtomicInteger();
+    IdGenerator idGenerator =
+        new IdGenerator() {
+          @Override
+          public String generateSpanId() {
+            spanIds.incrementAndGet();
+            return IdGenerator.random().generateSpanId();
+          }
+
+          @Override
+          public String generateTraceId() {
+            return IdGenerator.random().generateTraceId();
+          }
+        };
+    AtomicInteger spanIdsWhenSampling = new AtomicInteger(-1);
+    Sampler sampler =
+        new Sampler() {
+          @Override
+          public SamplingResult shouldSample(
+              Context parentContext,
+              String traceId,
+              String name,
+              Kind spanKind,
+              Attributes attributes,
+              List<Link> parentLinks) {
+            spanIdsWhenSampling.set(spanIds.get());
+            return SamplingResult.create(SamplingResult.Decision.DROP);
+          }
+
+          @Override
+          public String getDescription() {
+            return "CountSpanIds";
+          }
+        };
+
+    Span span = tracer(sampler, idGenerator).spanBuilder(SPAN_NAME).startSpan();
+    assertThat(spanIdsWhenSampling).hasValue(0);
+    assertThat(spanIds).hasValue(1);
+    assertThat(span.getSpanContext().isValid()).isTrue();
+  }
+
+  @Test
+  void droppedSpan_underRemoteParent_isNewSpan() {
+    SpanContext remoteParent =
+        SpanContext.createFromRemoteParent(
+            TraceId.fromLongs(1000, 1000),
+            SpanId.fromLong(3000),
+            TraceFlags.getDefault(),
+            TraceState.getDefault());
+    Span parent = Span.wrap(remoteParent);
+
+    Span span =
+        tracer(Sampler.alwaysOff(), IdGenerator.random())
+            .spanBuilder(SPAN_NAME)
+            .setParent(Context.root().with(parent))
+            .startSpan();
+    assertThat(span).isNotSameAs(parent);
+    assertThat(span.getSpanContext().getTraceIdAsHexString())
+        .isEqualTo(remoteParent.getTraceIdAsHexString());
+    assertThat(span.getSpanContext().getSpanIdAsHexString())
+        .isNotEqualTo(remoteParent.getSpanIdAsHexString());
+    assertThat(span.getSpanContext().isRemote()).isFalse();
+  }
+
+  @Test
+  void droppedSpan_underSampledParent_isNewSpan() {
+    Span parent = Span.wrap(sampledSpanContext);
+
+    Span span =
+        tracer(Sampler.alwaysOff(), IdGenerator.random())
+            .spanBuilder(SPAN_NAME)
+            .setParent(Context.root().with(parent))
+            .startSpan();
+    assertThat(span).isNotSameAs(parent);
+    assertThat(span.getSpanContext().isSampled()).isFalse();
+  }
+
+  @Test
+  void droppedSpan_underRecordedParent_isNewSpan() {
+    Sampler recordParentOnly =
+        new Sampler() {
+          @Override
+          public SamplingResult shouldSample(
+              Context parentContext,
+              String traceId,
+              String name,
+              Kind spanKind,
+              Attributes attributes,
+              List<Link> parentLinks) {
+            return SamplingResult.create(
+                "parent".equals(name)
+                    ? SamplingResult.Decision.RECORD_ONLY
+                    : SamplingResult.Decision.DROP);
+          }
+
+          @Override
+          public String getDescription() {
+            return "RecordParentOnly";
+          }
+        };
+    SdkTracer tracer = tracer(recordParentOnly, IdGenerator.random());
+    Span parent = tracer.spanBuilder("parent").startSpan();
+    parent.end();
+
+    Span span = tracer.spanBuilder(SPAN_NAME).setParent(Context.root().with(parent)).startSpan();
+    assertThat(span).isNotSameAs(parent);
+    assertThat(span.getSpanContext().getSpanIdAsHexString())
+        .isNotEqualTo(parent.getSpanContext().getSpanIdAsHexString());
+  }
+
+  @Test
+  void droppedSpan_updatedTraceState_isNewSpan() {
+    Sampler updateTraceState =
+        new Sampler() {
+          @Override
+          public SamplingResult shouldSample(
+              Context parentContext,
+              String traceId,
+              String name,
+              Kind spanKind,
+              Attributes attributes,
+              List<Link> parentLinks) {
+            return new SamplingResult() {
+              @Override
+              public Decision getDecision() {
+                return Decision.DROP;
+              }
+
+              @Override
+              public Attributes getAttributes() {
+                return Attributes.empty();
+              }
+
+              @Override
+              public TraceState getUpdatedTraceState(TraceState parentTraceState) {
+                return parentTraceState.toBuilder().set("depth", name).build();
+              }
+            };
+          }
+
+          @Override
+          public String getDescription() {
+            return "UpdateTraceState";
+          }
+        };
+    SdkTracer tracer = tracer(updateTraceState, IdGenerator.random());
+    Span parent = tracer.spanBuilder("parent").startSpan();
+
+    Span span = tracer.spanBuilder("child").setParent(Context.root().with(parent)).startSpan();
+    assertThat(span).isNotSameAs(parent);
+    assertThat(span.getSpanContext().getTraceState().get("depth")).isEqualTo("child");
+  }
+
+  private static SdkTracer tracer(Sampler sampler, IdGenerator idGenerator) {
+    return (SdkTracer)
+        SdkTracerProvider.builder()
+            .setTraceConfig(TraceConfig.builder().setSampler(sampler).build())
+            .setIdGenerator(idGenerator)
+            .build()
+            .get("SpanBuilderSdkTest");
+  }
+
   @Test
   void startTimestamp_numeric() {
     RecordEventsReadableSpan span =
@@ -18,6 +18,7 @@ import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.config.TraceConfig;
 import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -90,6 +91,46 @@ class SdkTracerProviderTest {
         .hasMessage("idGenerator");
   }
 
+  @Test
+  void builder_InvalidSpanProcessorLatency() {
+    assertThatThrownBy(
+            () -> SdkTracerProvider.builder().setSpanProcessorLatencySamplingInterval(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("samplingInterval must be non-negative");
+    assertThatThrownBy(
+            () ->
+                SdkTracerProvider.builder()
+                    .setSpanProcessorLatencyBudget(-1, TimeUnit.MILLISECONDS))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("budget must be non-negative");
+    assertThatThrownBy(() -> SdkTracerProvider.builder().setSpanProcessorLatencyBudget(1, null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("unit");
+  }
+
+  @Test
+  void spanProcessorLatency_instrumentsEachProcessor() {
+    SpanProcessor otherSpanProcessor = mock(SpanProcessor.class);
+    when(spanProcessor.isStartRequired()).thenReturn(true);
+    when(spanProcessor.isEndRequired()).thenReturn(true);
+    when(otherSpanProcessor.isEndRequired()).thenReturn(true);
+    SdkTracerProvider tracerProvider =
+        SdkTracerProvider.builder()
+            .addSpanProcessor(spanProcessor)
+            .setSpanProcessorLatencySamplingInterval(1)
+            .setSpanProcessorLatencyBudget(1, TimeUnit.MILLISECONDS)
+            .build();
+    tracerProvider.addSpanProcessor(otherSpanProcessor);
+
+    Span span = tracerProvider.get("test").spanBuilder("span").startSpan();
+    span.end();
+
+    Mockito.verify(spanProcessor).onStart(Mockito.any(), Mockito.same((ReadWriteSpan) span));
+    Mockito.verify(spanProcessor).onEnd(Mockito.same((ReadableSpan) span));
+    Mockito.verify(otherSpanProcessor, Mockito.never()).onStart(Mockito.any(), Mockito.any());
+    Mockito.verify(otherSpanProcessor).onEnd(Mockito.same((ReadableSpan) span));
+  }
+
   @Test
   void defaultGet() {
     assertThat(tracerFactory.get("test")).isInstanceOf(SdkTracer.class);
@@ -0,0 +1,147 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.sdk.trace.config.TraceConfig;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class StackTraceRendererTest {
+
+  private static final int UNLIMITED = TraceConfig.UNLIMITED_STACK_TRACE_FRAMES;
+
+  @AfterEach
+  void tearDown() {
+    StackTraceRenderer.clearCache();
+  }
+
+  @Test
+  void render_unlimited() {
+    Throwable exception = newNestedException();
+
+    assertThat(StackTraceRenderer.render(exception, UNLIMITED, false))
+        .isEqualTo(printStackTrace(exception));
+  }
+
+  @Test
+  void render_limitAboveDepth_matchesPrintStackTrace() {
+    Throwable exception = newNestedException();
+
+    assertThat(StackTraceRenderer.render(exception, Integer.MAX_VALUE, false))
+        .isEqualTo(printStackTrace(exception));
+  }
+
+  @Test
+  void render_circularReference_matchesPrintStackTrace() {
+    IllegalStateException exception = new IllegalStateException("outer");
+    IllegalArgumentException cause = new IllegalArgumentException("inner", exception);
+    exception.initCause(cause);
+
+    assertThat(StackTraceRenderer.render(exception, Integer.MAX_VALUE, false))
+        .isEqualTo(printStackTrace(exception));
+  }
+
+  @Test
+  void render_truncatesFramesOfEachException() {
+    Throwable exception = newNestedException();
+    StackTraceElement[] frames = exception.getStackTrace();
+
+    String[] lines = StackTraceRenderer.render(exception, 2, false).split(System.lineSeparator());
+
+    assertThat(lines[0]).isEqualTo(exception.toString());
+    assertThat(lines[1]).isEqualTo("\tat " + frames[0]);
+    assertThat(lines[2]).isEqualTo("\tat " + frames[1]);
+    assertThat(lines[3]).isEqualTo("\t... " + (frames.length - 2) + " more");
+    Throwable suppressed = exception.getSuppressed()[0];
+    StackTraceElement[] suppressedFrames = suppressed.getStackTrace();
+    assertThat(lines[4]).isEqualTo("\tSuppressed: " + suppressed);
+    assertThat(lines[5]).isEqualTo("\t\tat " + suppressedFrames[0]);
+    assertThat(lines[6]).isEqualTo("\t\t... " + (suppressedFrames.length - 1) + " more");
+    // The cause was created in the same frame as the exception, so all its frames are in common.
+    assertThat(lines[7]).isEqualTo("Caused by: " + exception.getCause());
+    assertThat(lines[8])
+        .isEqualTo("\t... " + exception.getCause().getStackTrace().length + " more");
+    assertThat(lines).hasSize(9);
+  }
+
+  @Test
+  void render_deduplicatesIdenticalTraces() {
+    Throwable[] exceptions = newExceptions("message", 2);
+
+    String first = StackTraceRenderer.render(exceptions[0], UNLIMITED, true);
+    String second = StackTraceRenderer.render(exceptions[1], UNLIMITED, true);
+
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  void render_doesNotDeduplicateDifferentTraces() {
+    Throwable[] exceptions = newExceptions("message", 3);
+    Throwable withCause = exceptions[2];
+    withCause.initCause(new IllegalArgumentException());
+
+    String first = StackTraceRenderer.render(exceptions[0], UNLIMITED, true);
+    String otherMessage = StackTraceRenderer.render(newExceptions("other", 1)[0], UNLIMITED, true);
+    String otherFrames = StackTraceRenderer.render(exceptions[1], 1, true);
+    String otherCause = StackTraceRenderer.render(withCause, UNLIMITED, true);
+
+    assertThat(otherMessage).isNotEqualTo(first);
+    assertThat(otherFrames).isNotEqualTo(first);
+    assertThat(otherCause).isNotEqualTo(first).isEqualTo(printStackTrace(withCause));
+  }
+
+  @Test
+  void render_boundsCache() {
+    Throwable[] exceptions = newExceptions("0", 3);
+    String evicted = StackTraceRenderer.render(exceptions[0], 1, true);
+    for (int i = 1; i <= StackTraceRenderer.MAX_CACHED_STACK_TRACES; i++) {
+      StackTraceRenderer.render(new IllegalStateException(Integer.toString(i)), 1, true);
+    }
+
+    String first = StackTraceRenderer.render(exceptions[1], 1, true);
+    assertThat(first).isEqualTo(evicted).isNotSameAs(evicted);
+    assertThat(StackTraceRenderer.render(exceptions[2], 1, true)).isSameAs(first);
+  }
+
+  @Test
+  void render_keepsRecentlyUsedRenderings() {
+    Throwable[] exceptions = newExceptions("0", 2);
+    String kept = StackTraceRenderer.render(exceptions[0], 1, true);
+    for (int i = 1; i <= StackTraceRenderer.MAX_CACHED_STACK_TRACES; i++) {
+      StackTraceRenderer.render(new IllegalStateException(Integer.toString(i)), 1, true);
+      if (i == StackTraceRenderer.MAX_CACHED_STACK_TRACES / 2) {
+        assertThat(StackTraceRenderer.render(exceptions[1], 1, true)).isSameAs(kept);
+      }
+    }
+
+    assertThat(StackTraceRenderer.render(exceptions[0], 1, true)).isSameAs(kept);
+  }
+
+  // Created in the same frame, so that their traces are identical.
+  private static Throwable[] newExceptions(String message, int count) {
+    Throwable[] exceptions = new Throwable[count];
+    for (int i = 0; i < count; i++) {
+      exceptions[i] = new IllegalStateException(message);
+    }
+    return exceptions;
+  }
+
+  private static Throwable newNestedException() {
+    Throwable exception = new IllegalStateException("outer", new IllegalArgumentException("inner"));
+    exception.addSuppressed(new UnsupportedOperationException("suppressed"));
+    return exception;
+  }
+
+  private static String printStackTrace(Throwable exception) {
+    StringWriter writer = new StringWriter();
+    exception.printStackTrace(new PrintWriter(writer));
+    return writer.toString();
+  }
+}
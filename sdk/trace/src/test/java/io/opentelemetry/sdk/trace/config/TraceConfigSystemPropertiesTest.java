@@ -22,6 +22,10 @@ public class TraceConfigSystemPropertiesTest {
     System.clearProperty("otel.span.link.count.limit");
     System.clearProperty("otel.config.max.event.attrs");
     System.clearProperty("otel.config.max.link.attrs");
+    System.clearProperty("otel.config.lazy.stacktrace");
+    System.clearProperty("otel.config.max.stacktrace.frames");
+    System.clearProperty("otel.config.dedup.stacktrace");
+    System.clearProperty("otel.config.event.retention");
   }
 
   @Test
@@ -32,6 +36,10 @@ public class TraceConfigSystemPropertiesTest {
     System.setProperty("otel.span.link.count.limit", "9");
     System.setProperty("otel.config.max.event.attrs", "7");
     System.setProperty("otel.config.max.link.attrs", "11");
+    System.setProperty("otel.config.lazy.stacktrace", "true");
+    System.setProperty("otel.config.max.stacktrace.frames", "30");
+    System.setProperty("otel.config.dedup.stacktrace", "true");
+    System.setProperty("otel.config.event.retention", "keep_first_and_latest");
     TraceConfig traceConfig =
         TraceConfig.builder().readEnvironmentVariables().readSystemProperties().build();
     // this is not a useful assertion. How can we do better?
@@ -42,6 +50,11 @@ public class TraceConfigSystemPropertiesTest {
     assertThat(traceConfig.getMaxNumberOfLinks()).isEqualTo(9);
     assertThat(traceConfig.getMaxNumberOfAttributesPerEvent()).isEqualTo(7);
     assertThat(traceConfig.getMaxNumberOfAttributesPerLink()).isEqualTo(11);
+    assertThat(traceConfig.shouldRenderStackTracesLazily()).isTrue();
+    assertThat(traceConfig.getMaxNumberOfStackTraceFrames()).isEqualTo(30);
+    assertThat(traceConfig.shouldDeduplicateStackTraces()).isTrue();
+    assertThat(traceConfig.getEventRetentionPolicy())
+        .isEqualTo(EventRetentionPolicy.KEEP_FIRST_AND_LATEST);
   }
 
   @Test
@@ -79,6 +92,20 @@ public class TraceConfigSystemPropertiesTest {
         .isInstanceOf(IllegalArgumentException.class);
   }
 
+  @Test
+  void updateTraceConfig_InvalidEventRetentionPolicy() {
+    System.setProperty("otel.config.event.retention", "keep_all");
+    assertThatThrownBy(() -> TraceConfig.builder().readSystemProperties().build())
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void updateTraceConfig_NonPositiveMaxNumberOfStackTraceFrames() {
+    System.setProperty("otel.config.max.stacktrace.frames", "0");
+    assertThatThrownBy(() -> TraceConfig.builder().readSystemProperties().build())
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
   @Test
   void updateTraceConfig_NonPositiveMaxNumberOfAttributesPerLink() {
     System.setProperty("otel.config.max.link.attrs", "-10");
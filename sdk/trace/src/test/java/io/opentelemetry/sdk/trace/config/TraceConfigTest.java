@@ -22,6 +22,12 @@ class TraceConfigTest {
     assertThat(TraceConfig.getDefault().getMaxNumberOfLinks()).isEqualTo(1000);
     assertThat(TraceConfig.getDefault().getMaxNumberOfAttributesPerEvent()).isEqualTo(32);
     assertThat(TraceConfig.getDefault().getMaxNumberOfAttributesPerLink()).isEqualTo(32);
+    assertThat(TraceConfig.getDefault().shouldRenderStackTracesLazily()).isFalse();
+    assertThat(TraceConfig.getDefault().getMaxNumberOfStackTraceFrames())
+        .isEqualTo(TraceConfig.UNLIMITED_STACK_TRACE_FRAMES);
+    assertThat(TraceConfig.getDefault().shouldDeduplicateStackTraces()).isFalse();
+    assertThat(TraceConfig.getDefault().getEventRetentionPolicy())
+        .isEqualTo(EventRetentionPolicy.KEEP_FIRST);
   }
 
   @Test
@@ -60,6 +66,18 @@ class TraceConfigTest {
         .isInstanceOf(IllegalArgumentException.class);
   }
 
+  @Test
+  void updateTraceConfig_NullEventRetentionPolicy() {
+    assertThatThrownBy(() -> TraceConfig.builder().setEventRetentionPolicy(null))
+        .isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void updateTraceConfig_NonPositiveMaxNumberOfStackTraceFrames() {
+    assertThatThrownBy(() -> TraceConfig.builder().setMaxNumberOfStackTraceFrames(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
   @Test
   void updateTraceConfig_InvalidTraceIdRatioBased() {
     assertThatThrownBy(() -> TraceConfig.builder().setTraceIdRatioBased(2))
@@ -96,6 +114,10 @@ class TraceConfigTest {
             .setMaxNumberOfLinks(11)
             .setMaxNumberOfAttributesPerEvent(1)
             .setMaxNumberOfAttributesPerLink(2)
+            .setRenderStackTracesLazily(true)
+            .setMaxNumberOfStackTraceFrames(20)
+            .setDeduplicateStackTraces(true)
+            .setEventRetentionPolicy(EventRetentionPolicy.KEEP_LATEST)
             .build();
     assertThat(traceConfig.getSampler()).isEqualTo(Sampler.alwaysOff());
     assertThat(traceConfig.getMaxNumberOfAttributes()).isEqualTo(8);
@@ -103,6 +125,10 @@ class TraceConfigTest {
     assertThat(traceConfig.getMaxNumberOfLinks()).isEqualTo(11);
     assertThat(traceConfig.getMaxNumberOfAttributesPerEvent()).isEqualTo(1);
     assertThat(traceConfig.getMaxNumberOfAttributesPerLink()).isEqualTo(2);
+    assertThat(traceConfig.shouldRenderStackTracesLazily()).isTrue();
+    assertThat(traceConfig.getMaxNumberOfStackTraceFrames()).isEqualTo(20);
+    assertThat(traceConfig.shouldDeduplicateStackTraces()).isTrue();
+    assertThat(traceConfig.getEventRetentionPolicy()).isEqualTo(EventRetentionPolicy.KEEP_LATEST);
 
     // Preserves values
     TraceConfig traceConfigDupe = traceConfig.toBuilder().build();
@@ -0,0 +1,88 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveBatchControllerTest {
+
+  private static final int MIN_BATCH_SIZE = 16;
+  private static final int MAX_BATCH_SIZE = 512;
+  private static final long MIN_DELAY_NANOS = 100;
+  private static final long MAX_DELAY_NANOS = 6400;
+
+  private final AdaptiveBatchController controller =
+      new AdaptiveBatchController(MIN_BATCH_SIZE, MAX_BATCH_SIZE, MIN_DELAY_NANOS, MAX_DELAY_NANOS);
+
+  @Test
+  void startsWithStaticConfiguration() {
+    assertThat(controller.getBatchSize()).isEqualTo(MAX_BATCH_SIZE);
+    assertThat(controller.getScheduleDelayNanos()).isEqualTo(MAX_DELAY_NANOS);
+  }
+
+  @Test
+  void idle_exportsSmallBatchesPromptly() {
+    for (int i = 0; i < 100; i++) {
+      controller.recordExport(10, true);
+      controller.update(0);
+    }
+    assertThat(controller.getBatchSize()).isEqualTo(MIN_BATCH_SIZE);
+    assertThat(controller.getScheduleDelayNanos()).isEqualTo(MIN_DELAY_NANOS);
+  }
+
+  @Test
+  void queueFillingUp_growsBatches() {
+    idle_exportsSmallBatchesPromptly();
+    controller.update(0.8);
+    assertThat(controller.getBatchSize()).isEqualTo(2 * MIN_BATCH_SIZE);
+    for (int i = 0; i < 100; i++) {
+      controller.update(0.8);
+    }
+    assertThat(controller.getBatchSize()).isEqualTo(MAX_BATCH_SIZE);
+    assertThat(controller.getScheduleDelayNanos()).isEqualTo(MIN_DELAY_NANOS);
+  }
+
+  @Test
+  void slowExporter_growsDelay() {
+    idle_exportsSmallBatchesPromptly();
+    for (int i = 0; i < 100; i++) {
+      controller.recordExport(1000, true);
+      controller.update(0.3);
+    }
+    assertThat(controller.getScheduleDelayNanos()).isEqualTo(1600);
+  }
+
+  @Test
+  void failingExporter_backsOff() {
+    idle_exportsSmallBatchesPromptly();
+    for (int i = 0; i < 100; i++) {
+      controller.update(0.8);
+    }
+    for (int i = 0; i < 100; i++) {
+      controller.recordExport(10, false);
+      controller.update(0.8);
+    }
+    assertThat(controller.getBatchSize()).isEqualTo(MIN_BATCH_SIZE);
+    assertThat(controller.getScheduleDelayNanos()).isEqualTo(MAX_DELAY_NANOS);
+
+    // Recovers once exports succeed again.
+    for (int i = 0; i < 100; i++) {
+      controller.recordExport(10, true);
+      controller.update(0.8);
+    }
+    assertThat(controller.getBatchSize()).isEqualTo(MAX_BATCH_SIZE);
+  }
+
+  @Test
+  void minimumsLargerThanMaximums() {
+    AdaptiveBatchController controller = new AdaptiveBatchController(1024, 512, 10_000, 100);
+    controller.update(0);
+    assertThat(controller.getBatchSize()).isEqualTo(512);
+    assertThat(controller.getScheduleDelayNanos()).isEqualTo(100);
+  }
+}
@@ -14,20 +14,26 @@ import static org.mockito.Mockito.when;
 
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
 import io.opentelemetry.sdk.trace.ReadableSpan;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import io.opentelemetry.sdk.trace.config.TraceConfig;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.samplers.Sampler;
 import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -70,6 +76,15 @@ class BatchSpanProcessorTest {
     options.put("otel.bsp.max.export.batch.size", "56");
     options.put("otel.bsp.export.timeout.millis", "78");
     options.put("otel.bsp.export.sampled", "false");
+    options.put("otel.bsp.lock.free.queue", "true");
+    options.put("otel.bsp.max.concurrent.exports", "9");
+    options.put("otel.bsp.shards", "3");
+    options.put("otel.bsp.max.queue.bytes", "1048576");
+    options.put("otel.bsp.backpressure.policy", "drop_oldest");
+    options.put("otel.bsp.block.timeout.millis", "10");
+    options.put("otel.bsp.adaptive", "true");
+    options.put("otel.bsp.min.export.batch.size", "11");
+    options.put("otel.bsp.min.schedule.delay.millis", "2");
     BatchSpanProcessorBuilder config =
         BatchSpanProcessor.builder(new WaitingSpanExporter(0, CompletableResultCode.ofSuccess()))
             .readProperties(options);
@@ -78,6 +93,15 @@ class BatchSpanProcessorTest {
     assertThat(config.getMaxExportBatchSize()).isEqualTo(56);
     assertThat(config.getExporterTimeoutNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(78));
     assertThat(config.getExportOnlySampled()).isEqualTo(false);
+    assertThat(config.getUseLockFreeQueue()).isTrue();
+    assertThat(config.getMaxConcurrentExports()).isEqualTo(9);
+    assertThat(config.getNumberOfShards()).isEqualTo(3);
+    assertThat(config.getMaxQueueBytes()).isEqualTo(1048576);
+    assertThat(config.getBackpressurePolicy()).isEqualTo(BackpressurePolicy.DROP_OLDEST);
+    assertThat(config.getBlockTimeoutNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+    assertThat(config.getAdaptiveBatching()).isTrue();
+    assertThat(config.getMinExportBatchSize()).isEqualTo(11);
+    assertThat(config.getMinScheduleDelayNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(2));
   }
 
   @Test
@@ -97,6 +121,29 @@ class BatchSpanProcessorTest {
             TimeUnit.MILLISECONDS.toNanos(BatchSpanProcessorBuilder.DEFAULT_EXPORT_TIMEOUT_MILLIS));
     assertThat(config.getExportOnlySampled())
         .isEqualTo(BatchSpanProcessorBuilder.DEFAULT_EXPORT_ONLY_SAMPLED);
+    assertThat(config.getUseLockFreeQueue())
+        .isEqualTo(BatchSpanProcessorBuilder.DEFAULT_USE_LOCK_FREE_QUEUE);
+    assertThat(config.getMaxConcurrentExports())
+        .isEqualTo(BatchSpanProcessorBuilder.DEFAULT_MAX_CONCURRENT_EXPORTS);
+    assertThat(config.getNumberOfShards())
+        .isEqualTo(BatchSpanProcessorBuilder.DEFAULT_NUMBER_OF_SHARDS);
+    assertThat(config.getShardByTraceId())
+        .isEqualTo(BatchSpanProcessorBuilder.DEFAULT_SHARD_BY_TRACE_ID);
+    assertThat(config.getMaxQueueBytes())
+        .isEqualTo(BatchSpanProcessorBuilder.DEFAULT_MAX_QUEUE_BYTES);
+    assertThat(config.getBackpressurePolicy())
+        .isEqualTo(BatchSpanProcessorBuilder.DEFAULT_BACKPRESSURE_POLICY);
+    assertThat(config.getBlockTimeoutNanos())
+        .isEqualTo(
+            TimeUnit.MILLISECONDS.toNanos(BatchSpanProcessorBuilder.DEFAULT_BLOCK_TIMEOUT_MILLIS));
+    assertThat(config.getAdaptiveBatching())
+        .isEqualTo(BatchSpanProcessorBuilder.DEFAULT_ADAPTIVE_BATCHING);
+    assertThat(config.getMinExportBatchSize())
+        .isEqualTo(BatchSpanProcessorBuilder.DEFAULT_MIN_EXPORT_BATCH_SIZE);
+    assertThat(config.getMinScheduleDelayNanos())
+        .isEqualTo(
+            TimeUnit.MILLISECONDS.toNanos(
+                BatchSpanProcessorBuilder.DEFAULT_MIN_SCHEDULE_DELAY_MILLIS));
   }
 
   @Test
@@ -123,6 +170,38 @@ class BatchSpanProcessorTest {
     assertThatThrownBy(() -> BatchSpanProcessor.builder(exporter).setExporterTimeout(null))
         .isInstanceOf(NullPointerException.class)
         .hasMessage("timeout");
+    assertThatThrownBy(() -> BatchSpanProcessor.builder(exporter).setMaxConcurrentExports(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxConcurrentExports must be positive.");
+    assertThatThrownBy(() -> BatchSpanProcessor.builder(exporter).setNumberOfShards(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("numberOfShards must be positive.");
+    assertThatThrownBy(() -> BatchSpanProcessor.builder(exporter).setMaxQueueBytes(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxQueueBytes must be non-negative.");
+    assertThatThrownBy(() -> BatchSpanProcessor.builder(exporter).setBackpressurePolicy(null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("backpressurePolicy");
+    assertThatThrownBy(
+            () ->
+                BatchSpanProcessor.builder(exporter)
+                    .setUseLockFreeQueue(true)
+                    .setBackpressurePolicy(BackpressurePolicy.PRIORITY)
+                    .build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("The lock-free queue cannot be used with the PRIORITY policy.");
+    assertThatThrownBy(
+            () -> BatchSpanProcessor.builder(exporter).setBlockTimeout(-1, TimeUnit.MILLISECONDS))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("timeout must be non-negative");
+    assertThatThrownBy(() -> BatchSpanProcessor.builder(exporter).setMinExportBatchSize(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("minExportBatchSize must be positive.");
+    assertThatThrownBy(
+            () ->
+                BatchSpanProcessor.builder(exporter).setMinScheduleDelay(-1, TimeUnit.MILLISECONDS))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("delay must be non-negative");
   }
 
   @Test
@@ -215,6 +294,412 @@ class BatchSpanProcessorTest {
     assertThat(exported.size()).isEqualTo(2);
   }
 
+  @Test
+  void lockFreeQueue_exportMoreSpansThanTheBufferSize() {
+    CompletableSpanExporter spanExporter = new CompletableSpanExporter();
+
+    sdkTracerProvider =
+        SdkTracerProvider.builder()
+            .addSpanProcessor(
+                BatchSpanProcessor.builder(spanExporter)
+                    .setUseLockFreeQueue(true)
+                    .setMaxQueueSize(6)
+                    .setMaxExportBatchSize(2)
+                    .setScheduleDelay(MAX_SCHEDULE_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+                    .build())
+            .build();
+
+    List<SpanData> spans = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      spans.add(createEndedSpan(SPAN_NAME_1).toSpanData());
+    }
+
+    spanExporter.succeed();
+
+    await()
+        .untilAsserted(
+            () -> assertThat(spanExporter.getExported()).containsExactlyElementsOf(spans));
+  }
+
+  @Test
+  void lockFreeQueue_forceExport() {
+    WaitingSpanExporter waitingSpanExporter =
+        new WaitingSpanExporter(100, CompletableResultCode.ofSuccess(), 1);
+    BatchSpanProcessor batchSpanProcessor =
+        BatchSpanProcessor.builder(waitingSpanExporter)
+            .setUseLockFreeQueue(true)
+            .setMaxQueueSize(10_000)
+            .setMaxExportBatchSize(49)
+            .setScheduleDelay(10, TimeUnit.SECONDS)
+            .build();
+
+    sdkTracerProvider = SdkTracerProvider.builder().addSpanProcessor(batchSpanProcessor).build();
+    for (int i = 0; i < 100; i++) {
+      createEndedSpan("notExported");
+    }
+    List<SpanData> exported = waitingSpanExporter.waitForExport();
+    assertThat(exported).isNotNull();
+    assertThat(exported.size()).isEqualTo(98);
+
+    batchSpanProcessor.forceFlush().join(10, TimeUnit.SECONDS);
+    exported = waitingSpanExporter.getExported();
+    assertThat(exported).isNotNull();
+    assertThat(exported.size()).isEqualTo(2);
+  }
+
+  @Test
+  @Timeout(10)
+  void concurrentExports() {
+    PendingSpanExporter spanExporter = new PendingSpanExporter();
+    BatchSpanProcessor batchSpanProcessor =
+        BatchSpanProcessor.builder(spanExporter)
+            .setMaxExportBatchSize(1)
+            .setMaxConcurrentExports(2)
+            .setScheduleDelay(10, TimeUnit.SECONDS)
+            .build();
+    sdkTracerProvider = SdkTracerProvider.builder().addSpanProcessor(batchSpanProcessor).build();
+
+    ReadableSpan span1 = createEndedSpan(SPAN_NAME_1);
+    ReadableSpan span2 = createEndedSpan(SPAN_NAME_2);
+    ReadableSpan span3 = createEndedSpan(SPAN_NAME_1);
+
+    // Two batches are exported without waiting for the first one to complete.
+    await()
+        .untilAsserted(
+            () ->
+                assertThat(spanExporter.exported)
+                    .containsExactly(
+                        Collections.singletonList(span1.toSpanData()),
+                        Collections.singletonList(span2.toSpanData())));
+
+    CompletableResultCode flushResult = batchSpanProcessor.forceFlush();
+    spanExporter.results.poll().succeed();
+    await()
+        .untilAsserted(
+            () ->
+                assertThat(spanExporter.exported)
+                    .containsExactly(
+                        Collections.singletonList(span1.toSpanData()),
+                        Collections.singletonList(span2.toSpanData()),
+                        Collections.singletonList(span3.toSpanData())));
+
+    // The flush completes once every pending export completed.
+    assertThat(flushResult.isDone()).isFalse();
+    spanExporter.results.poll().succeed();
+    assertThat(flushResult.isDone()).isFalse();
+    spanExporter.results.poll().succeed();
+    assertThat(flushResult.join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+  }
+
+  @Test
+  @Timeout(10)
+  void sharded_byThread() throws InterruptedException {
+    InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    BatchSpanProcessor batchSpanProcessor =
+        BatchSpanProcessor.builder(spanExporter)
+            .setNumberOfShards(4)
+            .setScheduleDelay(10, TimeUnit.SECONDS)
+            .build();
+    sdkTracerProvider = SdkTracerProvider.builder().addSpanProcessor(batchSpanProcessor).build();
+
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                for (int j = 0; j < 100; j++) {
+                  createEndedSpan(SPAN_NAME_1);
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(batchSpanProcessor.forceFlush().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+    assertThat(spanExporter.getFinishedSpanItems()).hasSize(400);
+  }
+
+  @Test
+  @Timeout(10)
+  void sharded_byTraceId() {
+    InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    sdkTracerProvider =
+        SdkTracerProvider.builder()
+            .addSpanProcessor(
+                BatchSpanProcessor.builder(spanExporter)
+                    .setNumberOfShards(3)
+                    .setShardByTraceId(true)
+                    .setMaxQueueSize(1000)
+                    .setScheduleDelay(10, TimeUnit.SECONDS)
+                    .build())
+            .build();
+
+    for (int i = 0; i < 300; i++) {
+      createEndedSpan(SPAN_NAME_1);
+    }
+
+    assertThat(sdkTracerProvider.forceFlush().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+    assertThat(spanExporter.getFinishedSpanItems()).hasSize(300);
+    assertThat(sdkTracerProvider.shutdown().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+  }
+
+  @Test
+  @Timeout(10)
+  void maxQueueBytes_dropsSpansLargerThanTheBudget() {
+    InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    sdkTracerProvider =
+        SdkTracerProvider.builder()
+            .addSpanProcessor(
+                BatchSpanProcessor.builder(spanExporter)
+                    .setMaxQueueBytes(4096)
+                    .setScheduleDelay(10, TimeUnit.SECONDS)
+                    .build())
+            .build();
+
+    char[] payload = new char[4096];
+    Arrays.fill(payload, 'a');
+    Tracer tracer = sdkTracerProvider.get(getClass().getName());
+    tracer.spanBuilder("large").setAttribute("payload", new String(payload)).startSpan().end();
+    ReadableSpan span1 = createEndedSpan(SPAN_NAME_1);
+    ReadableSpan span2 = createEndedSpan(SPAN_NAME_2);
+
+    assertThat(sdkTracerProvider.forceFlush().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+    assertThat(spanExporter.getFinishedSpanItems())
+        .containsExactly(span1.toSpanData(), span2.toSpanData());
+
+    // The budget is released once the spans are exported.
+    for (int i = 0; i < 100; i++) {
+      createEndedSpan(SPAN_NAME_1);
+      assertThat(sdkTracerProvider.forceFlush().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+    }
+    assertThat(spanExporter.getFinishedSpanItems()).hasSize(102);
+  }
+
+  @Test
+  @Timeout(10)
+  void maxQueueBytes_doesNotRenderLazyStackTraces() {
+    InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    sdkTracerProvider =
+        SdkTracerProvider.builder()
+            .setTraceConfig(TraceConfig.builder().setRenderStackTracesLazily(true).build())
+            .addSpanProcessor(
+                BatchSpanProcessor.builder(spanExporter)
+                    .setMaxQueueBytes(1024 * 1024)
+                    .setScheduleDelay(10, TimeUnit.SECONDS)
+                    .build())
+            .build();
+
+    RenderTrackingException exception = new RenderTrackingException();
+    Span span = sdkTracerProvider.get(getClass().getName()).spanBuilder(SPAN_NAME_1).startSpan();
+    span.recordException(exception);
+    span.end();
+
+    // Neither admitting the span to the queue nor exporting it reads the stack trace.
+    assertThat(sdkTracerProvider.forceFlush().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+    assertThat(spanExporter.getFinishedSpanItems()).hasSize(1);
+    assertThat(exception.rendered.get()).isFalse();
+
+    spanExporter
+        .getFinishedSpanItems()
+        .get(0)
+        .getEvents()
+        .get(0)
+        .getAttributes()
+        .forEach((k, v) -> {});
+    assertThat(exception.rendered.get()).isTrue();
+  }
+
+  @Test
+  @Timeout(10)
+  void backpressure_dropOldest() {
+    WaitingSpanExporter waitingSpanExporter =
+        new WaitingSpanExporter(5, CompletableResultCode.ofSuccess());
+    sdkTracerProvider =
+        SdkTracerProvider.builder()
+            .addSpanProcessor(
+                BatchSpanProcessor.builder(
+                        SpanExporter.composite(
+                            Arrays.asList(blockingSpanExporter, waitingSpanExporter)))
+                    .setBackpressurePolicy(BackpressurePolicy.DROP_OLDEST)
+                    .setMaxQueueSize(4)
+                    .setMaxExportBatchSize(1)
+                    .setScheduleDelay(MAX_SCHEDULE_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+                    .build())
+            .build();
+
+    List<SpanData> spansToExport = new ArrayList<>();
+    spansToExport.add(createEndedSpan("blocking_span").toSpanData());
+    blockingSpanExporter.waitUntilIsBlocked();
+    for (int i = 0; i < 10; i++) {
+      SpanData span = createEndedSpan("span_" + i).toSpanData();
+      if (i >= 6) {
+        spansToExport.add(span);
+      }
+    }
+    blockingSpanExporter.unblock();
+
+    assertThat(waitingSpanExporter.waitForExport()).containsExactlyElementsOf(spansToExport);
+  }
+
+  @Test
+  @Timeout(10)
+  void backpressure_dropOldest_concurrentOverload() throws InterruptedException {
+    InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    BatchSpanProcessor batchSpanProcessor =
+        BatchSpanProcessor.builder(spanExporter)
+            .setBackpressurePolicy(BackpressurePolicy.DROP_OLDEST)
+            .setMaxQueueSize(1)
+            .setMaxExportBatchSize(1)
+            .setScheduleDelay(1, TimeUnit.MILLISECONDS)
+            .build();
+    sdkTracerProvider = SdkTracerProvider.builder().addSpanProcessor(batchSpanProcessor).build();
+
+    // With room for a single span, the producers keep emptying the queue while the worker polls
+    // it.
+    ReadableSpan span = createEndedSpan(SPAN_NAME_1);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                for (int j = 0; j < 200_000; j++) {
+                  batchSpanProcessor.onEnd(span);
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    // The worker survived the overload and still exports.
+    ReadableSpan last = createEndedSpan(SPAN_NAME_2);
+    assertThat(batchSpanProcessor.forceFlush().join(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+    assertThat(spanExporter.getFinishedSpanItems()).contains(last.toSpanData());
+  }
+
+  @Test
+  @Timeout(10)
+  void backpressure_priority() {
+    WaitingSpanExporter waitingSpanExporter =
+        new WaitingSpanExporter(5, CompletableResultCode.ofSuccess());
+    sdkTracerProvider =
+        SdkTracerProvider.builder()
+            .addSpanProcessor(
+                BatchSpanProcessor.builder(
+                        SpanExporter.composite(
+                            Arrays.asList(blockingSpanExporter, waitingSpanExporter)))
+                    .setBackpressurePolicy(BackpressurePolicy.PRIORITY)
+                    .setMaxQueueSize(4)
+                    .setMaxExportBatchSize(1)
+                    .setScheduleDelay(MAX_SCHEDULE_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+                    .build())
+            .build();
+
+    List<SpanData> spansToExport = new ArrayList<>();
+    spansToExport.add(createEndedSpan("blocking_span").toSpanData());
+    blockingSpanExporter.waitUntilIsBlocked();
+    List<SpanData> okSpans = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      okSpans.add(createEndedSpan("ok_" + i).toSpanData());
+    }
+    // The error spans replace the oldest OK spans and are exported first, further OK spans are
+    // dropped.
+    List<SpanData> errorSpans = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      Span span = sdkTracerProvider.get(getClass().getName()).spanBuilder("error_" + i).startSpan();
+      span.setStatus(StatusCode.ERROR);
+      span.end();
+      errorSpans.add(((ReadableSpan) span).toSpanData());
+    }
+    createEndedSpan("ok_4");
+    spansToExport.addAll(errorSpans);
+    spansToExport.addAll(okSpans.subList(2, 4));
+    blockingSpanExporter.unblock();
+
+    assertThat(waitingSpanExporter.waitForExport()).containsExactlyElementsOf(spansToExport);
+  }
+
+  @Test
+  @Timeout(10)
+  void backpressure_block() {
+    assertBlocksThenDrops(/* useLockFreeQueue= */ false);
+  }
+
+  @Test
+  @Timeout(10)
+  void backpressure_block_lockFreeQueue() {
+    assertBlocksThenDrops(/* useLockFreeQueue= */ true);
+  }
+
+  private void assertBlocksThenDrops(boolean useLockFreeQueue) {
+    WaitingSpanExporter waitingSpanExporter =
+        new WaitingSpanExporter(2, CompletableResultCode.ofSuccess());
+    sdkTracerProvider =
+        SdkTracerProvider.builder()
+            .addSpanProcessor(
+                BatchSpanProcessor.builder(
+                        SpanExporter.composite(
+                            Arrays.asList(blockingSpanExporter, waitingSpanExporter)))
+                    .setBackpressurePolicy(BackpressurePolicy.BLOCK)
+                    .setBlockTimeout(50, TimeUnit.MILLISECONDS)
+                    .setUseLockFreeQueue(useLockFreeQueue)
+                    .setMaxQueueSize(1)
+                    .setMaxExportBatchSize(1)
+                    .setScheduleDelay(MAX_SCHEDULE_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+                    .build())
+            .build();
+
+    List<SpanData> spansToExport = new ArrayList<>();
+    spansToExport.add(createEndedSpan("blocking_span").toSpanData());
+    blockingSpanExporter.waitUntilIsBlocked();
+    spansToExport.add(createEndedSpan("span_1").toSpanData());
+    // The worker cannot make room in the queue while the exporter is blocked.
+    long startNanos = System.nanoTime();
+    createEndedSpan("span_2");
+    assertThat(System.nanoTime() - startNanos)
+        .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    blockingSpanExporter.unblock();
+
+    assertThat(waitingSpanExporter.waitForExport()).containsExactlyElementsOf(spansToExport);
+  }
+
+  @Test
+  @Timeout(10)
+  void adaptiveBatching_exportsPromptlyWhenIdle() {
+    WaitingSpanExporter waitingSpanExporter =
+        new WaitingSpanExporter(1, CompletableResultCode.ofSuccess());
+    sdkTracerProvider =
+        SdkTracerProvider.builder()
+            .addSpanProcessor(
+                BatchSpanProcessor.builder(waitingSpanExporter)
+                    .setAdaptiveBatching(true)
+                    .setMinScheduleDelay(10, TimeUnit.MILLISECONDS)
+                    .setScheduleDelay(200, TimeUnit.MILLISECONDS)
+                    .build())
+            .build();
+
+    // Every scheduled export of the idle processor halves the delay down to the minimum, so the
+    // span is exported long before the configured maximum delay would allow when ended later.
+    ReadableSpan span = createEndedSpan(SPAN_NAME_1);
+    assertThat(waitingSpanExporter.waitForExport()).containsExactly(span.toSpanData());
+    await()
+        .atMost(5, TimeUnit.SECONDS)
+        .untilAsserted(
+            () -> {
+              waitingSpanExporter.reset();
+              ReadableSpan next = createEndedSpan(SPAN_NAME_2);
+              long startNanos = System.nanoTime();
+              assertThat(waitingSpanExporter.waitForExport()).containsExactly(next.toSpanData());
+              assertThat(System.nanoTime() - startNanos)
+                  .isLessThan(TimeUnit.MILLISECONDS.toNanos(100));
+            });
+  }
+
   @Test
   void exportSpansToMultipleServices() {
     WaitingSpanExporter waitingSpanExporter =
@@ -567,6 +1052,31 @@ class BatchSpanProcessorTest {
     }
   }
 
+  private static class PendingSpanExporter implements SpanExporter {
+
+    private final Queue<CompletableResultCode> results = new ConcurrentLinkedQueue<>();
+
+    private final Queue<List<SpanData>> exported = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+      CompletableResultCode result = new CompletableResultCode();
+      results.add(result);
+      exported.add(new ArrayList<>(spans));
+      return result;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+      return CompletableResultCode.ofSuccess();
+    }
+  }
+
   private static class CompletableSpanExporter implements SpanExporter {
 
     private final List<CompletableResultCode> results = new ArrayList<>();
@@ -679,4 +1189,22 @@ class BatchSpanProcessorTest {
       this.countDownLatch = new CountDownLatch(numberToWaitFor);
     }
   }
+
+  private static final class RenderTrackingException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final AtomicBoolean rendered = new AtomicBoolean();
+
+    @Override
+    public StackTraceElement[] getStackTrace() {
+      rendered.set(true);
+      return super.getStackTrace();
+    }
+
+    @Override
+    public void printStackTrace(PrintWriter s) {
+      rendered.set(true);
+      super.printStackTrace(s);
+    }
+  }
 }
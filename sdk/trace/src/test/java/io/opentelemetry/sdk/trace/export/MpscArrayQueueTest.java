@@ -0,0 +1,118 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Test;
+
+class MpscArrayQueueTest {
+
+  @Test
+  void offerAndPoll() {
+    MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(3);
+    assertThat(queue.size()).isEqualTo(0);
+    assertThat(queue.poll()).isNull();
+
+    assertThat(queue.offer(1)).isTrue();
+    assertThat(queue.offer(2)).isTrue();
+    assertThat(queue.offer(3)).isTrue();
+    // Capacity is not rounded up to the internal buffer size.
+    assertThat(queue.offer(4)).isFalse();
+    assertThat(queue.size()).isEqualTo(3);
+
+    assertThat(queue.poll()).isEqualTo(1);
+    assertThat(queue.offer(5)).isTrue();
+    assertThat(queue.poll()).isEqualTo(2);
+    assertThat(queue.poll()).isEqualTo(3);
+    assertThat(queue.poll()).isEqualTo(5);
+    assertThat(queue.poll()).isNull();
+    assertThat(queue.size()).isEqualTo(0);
+  }
+
+  @Test
+  void offerWithTimeout() throws InterruptedException {
+    MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(1);
+    assertThat(queue.offer(1, 0)).isTrue();
+
+    long startNanos = System.nanoTime();
+    assertThat(queue.offer(2, TimeUnit.MILLISECONDS.toNanos(20))).isFalse();
+    assertThat(System.nanoTime() - startNanos)
+        .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+
+    Thread consumer =
+        new Thread(
+            () -> {
+              LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+              queue.poll();
+            });
+    consumer.start();
+    assertThat(queue.offer(3, TimeUnit.SECONDS.toNanos(10))).isTrue();
+    consumer.join();
+    assertThat(queue.poll()).isEqualTo(3);
+  }
+
+  @Test
+  void invalidArguments() {
+    assertThatThrownBy(() -> new MpscArrayQueue<>(0)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new MpscArrayQueue<>(1).offer(null))
+        .isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void concurrentProducers() throws InterruptedException {
+    int numProducers = 4;
+    int numElements = 10_000;
+    MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(64);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> producers = new ArrayList<>();
+    for (int p = 0; p < numProducers; p++) {
+      int producer = p;
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+                }
+                for (int i = 0; i < numElements; i++) {
+                  while (!queue.offer(producer * numElements + i)) {
+                    Thread.yield();
+                  }
+                }
+              });
+      thread.start();
+      producers.add(thread);
+    }
+    start.countDown();
+
+    // Elements of each producer must come out in the order they were offered.
+    int[] next = new int[numProducers];
+    int received = 0;
+    while (received < numProducers * numElements) {
+      Integer element = queue.poll();
+      if (element == null) {
+        continue;
+      }
+      int producer = element / numElements;
+      assertThat(element % numElements).isEqualTo(next[producer]);
+      next[producer]++;
+      received++;
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    assertThat(queue.poll()).isNull();
+  }
+}
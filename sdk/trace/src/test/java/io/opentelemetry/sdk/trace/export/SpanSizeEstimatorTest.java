@@ -0,0 +1,108 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.config.TraceConfig;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class SpanSizeEstimatorTest {
+
+  private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder().build();
+
+  @Test
+  void emptySpan() {
+    assertThat(SpanSizeEstimator.estimate(endedSpan(span("name"))))
+        .isEqualTo(SpanSizeEstimator.estimate(endedSpan(span("eman"))))
+        .isPositive();
+  }
+
+  @Test
+  void countsContent() {
+    long empty = SpanSizeEstimator.estimate(endedSpan(span("name")));
+
+    long withAttribute =
+        SpanSizeEstimator.estimate(endedSpan(span("name").setAttribute("key", "value")));
+    assertThat(withAttribute).isGreaterThan(empty);
+    long withLongerAttribute =
+        SpanSizeEstimator.estimate(endedSpan(span("name").setAttribute("key", "value value")));
+    assertThat(withLongerAttribute).isEqualTo(withAttribute + 2 * " value".length());
+    long withArrayAttribute =
+        SpanSizeEstimator.estimate(
+            endedSpan(
+                span("name")
+                    .setAttribute(
+                        AttributeKey.stringArrayKey("key"), Arrays.asList("value", "value"))));
+    assertThat(withArrayAttribute).isGreaterThan(withAttribute);
+
+    Span withEvent = span("name");
+    withEvent.addEvent("event", Attributes.of(AttributeKey.longKey("key"), 1L));
+    assertThat(SpanSizeEstimator.estimate(endedSpan(withEvent))).isGreaterThan(empty);
+
+    Span withLink =
+        tracerProvider
+            .get("test")
+            .spanBuilder("name")
+            .addLink(SpanContext.getInvalid(), Attributes.of(AttributeKey.booleanKey("key"), true))
+            .startSpan();
+    assertThat(SpanSizeEstimator.estimate(endedSpan(withLink))).isGreaterThan(empty);
+  }
+
+  @Test
+  void lazyStackTrace_estimatedFromHintThenRenderedLength() {
+    SdkTracerProvider lazyTracerProvider =
+        SdkTracerProvider.builder()
+            .setTraceConfig(
+                TraceConfig.builder()
+                    .setRenderStackTracesLazily(true)
+                    .setMaxNumberOfStackTraceFrames(2)
+                    .build())
+            .build();
+    Span span = lazyTracerProvider.get("test").spanBuilder("name").startSpan();
+    span.recordException(new IllegalStateException("error"));
+    SpanData spanData = endedSpan(span);
+
+    long hinted = SpanSizeEstimator.estimate(spanData);
+    String stackTrace =
+        spanData.getEvents().get(0).getAttributes().get(SemanticAttributes.EXCEPTION_STACKTRACE);
+    long rendered = SpanSizeEstimator.estimate(spanData);
+
+    assertThat(stackTrace).isNotNull();
+    assertThat(rendered).isNotEqualTo(hinted);
+    // The hint for two frames is much smaller than a full stack trace.
+    assertThat(hinted).isLessThan(2048);
+    Span eager = span("name");
+    eager.addEvent(
+        "exception",
+        Attributes.of(
+            SemanticAttributes.EXCEPTION_TYPE,
+            IllegalStateException.class.getCanonicalName(),
+            SemanticAttributes.EXCEPTION_MESSAGE,
+            "error",
+            SemanticAttributes.EXCEPTION_STACKTRACE,
+            stackTrace));
+    assertThat(rendered).isEqualTo(SpanSizeEstimator.estimate(endedSpan(eager)));
+  }
+
+  private Span span(String name) {
+    return tracerProvider.get("test").spanBuilder(name).startSpan();
+  }
+
+  private static SpanData endedSpan(Span span) {
+    span.end();
+    return ((ReadableSpan) span).toSpanData();
+  }
+}
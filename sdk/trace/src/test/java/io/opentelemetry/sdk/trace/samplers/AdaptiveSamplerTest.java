@@ -0,0 +1,261 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.samplers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.Labels;
+import io.opentelemetry.api.metrics.AsynchronousInstrument.DoubleResult;
+import io.opentelemetry.api.metrics.DoubleValueObserver;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.internal.TestClock;
+import io.opentelemetry.sdk.trace.IdGenerator;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class AdaptiveSamplerTest {
+  private static final String SPAN_NAME = "MySpanName";
+  private static final Span.Kind SPAN_KIND = Span.Kind.INTERNAL;
+  private static final long BUCKET_MILLIS = 100;
+
+  private static final IdGenerator idsGenerator = IdGenerator.random();
+
+  private final TestClock clock = TestClock.create();
+  private final AdaptiveSampler sampler = new AdaptiveSampler(100, clock);
+
+  @Test
+  void invalidTarget() {
+    assertThatThrownBy(() -> Sampler.adaptive(0)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Sampler.adaptive(-1)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Sampler.adaptive(Double.NaN))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Sampler.adaptive(Double.POSITIVE_INFINITY))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void reportsRatioToMeterProvider() {
+    MeterProvider meterProvider = mock(MeterProvider.class);
+    Meter meter = mock(Meter.class);
+    DoubleValueObserver.Builder builder = mock(DoubleValueObserver.Builder.class, RETURNS_SELF);
+    when(meterProvider.get("io.opentelemetry.sdk.trace")).thenReturn(meter);
+    when(meter.doubleValueObserverBuilder("samplingRatio")).thenReturn(builder);
+
+    Sampler first = Sampler.adaptive(100, meterProvider);
+    Sampler second = Sampler.adaptive(100, meterProvider);
+    // The ratio of both samplers is reported by the observer registered with the first one.
+    ArgumentCaptor<Consumer<DoubleResult>> updater = ArgumentCaptor.forClass(Consumer.class);
+    verify(builder).setUpdater(updater.capture());
+    DoubleResult result = mock(DoubleResult.class);
+    updater.getValue().accept(result);
+
+    verify(result).observe(1.0, Labels.of("sampler", "AdaptiveSampler", "samplerId", "0"));
+    verify(result).observe(1.0, Labels.of("sampler", "AdaptiveSampler", "samplerId", "1"));
+    // Keeps the weakly held samplers reachable until they have been observed.
+    assertThat(first).isNotSameAs(second);
+  }
+
+  @Test
+  void discardedSamplerIsCollected() {
+    WeakReference<Sampler> sampler =
+        new WeakReference<>(Sampler.adaptive(100, mock(MeterProvider.class, RETURNS_DEEP_STUBS)));
+
+    await()
+        .atMost(Duration.ofSeconds(10))
+        .until(
+            () -> {
+              System.gc();
+              return sampler.get() == null;
+            });
+  }
+
+  @Test
+  void samplesEverythingInitially() {
+    assertThat(sampler.getRatio()).isEqualTo(1.0);
+    assertThat(sampleRoots(1000)).isEqualTo(1000);
+  }
+
+  @Test
+  void adjustsRatioToRootSpanRate() {
+    // 10000 root spans per second.
+    sampleRoots(1000);
+    clock.advanceMillis(BUCKET_MILLIS);
+    update();
+    assertThat(sampler.getRatio()).isCloseTo(0.01, within(1e-9));
+
+    // Traffic halves, the window still includes the first interval.
+    sampleRoots(500);
+    clock.advanceMillis(BUCKET_MILLIS);
+    update();
+    assertThat(sampler.getRatio()).isCloseTo(100.0 / 7500, within(1e-9));
+
+    // Low traffic, everything is sampled.
+    for (int i = 0; i < AdaptiveSampler.NUMBER_OF_BUCKETS; i++) {
+      sampleRoots(5);
+      clock.advanceMillis(BUCKET_MILLIS);
+      update();
+    }
+    assertThat(sampler.getRatio()).isEqualTo(1.0);
+  }
+
+  @Test
+  void samplesTargetRate() {
+    // 20000 root spans per second for two seconds.
+    for (int i = 0; i < AdaptiveSampler.NUMBER_OF_BUCKETS; i++) {
+      sampleRoots(2000);
+      clock.advanceMillis(BUCKET_MILLIS);
+    }
+    int sampled = 0;
+    for (int i = 0; i < AdaptiveSampler.NUMBER_OF_BUCKETS; i++) {
+      sampled += sampleRoots(2000);
+      clock.advanceMillis(BUCKET_MILLIS);
+    }
+    assertThat(sampled).isBetween(70, 130);
+  }
+
+  @Test
+  void idlePeriodResetsRatio() {
+    sampleRoots(1000);
+    clock.advanceMillis(BUCKET_MILLIS);
+    update();
+    assertThat(sampler.getRatio()).isLessThan(1.0);
+
+    // 1000 root spans over 10 seconds, 100 per second.
+    clock.advanceMillis(10_000 - BUCKET_MILLIS);
+    update();
+    assertThat(sampler.getRatio()).isEqualTo(1.0);
+  }
+
+  @Test
+  void childSpansAreNotCounted() {
+    for (int i = 0; i < 1000; i++) {
+      shouldSample(localParentContext(idsGenerator.generateTraceId()));
+    }
+    clock.advanceMillis(BUCKET_MILLIS);
+    update();
+    assertThat(sampler.getRatio()).isEqualTo(1.0);
+  }
+
+  @Test
+  void remoteParentIsCounted() {
+    for (int i = 0; i < 1000; i++) {
+      SpanContext remoteParent =
+          SpanContext.createFromRemoteParent(
+              idsGenerator.generateTraceId(),
+              idsGenerator.generateSpanId(),
+              TraceFlags.getSampled(),
+              TraceState.getDefault());
+      sampler.shouldSample(
+          Context.root().with(Span.wrap(remoteParent)),
+          remoteParent.getTraceIdAsHexString(),
+          SPAN_NAME,
+          SPAN_KIND,
+          Attributes.empty(),
+          Collections.emptyList());
+    }
+    clock.advanceMillis(BUCKET_MILLIS);
+    update();
+    assertThat(sampler.getRatio()).isCloseTo(0.01, within(1e-9));
+  }
+
+  @Test
+  void sameDecisionForAllSpansOfTrace() {
+    sampleRoots(1000);
+    clock.advanceMillis(BUCKET_MILLIS);
+    update();
+
+    for (int i = 0; i < 1000; i++) {
+      String traceId = idsGenerator.generateTraceId();
+      SamplingResult.Decision root = shouldSample(Context.root(), traceId).getDecision();
+      SamplingResult.Decision child =
+          shouldSample(localParentContext(traceId), traceId).getDecision();
+      assertThat(child).isEqualTo(root);
+    }
+  }
+
+  @Test
+  void recordsRatio() {
+    SamplingResult result = shouldSample(Context.root());
+    assertThat(result.getDecision()).isEqualTo(SamplingResult.Decision.RECORD_AND_SAMPLE);
+    assertThat(result.getAttributes())
+        .isEqualTo(
+            Attributes.of(
+                AdaptiveSampler.SAMPLER_TYPE, "adaptive", AdaptiveSampler.SAMPLER_PARAM, 1.0));
+
+    sampleRoots(1000);
+    clock.advanceMillis(BUCKET_MILLIS);
+    update();
+    SamplingResult sampled;
+    do {
+      sampled = shouldSample(localParentContext(idsGenerator.generateTraceId()));
+    } while (sampled.getDecision() != SamplingResult.Decision.RECORD_AND_SAMPLE);
+    // 1001 root spans in 100ms.
+    assertThat(sampled.getAttributes().get(AdaptiveSampler.SAMPLER_PARAM))
+        .isCloseTo(100.0 / 10010, within(1e-9));
+  }
+
+  @Test
+  void description() {
+    assertThat(Sampler.adaptive(15).getDescription()).isEqualTo("AdaptiveSampler{15.00}");
+    assertThat(Sampler.adaptive(15).toString()).isEqualTo("AdaptiveSampler{15.00}");
+  }
+
+  // Returns the number of root spans sampled.
+  private int sampleRoots(int count) {
+    int sampled = 0;
+    for (int i = 0; i < count; i++) {
+      if (shouldSample(Context.root()).getDecision() == SamplingResult.Decision.RECORD_AND_SAMPLE) {
+        sampled++;
+      }
+    }
+    return sampled;
+  }
+
+  // Lets the sampler update its ratio without counting a root span.
+  private void update() {
+    shouldSample(localParentContext(idsGenerator.generateTraceId()));
+  }
+
+  private static Context localParentContext(String traceId) {
+    return Context.root()
+        .with(
+            Span.wrap(
+                SpanContext.create(
+                    traceId,
+                    idsGenerator.generateSpanId(),
+                    TraceFlags.getSampled(),
+                    TraceState.getDefault())));
+  }
+
+  private SamplingResult shouldSample(Context parentContext) {
+    return shouldSample(parentContext, idsGenerator.generateTraceId());
+  }
+
+  private SamplingResult shouldSample(Context parentContext, String traceId) {
+    return sampler.shouldSample(
+        parentContext, traceId, SPAN_NAME, SPAN_KIND, Attributes.empty(), Collections.emptyList());
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.trace.samplers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.internal.TestClock;
+import io.opentelemetry.sdk.trace.IdGenerator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class RateLimitedSamplerTest {
+  private static final String SPAN_NAME = "MySpanName";
+  private static final Span.Kind SPAN_KIND = Span.Kind.INTERNAL;
+
+  private static final IdGenerator idsGenerator = IdGenerator.random();
+
+  private final String traceId = idsGenerator.generateTraceId();
+  private final String parentSpanId = idsGenerator.generateSpanId();
+  private final Context sampledParentContext =
+      Context.root()
+          .with(
+              Span.wrap(
+                  SpanContext.create(
+                      traceId, parentSpanId, TraceFlags.getSampled(), TraceState.getDefault())));
+  private final TestClock clock = TestClock.create();
+
+  @Test
+  void invalidRate() {
+    assertThatThrownBy(() -> Sampler.rateLimited(0)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Sampler.rateLimited(-1)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Sampler.rateLimited(Double.NaN))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Sampler.rateLimited(Double.POSITIVE_INFINITY))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void numberOfStripes() {
+    assertThat(RateLimitedSampler.create(0.5).getNumberOfStripes()).isEqualTo(1);
+    assertThat(RateLimitedSampler.create(1).getNumberOfStripes()).isEqualTo(1);
+    int processors = Runtime.getRuntime().availableProcessors();
+    int stripes = RateLimitedSampler.create(1_000_000).getNumberOfStripes();
+    assertThat(Integer.bitCount(stripes)).isEqualTo(1);
+    assertThat(stripes).isGreaterThanOrEqualTo(processors).isLessThan(2 * processors);
+  }
+
+  @Test
+  void burstAndRefill() {
+    RateLimitedSampler sampler = new RateLimitedSampler(2, clock, 1);
+
+    assertThat(sample(sampler)).isEqualTo(2);
+
+    // Not enough for a span.
+    clock.advanceMillis(250);
+    assertThat(sample(sampler)).isEqualTo(0);
+
+    clock.advanceMillis(250);
+    assertThat(sample(sampler)).isEqualTo(1);
+
+    // Enough for ten spans, but the balance is capped at one second.
+    clock.advanceMillis(5000);
+    assertThat(sample(sampler)).isEqualTo(2);
+  }
+
+  @Test
+  void lessThanOneSpanPerSecond() {
+    RateLimitedSampler sampler = new RateLimitedSampler(0.5, clock, 1);
+
+    assertThat(sample(sampler)).isEqualTo(1);
+    clock.advanceMillis(1000);
+    assertThat(sample(sampler)).isEqualTo(0);
+    clock.advanceMillis(1000);
+    assertThat(sample(sampler)).isEqualTo(1);
+  }
+
+  @Test
+  void singleThreadUsesAllStripes() {
+    RateLimitedSampler sampler = new RateLimitedSampler(100, clock, 8);
+
+    assertThat(sampler.getNumberOfStripes()).isEqualTo(8);
+    // 8 stripes of 12.5 spans per second each hold 12 whole spans.
+    assertThat(sample(sampler)).isEqualTo(96);
+    clock.advanceMillis(80);
+    assertThat(sample(sampler)).isEqualTo(8);
+  }
+
+  @Test
+  void ignoresParent() {
+    RateLimitedSampler sampler = new RateLimitedSampler(1, clock, 1);
+
+    assertThat(shouldSample(sampler, sampledParentContext).getDecision())
+        .isEqualTo(SamplingResult.Decision.RECORD_AND_SAMPLE);
+    assertThat(shouldSample(sampler, sampledParentContext).getDecision())
+        .isEqualTo(SamplingResult.Decision.DROP);
+  }
+
+  @Test
+  void parentBased() {
+    Sampler sampler = Sampler.parentBased(new RateLimitedSampler(1, clock, 1));
+
+    assertThat(shouldSample(sampler, Context.root()).getDecision())
+        .isEqualTo(SamplingResult.Decision.RECORD_AND_SAMPLE);
+    assertThat(shouldSample(sampler, Context.root()).getDecision())
+        .isEqualTo(SamplingResult.Decision.DROP);
+    // Children of sampled spans are sampled without taking from the budget.
+    assertThat(shouldSample(sampler, sampledParentContext).getDecision())
+        .isEqualTo(SamplingResult.Decision.RECORD_AND_SAMPLE);
+  }
+
+  @Test
+  void concurrentSampling() throws Exception {
+    int numberOfThreads = 8;
+    int spansPerThread = 1000;
+    RateLimitedSampler sampler =
+        new RateLimitedSampler(numberOfThreads * spansPerThread, clock, numberOfThreads);
+    ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+    AtomicInteger sampled = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < numberOfThreads; t++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                for (int i = 0; i < 2 * spansPerThread; i++) {
+                  if (shouldSample(sampler, Context.root()).getDecision()
+                      == SamplingResult.Decision.RECORD_AND_SAMPLE) {
+                    sampled.incrementAndGet();
+                  }
+                }
+              }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.SECONDS);
+
+    assertThat(sampled.get()).isEqualTo(numberOfThreads * spansPerThread);
+    assertThat(sample(sampler)).isEqualTo(0);
+  }
+
+  @Test
+  void description() {
+    assertThat(Sampler.rateLimited(15).getDescription()).isEqualTo("RateLimitedSampler{15.00}");
+    assertThat(Sampler.rateLimited(15).toString()).isEqualTo("RateLimitedSampler{15.00}");
+  }
+
+  // Returns the number of spans sampled until the first span is dropped.
+  private int sample(Sampler sampler) {
+    int sampled = 0;
+    while (shouldSample(sampler, Context.root()).getDecision()
+        == SamplingResult.Decision.RECORD_AND_SAMPLE) {
+      sampled++;
+    }
+    return sampled;
+  }
+
+  private SamplingResult shouldSample(Sampler sampler, Context parentContext) {
+    return sampler.shouldSample(
+        parentContext, traceId, SPAN_NAME, SPAN_KIND, Attributes.empty(), Collections.emptyList());
+  }
+}